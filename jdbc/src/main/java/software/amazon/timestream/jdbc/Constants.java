@@ -33,6 +33,7 @@ final class Constants {
   static final String AAD_IDP_NAME = "azuread";
   static final int MAX_FETCH_SIZE = 1000;
   static final int NUM_MILLISECONDS_IN_SECOND = 1000;
+  static final long NUM_NANOSECONDS_IN_SECOND = 1000000000L;
 
   static final String TABLE_TYPE = "TABLE";
   static final String YES_STRING = "YES";
@@ -50,6 +51,9 @@ final class Constants {
   // SQLSTATE code representing error occurred while validating the connection.
   static final String CONNECTION_FAILURE_SQL_STATE = "08006";
 
+  // SQLSTATE class of the errors after which a connection can no longer be used.
+  static final String CONNECTION_EXCEPTION_SQL_STATE_CLASS = "08";
+
   static final DateTimeFormatter DATE_TIME_FORMATTER = new DateTimeFormatterBuilder()
     .appendPattern("yyyy-MM-dd HH:mm:ss")
     .optionalStart()
@@ -45,6 +45,8 @@ class Conversions {
   private static final Logger LOGGER = LoggerFactory.getLogger(Conversions.class);
   static final Map<TimestreamDataType, Map<JdbcType, TimestreamConvertFunction<?>>> CONVERSIONS =
     Conversions.populateConversionMap();
+  private static final Map<TimestreamDataType, TimestreamConvertFunction<?>[]> CONVERTER_TABLES =
+    Conversions.populateConverterTables();
 
   private static final BigDecimal BYTE_MIN = new BigDecimal(Byte.MIN_VALUE);
   private static final BigDecimal BYTE_MAX = new BigDecimal(Byte.MAX_VALUE);
@@ -58,6 +60,20 @@ class Conversions {
   private static final BigDecimal LONG_MIN = new BigDecimal(Long.MIN_VALUE);
   private static final BigDecimal LONG_MAX = new BigDecimal(Long.MAX_VALUE);
 
+  /**
+   * Exclusive bounds of the doubles whose integer part fits in the target type.
+   */
+  private static final double INT_LOWER_BOUND = Integer.MIN_VALUE - 1.0;
+  private static final double INT_UPPER_BOUND = Integer.MAX_VALUE + 1.0;
+  private static final double LONG_LOWER_BOUND = Math.nextDown(-0x1p63);
+  private static final double LONG_UPPER_BOUND = 0x1p63;
+
+  /**
+   * Maximum number of digits of a decimal string for which the parsed double has the same integer
+   * part and the same fractional/integral nature as the exact decimal value.
+   */
+  private static final int MAX_EXACT_DIGITS = 15;
+
   /**
    * Populate a {@link EnumMap} with lambdas that converts data at a cell from a source data type to
    * a target data type.
@@ -84,6 +100,28 @@ class Conversions {
     return conversionMap;
   }
 
+  /**
+   * Flatten the conversion map into one table per source type, indexed by the ordinal of the target
+   * {@link JdbcType}.
+   *
+   * @return a {@link EnumMap} of conversion tables, with {@code null} for unsupported target types.
+   */
+  private static Map<TimestreamDataType, TimestreamConvertFunction<?>[]> populateConverterTables() {
+    final Map<TimestreamDataType, TimestreamConvertFunction<?>[]> tables =
+      new EnumMap<>(TimestreamDataType.class);
+
+    for (final TimestreamDataType sourceType : TimestreamDataType.values()) {
+      final TimestreamConvertFunction<?>[] table = new TimestreamConvertFunction<?>[JdbcType.values().length];
+      final Map<JdbcType, TimestreamConvertFunction<?>> conversions = CONVERSIONS.get(sourceType);
+      if (conversions != null) {
+        conversions.forEach((targetType, fn) -> table[targetType.ordinal()] = fn);
+      }
+      tables.put(sourceType, table);
+    }
+
+    return tables;
+  }
+
   /**
    * Add common numeric conversions to the given set of conversions.
    *
@@ -326,16 +364,16 @@ class Conversions {
       JdbcType.class);
 
     timestampConversions.put(JdbcType.DATE,
-      (data, callback) -> Date.valueOf(LocalDateTime
-        .parse(data.getScalarValue(), Constants.DATE_TIME_FORMATTER)
+      (data, callback) -> Date.valueOf(TimestreamDateTimeParser
+        .parseDateTime(data.getScalarValue())
         .toLocalDate()));
     timestampConversions.put(JdbcType.TIME,
-      (data, callback) -> Time.valueOf(LocalDateTime
-        .parse(data.getScalarValue(), Constants.DATE_TIME_FORMATTER)
+      (data, callback) -> Time.valueOf(TimestreamDateTimeParser
+        .parseDateTime(data.getScalarValue())
         .toLocalTime()));
     timestampConversions
       .put(JdbcType.TIMESTAMP, ((data, callback) -> Timestamp.valueOf(
-        LocalDateTime.parse(data.getScalarValue(), Constants.DATE_TIME_FORMATTER))));
+        TimestreamDateTimeParser.parseDateTime(data.getScalarValue()))));
     timestampConversions.put(JdbcType.VARCHAR, (data, callback) -> data.getScalarValue());
 
     map.put(TimestreamDataType.TIMESTAMP, timestampConversions);
@@ -360,7 +398,7 @@ class Conversions {
     stringConversions
         .put(JdbcType.TIME, (data, callback) -> Time.valueOf(LocalTime.parse(data.getScalarValue(), Constants.TIME_FORMATTER)));
     stringConversions
-        .put(JdbcType.TIMESTAMP, (data, callback) -> Timestamp.valueOf(LocalDateTime.parse(data.getScalarValue(), Constants.DATE_TIME_FORMATTER)));
+        .put(JdbcType.TIMESTAMP, (data, callback) -> Timestamp.valueOf(TimestreamDateTimeParser.parseDateTime(data.getScalarValue())));
 
     map.put(TimestreamDataType.VARCHAR, stringConversions);
   }
@@ -552,6 +590,18 @@ class Conversions {
     return fn;
   }
 
+  /**
+   * Retrieves the conversion lambdas of a source type, indexed by the ordinal of the target {@link
+   * JdbcType}, so the conversions of a column can be bound once its type is known. The returned
+   * table is shared and must not be modified.
+   *
+   * @param sourceType The Timestream data type of the column.
+   * @return the conversion lambdas, with {@code null} for the unsupported target types.
+   */
+  static TimestreamConvertFunction<?>[] retrieveConversionTable(final TimestreamDataType sourceType) {
+    return CONVERTER_TABLES.get(sourceType);
+  }
+
   /**
    * Converts the given data from the given source data type to a target type.
    *
@@ -571,13 +621,218 @@ class Conversions {
     final TimestreamConvertFunction<?> fn = Conversions
       .retrieveAndValidateConversion(sourceType, targetType);
 
+    return convert(sourceType, targetType, fn, data, callback);
+  }
+
+  /**
+   * Converts the given data with a conversion lambda retrieved beforehand.
+   *
+   * @param sourceType The Timestream data type of the provided data.
+   * @param targetType The JDBC data type to convert the given data into.
+   * @param fn         The lambda converting the data from the source type to the target type.
+   * @param data       A cell of data from the current row.
+   * @param callback   The callback to post a {@link SQLWarning} to the parent result set.
+   * @return the data that has been converted to the target type.
+   * @throws SQLException if the data cannot be converted.
+   */
+  static Object convert(
+    final TimestreamDataType sourceType,
+    final JdbcType targetType,
+    final TimestreamConvertFunction<?> fn,
+    final Datum data,
+    final Consumer<SQLWarning> callback) throws SQLException {
     try {
-      LOGGER.debug("Converting data {} from source type {} to target type {}", data, sourceType, targetType);
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Converting data {} from source type {} to target type {}", data, sourceType, targetType);
+      }
       return fn.convert(data, callback);
     } catch (final IllegalArgumentException | DateTimeParseException e) {
-      LOGGER.warn("Cannot parse data as {}: {}", sourceType, e.getMessage());
-      throw new SQLException(
-        Error.lookup(Error.INCORRECT_SOURCE_TYPE_AT_CELL, sourceType), e);
+      throw createIncorrectSourceTypeException(sourceType, e);
+    }
+  }
+
+  /**
+   * Converts the given data from the given source data type to an int without boxing the result.
+   * Produces the same values, warnings and errors as {@link #convert} with {@link
+   * JdbcType#INTEGER}, which is used for the values the fast paths cannot handle.
+   *
+   * @param sourceType The Timestream data type of the provided data.
+   * @param data       A cell of data from the current row.
+   * @param callback   The callback to post a {@link SQLWarning} to the parent result set.
+   * @return the data converted to an int.
+   * @throws SQLException if the conversion between source type and target type is not supported,
+   *                      or if the value cannot be converted.
+   */
+  static int convertToInt(
+    final TimestreamDataType sourceType,
+    final Datum data,
+    final Consumer<SQLWarning> callback) throws SQLException {
+    try {
+      switch (sourceType) {
+        case INTEGER:
+        case BIGINT:
+        case VARCHAR:
+          return Integer.parseInt(data.getScalarValue());
+        case BOOLEAN:
+          return Boolean.parseBoolean(data.getScalarValue()) ? 1 : 0;
+        case DOUBLE:
+          final double value = parseExactDouble(data.getScalarValue());
+          if ((value > INT_LOWER_BOUND) && (value < INT_UPPER_BOUND)) {
+            checkTruncation(value, JdbcType.INTEGER, callback);
+            return (int) value;
+          }
+          break;
+        default:
+          break;
+      }
+    } catch (final NumberFormatException e) {
+      throw createIncorrectSourceTypeException(sourceType, e);
+    }
+
+    return (int) convert(sourceType, JdbcType.INTEGER, data, callback);
+  }
+
+  /**
+   * Converts the given data from the given source data type to a long without boxing the result.
+   * Produces the same values, warnings and errors as {@link #convert} with {@link
+   * JdbcType#BIGINT}, which is used for the values the fast paths cannot handle.
+   *
+   * @param sourceType The Timestream data type of the provided data.
+   * @param data       A cell of data from the current row.
+   * @param callback   The callback to post a {@link SQLWarning} to the parent result set.
+   * @return the data converted to a long.
+   * @throws SQLException if the conversion between source type and target type is not supported,
+   *                      or if the value cannot be converted.
+   */
+  static long convertToLong(
+    final TimestreamDataType sourceType,
+    final Datum data,
+    final Consumer<SQLWarning> callback) throws SQLException {
+    try {
+      switch (sourceType) {
+        case INTEGER:
+        case BIGINT:
+        case VARCHAR:
+          return Long.parseLong(data.getScalarValue());
+        case BOOLEAN:
+          return Boolean.parseBoolean(data.getScalarValue()) ? 1L : 0L;
+        case DOUBLE:
+          final double value = parseExactDouble(data.getScalarValue());
+          if ((value > LONG_LOWER_BOUND) && (value < LONG_UPPER_BOUND)) {
+            checkTruncation(value, JdbcType.BIGINT, callback);
+            return (long) value;
+          }
+          break;
+        default:
+          break;
+      }
+    } catch (final NumberFormatException e) {
+      throw createIncorrectSourceTypeException(sourceType, e);
+    }
+
+    return (long) convert(sourceType, JdbcType.BIGINT, data, callback);
+  }
+
+  /**
+   * Converts the given data from the given source data type to a double without boxing the result.
+   * Produces the same values, warnings and errors as {@link #convert} with {@link
+   * JdbcType#DOUBLE}.
+   *
+   * @param sourceType The Timestream data type of the provided data.
+   * @param data       A cell of data from the current row.
+   * @param callback   The callback to post a {@link SQLWarning} to the parent result set.
+   * @return the data converted to a double.
+   * @throws SQLException if the conversion between source type and target type is not supported,
+   *                      or if the value cannot be converted.
+   */
+  static double convertToDouble(
+    final TimestreamDataType sourceType,
+    final Datum data,
+    final Consumer<SQLWarning> callback) throws SQLException {
+    try {
+      switch (sourceType) {
+        case INTEGER:
+        case BIGINT:
+        case DOUBLE:
+        case VARCHAR:
+          return Double.parseDouble(data.getScalarValue());
+        case BOOLEAN:
+          return Boolean.parseBoolean(data.getScalarValue()) ? 1d : 0d;
+        default:
+          break;
+      }
+    } catch (final NumberFormatException e) {
+      throw createIncorrectSourceTypeException(sourceType, e);
     }
+
+    return (double) convert(sourceType, JdbcType.DOUBLE, data, callback);
+  }
+
+  /**
+   * Parses a plain decimal string with few enough digits for the double to preserve its integer
+   * part. Other strings, including the ones {@link BigDecimal} parses differently from {@link
+   * Double#parseDouble}, are left to the {@link BigDecimal}-based conversions.
+   *
+   * @param value The string to parse.
+   * @return the parsed double, or {@link Double#NaN} if the string is not eligible.
+   */
+  private static double parseExactDouble(final String value) {
+    if (value == null) {
+      return Double.NaN;
+    }
+
+    int digits = 0;
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if ((c >= '0') && (c <= '9')) {
+        digits++;
+      } else if ((c != '.') && (c != '-') && (c != '+') && (c != 'e') && (c != 'E')) {
+        return Double.NaN;
+      }
+    }
+
+    if (digits > MAX_EXACT_DIGITS) {
+      return Double.NaN;
+    }
+
+    try {
+      return Double.parseDouble(value);
+    } catch (final NumberFormatException e) {
+      return Double.NaN;
+    }
+  }
+
+  /**
+   * Posts a {@link Warning#VALUE_TRUNCATED} warning if the double has a fractional part.
+   *
+   * @param value      The double being converted.
+   * @param targetType The integral type the double is converted to.
+   * @param callback   The callback to post a {@link SQLWarning} to the parent result set.
+   */
+  private static void checkTruncation(
+    final double value,
+    final JdbcType targetType,
+    final Consumer<SQLWarning> callback) {
+    if (value != (double) (long) value) {
+      callback.accept(new SQLWarning(Warning.lookup(
+        Warning.VALUE_TRUNCATED,
+        TimestreamDataType.DOUBLE,
+        targetType)));
+    }
+  }
+
+  /**
+   * Creates the exception thrown when the data at a cell cannot be parsed as its source type.
+   *
+   * @param sourceType The Timestream data type of the data.
+   * @param e          The parsing error.
+   * @return the {@link SQLException} to throw.
+   */
+  private static SQLException createIncorrectSourceTypeException(
+    final TimestreamDataType sourceType,
+    final RuntimeException e) {
+    LOGGER.warn("Cannot parse data as {}: {}", sourceType, e.getMessage());
+    return new SQLException(
+      Error.lookup(Error.INCORRECT_SOURCE_TYPE_AT_CELL, sourceType), e);
   }
 }
@@ -36,6 +36,8 @@ enum Error {
   CANNOT_SLICE_A_STRING,
   CONN_CLOSED,
   CONN_FAILED,
+  DESCRIBE_CANCELED,
+  DESCRIBE_INTERRUPTED,
   FAILED_TO_BUFFER_RESULT_SET,
   FAILED_TO_NOTIFY_CONSUMER_THREAD,
   FAILED_TO_PROPAGATE_ERROR,
@@ -44,36 +46,52 @@ enum Error {
   INVALID_AAD_ACCESS_TOKEN_RESPONSE,
   INVALID_COLUMN_LABEL,
   INVALID_CONNECTION_PROPERTIES,
+  INVALID_CONNECTION_VERIFICATION,
+  INVALID_CREDENTIALS_CACHE_DIRECTORY,
   INVALID_CREDENTIALS_FILE_PATH,
   INVALID_DATA_AT_ARRAY,
   INVALID_DATA_AT_ROW,
+  INVALID_DEMAND,
   INVALID_ENDPOINT,
   INVALID_FETCH_SIZE,
   INVALID_LARGE_MAX_ROWS_SIZE,
   INVALID_MAX_CONNECTIONS,
   INVALID_MAX_FIELD_SIZE,
   INVALID_MAX_RETRY_COUNT,
+  INVALID_METADATA_CACHE_SIZE,
   INVALID_NUMERIC_CONNECTION_VALUE,
+  INVALID_POOL_SETTING,
+  INVALID_PREFETCH_DEPTH,
+  INVALID_PREFETCH_MEMORY,
+  INVALID_PREFETCH_MODE,
+  INVALID_RESULT_CACHE_SIZE,
+  INVALID_RETRIEVAL_THREAD_POOL_SIZE,
   INVALID_ROW_VALUE,
   INVALID_INDEX,
   INVALID_TIMEOUT,
   INVALID_TYPE,
+  INVALID_WARM_UP_PARALLELISM,
   INVALID_QUERY,
   INVALID_SAML_RESPONSE,
   INVALID_SESSION_TOKEN_RESPONSE,
   MISSING_REQUIRED_IDP_PARAMETER,
   MISSING_SERVICE_REGION,
+  NULL_SUBSCRIBER,
   OKTA_SAML_ASSERTION_ERROR,
   OKTA_SAML_ASSERTION_REQUEST_FAILED,
   OKTA_SESSION_TOKEN_REQUEST_FAILED,
   OKTA_SESSION_TOKEN_ERROR,
   PARAMETERS_NOT_SUPPORTED,
-  POOLING_NOT_SUPPORTED,
+  POOL_WAIT_INTERRUPTED,
+  POOL_WAIT_TIMEOUT,
+  POOL_WARM_UP_FAILED,
+  PUBLISHER_ALREADY_SUBSCRIBED,
   QUERY_CANCELED,
   QUERY_TIMED_OUT,
   READ_ONLY,
   RESULT_FORWARD_ONLY,
   RESULT_SET_CLOSED,
+  SINGLE_FLIGHT_CANCELED,
   STMT_CLOSED,
   STMT_CLOSED_DURING_EXECUTE,
   TRANSACTIONS_NOT_SUPPORTED,
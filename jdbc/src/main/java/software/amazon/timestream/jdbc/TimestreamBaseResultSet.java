@@ -44,7 +44,6 @@ import java.sql.SQLXML;
 import java.sql.Struct;
 import java.sql.Time;
 import java.sql.Timestamp;
-import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -56,6 +55,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -66,6 +66,7 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
   private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamBaseResultSet.class);
   private final TimestreamStatement statement;
   private final AtomicBoolean isClosed = new AtomicBoolean(false);
+  private final Consumer<SQLWarning> warningCallback = this::addWarning;
   private boolean wasNullFlag;
   private final int fieldSize;
   private final Map<String, Class<?>> typeMap;
@@ -75,8 +76,11 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
   private int fetchSize;
   private Map<String, Integer> nameIndexMap;
   private List<TimestreamDataType> tsTypes;
+  private TimestreamConvertFunction<?>[][] converters;
   private List<Datum> currentRowData;
   private int rowIndex = 0;
+  private TimestreamColumnarPage columnarPage;
+  private int columnarRowIndex;
 
   /**
    * Base constructor to seed with the parent statement.
@@ -218,8 +222,7 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
     if (this.checkNull(currentCell)) {
       return null;
     }
-    return (BigDecimal) Conversions
-        .convert(sourceType, JdbcType.DECIMAL, currentCell, this::addWarning);
+    return (BigDecimal) convert(columnIndex, JdbcType.DECIMAL, currentCell);
   }
 
   @Override
@@ -258,14 +261,17 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
 
     final Datum currentCell = this.currentRowData.get(columnIndex - 1);
     final TimestreamDataType sourceType = this.tsTypes.get(columnIndex - 1);
+    if ((sourceType == TimestreamDataType.BOOLEAN) && isColumnar(columnIndex)) {
+      return !checkColumnarNull(columnIndex)
+        && columnarPage.getBoolean(columnIndex - 1, columnarRowIndex);
+    }
     if (this.checkNull(currentCell)) {
       return Boolean.FALSE;
     }
     if (sourceType == TimestreamDataType.BOOLEAN) {
       return Boolean.parseBoolean(currentCell.getScalarValue());
     }
-    return (boolean) Conversions
-        .convert(sourceType, JdbcType.BOOLEAN, currentCell, this::addWarning);
+    return (boolean) convert(columnIndex, JdbcType.BOOLEAN, currentCell);
   }
 
   @Override
@@ -283,7 +289,7 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
     if (this.checkNull(currentCell)) {
       return (byte) 0;
     }
-    return (byte) Conversions.convert(sourceType, JdbcType.TINYINT, currentCell, this::addWarning);
+    return (byte) convert(columnIndex, JdbcType.TINYINT, currentCell);
   }
 
   @Override
@@ -360,26 +366,21 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
       return null;
     }
 
-    final Date dbDate;
+    final LocalDate dbDate;
     if (sourceType == TimestreamDataType.DATE) {
       try {
-        dbDate = Date.valueOf(currentCell.getScalarValue());
+        dbDate = TimestreamDateTimeParser.parseDate(currentCell.getScalarValue());
       } catch (final IllegalArgumentException e) {
         throw Error.createSQLException(LOGGER, e, Error.INCORRECT_SOURCE_TYPE_AT_CELL, sourceType);
       }
     } else {
-      dbDate = (Date) Conversions
-          .convert(sourceType, JdbcType.DATE, currentCell, this::addWarning);
+      dbDate = ((Date) convert(columnIndex, JdbcType.DATE, currentCell)).toLocalDate();
     }
 
     if (cal == null) {
       cal = DEFAULT_CALENDAR;
     }
-    final Instant zdtInstant = dbDate
-      .toLocalDate()
-      .atStartOfDay(cal.getTimeZone().toZoneId())
-      .toInstant();
-    return new Date(zdtInstant.toEpochMilli());
+    return TimestreamDateTimeParser.toDate(dbDate, cal.getTimeZone());
   }
 
   @Override
@@ -394,6 +395,11 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
 
     final Datum currentCell = this.currentRowData.get(columnIndex - 1);
     final TimestreamDataType sourceType = this.tsTypes.get(columnIndex - 1);
+    if ((sourceType == TimestreamDataType.DOUBLE) && isColumnar(columnIndex)) {
+      return checkColumnarNull(columnIndex)
+        ? 0
+        : columnarPage.getDouble(columnIndex - 1, columnarRowIndex);
+    }
     if (this.checkNull(currentCell)) {
       return 0;
     }
@@ -405,7 +411,7 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
       }
     }
 
-    return (double) Conversions.convert(sourceType, JdbcType.DOUBLE, currentCell, this::addWarning);
+    return Conversions.convertToDouble(sourceType, currentCell, warningCallback);
   }
 
   @Override
@@ -435,7 +441,7 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
       return 0.0f;
     }
 
-    return (float) Conversions.convert(sourceType, JdbcType.FLOAT, currentCell, this::addWarning);
+    return (float) convert(columnIndex, JdbcType.FLOAT, currentCell);
   }
 
   @Override
@@ -455,6 +461,11 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
 
     final Datum currentCell = this.currentRowData.get(columnIndex - 1);
     final TimestreamDataType sourceType = this.tsTypes.get(columnIndex - 1);
+    if ((sourceType == TimestreamDataType.INTEGER) && isColumnar(columnIndex)) {
+      return checkColumnarNull(columnIndex)
+        ? 0
+        : (int) columnarPage.getLong(columnIndex - 1, columnarRowIndex);
+    }
     if (this.checkNull(currentCell)) {
       return 0;
     }
@@ -466,7 +477,7 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
       }
     }
 
-    return (int) Conversions.convert(sourceType, JdbcType.INTEGER, currentCell, this::addWarning);
+    return Conversions.convertToInt(sourceType, currentCell, warningCallback);
   }
 
   @Override
@@ -481,6 +492,11 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
 
     final Datum currentCell = this.currentRowData.get(columnIndex - 1);
     final TimestreamDataType sourceType = this.tsTypes.get(columnIndex - 1);
+    if ((sourceType == TimestreamDataType.BIGINT) && isColumnar(columnIndex)) {
+      return checkColumnarNull(columnIndex)
+        ? 0L
+        : columnarPage.getLong(columnIndex - 1, columnarRowIndex);
+    }
     if (this.checkNull(currentCell)) {
       return 0L;
     }
@@ -492,7 +508,7 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
       }
     }
 
-    return (long) Conversions.convert(sourceType, JdbcType.BIGINT, currentCell, this::addWarning);
+    return Conversions.convertToLong(sourceType, currentCell, warningCallback);
   }
 
   @Override
@@ -608,7 +624,7 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
         if (this.checkNull(currentCell)) {
           return null;
         }
-        return (T) Conversions.convert(sourceType, targetType, currentCell, this::addWarning);
+        return (T) convert(columnIndex, targetType, currentCell);
       }
     }
   }
@@ -674,8 +690,7 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
       return (short) 0;
     }
 
-    return (short) Conversions
-        .convert(sourceType, JdbcType.SMALLINT, currentCell, this::addWarning);
+    return (short) convert(columnIndex, JdbcType.SMALLINT, currentCell);
   }
 
   @Override
@@ -695,15 +710,18 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
 
     final Datum currentCell = this.currentRowData.get(columnIndex - 1);
     final TimestreamDataType sourceType = this.tsTypes.get(columnIndex - 1);
-    if (this.checkNull(currentCell)) {
-      return null;
-    }
     final String result;
-    if (sourceType == TimestreamDataType.VARCHAR) {
+    if ((sourceType == TimestreamDataType.VARCHAR) && isColumnar(columnIndex)) {
+      if (checkColumnarNull(columnIndex)) {
+        return null;
+      }
+      result = columnarPage.getString(columnIndex - 1, columnarRowIndex);
+    } else if (this.checkNull(currentCell)) {
+      return null;
+    } else if (sourceType == TimestreamDataType.VARCHAR) {
       result = currentCell.getScalarValue();
     } else {
-      result = (String) Conversions
-          .convert(sourceType, JdbcType.VARCHAR, currentCell, this::addWarning);
+      result = (String) convert(columnIndex, JdbcType.VARCHAR, currentCell);
     }
 
     if (result != null && fieldSize != 0) {
@@ -742,25 +760,21 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
     if (this.checkNull(currentCell)) {
       return null;
     }
-    final Time dbTime;
+    final LocalTime dbTime;
     if (sourceType == TimestreamDataType.TIME) {
       try {
-        dbTime = Time.valueOf(LocalTime.parse(currentCell.getScalarValue()));
+        dbTime = TimestreamDateTimeParser.parseTime(currentCell.getScalarValue());
       } catch (final DateTimeParseException e) {
         throw Error.createSQLException(LOGGER, e, Error.INCORRECT_SOURCE_TYPE_AT_CELL, sourceType);
       }
     } else {
-      dbTime = (Time) Conversions
-          .convert(sourceType, JdbcType.TIME, currentCell, this::addWarning);
+      dbTime = ((Time) convert(columnIndex, JdbcType.TIME, currentCell)).toLocalTime();
     }
 
     if (cal == null) {
       cal = DEFAULT_CALENDAR;
     }
-    final LocalDateTime dt = dbTime
-        .toLocalTime()
-        .atDate(LocalDate.of(1970, 1, 1));
-    return new Time(dt.atZone(cal.getTimeZone().toZoneId()).toInstant().toEpochMilli());
+    return TimestreamDateTimeParser.toTime(dbTime, cal.getTimeZone());
   }
 
   @Override
@@ -785,33 +799,35 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
 
     final Datum currentCell = this.currentRowData.get(columnIndex - 1);
     final TimestreamDataType sourceType = this.tsTypes.get(columnIndex - 1);
+    if (cal == null) {
+      cal = DEFAULT_CALENDAR;
+    }
+
+    if ((sourceType == TimestreamDataType.TIMESTAMP) && isColumnar(columnIndex)) {
+      if (checkColumnarNull(columnIndex)) {
+        return null;
+      }
+      return TimestreamDateTimeParser.toTimestamp(
+        columnarPage.getLocalDateTime(columnIndex - 1, columnarRowIndex),
+        cal.getTimeZone());
+    }
+
     if (this.checkNull(currentCell)) {
       return null;
     }
 
-    final Timestamp dbTimeStamp;
+    final LocalDateTime dbTimeStamp;
     if (sourceType == TimestreamDataType.TIMESTAMP) {
       try {
-        dbTimeStamp = Timestamp.valueOf(
-            LocalDateTime.parse(currentCell.getScalarValue(), Constants.DATE_TIME_FORMATTER));
+        dbTimeStamp = TimestreamDateTimeParser.parseDateTime(currentCell.getScalarValue());
       } catch (final DateTimeParseException e) {
         throw Error.createSQLException(LOGGER, e, Error.INCORRECT_SOURCE_TYPE_AT_CELL, sourceType);
       }
     } else {
-      dbTimeStamp = (Timestamp) Conversions
-          .convert(sourceType, JdbcType.TIMESTAMP, currentCell, this::addWarning);
-    }
-
-    if (cal == null) {
-      cal = DEFAULT_CALENDAR;
+      dbTimeStamp = ((Timestamp) convert(columnIndex, JdbcType.TIMESTAMP, currentCell)).toLocalDateTime();
     }
 
-    final Instant zdt = dbTimeStamp
-      .toLocalDateTime()
-      .atZone(cal.getTimeZone().toZoneId()).toInstant();
-    final Timestamp timestamp = new Timestamp(zdt.toEpochMilli());
-    timestamp.setNanos(zdt.getNano());
-    return timestamp;
+    return TimestreamDateTimeParser.toTimestamp(dbTimeStamp, cal.getTimeZone());
   }
 
   @Override
@@ -911,6 +927,7 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
 
     this.currentRowData = rowItr.next().getData();
     ++rowIndex;
+    ++columnarRowIndex;
     return true;
   }
 
@@ -1451,8 +1468,7 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
           .map(Object.class::cast)
           .collect(Collectors.toList());
     } else {
-      array = (List<Object>) Conversions
-          .convert(sourceType, JdbcType.ARRAY, currentCell, this::addWarning);
+      array = (List<Object>) convert(columnIndex, JdbcType.ARRAY, currentCell);
     }
 
     final Type origType = this.rsMeta.getTimestreamType(columnIndex);
@@ -1519,6 +1535,7 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
     final List<TimestreamResultSetMetaData.ColInfo> colInfo = new ArrayList<>();
     this.nameIndexMap = new HashMap<>();
     this.tsTypes = new ArrayList<>();
+    this.converters = new TimestreamConvertFunction<?>[columnInfo.size()][];
 
     for (int i = 0; i < columnInfo.size(); ++i) {
       final ColumnInfo info = columnInfo.get(i);
@@ -1526,12 +1543,76 @@ abstract class TimestreamBaseResultSet implements java.sql.ResultSet {
       colInfo.add(new TimestreamResultSetMetaData.ColInfo(
         info.getType(),
         info.getName()));
-      tsTypes.add(TimestreamDataType.fromType(info.getType()));
+      final TimestreamDataType tsType = TimestreamDataType.fromType(info.getType());
+      tsTypes.add(tsType);
+      converters[i] = Conversions.retrieveConversionTable(tsType);
     }
 
     return new TimestreamResultSetMetaData(colInfo);
   }
 
+  /**
+   * Converts a cell with the conversion bound to its column when the metadata was created.
+   *
+   * @param columnIndex The 1-based column index of the cell.
+   * @param targetType  The JDBC data type to convert the cell into.
+   * @param data        The cell to convert.
+   * @return the data that has been converted to the target type.
+   * @throws SQLException if the conversion between the column type and the target type is not
+   *                      supported, or if the data cannot be converted.
+   */
+  private Object convert(final int columnIndex, final JdbcType targetType, final Datum data)
+    throws SQLException {
+    final TimestreamDataType sourceType = this.tsTypes.get(columnIndex - 1);
+    final TimestreamConvertFunction<?> fn = converters[columnIndex - 1][targetType.ordinal()];
+    if (fn == null) {
+      // Throws the exception of the unsupported conversion.
+      Conversions.retrieveAndValidateConversion(sourceType, targetType);
+    }
+    return Conversions.convert(sourceType, targetType, fn, data, warningCallback);
+  }
+
+  /**
+   * Gets the Timestream data type of each column, as determined by {@link #createColumnMetadata}.
+   *
+   * @return the column types.
+   */
+  List<TimestreamDataType> getColumnTypes() {
+    return tsTypes;
+  }
+
+  /**
+   * Sets the decoded columns of the page the following rows are read from, or {@code null} if the
+   * page has not been decoded. Must be called whenever {@link #rowItr} is replaced.
+   *
+   * @param page the {@link TimestreamColumnarPage} of the current page.
+   */
+  protected void setColumnarPage(final TimestreamColumnarPage page) {
+    this.columnarPage = page;
+    this.columnarRowIndex = -1;
+  }
+
+  /**
+   * Checks whether a column of the current row can be read from the decoded columns.
+   *
+   * @param columnIndex The 1-based column index.
+   * @return {@code true} if the column has been decoded; {@code false} otherwise.
+   */
+  private boolean isColumnar(final int columnIndex) {
+    return (columnarPage != null) && columnarPage.isDecoded(columnIndex - 1);
+  }
+
+  /**
+   * Set wasNullFlag to true if the cell of a decoded column in the current row is null.
+   *
+   * @param columnIndex The 1-based column index.
+   * @return true if cell is null; false otherwise.
+   */
+  private boolean checkColumnarNull(final int columnIndex) {
+    wasNullFlag = columnarPage.isNull(columnIndex - 1, columnarRowIndex);
+    return wasNullFlag;
+  }
+
   /**
    * Verify the result set is open.
    *
@@ -0,0 +1,293 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.google.common.base.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of the Timestream catalog read by {@link TimestreamDatabaseMetaData}, so schema browsers
+ * calling {@code getSchemas}, {@code getTables} and {@code getColumns} repeatedly do not send
+ * {@code SHOW DATABASES}, {@code SHOW TABLES} and {@code DESCRIBE} queries for every call.
+ * <p>
+ * Each cache is shared by all the connections configured with the same maximum size, and the
+ * catalog is only shared between connections using the same query client configuration. The cache
+ * holds the complete list of databases, the complete list of tables of each database and the
+ * columns of each table, so the name patterns of the metadata calls are matched against the cached
+ * catalog instead of being sent to Timestream. The least recently used lists are evicted once the
+ * cache is full.
+ */
+class TimestreamCatalogCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamCatalogCache.class);
+  private static final Map<Integer, TimestreamCatalogCache> CACHES = new ConcurrentHashMap<>();
+
+  private final int maxEntries;
+  private final Map<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * Constructor.
+   *
+   * @param maxEntries the maximum number of cached lists of databases, tables and columns.
+   */
+  TimestreamCatalogCache(final int maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * Gets the driver-wide cache with the given maximum size, creating it if necessary.
+   *
+   * @param maxEntries the maximum number of cached lists of databases, tables and columns.
+   * @return the shared {@link TimestreamCatalogCache}.
+   */
+  static TimestreamCatalogCache getCache(final int maxEntries) {
+    return CACHES.computeIfAbsent(maxEntries, size -> {
+      LOGGER.debug("Creating a catalog cache of {} entries.", size);
+      return new TimestreamCatalogCache(size);
+    });
+  }
+
+  /**
+   * Gets the names of all the databases, loading them if they are not cached.
+   *
+   * @param scope    an object identifying the query client configuration of the connection.
+   * @param ttlNanos the time to live of newly loaded names in nanoseconds.
+   * @param loader   the query listing the databases.
+   * @return the names of the databases.
+   * @throws SQLException if the databases cannot be listed.
+   */
+  List<String> getDatabases(final Object scope, final long ttlNanos, final Loader<String> loader)
+    throws SQLException {
+    return get(Arrays.asList(scope, null, null), ttlNanos, loader);
+  }
+
+  /**
+   * Gets the names of all the tables of a database, loading them if they are not cached.
+   *
+   * @param scope    an object identifying the query client configuration of the connection.
+   * @param database the database.
+   * @param ttlNanos the time to live of newly loaded names in nanoseconds.
+   * @param loader   the query listing the tables of the database.
+   * @return the names of the tables.
+   * @throws SQLException if the tables cannot be listed.
+   */
+  List<String> getTables(
+    final Object scope,
+    final String database,
+    final long ttlNanos,
+    final Loader<String> loader) throws SQLException {
+    return get(Arrays.asList(scope, database, null), ttlNanos, loader);
+  }
+
+  /**
+   * Gets all the columns of a table, loading them if they are not cached.
+   *
+   * @param scope    an object identifying the query client configuration of the connection.
+   * @param database the database of the table.
+   * @param table    the table.
+   * @param ttlNanos the time to live of newly loaded columns in nanoseconds.
+   * @param loader   the query describing the table.
+   * @return the columns of the table.
+   * @throws SQLException if the table cannot be described.
+   */
+  List<TimestreamResultSetMetaData.ColInfo> getColumns(
+    final Object scope,
+    final String database,
+    final String table,
+    final long ttlNanos,
+    final Loader<TimestreamResultSetMetaData.ColInfo> loader) throws SQLException {
+    return get(Arrays.asList(scope, database, table), ttlNanos, loader);
+  }
+
+  /**
+   * Removes the cached catalog of a query client configuration, or a part of it.
+   *
+   * @param scope    an object identifying the query client configuration of the connection.
+   * @param database the database whose tables and columns are removed, or {@code null} to remove
+   *                 the whole catalog.
+   * @param table    the table whose columns are removed, or {@code null} to remove the tables and
+   *                 columns of the whole database.
+   */
+  synchronized void invalidate(final Object scope, final String database, final String table) {
+    final int size = entries.size();
+    entries.keySet().removeIf(key -> Objects.equals(key.get(0), scope)
+      && ((database == null) || database.equals(key.get(1)))
+      && ((table == null) || table.equals(key.get(2))));
+    if (database != null) {
+      // The list of tables or databases no longer reflects the invalidated objects either.
+      entries.remove(Arrays.asList(scope, (table == null) ? null : database, null));
+    }
+    LOGGER.debug("Invalidated {} cached catalog entries.", size - entries.size());
+  }
+
+  /**
+   * Removes the whole cached catalog.
+   */
+  synchronized void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Gets the number of lookups answered from the cache.
+   *
+   * @return the number of cache hits.
+   */
+  synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Gets the number of lookups sent to Timestream because they were not cached or had expired.
+   *
+   * @return the number of cache misses.
+   */
+  synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Gets the number of lists evicted to stay within the maximum size.
+   *
+   * @return the number of evictions.
+   */
+  synchronized long getEvictions() {
+    return evictions;
+  }
+
+  /**
+   * Gets the number of cached lists of databases, tables and columns.
+   *
+   * @return the number of cached lists.
+   */
+  synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Creates the matcher of a JDBC name pattern, where {@code %} matches any sequence of characters
+   * and {@code _} matches any single character.
+   *
+   * @param namePattern the name pattern, {@code null} or empty to match all the names.
+   * @return the {@link Pattern} matching the names.
+   */
+  static Pattern toPattern(final String namePattern) {
+    if (Strings.isNullOrEmpty(namePattern)) {
+      return Pattern.compile(".*", Pattern.DOTALL);
+    }
+
+    final StringBuilder regex = new StringBuilder();
+    final StringBuilder literal = new StringBuilder();
+    for (final char c : namePattern.toCharArray()) {
+      if ((c != '%') && (c != '_')) {
+        literal.append(c);
+        continue;
+      }
+      if (literal.length() > 0) {
+        regex.append(Pattern.quote(literal.toString()));
+        literal.setLength(0);
+      }
+      regex.append((c == '%') ? ".*" : ".");
+    }
+    if (literal.length() > 0) {
+      regex.append(Pattern.quote(literal.toString()));
+    }
+    return Pattern.compile(regex.toString(), Pattern.DOTALL);
+  }
+
+  /**
+   * Gets a cached list, loading it if it is missing or has expired.
+   *
+   * @param key      the key of the list.
+   * @param ttlNanos the time to live of a newly loaded list in nanoseconds.
+   * @param loader   the query loading the list.
+   * @param <T>      the type of the elements of the list.
+   * @return the list.
+   * @throws SQLException if the list cannot be loaded.
+   */
+  @SuppressWarnings("unchecked")
+  private <T> List<T> get(final List<Object> key, final long ttlNanos, final Loader<T> loader)
+    throws SQLException {
+    synchronized (this) {
+      final Entry entry = entries.get(key);
+      if ((entry != null) && ((System.nanoTime() - entry.expirationNanos) < 0)) {
+        hits++;
+        return (List<T>) entry.values;
+      }
+      if (entry != null) {
+        LOGGER.debug("Removing an expired catalog entry from the cache.");
+        entries.remove(key);
+      }
+      misses++;
+    }
+
+    final List<T> values = Collections.unmodifiableList(loader.load());
+    synchronized (this) {
+      entries.put(key, new Entry(values, System.nanoTime() + ttlNanos));
+      while (entries.size() > maxEntries) {
+        entries.remove(entries.keySet().iterator().next());
+        evictions++;
+      }
+    }
+    return values;
+  }
+
+  /**
+   * The query loading a list of the catalog from Timestream.
+   *
+   * @param <T> the type of the elements of the list.
+   */
+  interface Loader<T> {
+    /**
+     * Queries Timestream for the list.
+     *
+     * @return the list.
+     * @throws SQLException if the query failed.
+     */
+    List<T> load() throws SQLException;
+  }
+
+  /**
+   * A cached list with its expiration time.
+   */
+  private static final class Entry {
+    private final List<?> values;
+    private final long expirationNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param values          the cached list.
+     * @param expirationNanos the {@link System#nanoTime()} at which the list expires.
+     */
+    private Entry(final List<?> values, final long expirationNanos) {
+      this.values = values;
+      this.expirationNanos = expirationNanos;
+    }
+  }
+}
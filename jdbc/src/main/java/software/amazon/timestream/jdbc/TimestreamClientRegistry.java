@@ -0,0 +1,220 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.services.timestreamquery.AmazonTimestreamQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Driver-wide registry of the Timestream query clients, shared by the connections with the same
+ * effective client configuration.
+ * <p>
+ * Each client owns an HTTP connection pool and the endpoint discovery state of the service, so
+ * connections with the same endpoint, credentials and SDK options reuse a single warm client
+ * instead of building their own. The clients are reference counted: a connection acquires a
+ * {@link Lease} when it is opened and releases it when it is closed, and a client is shut down
+ * once the last connection using it is closed.
+ */
+class TimestreamClientRegistry {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamClientRegistry.class);
+  private static final Map<ClientKey, SharedClient> CLIENTS = new HashMap<>();
+
+  /**
+   * Acquires the client registered for the given key, building and registering it if no open
+   * connection is using it. The client is built outside of the registry lock, so building a client
+   * does not delay the connections using other clients; the connections acquiring the same key
+   * meanwhile wait for the client being built.
+   *
+   * @param key     the effective configuration of the client.
+   * @param factory the factory building the client if none is registered for the key.
+   * @return a {@link Lease} on the shared client, to release when the connection is closed.
+   */
+  static Lease acquire(final ClientKey key, final Supplier<AmazonTimestreamQuery> factory) {
+    final SharedClient sharedClient;
+    final boolean isNew;
+    synchronized (CLIENTS) {
+      final SharedClient registeredClient = CLIENTS.get(key);
+      isNew = (registeredClient == null);
+      if (isNew) {
+        sharedClient = new SharedClient();
+        CLIENTS.put(key, sharedClient);
+      } else {
+        sharedClient = registeredClient;
+        LOGGER.debug("Reusing a shared query client used by {} connections.", sharedClient.references);
+      }
+      sharedClient.references++;
+    }
+
+    if (isNew) {
+      LOGGER.debug("Building a new shared query client.");
+      try {
+        sharedClient.client.complete(factory.get());
+      } catch (final Throwable e) {
+        sharedClient.client.completeExceptionally(e);
+      }
+    }
+
+    try {
+      return new Lease(key, sharedClient, sharedClient.client.join());
+    } catch (final CompletionException e) {
+      release(key, sharedClient);
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Gets the number of open leases on the client registered for the given key.
+   *
+   * @param key the effective configuration of the client.
+   * @return the number of connections using the client, 0 if no client is registered.
+   */
+  static int getReferenceCount(final ClientKey key) {
+    synchronized (CLIENTS) {
+      final SharedClient sharedClient = CLIENTS.get(key);
+      return (sharedClient == null) ? 0 : sharedClient.references;
+    }
+  }
+
+  /**
+   * Releases a lease, shutting down the client if it is no longer used.
+   *
+   * @param key          the effective configuration of the client.
+   * @param sharedClient the client the lease was acquired on.
+   */
+  private static void release(final ClientKey key, final SharedClient sharedClient) {
+    synchronized (CLIENTS) {
+      if (--sharedClient.references > 0) {
+        return;
+      }
+      CLIENTS.remove(key, sharedClient);
+    }
+
+    if (!sharedClient.client.isCompletedExceptionally()) {
+      LOGGER.debug("Shutting down a shared query client no longer used by any connection.");
+      sharedClient.client.join().shutdown();
+    }
+  }
+
+  /**
+   * The effective configuration of a query client: the endpoint, the identity of the credentials
+   * and the SDK options applied to the client.
+   */
+  static final class ClientKey {
+    private final List<Object> settings;
+
+    /**
+     * Constructor.
+     *
+     * @param endpoint            the service endpoint, {@code null} to use the regional endpoint.
+     * @param region              the signing region.
+     * @param credentials         an object identifying the credentials; equal objects must
+     *                            resolve to the same credentials.
+     * @param clientConfiguration the SDK options of the client.
+     */
+    ClientKey(
+      final String endpoint,
+      final String region,
+      final Object credentials,
+      final ClientConfiguration clientConfiguration) {
+      // The SDK options are copied, since the configuration may be modified after the client is built.
+      this.settings = Arrays.asList(
+        endpoint,
+        region,
+        credentials,
+        clientConfiguration.getConnectionTimeout(),
+        clientConfiguration.getRequestTimeout(),
+        clientConfiguration.getSocketTimeout(),
+        clientConfiguration.getClientExecutionTimeout(),
+        clientConfiguration.getMaxConnections(),
+        clientConfiguration.getMaxErrorRetry(),
+        clientConfiguration.getUserAgentPrefix(),
+        clientConfiguration.getUserAgentSuffix());
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return (this == o) || ((o instanceof ClientKey) && settings.equals(((ClientKey) o).settings));
+    }
+
+    @Override
+    public int hashCode() {
+      return settings.hashCode();
+    }
+  }
+
+  /**
+   * A lease of a connection on a shared client.
+   */
+  static final class Lease {
+    private final AtomicBoolean isReleased = new AtomicBoolean(false);
+    private final ClientKey key;
+    private final SharedClient sharedClient;
+    private final AmazonTimestreamQuery client;
+
+    /**
+     * Constructor.
+     *
+     * @param key          the effective configuration of the client.
+     * @param sharedClient the registered client.
+     * @param client       the shared client.
+     */
+    private Lease(final ClientKey key, final SharedClient sharedClient, final AmazonTimestreamQuery client) {
+      this.key = key;
+      this.sharedClient = sharedClient;
+      this.client = client;
+    }
+
+    /**
+     * Gets the shared client.
+     *
+     * @return the {@link AmazonTimestreamQuery} client.
+     */
+    AmazonTimestreamQuery getClient() {
+      return client;
+    }
+
+    /**
+     * Releases the lease. Releasing a lease more than once has no effect.
+     */
+    void release() {
+      if (!isReleased.getAndSet(true)) {
+        TimestreamClientRegistry.release(key, sharedClient);
+      }
+    }
+  }
+
+  /**
+   * A registered client, completed once it is built, and the number of connections using it.
+   */
+  private static final class SharedClient {
+    private final CompletableFuture<AmazonTimestreamQuery> client = new CompletableFuture<>();
+    private int references;
+  }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.services.timestreamquery.model.Datum;
+import com.amazonaws.services.timestreamquery.model.Row;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of rows decoded into one typed vector per column, so the getters of the result set read
+ * an array instead of parsing the scalar value of a {@link Datum}.
+ * <p>
+ * BIGINT and INTEGER columns are decoded into a {@code long[]}, DOUBLE columns into a {@code
+ * double[]}, BOOLEAN columns into a {@code boolean[]}, TIMESTAMP columns into a {@code long[]} of
+ * nanoseconds since the epoch of the local date-time, and VARCHAR columns into dictionary codes.
+ * Null cells are tracked in a bitmap. Columns of any other type, and columns containing a value
+ * that cannot be parsed, are not decoded and must be read from the {@link Datum}, so that parsing
+ * errors are reported when the cell is accessed.
+ */
+class TimestreamColumnarPage {
+  /**
+   * Rough size in bytes of a decoded cell, used to estimate the memory used by a page.
+   */
+  private static final long CELL_SIZE = 8;
+
+  private final Column[] columns;
+  private final int numRows;
+
+  /**
+   * Constructor.
+   *
+   * @param columns the decoded columns, {@code null} for the columns that are not decoded.
+   * @param numRows the number of rows in the page.
+   */
+  private TimestreamColumnarPage(final Column[] columns, final int numRows) {
+    this.columns = columns;
+    this.numRows = numRows;
+  }
+
+  /**
+   * Decodes the rows of a page.
+   *
+   * @param rows  the rows of the page.
+   * @param types the Timestream data type of each column.
+   * @return the decoded {@link TimestreamColumnarPage}.
+   */
+  static TimestreamColumnarPage decode(final List<Row> rows, final List<TimestreamDataType> types) {
+    final List<List<Datum>> data = new ArrayList<>(rows.size());
+    for (final Row row : rows) {
+      data.add(row.getData());
+    }
+
+    final Column[] columns = new Column[types.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = decodeColumn(data, i, types.get(i));
+    }
+    return new TimestreamColumnarPage(columns, rows.size());
+  }
+
+  /**
+   * Checks whether a column has been decoded.
+   *
+   * @param column the 0-based column index.
+   * @return {@code true} if the column can be read from this page; {@code false} otherwise.
+   */
+  boolean isDecoded(final int column) {
+    return (column < columns.length) && (columns[column] != null);
+  }
+
+  /**
+   * Checks whether a cell of a decoded column is null.
+   *
+   * @param column the 0-based column index.
+   * @param row    the 0-based row index in the page.
+   * @return {@code true} if the cell is null; {@code false} otherwise.
+   */
+  boolean isNull(final int column, final int row) {
+    return columns[column].nulls.get(row);
+  }
+
+  /**
+   * Gets a cell of a decoded BIGINT, INTEGER or TIMESTAMP column.
+   *
+   * @param column the 0-based column index.
+   * @param row    the 0-based row index in the page.
+   * @return the value, or the nanoseconds since the epoch for a TIMESTAMP column.
+   */
+  long getLong(final int column, final int row) {
+    return columns[column].longs[row];
+  }
+
+  /**
+   * Gets a cell of a decoded DOUBLE column.
+   *
+   * @param column the 0-based column index.
+   * @param row    the 0-based row index in the page.
+   * @return the value.
+   */
+  double getDouble(final int column, final int row) {
+    return columns[column].doubles[row];
+  }
+
+  /**
+   * Gets a cell of a decoded BOOLEAN column.
+   *
+   * @param column the 0-based column index.
+   * @param row    the 0-based row index in the page.
+   * @return the value.
+   */
+  boolean getBoolean(final int column, final int row) {
+    return columns[column].booleans[row];
+  }
+
+  /**
+   * Gets a cell of a decoded VARCHAR column.
+   *
+   * @param column the 0-based column index.
+   * @param row    the 0-based row index in the page.
+   * @return the value.
+   */
+  String getString(final int column, final int row) {
+    final Column decoded = columns[column];
+    return decoded.dictionary[decoded.codes[row]];
+  }
+
+  /**
+   * Gets a cell of a decoded TIMESTAMP column.
+   *
+   * @param column the 0-based column index.
+   * @param row    the 0-based row index in the page.
+   * @return the local date-time.
+   */
+  LocalDateTime getLocalDateTime(final int column, final int row) {
+    final long epochNanos = columns[column].longs[row];
+    return LocalDateTime.ofEpochSecond(
+      Math.floorDiv(epochNanos, Constants.NUM_NANOSECONDS_IN_SECOND),
+      (int) Math.floorMod(epochNanos, Constants.NUM_NANOSECONDS_IN_SECOND),
+      ZoneOffset.UTC);
+  }
+
+  /**
+   * Estimates the memory used by the decoded columns.
+   *
+   * @return the estimated size in bytes.
+   */
+  long estimateSize() {
+    long size = 0;
+    for (final Column column : columns) {
+      if (column != null) {
+        size += CELL_SIZE * numRows;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Decodes a column.
+   *
+   * @param data   the cells of each row.
+   * @param column the 0-based column index.
+   * @param type   the Timestream data type of the column.
+   * @return the decoded {@link Column}, or {@code null} if the column cannot be decoded.
+   */
+  private static Column decodeColumn(
+    final List<List<Datum>> data,
+    final int column,
+    final TimestreamDataType type) {
+    final int numRows = data.size();
+    final Column decoded = new Column(numRows);
+    final Map<String, Integer> dictionary = new HashMap<>();
+    switch (type) {
+      case BIGINT:
+      case INTEGER:
+      case TIMESTAMP:
+        decoded.longs = new long[numRows];
+        break;
+      case DOUBLE:
+        decoded.doubles = new double[numRows];
+        break;
+      case BOOLEAN:
+        decoded.booleans = new boolean[numRows];
+        break;
+      case VARCHAR:
+        decoded.codes = new int[numRows];
+        break;
+      default:
+        return null;
+    }
+
+    try {
+      for (int row = 0; row < numRows; row++) {
+        final List<Datum> cells = data.get(row);
+        if ((cells == null) || (column >= cells.size())) {
+          return null;
+        }
+
+        final Datum cell = cells.get(column);
+        if (cell == null) {
+          return null;
+        }
+        if (Boolean.TRUE.equals(cell.getNullValue())) {
+          decoded.nulls.set(row);
+          continue;
+        }
+
+        final String value = cell.getScalarValue();
+        if ((value == null) && (type != TimestreamDataType.VARCHAR)) {
+          return null;
+        }
+
+        switch (type) {
+          case BIGINT:
+            decoded.longs[row] = Long.parseLong(value);
+            break;
+          case INTEGER:
+            decoded.longs[row] = Integer.parseInt(value);
+            break;
+          case TIMESTAMP:
+            decoded.longs[row] = toEpochNanos(TimestreamDateTimeParser.parseDateTime(value));
+            break;
+          case DOUBLE:
+            decoded.doubles[row] = Double.parseDouble(value);
+            break;
+          case BOOLEAN:
+            decoded.booleans[row] = Boolean.parseBoolean(value);
+            break;
+          default:
+            decoded.codes[row] = dictionary.computeIfAbsent(value, key -> dictionary.size());
+            break;
+        }
+      }
+    } catch (final NumberFormatException | DateTimeParseException | ArithmeticException e) {
+      // Leave the column to the Datum-based getters, which report the error on access.
+      return null;
+    }
+
+    if (type == TimestreamDataType.VARCHAR) {
+      decoded.dictionary = new String[dictionary.size()];
+      dictionary.forEach((value, code) -> decoded.dictionary[code] = value);
+    }
+    return decoded;
+  }
+
+  /**
+   * Converts a local date-time into nanoseconds since the epoch, treating it as UTC.
+   *
+   * @param dateTime the local date-time.
+   * @return the nanoseconds since the epoch.
+   * @throws ArithmeticException if the date-time cannot be represented in nanoseconds.
+   */
+  private static long toEpochNanos(final LocalDateTime dateTime) {
+    return Math.addExact(
+      Math.multiplyExact(dateTime.toEpochSecond(ZoneOffset.UTC), Constants.NUM_NANOSECONDS_IN_SECOND),
+      dateTime.getNano());
+  }
+
+  /**
+   * The decoded cells of a column. Only the vector matching the column type is set.
+   */
+  private static class Column {
+    final BitSet nulls;
+    long[] longs;
+    double[] doubles;
+    boolean[] booleans;
+    int[] codes;
+    String[] dictionary;
+
+    Column(final int numRows) {
+      this.nulls = new BitSet(numRows);
+    }
+  }
+}
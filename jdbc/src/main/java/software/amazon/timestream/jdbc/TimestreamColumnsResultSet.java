@@ -20,15 +20,25 @@ import com.amazonaws.services.timestreamquery.model.Datum;
 import com.amazonaws.services.timestreamquery.model.Row;
 import com.amazonaws.services.timestreamquery.model.Type;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -64,14 +74,21 @@ public class TimestreamColumnsResultSet extends TimestreamBaseResultSet {
     TimestreamDataType.createColumnInfo(TimestreamDataType.VARCHAR, "IS_AUTOINCREMENT"),
     TimestreamDataType.createColumnInfo(TimestreamDataType.VARCHAR, "IS_GENERATEDCOLUMN"));
 
+  /* Maximum number of tables described ahead of the consumer by a result set. */
+  private static final int MAX_CONCURRENT_DESCRIBES = 8;
+  /* Maximum number of tables described concurrently by all the result sets. */
+  private static final int DESCRIBE_POOL_SIZE = 16;
+  private static final long DESCRIBE_KEEP_ALIVE_SECONDS = 60;
+  private static final ThreadPoolExecutor DESCRIBE_EXECUTOR = createDescribeExecutor();
+
   /* Index of table schema value in the resultSet returned from getTables() */
   private final int TABLE_SCHEM_INDX = 2;
   /* Index of table name value in the resultSet returned from getTables() */
   private final int TABLE_NAME_INDX = 3;
 
-  private final TimestreamStatement statement;
-  private ResultSet result;
+  private final TimestreamConnection connection;
   private final TimestreamTablesResultSet tablesResult;
+  private final Deque<DescribedTable> describedTables = new ArrayDeque<>();
   private final Matcher columnNameMatcher;
   private String curDatabase;
   private String curTable;
@@ -89,7 +106,7 @@ public class TimestreamColumnsResultSet extends TimestreamBaseResultSet {
     String tableNamePattern,
     String columnNamePattern) throws SQLException {
     super(null, 1000);
-    this.statement = connection.createStatement();
+    this.connection = connection;
     this.tablesResult = new TimestreamTablesResultSet(connection, database, tableNamePattern, null);
     this.rsMeta = createColumnMetadata(COLUMNS);
 
@@ -108,21 +125,26 @@ public class TimestreamColumnsResultSet extends TimestreamBaseResultSet {
   @Override
   public boolean isAfterLast() throws SQLException {
     verifyOpen();
-    return !rowItr.hasNext() && tablesResult.isAfterLast();
+    return !rowItr.hasNext() && describedTables.isEmpty() && tablesResult.isAfterLast();
   }
 
   @Override
   public boolean isLast() throws SQLException {
     verifyOpen();
-    return (null != result) && result.isLast() && !rowItr.hasNext();
+    return (null != curTable) && !rowItr.hasNext() && describedTables.isEmpty()
+      && (tablesResult.isLast() || tablesResult.isAfterLast());
   }
 
   /**
-   * Close this result set.
+   * Close this result set, abandoning the tables described ahead and canceling the descriptions
+   * that are running.
    */
   @Override
-  protected void doClose() throws SQLException {
-    this.statement.close();
+  protected void doClose() {
+    for (final DescribedTable describedTable : describedTables) {
+      describedTable.cancel();
+    }
+    describedTables.clear();
   }
 
   /**
@@ -133,38 +155,64 @@ public class TimestreamColumnsResultSet extends TimestreamBaseResultSet {
    */
   @Override
   protected boolean doNextPage() throws SQLException {
-    if (!tablesResult.next()) {
-      result = null;
+    // Describe the upcoming tables in parallel, and consume them in the order of the tables.
+    while ((describedTables.size() < MAX_CONCURRENT_DESCRIBES) && tablesResult.next()) {
+      describedTables.add(new DescribedTable(
+        tablesResult.getString(TABLE_SCHEM_INDX),
+        tablesResult.getString(TABLE_NAME_INDX)));
+    }
+
+    final DescribedTable describedTable = describedTables.poll();
+    if (describedTable == null) {
+      curTable = null;
       return false;
     }
 
     // Get the columns for the next table.
-    curDatabase = tablesResult.getString(TABLE_SCHEM_INDX);
-    curTable = tablesResult.getString(TABLE_NAME_INDX);
-    result = statement.executeQuery(String.format("DESCRIBE \"%s\".\"%s\"", curDatabase, curTable));
+    curDatabase = describedTable.database;
+    curTable = describedTable.table;
 
-    populateCurrentRows();
+    populateCurrentRows(describedTable.getColumns());
     return true;
   }
 
+  /**
+   * Creates the driver-wide bounded pool of daemon threads describing the tables of all the result
+   * sets. Idle threads are released after {@link #DESCRIBE_KEEP_ALIVE_SECONDS} seconds.
+   *
+   * @return the {@link ThreadPoolExecutor} describing the tables.
+   */
+  private static ThreadPoolExecutor createDescribeExecutor() {
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+      DESCRIBE_POOL_SIZE,
+      DESCRIBE_POOL_SIZE,
+      DESCRIBE_KEEP_ALIVE_SECONDS,
+      TimeUnit.SECONDS,
+      new LinkedBlockingQueue<>(),
+      new ThreadFactoryBuilder()
+        .setNameFormat("timestream-jdbc-describe-%d")
+        .setDaemon(true)
+        .build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
   /**
    * Map the list of columns into a Timestream Row type to allow reuse of the common ResultSet
    * retrieval path.
    *
+   * @param tableColumns all the columns of the current table.
    * @throws SQLException if there is an error accessing the database.
    */
-  private void populateCurrentRows() throws SQLException {
+  private void populateCurrentRows(List<TimestreamResultSetMetaData.ColInfo> tableColumns) throws SQLException {
     final List<TimestreamResultSetMetaData.ColInfo> colInfo = new ArrayList<>();
-    while (result.next()) {
-      final String columnName = result.getString(1);
-      if (!this.columnNameMatcher.reset(columnName).matches()) {
+    for (final TimestreamResultSetMetaData.ColInfo column : tableColumns) {
+      if (!this.columnNameMatcher.reset(column.getName()).matches()) {
         // This column name does not pass the column pattern.
         continue;
       }
 
-      colInfo.add(new TimestreamResultSetMetaData.ColInfo(
-        new Type().withScalarType(result.getString(2)),
-        columnName));
+      colInfo.add(column);
     }
 
     final ResultSetMetaData rsMeta = new TimestreamResultSetMetaData(colInfo);
@@ -204,4 +252,145 @@ public class TimestreamColumnsResultSet extends TimestreamBaseResultSet {
 
     this.rowItr = columns.iterator();
   }
+
+  /**
+   * A table being described in the background.
+   */
+  private final class DescribedTable {
+    private final String database;
+    private final String table;
+    private final CompletableFuture<List<TimestreamResultSetMetaData.ColInfo>> columns;
+    private Statement runningStatement;
+    private boolean isCanceled;
+
+    /**
+     * Constructor, starting the description of the table.
+     *
+     * @param database the database of the table.
+     * @param table    the table to describe.
+     */
+    private DescribedTable(final String database, final String table) {
+      this.database = database;
+      this.table = table;
+      this.columns = CompletableFuture.supplyAsync(() -> {
+        try {
+          return describe();
+        } catch (final SQLException e) {
+          throw new CompletionException(e);
+        }
+      }, DESCRIBE_EXECUTOR);
+    }
+
+    /**
+     * Cancels the description of the table. A description that has not started yet never runs,
+     * and the DESCRIBE query of a running description is canceled.
+     */
+    private void cancel() {
+      columns.cancel(false);
+      final Statement statement;
+      synchronized (this) {
+        isCanceled = true;
+        statement = runningStatement;
+      }
+
+      if (statement != null) {
+        try {
+          statement.cancel();
+        } catch (final SQLException e) {
+          LOGGER.debug("Failed to cancel the description of a table: {}", e.getMessage());
+        }
+      }
+    }
+
+    /**
+     * Retrieve all the columns of the table, from the catalog cache of the connection if it is
+     * enabled.
+     *
+     * @return the columns of the table.
+     * @throws SQLException if there is an error describing the table.
+     */
+    private List<TimestreamResultSetMetaData.ColInfo> describe() throws SQLException {
+      final TimestreamCatalogCache catalogCache = connection.getCatalogCache();
+      if (catalogCache == null) {
+        return queryColumns();
+      }
+
+      return catalogCache.getColumns(
+        connection.getResultCacheScope(),
+        database,
+        table,
+        connection.getCatalogCacheTtlNanos(),
+        this::queryColumns);
+    }
+
+    /**
+     * Query all the columns of the table, with a statement that can be canceled while the query
+     * is running.
+     *
+     * @return the columns of the table.
+     * @throws SQLException if there is an error describing the table, or if the description has
+     *                      been canceled.
+     */
+    private List<TimestreamResultSetMetaData.ColInfo> queryColumns() throws SQLException {
+      final List<TimestreamResultSetMetaData.ColInfo> colInfo = new ArrayList<>();
+      try (Statement statement = connection.createStatement()) {
+        synchronized (this) {
+          if (isCanceled) {
+            throw Error.createSQLException(
+              LOGGER,
+              Constants.OPERATION_CANCELED_SQL_STATE,
+              null,
+              Error.DESCRIBE_CANCELED,
+              database,
+              table);
+          }
+          runningStatement = statement;
+        }
+
+        try (ResultSet result = statement.executeQuery(String.format("DESCRIBE \"%s\".\"%s\"", database, table))) {
+          while (result.next()) {
+            colInfo.add(new TimestreamResultSetMetaData.ColInfo(
+              new Type().withScalarType(result.getString(2)),
+              result.getString(1)));
+          }
+        } finally {
+          synchronized (this) {
+            runningStatement = null;
+          }
+        }
+      }
+      return colInfo;
+    }
+
+    /**
+     * Waits for the columns of the table.
+     *
+     * @return all the columns of the table.
+     * @throws SQLException if there is an error describing the table.
+     */
+    private List<TimestreamResultSetMetaData.ColInfo> getColumns() throws SQLException {
+      try {
+        return columns.get();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw Error.createSQLException(LOGGER, e, Error.DESCRIBE_INTERRUPTED, database, table);
+      } catch (final ExecutionException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof SQLException) {
+          throw (SQLException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        if (cause instanceof java.lang.Error) {
+          throw (java.lang.Error) cause;
+        }
+        throw Error.createSQLException(
+          LOGGER,
+          (Exception) cause,
+          Error.ASYNC_RETRIEVAL_ERROR,
+          String.format("DESCRIBE \"%s\".\"%s\"", database, table));
+      }
+    }
+  }
 }
@@ -18,6 +18,7 @@ package software.amazon.timestream.jdbc;
 import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.auth.AWSSessionCredentials;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.auth.BasicSessionCredentials;
@@ -31,7 +32,6 @@ import com.amazonaws.services.timestreamquery.AmazonTimestreamQueryClientBuilder
 import com.amazonaws.services.timestreamquery.model.QueryRequest;
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,30 +51,105 @@ import java.sql.SQLWarning;
 import java.sql.SQLXML;
 import java.sql.Savepoint;
 import java.sql.Struct;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Timestream implementation of Connection, represents a physical connection to a database.
  */
 public class TimestreamConnection implements java.sql.Connection {
   private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamConnection.class);
+  private static final String VERIFICATION_QUERY = "SELECT 1";
+
+  /**
+   * When the connection is verified with a query.
+   */
+  enum VerificationMode {
+    /**
+     * The connection is verified before it is returned.
+     */
+    EAGER,
+    /**
+     * The connection is verified when a query fails.
+     */
+    LAZY,
+    /**
+     * The connection is verified in the background while it is used.
+     */
+    ASYNC;
+
+    /**
+     * Parses the verification mode, ignoring case.
+     *
+     * @param mode the name of the mode.
+     * @return the matching {@link VerificationMode}, or {@code null} if the name does not match
+     * any mode.
+     */
+    static VerificationMode fromString(final String mode) {
+      for (final VerificationMode value : values()) {
+        if (value.name().equalsIgnoreCase(mode)) {
+          return value;
+        }
+      }
+      return null;
+    }
+  }
 
   private final AtomicBoolean isClosed = new AtomicBoolean(false);
   private final TimestreamDatabaseMetaData databaseMetaData;
   private final Properties connectionProperties;
   private boolean metadataPreparedStatementEnabled = Boolean.parseBoolean(
       TimestreamConnectionProperty.ENABLE_METADATA_PREPARED_STATEMENT.getDefaultValue());
+  private TimestreamPrefetchBuffer.PrefetchMode prefetchMode = TimestreamPrefetchBuffer.PrefetchMode
+      .fromString(TimestreamConnectionProperty.PREFETCH_MODE.getDefaultValue());
+  private int prefetchDepth = Integer.parseInt(
+      TimestreamConnectionProperty.PREFETCH_DEPTH.getDefaultValue());
+  private int maxPrefetchDepth = Integer.parseInt(
+      TimestreamConnectionProperty.MAX_PREFETCH_DEPTH.getDefaultValue());
+  private TimestreamMemoryBudget prefetchMemoryBudget;
+  private boolean columnarDecodingEnabled = Boolean.parseBoolean(
+      TimestreamConnectionProperty.COLUMNAR_DECODING.getDefaultValue());
+  private int retrievalThreadPoolSize = Integer.parseInt(
+      TimestreamConnectionProperty.RETRIEVAL_THREAD_POOL_SIZE.getDefaultValue());
+  private boolean useVirtualThreads = Boolean.parseBoolean(
+      TimestreamConnectionProperty.USE_VIRTUAL_THREADS.getDefaultValue());
+  private TimestreamRetrievalExecutor retrievalExecutor;
+  private volatile TimestreamRetrievalExecutor queryExecutor;
   private SQLWarning warnings;
   private Map<String, Class<?>> typeMap = new HashMap<>();
   @VisibleForTesting
   final ClientConfiguration clientConfiguration;
   AmazonTimestreamQuery queryClient;
   AmazonTimestreamQueryClientBuilder queryClientBuilder;
+  private TimestreamClientRegistry.Lease queryClientLease;
+  private TimestreamSAMLClients.Lease samlClientsLease;
+  private volatile CompletableFuture<Void> verification = CompletableFuture.completedFuture(null);
+  private long validationCacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(
+      Long.parseLong(TimestreamConnectionProperty.VALIDATION_CACHE_TTL.getDefaultValue()));
+  private volatile boolean hasSuccessfulRequest;
+  private volatile long lastSuccessfulRequestNanos;
+  private final AtomicLong validationCacheHits = new AtomicLong();
+  private final AtomicLong validationCacheMisses = new AtomicLong();
+  private volatile TimestreamStatementCache statementCache;
+  private TimestreamResultCache resultCache;
+  private long resultCacheTtlNanos;
+  private Object resultCacheScope = this;
+  private boolean isSingleFlightEnabled;
+  private TimestreamResultMetaDataCache metaDataCache;
+  private long metaDataCacheTtlNanos;
+  private TimestreamCatalogCache catalogCache;
+  private long catalogCacheTtlNanos;
+  private final AtomicReference<TimestreamPooledConnection> pooledConnection = new AtomicReference<>();
 
   /**
    * Constructor to seed the connection with the necessary information and configuration to
@@ -87,7 +162,7 @@ public class TimestreamConnection implements java.sql.Connection {
   TimestreamConnection(
     @NonNull final Properties info,
     @NonNull final ClientConfiguration clientConfiguration) throws SQLException {
-    this(info, clientConfiguration, HttpClients.createDefault());
+    this(info, clientConfiguration, null);
   }
 
   /**
@@ -96,16 +171,22 @@ public class TimestreamConnection implements java.sql.Connection {
    *
    * @param info                The connection properties.
    * @param clientConfiguration The client configuration.
-   * @param httpClient          The HTTP Client to be used during SAML Authentication.
+   * @param httpClient          The HTTP Client to be used during SAML Authentication, or
+   *                            {@code null} to use the HTTP client shared by the connections.
    * @throws SQLException if property is not supported by the driver.
    */
   TimestreamConnection(
     @NonNull final Properties info,
     @NonNull final ClientConfiguration clientConfiguration,
-    @NonNull final CloseableHttpClient httpClient) throws SQLException {
+    final CloseableHttpClient httpClient) throws SQLException {
     this.connectionProperties = info;
     this.clientConfiguration = clientConfiguration;
-    initializeClients(info, httpClient);
+    try {
+      initializeClients(info, httpClient);
+    } catch (final SQLException | RuntimeException e) {
+      releaseSAMLClients();
+      throw e;
+    }
     databaseMetaData = new TimestreamDatabaseMetaData(this);
   }
 
@@ -125,7 +206,16 @@ public class TimestreamConnection implements java.sql.Connection {
   public void close() {
     if (!this.isClosed.getAndSet(true)) {
       LOGGER.debug("Closing the current opened connection.");
-      this.queryClient.shutdown();
+      final TimestreamStatementCache cache = this.statementCache;
+      if (cache != null) {
+        cache.clear();
+      }
+      if (this.queryClientLease != null) {
+        this.queryClientLease.release();
+      } else {
+        this.queryClient.shutdown();
+      }
+      releaseSAMLClients();
     }
   }
 
@@ -309,15 +399,24 @@ public class TimestreamConnection implements java.sql.Connection {
       throw Error.createSQLException(LOGGER, Error.INVALID_TIMEOUT, timeout);
     }
 
-    final AmazonTimestreamQuery client = this.getQueryClientBuilder()
-        .withClientConfiguration(
-            new ClientConfiguration(queryClientBuilder.getClientConfiguration())
-                .withConnectionTimeout(timeout * 1000))
-        .build();
+    if (isClosed()) {
+      return false;
+    }
+
+    // A request that succeeded recently proves the connection is alive.
+    if (hasSuccessfulRequest && ((System.nanoTime() - lastSuccessfulRequestNanos) < validationCacheTtlNanos)) {
+      validationCacheHits.incrementAndGet();
+      return true;
+    }
+    validationCacheMisses.incrementAndGet();
 
     // Issue a query to validate the actual connection.
     try {
-      client.query(new QueryRequest().withQueryString("SELECT 1"));
+      queryClient.query(new QueryRequest()
+          .withQueryString(VERIFICATION_QUERY)
+          .withSdkClientExecutionTimeout(
+              (int) Math.min(Integer.MAX_VALUE, (long) timeout * Constants.NUM_MILLISECONDS_IN_SECOND)));
+      recordSuccessfulRequest();
       return true;
     } catch (Exception e) {
       LOGGER.error("Connection is no longer valid: {}", e.getMessage());
@@ -325,6 +424,26 @@ public class TimestreamConnection implements java.sql.Connection {
     }
   }
 
+  /**
+   * Gets the number of calls to {@link #isValid(int)} answered without a query, because a request
+   * on the connection succeeded within the validation cache TTL.
+   *
+   * @return the number of validation cache hits.
+   */
+  public long getValidationCacheHits() {
+    return validationCacheHits.get();
+  }
+
+  /**
+   * Gets the number of calls to {@link #isValid(int)} on an open connection that issued a query,
+   * because no request on the connection succeeded within the validation cache TTL.
+   *
+   * @return the number of validation cache misses.
+   */
+  public long getValidationCacheMisses() {
+    return validationCacheMisses.get();
+  }
+
   @Override
   public boolean isWrapperFor(Class<?> iface) {
     return (null != iface) && iface.isAssignableFrom(this.getClass());
@@ -359,7 +478,7 @@ public class TimestreamConnection implements java.sql.Connection {
   @Override
   public PreparedStatement prepareStatement(String sql) throws SQLException {
     verifyOpen();
-    return new TimestreamPreparedStatement(this, sql);
+    return prepareCachedStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
   }
 
   @Override
@@ -373,7 +492,7 @@ public class TimestreamConnection implements java.sql.Connection {
       throws SQLException {
     verifyOpen();
     checkStatementAttributes(resultSetType, resultSetConcurrency);
-    return new TimestreamPreparedStatement(this, sql);
+    return prepareCachedStatement(sql, resultSetType, resultSetConcurrency);
   }
 
   @Override
@@ -547,6 +666,390 @@ public class TimestreamConnection implements java.sql.Connection {
     return queryClient;
   }
 
+  /**
+   * Gets the client execution timeout of the query client, the initial query timeout of the
+   * statements created by this connection.
+   *
+   * @return the client execution timeout in milliseconds, 0 if there is no timeout.
+   */
+  int getClientExecutionTimeout() {
+    return this.queryClientBuilder.getClientConfiguration().getClientExecutionTimeout();
+  }
+
+  /**
+   * Gets the cache of query results of this connection.
+   *
+   * @return the {@link TimestreamResultCache}, or {@code null} if the result cache is disabled.
+   */
+  TimestreamResultCache getResultCache() {
+    return resultCache;
+  }
+
+  /**
+   * Gets the object identifying the query client configuration of this connection, which scopes
+   * the cached results it can share with other connections.
+   *
+   * @return the scope of the cached results.
+   */
+  Object getResultCacheScope() {
+    return resultCacheScope;
+  }
+
+  /**
+   * Gets the time to live of the query results cached by this connection.
+   *
+   * @return the time to live in nanoseconds.
+   */
+  long getResultCacheTtlNanos() {
+    return resultCacheTtlNanos;
+  }
+
+  /**
+   * Checks whether identical queries issued at the same time by the connections using the same
+   * query client configuration share a single execution.
+   *
+   * @return {@code true} if single-flight is enabled; {@code false} otherwise.
+   */
+  boolean isSingleFlightEnabled() {
+    return isSingleFlightEnabled;
+  }
+
+  /**
+   * Gets the cache of the result set metadata of prepared queries shared by this connection.
+   *
+   * @return the {@link TimestreamResultMetaDataCache}, or {@code null} if the cache is disabled.
+   */
+  TimestreamResultMetaDataCache getMetaDataCache() {
+    return metaDataCache;
+  }
+
+  /**
+   * Gets the time to live of the result set metadata cached by this connection.
+   *
+   * @return the time to live in nanoseconds.
+   */
+  long getMetaDataCacheTtlNanos() {
+    return metaDataCacheTtlNanos;
+  }
+
+  /**
+   * Gets the number of prepared statements whose result set metadata was answered from the cache
+   * shared by this connection, without a query to Timestream.
+   *
+   * @return the number of cache hits; 0 if the metadata cache is disabled.
+   */
+  public long getMetaDataCacheHits() {
+    return (metaDataCache == null) ? 0 : metaDataCache.getHits();
+  }
+
+  /**
+   * Gets the number of prepared statements without cached result set metadata.
+   *
+   * @return the number of cache misses; 0 if the metadata cache is disabled.
+   */
+  public long getMetaDataCacheMisses() {
+    return (metaDataCache == null) ? 0 : metaDataCache.getMisses();
+  }
+
+  /**
+   * Gets the number of cached result set metadata invalidated because an execution failed
+   * or returned different columns.
+   *
+   * @return the number of invalidations; 0 if the metadata cache is disabled.
+   */
+  public long getMetaDataCacheInvalidations() {
+    return (metaDataCache == null) ? 0 : metaDataCache.getInvalidations();
+  }
+
+  /**
+   * Gets the cache of the catalog listed by the {@link TimestreamDatabaseMetaData} of this
+   * connection.
+   *
+   * @return the {@link TimestreamCatalogCache}, or {@code null} if the catalog cache is disabled.
+   */
+  TimestreamCatalogCache getCatalogCache() {
+    return catalogCache;
+  }
+
+  /**
+   * Gets the time to live of the catalog cached by this connection.
+   *
+   * @return the time to live in nanoseconds.
+   */
+  long getCatalogCacheTtlNanos() {
+    return catalogCacheTtlNanos;
+  }
+
+  /**
+   * Gets the number of database, table and column lists answered from the catalog cache shared by
+   * this connection, without a query to Timestream.
+   *
+   * @return the number of cache hits; 0 if the catalog cache is disabled.
+   */
+  public long getCatalogCacheHits() {
+    return (catalogCache == null) ? 0 : catalogCache.getHits();
+  }
+
+  /**
+   * Gets the number of database, table and column lists queried from Timestream because the
+   * catalog cache shared by this connection had no valid list for them.
+   *
+   * @return the number of cache misses; 0 if the catalog cache is disabled.
+   */
+  public long getCatalogCacheMisses() {
+    return (catalogCache == null) ? 0 : catalogCache.getMisses();
+  }
+
+  /**
+   * Gets the number of lists evicted from the catalog cache shared by this connection to stay
+   * within its maximum size.
+   *
+   * @return the number of evictions; 0 if the catalog cache is disabled.
+   */
+  public long getCatalogCacheEvictions() {
+    return (catalogCache == null) ? 0 : catalogCache.getEvictions();
+  }
+
+  /**
+   * Removes the whole catalog cached for the query client configuration of this connection, so
+   * the next metadata calls list the databases, tables and columns from Timestream again.
+   */
+  public void invalidateCatalogCache() {
+    invalidateCatalogCache(null, null);
+  }
+
+  /**
+   * Removes a part of the catalog cached for the query client configuration of this connection,
+   * after a table or a database has been created, altered or deleted.
+   *
+   * @param database the database whose tables and columns are removed, or {@code null} to remove
+   *                 the whole catalog.
+   * @param table    the table whose columns are removed, or {@code null} to remove the tables and
+   *                 columns of the whole database.
+   */
+  public void invalidateCatalogCache(final String database, final String table) {
+    if (catalogCache != null) {
+      catalogCache.invalidate(resultCacheScope, database, (database == null) ? null : table);
+    }
+  }
+
+  /**
+   * Gets the number of queries answered from the result cache shared by this connection.
+   *
+   * @return the number of cache hits; 0 if the result cache is disabled.
+   */
+  public long getResultCacheHits() {
+    return (resultCache == null) ? 0 : resultCache.getHits();
+  }
+
+  /**
+   * Gets the number of queries sent to Timestream because the result cache shared by this
+   * connection had no valid result for them.
+   *
+   * @return the number of cache misses; 0 if the result cache is disabled.
+   */
+  public long getResultCacheMisses() {
+    return (resultCache == null) ? 0 : resultCache.getMisses();
+  }
+
+  /**
+   * Gets the number of results evicted from the result cache shared by this connection to stay
+   * within its maximum size.
+   *
+   * @return the number of evictions; 0 if the result cache is disabled.
+   */
+  public long getResultCacheEvictions() {
+    return (resultCache == null) ? 0 : resultCache.getEvictions();
+  }
+
+  /**
+   * Enables caching the closed poolable prepared statements of this connection, so statements
+   * prepared again with the same SQL text and result set attributes are reused.
+   *
+   * @param maxSize The maximum number of cached statements; 0 disables the statement cache.
+   */
+  void setStatementCacheSize(final int maxSize) {
+    this.statementCache = (maxSize > 0) ? new TimestreamStatementCache(maxSize) : null;
+  }
+
+  /**
+   * Gets the statement cache of this connection.
+   *
+   * @return the {@link TimestreamStatementCache}, or {@code null} if statement caching is disabled.
+   */
+  TimestreamStatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  /**
+   * Sets the pooled connection currently handing out this connection, which is notified of the
+   * statement events of this connection.
+   *
+   * @param pooled The pooled connection.
+   */
+  void attachPooledConnection(final TimestreamPooledConnection pooled) {
+    this.pooledConnection.set(pooled);
+  }
+
+  /**
+   * Stops notifying the given pooled connection of the statement events of this connection, unless
+   * the connection is handed out by another pooled connection.
+   *
+   * @param pooled The closed pooled connection.
+   */
+  void detachPooledConnection(final TimestreamPooledConnection pooled) {
+    this.pooledConnection.compareAndSet(pooled, null);
+  }
+
+  /**
+   * Notifies the pooled connection that a prepared statement of this connection is closed, and
+   * caches the statement if it can be reused.
+   *
+   * @param statement The closed statement.
+   */
+  void statementClosed(final TimestreamStatement statement) {
+    if (!(statement instanceof TimestreamPreparedStatement)) {
+      return;
+    }
+
+    final TimestreamPreparedStatement preparedStatement = (TimestreamPreparedStatement) statement;
+    final TimestreamPooledConnection pooled = this.pooledConnection.get();
+    if (pooled != null) {
+      pooled.fireStatementClosed(preparedStatement);
+    }
+
+    final TimestreamStatementCache cache = this.statementCache;
+    if ((cache != null) && !isClosed() && preparedStatement.isCacheable()) {
+      cache.offer(preparedStatement);
+    }
+  }
+
+  /**
+   * Notifies the pooled connection that a prepared statement of this connection threw an
+   * exception, which prevents the statement from being cached.
+   *
+   * @param statement The statement that threw the exception.
+   * @param e         The exception thrown.
+   */
+  void statementErrorOccurred(final TimestreamPreparedStatement statement, final SQLException e) {
+    final TimestreamPooledConnection pooled = this.pooledConnection.get();
+    if (pooled != null) {
+      pooled.fireStatementErrorOccurred(statement, e);
+    }
+  }
+
+  /**
+   * Notifies the pooled connection that a request on this connection failed, so the pool closes
+   * this connection instead of reusing it if the error is fatal.
+   *
+   * @param e The exception thrown.
+   */
+  void connectionErrorOccurred(final SQLException e) {
+    final TimestreamPooledConnection pooled = this.pooledConnection.get();
+    if (pooled != null) {
+      pooled.fireConnectionErrorOccurred(e);
+    }
+  }
+
+  /**
+   * Prepares a statement, reusing the cached statement with the same SQL text and result set
+   * attributes if there is one. A cached statement is reused through a new statement, so each
+   * statement returned by this connection is closed at most once.
+   *
+   * @param sql                  The sql query.
+   * @param resultSetType        The type of the result sets.
+   * @param resultSetConcurrency The concurrency of the result sets.
+   * @return the {@link TimestreamPreparedStatement}.
+   * @throws SQLException if error occurs when get type map of connection.
+   */
+  private TimestreamPreparedStatement prepareCachedStatement(
+    final String sql,
+    final int resultSetType,
+    final int resultSetConcurrency) throws SQLException {
+    final TimestreamStatementCache cache = this.statementCache;
+    if (cache != null) {
+      final TimestreamPreparedStatement closedStatement = cache.take(
+        new TimestreamStatementCache.Key(sql, resultSetType, resultSetConcurrency));
+      if (closedStatement != null) {
+        LOGGER.debug("Reusing a cached prepared statement.");
+        return new TimestreamPreparedStatement(closedStatement);
+      }
+    }
+    return new TimestreamPreparedStatement(this, sql, resultSetType, resultSetConcurrency);
+  }
+
+  /**
+   * Records that a request on this connection succeeded, which proves the connection is alive
+   * for the validation cache TTL.
+   */
+  void recordSuccessfulRequest() {
+    this.lastSuccessfulRequestNanos = System.nanoTime();
+    this.hasSuccessfulRequest = true;
+  }
+
+  /**
+   * Gets the error to report for a failed request if the connection has not been verified and
+   * cannot be established. An unverified connection is verified with a query, after waiting for
+   * the verification running in the background if there is one. A connection that fails the
+   * verification is verified again on the next failed request.
+   *
+   * @return a {@link SQLException} with the {@link Constants#CONNECTION_FAILURE_SQL_STATE} state
+   * if the connection cannot be established; {@code null} if the connection is valid.
+   */
+  SQLException getConnectionFailure() {
+    final CompletableFuture<Void> pendingVerification = this.verification;
+    try {
+      if (pendingVerification != null) {
+        pendingVerification.join();
+        return null;
+      }
+      verifyConnection();
+      this.verification = CompletableFuture.completedFuture(null);
+      return null;
+    } catch (final CompletionException e) {
+      this.verification = null;
+      return Error.createSQLException(
+        LOGGER,
+        Constants.CONNECTION_FAILURE_SQL_STATE,
+        (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e,
+        Error.CONN_FAILED);
+    } catch (final RuntimeException e) {
+      this.verification = null;
+      return Error.createSQLException(LOGGER, Constants.CONNECTION_FAILURE_SQL_STATE, e, Error.CONN_FAILED);
+    }
+  }
+
+  /**
+   * Starts verifying the connection according to the given mode: the verification is either
+   * deferred until a request fails, or run in the background on the retrieval executor.
+   *
+   * @param mode the verification mode of the connection.
+   */
+  void startVerification(final VerificationMode mode) {
+    switch (mode) {
+      case LAZY:
+        LOGGER.debug("Deferring the connection verification.");
+        this.verification = null;
+        break;
+      case ASYNC:
+        LOGGER.debug("Verifying the connection in the background.");
+        this.verification = CompletableFuture.runAsync(this::verifyConnection, getRetrievalExecutor());
+        break;
+      default:
+        this.verification = CompletableFuture.completedFuture(null);
+        break;
+    }
+  }
+
+  /**
+   * Gets the request timeout of the connection, applied to each request sent by its statements.
+   *
+   * @return the request timeout in milliseconds, 0 if there is no timeout.
+   */
+  int getRequestTimeout() {
+    return this.queryClientBuilder.getClientConfiguration().getRequestTimeout();
+  }
+
   /**
    * Getter for metadataPreparedStatementEnabled.
    *
@@ -556,6 +1059,75 @@ public class TimestreamConnection implements java.sql.Connection {
     return metadataPreparedStatementEnabled;
   }
 
+  /**
+   * Creates the buffer holding the result set pages retrieved ahead of the consumer, configured
+   * with this connection's prefetch options.
+   *
+   * @param <E> the type of the buffered elements.
+   * @return a new {@link TimestreamPrefetchBuffer}.
+   */
+  <E> TimestreamPrefetchBuffer<E> createPrefetchBuffer() {
+    return new TimestreamPrefetchBuffer<>(prefetchMode, prefetchDepth, maxPrefetchDepth);
+  }
+
+  /**
+   * Getter for columnarDecodingEnabled.
+   *
+   * @return true if the result set pages are decoded into column vectors; otherwise, return false.
+   */
+  boolean isColumnarDecodingEnabled() {
+    return columnarDecodingEnabled;
+  }
+
+  /**
+   * Gets the memory budget shared by the buffers of the result sets created by this connection.
+   *
+   * @return the {@link TimestreamMemoryBudget} of this connection.
+   */
+  TimestreamMemoryBudget getPrefetchMemoryBudget() {
+    return prefetchMemoryBudget;
+  }
+
+  /**
+   * Gets the executor retrieving the pages of the result sets created by this connection. Unless
+   * an executor has been assigned with {@link #setRetrievalExecutor}, this is the driver-wide
+   * virtual thread executor if virtual threads are enabled, or the driver-wide executor for the
+   * configured pool size otherwise.
+   *
+   * @return the {@link TimestreamRetrievalExecutor}.
+   */
+  synchronized TimestreamRetrievalExecutor getRetrievalExecutor() {
+    if (retrievalExecutor == null) {
+      retrievalExecutor = useVirtualThreads
+        ? TimestreamRetrievalExecutor.getVirtualThreadExecutor()
+        : TimestreamRetrievalExecutor.getSharedExecutor(retrievalThreadPoolSize);
+    }
+    return retrievalExecutor;
+  }
+
+  /**
+   * Gets the executor running the asynchronous queries of the statements of this connection. This
+   * is the driver-wide virtual thread executor if virtual threads are enabled, or the driver-wide
+   * query executor for the configured pool size otherwise, so the queries waiting for their first
+   * page do not hold the threads retrieving pages. The executor is resolved once the connection
+   * options are configured.
+   *
+   * @return the query {@link TimestreamRetrievalExecutor}, or {@code null} if the connection options
+   * are not configured yet.
+   */
+  TimestreamRetrievalExecutor getQueryExecutor() {
+    return queryExecutor;
+  }
+
+  /**
+   * Sets the executor retrieving the pages of the result sets created by this connection.
+   *
+   * @param retrievalExecutor the {@link TimestreamRetrievalExecutor} to use.
+   */
+  synchronized void setRetrievalExecutor(final TimestreamRetrievalExecutor retrievalExecutor) {
+    this.retrievalExecutor = retrievalExecutor;
+  }
+
   /**
    * Gets a copy of the query client builder.
    *
@@ -607,7 +1179,8 @@ public class TimestreamConnection implements java.sql.Connection {
    *
    * @param info                The connection properties.
    * @param credentialsProvider if property is not supported by the driver.
-   * @throws SQLException if a Timestream service endpoint is specified without a signing region.
+   * @throws SQLException if a Timestream service endpoint is specified without a signing region,
+   *                      if the verification mode is invalid or if the connection verification fails.
    */
   void buildQueryClientAndVerifyConnection(
     final Properties info,
@@ -638,17 +1211,51 @@ public class TimestreamConnection implements java.sql.Connection {
     }
     queryClientBuilder.withCredentials(credentialsProvider);
 
-    // Build the client and issue a query to validate the actual connection.
+    final String verification = info
+      .getOrDefault(
+        TimestreamConnectionProperty.CONNECTION_VERIFICATION.getConnectionProperty(),
+        TimestreamConnectionProperty.CONNECTION_VERIFICATION.getDefaultValue())
+      .toString();
+    final VerificationMode verificationMode = VerificationMode.fromString(verification);
+    if (verificationMode == null) {
+      throw Error.createSQLException(LOGGER, Error.INVALID_CONNECTION_VERIFICATION, verification);
+    }
+
+    final TimestreamClientRegistry.ClientKey clientKey = new TimestreamClientRegistry.ClientKey(
+      (endpoint == null) ? null : endpoint.toString(),
+      region.toString(),
+      getCredentialsKey(info, credentialsProvider),
+      this.clientConfiguration);
+    resultCacheScope = clientKey;
+
+    // Get the client shared by the connections with the same configuration and issue a query to
+    // validate the actual connection, unless the verification is deferred.
     try {
-      queryClient = this.queryClientBuilder.build();
-      queryClient.query(new QueryRequest().withQueryString("SELECT 1"));
+      queryClientLease = TimestreamClientRegistry.acquire(clientKey, this.queryClientBuilder::build);
+      queryClient = queryClientLease.getClient();
+      if (verificationMode == VerificationMode.EAGER) {
+        verifyConnection();
+      }
     } catch (final Exception sdkClientException) {
+      if (queryClientLease != null) {
+        queryClientLease.release();
+        queryClientLease = null;
+      }
       throw Error.createSQLException(
         LOGGER,
         Constants.CONNECTION_FAILURE_SQL_STATE,
         sdkClientException,
         Error.CONN_FAILED);
     }
+    startVerification(verificationMode);
+  }
+
+  /**
+   * Verifies the connection with a simple query.
+   */
+  private void verifyConnection() {
+    queryClient.query(new QueryRequest().withQueryString(VERIFICATION_QUERY));
+    recordSuccessfulRequest();
   }
 
   /**
@@ -712,6 +1319,252 @@ public class TimestreamConnection implements java.sql.Connection {
     }
   }
 
+  /**
+   * Configures how the result sets created by this connection retrieve and prefetch pages.
+   *
+   * @param info The {@link Properties} used to create a connection.
+   * @throws SQLException if one of the options is invalid.
+   */
+  private void configureRetrievalOptions(final Properties info) throws SQLException {
+    final long maxPrefetchMemory;
+    final long maxGlobalPrefetchMemory;
+    final String mode = info
+      .getOrDefault(
+        TimestreamConnectionProperty.PREFETCH_MODE.getConnectionProperty(),
+        TimestreamConnectionProperty.PREFETCH_MODE.getDefaultValue())
+      .toString();
+    prefetchMode = TimestreamPrefetchBuffer.PrefetchMode.fromString(mode);
+    if (prefetchMode == null) {
+      throw Error.createSQLException(LOGGER, Error.INVALID_PREFETCH_MODE, mode);
+    }
+
+    try {
+      prefetchDepth = Integer.parseInt(info
+        .getOrDefault(
+          TimestreamConnectionProperty.PREFETCH_DEPTH.getConnectionProperty(),
+          TimestreamConnectionProperty.PREFETCH_DEPTH.getDefaultValue())
+        .toString());
+
+      maxPrefetchDepth = Integer.parseInt(info
+        .getOrDefault(
+          TimestreamConnectionProperty.MAX_PREFETCH_DEPTH.getConnectionProperty(),
+          TimestreamConnectionProperty.MAX_PREFETCH_DEPTH.getDefaultValue())
+        .toString());
+
+      retrievalThreadPoolSize = Integer.parseInt(info
+        .getOrDefault(
+          TimestreamConnectionProperty.RETRIEVAL_THREAD_POOL_SIZE.getConnectionProperty(),
+          TimestreamConnectionProperty.RETRIEVAL_THREAD_POOL_SIZE.getDefaultValue())
+        .toString());
+
+      maxPrefetchMemory = Long.parseLong(info
+        .getOrDefault(
+          TimestreamConnectionProperty.MAX_PREFETCH_MEMORY.getConnectionProperty(),
+          TimestreamConnectionProperty.MAX_PREFETCH_MEMORY.getDefaultValue())
+        .toString());
+
+      maxGlobalPrefetchMemory = Long.parseLong(info
+        .getOrDefault(
+          TimestreamConnectionProperty.MAX_GLOBAL_PREFETCH_MEMORY.getConnectionProperty(),
+          TimestreamConnectionProperty.MAX_GLOBAL_PREFETCH_MEMORY.getDefaultValue())
+        .toString());
+    } catch (final NumberFormatException ne) {
+      throw Error.createSQLException(LOGGER, Constants.CONNECTION_EXCEPTION_SQL_STATE, ne, Error.INVALID_NUMERIC_CONNECTION_VALUE);
+    }
+
+    if ((prefetchDepth < 1)
+      || ((prefetchMode == TimestreamPrefetchBuffer.PrefetchMode.ADAPTIVE) && (prefetchDepth > maxPrefetchDepth))) {
+      throw Error.createSQLException(LOGGER, Error.INVALID_PREFETCH_DEPTH, prefetchDepth, maxPrefetchDepth);
+    }
+
+    if (retrievalThreadPoolSize < 1) {
+      throw Error.createSQLException(LOGGER, Error.INVALID_RETRIEVAL_THREAD_POOL_SIZE, retrievalThreadPoolSize);
+    }
+
+    if (maxPrefetchMemory < 0) {
+      throw Error.createSQLException(LOGGER, Error.INVALID_PREFETCH_MEMORY, maxPrefetchMemory);
+    }
+
+    if (maxGlobalPrefetchMemory < 0) {
+      throw Error.createSQLException(LOGGER, Error.INVALID_PREFETCH_MEMORY, maxGlobalPrefetchMemory);
+    }
+
+    prefetchMemoryBudget = new TimestreamMemoryBudget(
+      maxPrefetchMemory,
+      TimestreamMemoryBudget.getGlobalBudget(maxGlobalPrefetchMemory));
+
+    columnarDecodingEnabled = Boolean.parseBoolean(info
+      .getOrDefault(
+        TimestreamConnectionProperty.COLUMNAR_DECODING.getConnectionProperty(),
+        TimestreamConnectionProperty.COLUMNAR_DECODING.getDefaultValue())
+      .toString());
+
+    useVirtualThreads = Boolean.parseBoolean(info
+      .getOrDefault(
+        TimestreamConnectionProperty.USE_VIRTUAL_THREADS.getConnectionProperty(),
+        TimestreamConnectionProperty.USE_VIRTUAL_THREADS.getDefaultValue())
+      .toString());
+
+    if (useVirtualThreads && (TimestreamRetrievalExecutor.getVirtualThreadExecutor() == null)) {
+      addWarning(new SQLWarning(Warning.lookup(Warning.VIRTUAL_THREADS_NOT_SUPPORTED)));
+      useVirtualThreads = false;
+    }
+
+    queryExecutor = useVirtualThreads
+      ? TimestreamRetrievalExecutor.getVirtualThreadExecutor()
+      : TimestreamRetrievalExecutor.getSharedQueryExecutor(retrievalThreadPoolSize);
+  }
+
+  /**
+   * Configures how the connection is validated.
+   *
+   * @param info The {@link Properties} used to create a connection.
+   * @throws SQLException if one of the options is invalid.
+   */
+  private void configureValidationOptions(final Properties info) throws SQLException {
+    final long validationCacheTtl;
+    try {
+      validationCacheTtl = Long.parseLong(info
+        .getOrDefault(
+          TimestreamConnectionProperty.VALIDATION_CACHE_TTL.getConnectionProperty(),
+          TimestreamConnectionProperty.VALIDATION_CACHE_TTL.getDefaultValue())
+        .toString());
+    } catch (final NumberFormatException ne) {
+      throw Error.createSQLException(LOGGER, Constants.CONNECTION_EXCEPTION_SQL_STATE, ne, Error.INVALID_NUMERIC_CONNECTION_VALUE);
+    }
+
+    if (validationCacheTtl < 0) {
+      throw Error.createSQLException(LOGGER, Error.INVALID_TIMEOUT, validationCacheTtl);
+    }
+    validationCacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(validationCacheTtl);
+  }
+
+  /**
+   * Configures the cache of query results and the single-flight execution of identical queries,
+   * both shared with the connections using the same query client configuration.
+   *
+   * @param info The {@link Properties} used to create a connection.
+   * @throws SQLException if one of the options is invalid.
+   */
+  private void configureResultCacheOptions(final Properties info) throws SQLException {
+    final long resultCacheTtl;
+    final long resultCacheMaxSize;
+    try {
+      resultCacheTtl = Long.parseLong(info
+        .getOrDefault(
+          TimestreamConnectionProperty.RESULT_CACHE_TTL.getConnectionProperty(),
+          TimestreamConnectionProperty.RESULT_CACHE_TTL.getDefaultValue())
+        .toString());
+
+      resultCacheMaxSize = Long.parseLong(info
+        .getOrDefault(
+          TimestreamConnectionProperty.RESULT_CACHE_MAX_SIZE.getConnectionProperty(),
+          TimestreamConnectionProperty.RESULT_CACHE_MAX_SIZE.getDefaultValue())
+        .toString());
+    } catch (final NumberFormatException ne) {
+      throw Error.createSQLException(LOGGER, Constants.CONNECTION_EXCEPTION_SQL_STATE, ne, Error.INVALID_NUMERIC_CONNECTION_VALUE);
+    }
+
+    if (resultCacheTtl < 0) {
+      throw Error.createSQLException(LOGGER, Error.INVALID_TIMEOUT, resultCacheTtl);
+    }
+
+    if (resultCacheMaxSize < 1) {
+      throw Error.createSQLException(LOGGER, Error.INVALID_RESULT_CACHE_SIZE, resultCacheMaxSize);
+    }
+
+    if (resultCacheTtl > 0) {
+      resultCacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(resultCacheTtl);
+      resultCache = TimestreamResultCache.getCache(resultCacheMaxSize);
+    }
+
+    isSingleFlightEnabled = Boolean.parseBoolean(info
+      .getOrDefault(
+        TimestreamConnectionProperty.SINGLE_FLIGHT.getConnectionProperty(),
+        TimestreamConnectionProperty.SINGLE_FLIGHT.getDefaultValue())
+      .toString());
+  }
+
+  /**
+   * Configures the cache of the result set metadata of prepared queries shared with the connections
+   * using the same query client configuration.
+   *
+   * @param info The {@link Properties} used to create a connection.
+   * @throws SQLException if one of the options is invalid.
+   */
+  private void configureMetaDataCacheOptions(final Properties info) throws SQLException {
+    final long metaDataCacheTtl;
+    final int metaDataCacheMaxSize;
+    try {
+      metaDataCacheTtl = Long.parseLong(info
+        .getOrDefault(
+          TimestreamConnectionProperty.PREPARED_STATEMENT_METADATA_CACHE_TTL.getConnectionProperty(),
+          TimestreamConnectionProperty.PREPARED_STATEMENT_METADATA_CACHE_TTL.getDefaultValue())
+        .toString());
+
+      metaDataCacheMaxSize = Integer.parseInt(info
+        .getOrDefault(
+          TimestreamConnectionProperty.PREPARED_STATEMENT_METADATA_CACHE_MAX_SIZE.getConnectionProperty(),
+          TimestreamConnectionProperty.PREPARED_STATEMENT_METADATA_CACHE_MAX_SIZE.getDefaultValue())
+        .toString());
+    } catch (final NumberFormatException ne) {
+      throw Error.createSQLException(LOGGER, Constants.CONNECTION_EXCEPTION_SQL_STATE, ne, Error.INVALID_NUMERIC_CONNECTION_VALUE);
+    }
+
+    if (metaDataCacheTtl < 0) {
+      throw Error.createSQLException(LOGGER, Error.INVALID_TIMEOUT, metaDataCacheTtl);
+    }
+
+    if (metaDataCacheMaxSize < 1) {
+      throw Error.createSQLException(LOGGER, Error.INVALID_METADATA_CACHE_SIZE, metaDataCacheMaxSize);
+    }
+
+    if (metaDataCacheTtl > 0) {
+      metaDataCacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(metaDataCacheTtl);
+      metaDataCache = TimestreamResultMetaDataCache.getCache(metaDataCacheMaxSize);
+    }
+  }
+
+  /**
+   * Configures the cache of the catalog listed by {@link TimestreamDatabaseMetaData}, shared with
+   * the connections using the same query client configuration.
+   *
+   * @param info The {@link Properties} used to create a connection.
+   * @throws SQLException if one of the options is invalid.
+   */
+  private void configureCatalogCacheOptions(final Properties info) throws SQLException {
+    final long catalogCacheTtl;
+    final int catalogCacheMaxSize;
+    try {
+      catalogCacheTtl = Long.parseLong(info
+        .getOrDefault(
+          TimestreamConnectionProperty.CATALOG_CACHE_TTL.getConnectionProperty(),
+          TimestreamConnectionProperty.CATALOG_CACHE_TTL.getDefaultValue())
+        .toString());
+
+      catalogCacheMaxSize = Integer.parseInt(info
+        .getOrDefault(
+          TimestreamConnectionProperty.CATALOG_CACHE_MAX_SIZE.getConnectionProperty(),
+          TimestreamConnectionProperty.CATALOG_CACHE_MAX_SIZE.getDefaultValue())
+        .toString());
+    } catch (final NumberFormatException ne) {
+      throw Error.createSQLException(LOGGER, Constants.CONNECTION_EXCEPTION_SQL_STATE, ne, Error.INVALID_NUMERIC_CONNECTION_VALUE);
+    }
+
+    if (catalogCacheTtl < 0) {
+      throw Error.createSQLException(LOGGER, Error.INVALID_TIMEOUT, catalogCacheTtl);
+    }
+
+    if (catalogCacheMaxSize < 1) {
+      throw Error.createSQLException(LOGGER, Error.INVALID_METADATA_CACHE_SIZE, catalogCacheMaxSize);
+    }
+
+    if (catalogCacheTtl > 0) {
+      catalogCacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(catalogCacheTtl);
+      catalogCache = TimestreamCatalogCache.getCache(catalogCacheMaxSize);
+    }
+  }
+
   /**
    * Creates an {@link TimestreamOktaCredentialsProvider} instance.
    *
@@ -748,6 +1601,11 @@ public class TimestreamConnection implements java.sql.Connection {
   private void initializeClients(Properties info, CloseableHttpClient httpClient) throws SQLException {
     LOGGER.info("Initializing the client.");
     configureSdkOptions(info, this.clientConfiguration);
+    configureRetrievalOptions(info);
+    configureValidationOptions(info);
+    configureResultCacheOptions(info);
+    configureMetaDataCacheOptions(info);
+    configureCatalogCacheOptions(info);
     buildQueryClientAndVerifyConnection(info, createCustomCredentialsProvider(info, httpClient));
     metadataPreparedStatementEnabled = Boolean.parseBoolean(info
         .getOrDefault(TimestreamConnectionProperty.ENABLE_METADATA_PREPARED_STATEMENT.getConnectionProperty(),
@@ -801,13 +1659,16 @@ public class TimestreamConnection implements java.sql.Connection {
           final Map<String, String> oktaFieldsMap = extractRequiredProperties(
             info,
             TimestreamConnectionProperty.OKTA_PROPERTY_SET);
-          return createOktaCredentialsProvider(httpClient, oktaFieldsMap).createCredentialsProvider();
+          extractCredentialsCacheDirectory(info, oktaFieldsMap);
+          return createOktaCredentialsProvider(getSAMLHttpClient(httpClient), oktaFieldsMap)
+            .createCredentialsProvider();
         }
 
         case Constants.AAD_IDP_NAME: {
           final Map<String, String> azureADFieldsMap = extractRequiredProperties(info,
             TimestreamConnectionProperty.AAD_PROPERTY_SET);
-          return createAzureADCredentialsProvider(httpClient, azureADFieldsMap)
+          extractCredentialsCacheDirectory(info, azureADFieldsMap);
+          return createAzureADCredentialsProvider(getSAMLHttpClient(httpClient), azureADFieldsMap)
             .createCredentialsProvider();
         }
 
@@ -875,6 +1736,70 @@ public class TimestreamConnection implements java.sql.Connection {
     return DefaultAWSCredentialsProviderChain.getInstance();
   }
 
+  /**
+   * Gets the HTTP client used for the SAML authentication of this connection, acquiring the HTTP
+   * client shared by the connections if none was provided.
+   *
+   * @param httpClient The HTTP client provided to the connection, or {@code null}.
+   * @return the {@link CloseableHttpClient}.
+   */
+  private CloseableHttpClient getSAMLHttpClient(final CloseableHttpClient httpClient) {
+    if (httpClient != null) {
+      return httpClient;
+    }
+
+    if (samlClientsLease == null) {
+      samlClientsLease = TimestreamSAMLClients.acquire();
+    }
+    return samlClientsLease.getHttpClient();
+  }
+
+  /**
+   * Releases the SAML authentication clients shared by the connections, if this connection uses
+   * them.
+   */
+  private void releaseSAMLClients() {
+    if (samlClientsLease != null) {
+      samlClientsLease.release();
+    }
+  }
+
+  /**
+   * Gets an object identifying the credentials of the given provider, so the connections with the
+   * same credentials share a query client. Static credentials are identified by their values, the
+   * instance profile credentials and the credentials of a properties file by the provider class and
+   * the file path, and the credentials of any other provider by the provider instance.
+   *
+   * @param info                The connection properties.
+   * @param credentialsProvider The credentials provider of the connection.
+   * @return an object equal to the identity of any provider resolving the same credentials.
+   */
+  private static Object getCredentialsKey(
+    final Properties info,
+    final AWSCredentialsProvider credentialsProvider) {
+    if (credentialsProvider instanceof AWSStaticCredentialsProvider) {
+      final AWSCredentials credentials = credentialsProvider.getCredentials();
+      return Arrays.asList(
+        credentials.getAWSAccessKeyId(),
+        credentials.getAWSSecretKey(),
+        (credentials instanceof AWSSessionCredentials)
+          ? ((AWSSessionCredentials) credentials).getSessionToken()
+          : null);
+    }
+
+    if (credentialsProvider instanceof InstanceProfileCredentialsProvider) {
+      return InstanceProfileCredentialsProvider.class;
+    }
+
+    if (credentialsProvider instanceof PropertiesFileCredentialsProvider) {
+      return Arrays.asList(
+        PropertiesFileCredentialsProvider.class,
+        info.get(TimestreamConnectionProperty.CUSTOM_CREDENTIALS_FILE_PATH.getConnectionProperty()));
+    }
+
+    return credentialsProvider;
+  }
+
   /**
    * Checks if the specified keys exists in the Properties instance and returns a list with the
    * values.
@@ -904,4 +1829,20 @@ public class TimestreamConnection implements java.sql.Connection {
 
     return requiredPropertiesMap;
   }
+
+  /**
+   * Adds the directory of the SAML credentials file cache to the fields of the identity provider,
+   * if it is specified.
+   *
+   * @param info      A Properties instance that contains the connection properties the user
+   *                  provided.
+   * @param fieldsMap The fields of the identity provider.
+   */
+  private static void extractCredentialsCacheDirectory(final Properties info, final Map<String, String> fieldsMap) {
+    final String propertyName = TimestreamConnectionProperty.IDP_CREDENTIALS_CACHE_DIRECTORY.getConnectionProperty();
+    final String directory = info.getOrDefault(propertyName, "").toString();
+    if (!directory.isEmpty()) {
+      fieldsMap.put(propertyName, directory);
+    }
+  }
 }
@@ -0,0 +1,693 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pool of the physical connections opened by a {@link TimestreamDataSource} with a single set of
+ * connection properties.
+ * <p>
+ * The idle connections are kept in a lock-free deque: connections are borrowed from and returned to
+ * its head, so the most recently used connections are reused first and the connections idling the
+ * longest gather at its tail, where they are evicted. When the pool has a maximum size, a fair
+ * {@link Semaphore} with one permit per connection that can be borrowed bounds the number of
+ * borrowed connections and queues the threads waiting for one, for at most the maximum wait time.
+ * <p>
+ * A driver-wide daemon thread periodically closes the connections idling for longer than the idle
+ * timeout or open for longer than the maximum lifetime. The connections needed for the pool to hold
+ * the minimum number of idle connections are then opened by a separate driver-wide pool of daemon
+ * threads, so a slow connection does not delay the eviction of the other pools. The eviction task
+ * only holds a weak reference to the pool, and cancels itself once the pool is no longer reachable.
+ */
+class TimestreamConnectionPool {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamConnectionPool.class);
+  private static final long MAX_EVICTION_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+  private static final ScheduledExecutorService EVICTOR = Executors.newSingleThreadScheduledExecutor(
+    new ThreadFactoryBuilder()
+      .setNameFormat("timestream-jdbc-pool-evictor-%d")
+      .setDaemon(true)
+      .build());
+  private static final int REFILL_POOL_SIZE = 4;
+  private static final long REFILL_KEEP_ALIVE_SECONDS = 60;
+  private static final ThreadPoolExecutor REFILLER = createRefiller();
+
+  private final ConcurrentLinkedDeque<PooledEntry> idleEntries = new ConcurrentLinkedDeque<>();
+  private final Map<TimestreamPooledConnection, PooledEntry> borrowedEntries = new ConcurrentHashMap<>();
+  private final AtomicInteger idleCount = new AtomicInteger();
+  private final AtomicInteger totalCount = new AtomicInteger();
+  private final ConnectionFactory connectionFactory;
+  private final Settings settings;
+  private final Semaphore borrowPermits;
+  private final AtomicBoolean isRefilling = new AtomicBoolean();
+
+  /**
+   * Constructor.
+   *
+   * @param connectionFactory the factory opening the physical connections of the pool.
+   * @param settings          the sizes and timeouts of the pool.
+   */
+  TimestreamConnectionPool(final ConnectionFactory connectionFactory, final Settings settings) {
+    this.connectionFactory = connectionFactory;
+    this.settings = settings;
+    this.borrowPermits = (settings.maxPoolSize > 0) ? new Semaphore(settings.maxPoolSize, true) : null;
+    scheduleEviction(this);
+  }
+
+  /**
+   * Borrows a connection from the pool, reusing a valid idle connection or opening a new one. If
+   * the pool has reached its maximum size, waits for a connection to be returned for at most the
+   * maximum wait time of the pool.
+   *
+   * @return a {@link TimestreamPooledConnection} wrapping the borrowed connection.
+   * @throws SQLException if no connection became available within the maximum wait time, if the
+   *                      thread was interrupted while waiting or if a connection could not be opened.
+   */
+  TimestreamPooledConnection borrow() throws SQLException {
+    final long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.maxWaitMillis);
+    acquirePermit(deadlineNanos);
+    try {
+      final PooledEntry entry = takeOrOpen(deadlineNanos);
+      final TimestreamPooledConnection pooledConnection = new TimestreamPooledConnection(entry.connection);
+      borrowedEntries.put(pooledConnection, entry);
+      return pooledConnection;
+    } catch (final SQLException | RuntimeException e) {
+      releasePermit();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns a borrowed connection to the pool. The connection is closed instead if it was closed by
+   * the application, if it exceeded its maximum lifetime or if the pool already holds the maximum
+   * number of idle connections.
+   *
+   * @param pooledConnection the {@link TimestreamPooledConnection} returned by {@link #borrow()}.
+   * @return {@code true} if the connection was borrowed from this pool; {@code false} otherwise.
+   */
+  boolean giveBack(final TimestreamPooledConnection pooledConnection) {
+    final PooledEntry entry = borrowedEntries.remove(pooledConnection);
+    if (entry == null) {
+      return false;
+    }
+
+    try {
+      if (entry.connection.isClosed() || entry.isExpired(System.nanoTime(), settings.maxLifetimeNanos)) {
+        LOGGER.debug("Connection is closed or expired, not recycling it into the connection pool.");
+        discard(entry);
+      } else if (idleCount.incrementAndGet() > settings.maxIdle) {
+        idleCount.decrementAndGet();
+        LOGGER.debug("Connection pool holds {} idle connections, closing the returned connection.", settings.maxIdle);
+        discard(entry);
+      } else {
+        LOGGER.debug("Recycling the connection into the connection pool.");
+        entry.lastUsedNanos = System.nanoTime();
+        idleEntries.offerFirst(entry);
+      }
+    } finally {
+      // Release the permit after the connection is idle, so a waiting thread can take it.
+      releasePermit();
+    }
+    return true;
+  }
+
+  /**
+   * Closes a borrowed connection on which a fatal error occurred, instead of returning it to the
+   * pool.
+   *
+   * @param pooledConnection the {@link TimestreamPooledConnection} returned by {@link #borrow()}.
+   * @return {@code true} if the connection was borrowed from this pool; {@code false} otherwise.
+   */
+  boolean invalidate(final TimestreamPooledConnection pooledConnection) {
+    final PooledEntry entry = borrowedEntries.remove(pooledConnection);
+    if (entry == null) {
+      return false;
+    }
+
+    LOGGER.debug("A connection error occurred, closing the connection instead of recycling it.");
+    discard(entry);
+    releasePermit();
+    return true;
+  }
+
+  /**
+   * Closes the connections idling for longer than the idle timeout, while keeping the minimum
+   * number of idle connections, and the idle connections open for longer than the maximum lifetime.
+   * Then schedules the opening of the connections needed for the pool to hold the minimum number of
+   * idle connections, unless they are already being opened.
+   */
+  void evict() {
+    final long now = System.nanoTime();
+    final Iterator<PooledEntry> iterator = idleEntries.descendingIterator();
+    while (iterator.hasNext()) {
+      final PooledEntry entry = iterator.next();
+      final boolean isIdleTooLong = (settings.idleTimeoutNanos > 0)
+        && ((now - entry.lastUsedNanos) > settings.idleTimeoutNanos)
+        && (idleCount.get() > settings.minIdle);
+      if ((isIdleTooLong || entry.isExpired(now, settings.maxLifetimeNanos)) && removeIdle(entry)) {
+        LOGGER.debug("Evicting an idle connection from the connection pool.");
+        discard(entry);
+      }
+    }
+
+    if ((idleCount.get() < settings.minIdle) && isRefilling.compareAndSet(false, true)) {
+      REFILLER.execute(() -> {
+        try {
+          fillMinIdle();
+        } finally {
+          isRefilling.set(false);
+        }
+      });
+    }
+  }
+
+  /**
+   * Opens idle connections in parallel, until the given number of connections is opened or the pool
+   * reaches its maximum size or its maximum number of idle connections. The progress is logged as
+   * the connections are opened.
+   *
+   * @param count       the number of connections to open.
+   * @param parallelism the maximum number of connections opened concurrently.
+   * @return the number of connections opened.
+   * @throws SQLException if some connections could not be opened, with the failure of each of these
+   *                      connections chained with {@link SQLException#setNextException}, or if the
+   *                      thread was interrupted. The opened connections stay in the pool.
+   */
+  int warmUp(final int count, final int parallelism) throws SQLException {
+    if (count <= 0) {
+      return 0;
+    }
+
+    final long start = System.nanoTime();
+    final AtomicInteger attempted = new AtomicInteger();
+    final AtomicInteger opened = new AtomicInteger();
+    final ExecutorService executor = Executors.newFixedThreadPool(
+      Math.max(1, Math.min(count, parallelism)),
+      new ThreadFactoryBuilder()
+        .setNameFormat("timestream-jdbc-pool-warm-up-%d")
+        .setDaemon(true)
+        .build());
+    try {
+      final List<Future<?>> results = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        results.add(executor.submit(() -> {
+          try {
+            if (addIdleConnection()) {
+              opened.incrementAndGet();
+            }
+            return null;
+          } finally {
+            LOGGER.debug("Connection pool warm-up: {} of {} connections attempted.", attempted.incrementAndGet(), count);
+          }
+        }));
+      }
+
+      final List<Exception> failures = new ArrayList<>();
+      for (final Future<?> result : results) {
+        try {
+          result.get();
+        } catch (final ExecutionException e) {
+          LOGGER.warn("Connection pool warm-up failed to open a connection: {}", e.getCause().getMessage());
+          failures.add((e.getCause() instanceof Exception) ? (Exception) e.getCause() : e);
+        }
+      }
+
+      LOGGER.info("Connection pool warm-up opened {} of {} connections in {} ms.",
+        opened.get(), count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      if (!failures.isEmpty()) {
+        final SQLException exception = Error.createSQLException(
+          LOGGER,
+          Constants.CONNECTION_EXCEPTION_SQL_STATE,
+          failures.get(0),
+          Error.POOL_WARM_UP_FAILED,
+          opened.get(),
+          count);
+        for (final Exception failure : failures) {
+          exception.setNextException(
+            (failure instanceof SQLException) ? (SQLException) failure : new SQLException(failure));
+        }
+        throw exception;
+      }
+      return opened.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw Error.createSQLException(
+        LOGGER,
+        Constants.CONNECTION_EXCEPTION_SQL_STATE,
+        e,
+        Error.POOL_WARM_UP_FAILED,
+        opened.get(),
+        count);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Gets the number of idle connections in the pool.
+   *
+   * @return the number of idle connections.
+   */
+  int getIdleCount() {
+    return idleCount.get();
+  }
+
+  /**
+   * Gets the number of connections borrowed from the pool.
+   *
+   * @return the number of borrowed connections.
+   */
+  int getBorrowedCount() {
+    return borrowedEntries.size();
+  }
+
+  /**
+   * Gets the number of open connections of the pool, idle or borrowed.
+   *
+   * @return the number of open connections.
+   */
+  int getTotalCount() {
+    return totalCount.get();
+  }
+
+  /**
+   * Waits for a permit to borrow a connection if the pool has a maximum size.
+   *
+   * @param deadlineNanos the {@link System#nanoTime()} at which the maximum wait time elapses.
+   * @throws SQLException if no permit became available within the maximum wait time or if the
+   *                      thread was interrupted.
+   */
+  private void acquirePermit(final long deadlineNanos) throws SQLException {
+    if (borrowPermits == null) {
+      return;
+    }
+
+    try {
+      if (!borrowPermits.tryAcquire(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+        throw createWaitTimeoutException();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw createWaitInterruptedException(e);
+    }
+  }
+
+  /**
+   * Releases a permit to borrow a connection if the pool has a maximum size.
+   */
+  private void releasePermit() {
+    if (borrowPermits != null) {
+      borrowPermits.release();
+    }
+  }
+
+  /**
+   * Takes the most recently used valid idle connection, or opens a new connection if there is no
+   * valid idle connection.
+   *
+   * @param deadlineNanos the {@link System#nanoTime()} at which the maximum wait time elapses.
+   * @return the {@link PooledEntry} of the connection.
+   * @throws SQLException if a connection could not be opened, or if no connection became available
+   *                      within the maximum wait time or the thread was interrupted while the pool
+   *                      was full.
+   */
+  private PooledEntry takeOrOpen(final long deadlineNanos) throws SQLException {
+    while (true) {
+      final PooledEntry entry = idleEntries.pollFirst();
+      if (entry != null) {
+        idleCount.decrementAndGet();
+        if (isUsable(entry)) {
+          LOGGER.debug("Returning an open connection from the connection pool.");
+          return entry;
+        }
+        discard(entry);
+        continue;
+      }
+
+      if (reserveConnection()) {
+        LOGGER.debug("Could not find a connection in the pool, creating a connection.");
+        return open();
+      }
+
+      // The pool is full although a connection can be borrowed, so a connection is being opened for
+      // the idle connections, returned to the pool or evicted from it.
+      if ((deadlineNanos - System.nanoTime()) <= 0) {
+        throw createWaitTimeoutException();
+      }
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+      if (Thread.interrupted()) {
+        Thread.currentThread().interrupt();
+        throw createWaitInterruptedException(null);
+      }
+    }
+  }
+
+  /**
+   * Creates the exception thrown when no connection became available within the maximum wait time.
+   *
+   * @return the {@link SQLException}.
+   */
+  private SQLException createWaitTimeoutException() {
+    return Error.createSQLException(
+      LOGGER,
+      Constants.CONNECTION_EXCEPTION_SQL_STATE,
+      null,
+      Error.POOL_WAIT_TIMEOUT,
+      settings.maxWaitMillis,
+      settings.maxPoolSize);
+  }
+
+  /**
+   * Creates the exception thrown when the thread was interrupted while waiting for a connection.
+   *
+   * @param e the {@link InterruptedException}, or {@code null} if the interruption was detected
+   *          without one.
+   * @return the {@link SQLException}.
+   */
+  private static SQLException createWaitInterruptedException(final InterruptedException e) {
+    return Error.createSQLException(
+      LOGGER,
+      Constants.CONNECTION_EXCEPTION_SQL_STATE,
+      e,
+      Error.POOL_WAIT_INTERRUPTED);
+  }
+
+  /**
+   * Opens connections until the pool holds the minimum number of idle connections.
+   */
+  private void fillMinIdle() {
+    try {
+      while ((idleCount.get() < settings.minIdle) && addIdleConnection()) {
+        LOGGER.debug("Opened an idle connection for the connection pool.");
+      }
+    } catch (final SQLException e) {
+      LOGGER.warn("Failed to open an idle connection for the connection pool: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Opens a connection and adds it to the idle connections, if the pool has not reached its
+   * maximum size or its maximum number of idle connections.
+   *
+   * @return {@code true} if a connection was added; {@code false} if the pool is full.
+   * @throws SQLException if the connection could not be opened.
+   */
+  private boolean addIdleConnection() throws SQLException {
+    // Reserve room among the idle connections first, so concurrent calls do not open connections in
+    // excess of the maximum number of idle connections.
+    if (idleCount.incrementAndGet() > settings.maxIdle) {
+      idleCount.decrementAndGet();
+      return false;
+    }
+
+    final PooledEntry entry;
+    try {
+      entry = reserveConnection() ? open() : null;
+    } catch (final SQLException | RuntimeException e) {
+      idleCount.decrementAndGet();
+      throw e;
+    }
+    if (entry == null) {
+      idleCount.decrementAndGet();
+      return false;
+    }
+    idleEntries.offerLast(entry);
+    return true;
+  }
+
+  /**
+   * Reserves room for a new connection if the pool has not reached its maximum size.
+   *
+   * @return {@code true} if a connection can be opened; {@code false} otherwise.
+   */
+  private boolean reserveConnection() {
+    while (true) {
+      final int total = totalCount.get();
+      if ((settings.maxPoolSize > 0) && (total >= settings.maxPoolSize)) {
+        return false;
+      }
+      if (totalCount.compareAndSet(total, total + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Opens a connection for which room was reserved with {@link #reserveConnection()}.
+   *
+   * @return the {@link PooledEntry} of the new connection.
+   * @throws SQLException if the connection could not be opened.
+   */
+  private PooledEntry open() throws SQLException {
+    try {
+      return new PooledEntry(connectionFactory.open());
+    } catch (final SQLException | RuntimeException e) {
+      totalCount.decrementAndGet();
+      throw e;
+    }
+  }
+
+  /**
+   * Checks whether an idle connection can be borrowed.
+   *
+   * @param entry the idle connection.
+   * @return {@code true} if the connection is open, has not exceeded its maximum lifetime and, if
+   * validation on borrow is enabled, is valid; {@code false} otherwise.
+   */
+  private boolean isUsable(final PooledEntry entry) {
+    if (entry.connection.isClosed() || entry.isExpired(System.nanoTime(), settings.maxLifetimeNanos)) {
+      return false;
+    }
+
+    try {
+      return !settings.testOnBorrow || entry.connection.isValid(settings.validationTimeoutSeconds);
+    } catch (final SQLException e) {
+      LOGGER.debug("Failed to validate an idle connection: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Removes an idle connection from the pool.
+   *
+   * @param entry the idle connection.
+   * @return {@code true} if the connection was still idle; {@code false} if it was borrowed.
+   */
+  private boolean removeIdle(final PooledEntry entry) {
+    if (idleEntries.removeFirstOccurrence(entry)) {
+      idleCount.decrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Closes a connection that was removed from the pool.
+   *
+   * @param entry the connection.
+   */
+  private void discard(final PooledEntry entry) {
+    totalCount.decrementAndGet();
+    try {
+      entry.connection.close();
+    } catch (final RuntimeException e) {
+      LOGGER.warn("Failed to close a connection removed from the connection pool: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Creates the driver-wide bounded pool of daemon threads opening the minimum number of idle
+   * connections of the pools. Idle threads are released after {@link #REFILL_KEEP_ALIVE_SECONDS}
+   * seconds.
+   *
+   * @return the {@link ThreadPoolExecutor} refilling the pools.
+   */
+  private static ThreadPoolExecutor createRefiller() {
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+      REFILL_POOL_SIZE,
+      REFILL_POOL_SIZE,
+      REFILL_KEEP_ALIVE_SECONDS,
+      TimeUnit.SECONDS,
+      new LinkedBlockingQueue<>(),
+      new ThreadFactoryBuilder()
+        .setNameFormat("timestream-jdbc-pool-refiller-%d")
+        .setDaemon(true)
+        .build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Schedules the periodic eviction of the idle connections of a pool.
+   *
+   * @param pool the connection pool.
+   */
+  private static void scheduleEviction(final TimestreamConnectionPool pool) {
+    final Settings settings = pool.settings;
+    long interval = MAX_EVICTION_INTERVAL_MILLIS;
+    if (settings.idleTimeoutNanos > 0) {
+      interval = Math.min(interval, TimeUnit.NANOSECONDS.toMillis(settings.idleTimeoutNanos));
+    }
+    if (settings.maxLifetimeNanos > 0) {
+      interval = Math.min(interval, TimeUnit.NANOSECONDS.toMillis(settings.maxLifetimeNanos));
+    }
+    interval = Math.max(interval, 1);
+
+    final EvictionTask task = new EvictionTask(pool);
+    task.future = EVICTOR.scheduleWithFixedDelay(task, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Periodic task evicting the idle connections of a pool, until the pool is no longer reachable.
+   */
+  private static final class EvictionTask implements Runnable {
+    private final WeakReference<TimestreamConnectionPool> pool;
+    private volatile ScheduledFuture<?> future;
+
+    /**
+     * Constructor.
+     *
+     * @param pool the connection pool.
+     */
+    private EvictionTask(final TimestreamConnectionPool pool) {
+      this.pool = new WeakReference<>(pool);
+    }
+
+    @Override
+    public void run() {
+      final TimestreamConnectionPool referent = pool.get();
+      if (referent != null) {
+        referent.evict();
+      } else if (future != null) {
+        future.cancel(false);
+      }
+    }
+  }
+
+  /**
+   * Factory opening the physical connections of a pool.
+   */
+  @FunctionalInterface
+  interface ConnectionFactory {
+    /**
+     * Opens a physical connection.
+     *
+     * @return the new {@link TimestreamConnection}.
+     * @throws SQLException if the connection could not be opened.
+     */
+    TimestreamConnection open() throws SQLException;
+  }
+
+  /**
+   * The sizes and timeouts of a pool.
+   */
+  static final class Settings {
+    private final int maxPoolSize;
+    private final int minIdle;
+    private final int maxIdle;
+    private final long maxWaitMillis;
+    private final long idleTimeoutNanos;
+    private final long maxLifetimeNanos;
+    private final boolean testOnBorrow;
+    private final int validationTimeoutSeconds;
+
+    /**
+     * Constructor.
+     *
+     * @param maxPoolSize              the maximum number of open connections, 0 for no maximum.
+     * @param minIdle                  the minimum number of idle connections.
+     * @param maxIdle                  the maximum number of idle connections.
+     * @param maxWaitMillis            the maximum time in milliseconds to wait for a connection.
+     * @param idleTimeoutMillis        the time in milliseconds after which an idle connection is
+     *                                 closed, 0 to keep idle connections open.
+     * @param maxLifetimeMillis        the time in milliseconds after which a connection is closed
+     *                                 once it is idle, 0 for no maximum.
+     * @param testOnBorrow             whether idle connections are validated before being borrowed.
+     * @param validationTimeoutSeconds the timeout in seconds of the validation.
+     */
+    Settings(
+      final int maxPoolSize,
+      final int minIdle,
+      final int maxIdle,
+      final long maxWaitMillis,
+      final long idleTimeoutMillis,
+      final long maxLifetimeMillis,
+      final boolean testOnBorrow,
+      final int validationTimeoutSeconds) {
+      this.maxPoolSize = maxPoolSize;
+      this.minIdle = (maxPoolSize > 0) ? Math.min(minIdle, maxPoolSize) : minIdle;
+      this.maxIdle = Math.max(maxIdle, this.minIdle);
+      this.maxWaitMillis = maxWaitMillis;
+      this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+      this.maxLifetimeNanos = TimeUnit.MILLISECONDS.toNanos(maxLifetimeMillis);
+      this.testOnBorrow = testOnBorrow;
+      this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+  }
+
+  /**
+   * A physical connection of the pool and its timestamps.
+   */
+  private static final class PooledEntry {
+    private final TimestreamConnection connection;
+    private final long createdNanos = System.nanoTime();
+    private volatile long lastUsedNanos = createdNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param connection the physical connection.
+     */
+    private PooledEntry(final TimestreamConnection connection) {
+      this.connection = connection;
+    }
+
+    /**
+     * Checks whether the connection exceeded its maximum lifetime.
+     *
+     * @param now              the current value of {@link System#nanoTime()}.
+     * @param maxLifetimeNanos the maximum lifetime in nanoseconds, 0 for no maximum.
+     * @return {@code true} if the connection must be closed; {@code false} otherwise.
+     */
+    private boolean isExpired(final long now, final long maxLifetimeNanos) {
+      return (maxLifetimeNanos > 0) && ((now - createdNanos) > maxLifetimeNanos);
+    }
+  }
+}
@@ -46,6 +46,8 @@ enum TimestreamConnectionProperty {
     "The client secret associated with the registered application on Azure AD used to authorize fetching tokens."),
   AAD_TENANT_ID("AADTenant", "",
     "The Azure AD Tenant ID."),
+  IDP_CREDENTIALS_CACHE_DIRECTORY("IdpCredentialsCacheDirectory", "",
+    "The directory in which the credentials obtained through SAML authentication are cached encrypted, empty to disable the cache."),
   AWS_CREDENTIALS_PROVIDER_CLASS("AwsCredentialsProviderClass", "",
       "The AWSCredentialsProvider class that user wants to use."),
   CUSTOM_CREDENTIALS_FILE_PATH("CustomCredentialsFilePath", "",
@@ -63,6 +65,42 @@ enum TimestreamConnectionProperty {
       "Enables the driver to return metadata for PreparedStatements, "
           + "but this will incur an additional cost with Timestream when retrieving the metadata."),
   ENDPOINT("Endpoint", "", "Timestream service endpoint containing the resources."),
+  CONNECTION_VERIFICATION(
+    "ConnectionVerification",
+    "Eager",
+    "When the connection is verified. Should either be 'Eager', 'Lazy' or 'Async'."),
+  VALIDATION_CACHE_TTL(
+    "ValidationCacheTtl",
+    "1000",
+    "The time in milliseconds after a successful request during which the connection is valid without a query, 0 to always query."),
+  RESULT_CACHE_TTL(
+    "ResultCacheTtl",
+    "0",
+    "The time in milliseconds during which the result of a query is reused for identical queries, 0 to disable the result cache."),
+  RESULT_CACHE_MAX_SIZE(
+    "ResultCacheMaxSize",
+    "67108864",
+    "The maximum estimated size in bytes of the query results cached for all connections configured with the same value."),
+  PREPARED_STATEMENT_METADATA_CACHE_TTL(
+    "PreparedStatementMetaDataCacheTtl",
+    "0",
+    "The time in milliseconds during which the result set metadata of a prepared query is reused, 0 to disable the cache."),
+  PREPARED_STATEMENT_METADATA_CACHE_MAX_SIZE(
+    "PreparedStatementMetaDataCacheMaxSize",
+    "1000",
+    "The maximum number of prepared queries whose result set metadata is cached for all connections configured with the same value."),
+  CATALOG_CACHE_TTL(
+    "CatalogCacheTtl",
+    "0",
+    "The time in milliseconds during which the databases, tables and columns listed by DatabaseMetaData are reused, 0 to disable the cache."),
+  CATALOG_CACHE_MAX_SIZE(
+    "CatalogCacheMaxSize",
+    "10000",
+    "The maximum number of lists of databases, tables and columns cached for all connections configured with the same value."),
+  SINGLE_FLIGHT(
+    "SingleFlight",
+    Boolean.FALSE.toString(),
+    "Whether identical queries issued at the same time share a single execution."),
   REQUEST_TIMEOUT(
     "RequestTimeout",
     String.valueOf(ClientConfiguration.DEFAULT_REQUEST_TIMEOUT),
@@ -78,7 +116,39 @@ enum TimestreamConnectionProperty {
   MAX_CONNECTIONS(
     "MaxConnections",
     String.valueOf(ClientConfiguration.DEFAULT_MAX_CONNECTIONS),
-    "The maximum number of allowed concurrently opened HTTP connections to the Timestream service.");
+    "The maximum number of allowed concurrently opened HTTP connections to the Timestream service."),
+  PREFETCH_MODE(
+    "PrefetchMode",
+    "Adaptive",
+    "How result set pages are prefetched. Should either be 'Adaptive' or 'Fixed'."),
+  PREFETCH_DEPTH(
+    "PrefetchDepth",
+    "2",
+    "The number of result set pages buffered ahead of the consumer, or the minimum number of pages in adaptive mode."),
+  MAX_PREFETCH_DEPTH(
+    "MaxPrefetchDepth",
+    "8",
+    "The maximum number of result set pages buffered ahead of the consumer in adaptive mode."),
+  MAX_PREFETCH_MEMORY(
+    "MaxPrefetchMemory",
+    "67108864",
+    "The maximum estimated size in bytes of the result set pages buffered by a connection, 0 for no limit."),
+  MAX_GLOBAL_PREFETCH_MEMORY(
+    "MaxGlobalPrefetchMemory",
+    "268435456",
+    "The maximum estimated size in bytes of the result set pages buffered by all connections, 0 for no limit."),
+  COLUMNAR_DECODING(
+    "ColumnarDecoding",
+    Boolean.FALSE.toString(),
+    "Decodes result set pages into typed column vectors on the retrieval thread."),
+  RETRIEVAL_THREAD_POOL_SIZE(
+    "RetrievalThreadPoolSize",
+    "16",
+    "The maximum number of threads shared by all result sets to retrieve pages in the background."),
+  USE_VIRTUAL_THREADS(
+    "UseVirtualThreads",
+    Boolean.FALSE.toString(),
+    "Retrieves result set pages in the background on virtual threads instead of the retrieval thread pool. Requires Java 21 or later.");
 
   protected static final EnumSet<TimestreamConnectionProperty> OKTA_PROPERTY_SET = EnumSet
     .of(IDP_NAME, IDP_USERNAME, IDP_PASSWORD, AWS_ROLE_ARN, IDP_ARN, OKTA_APP_ID, IDP_HOST);
@@ -24,28 +24,37 @@ import javax.sql.PooledConnection;
 import java.io.PrintWriter;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 /**
  * DataSource implementation of Timestream, supports pooled and non-pooled connections.
+ * <p>
+ * Pooled connections are kept in a {@link TimestreamConnectionPool} per set of connection
+ * properties. The pool settings of this data source apply to the pools created after they are set,
+ * that is to the credentials and connection properties without pooled connections yet.
  */
 public class TimestreamDataSource implements javax.sql.DataSource,
   javax.sql.ConnectionPoolDataSource, ConnectionEventListener {
 
   private static final Logger LOGGER = Logger
     .getLogger("TimestreamDataSource");
+  private static final int DEFAULT_MAX_POOL_SIZE = 8;
+  private static final int DEFAULT_MAX_IDLE = 8;
+  private static final long DEFAULT_MAX_WAIT_MILLIS = 30000;
+  private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 600000;
+  private static final long DEFAULT_MAX_LIFETIME_MILLIS = 1800000;
+  private static final int DEFAULT_VALIDATION_TIMEOUT_SECONDS = 5;
+  private static final int DEFAULT_WARM_UP_PARALLELISM = 8;
 
   @VisibleForTesting
   final ClientConfiguration clientConfiguration = new ClientConfiguration()
     .withUserAgentSuffix(
       Constants.UA_ID_PREFIX + TimestreamDriver.DRIVER_VERSION + TimestreamDriver.APP_NAME_SUFFIX);
   @VisibleForTesting
-  final Map<Properties, LinkedList<TimestreamConnection>> availablePools = new HashMap<>();
+  final Map<Properties, TimestreamConnectionPool> availablePools = new ConcurrentHashMap<>();
   private final Properties samlAuthenticationProperties = new Properties();
   private final Properties sdkProperties = new Properties();
   private String accessKeyId;
@@ -58,6 +67,19 @@ public class TimestreamDataSource implements javax.sql.DataSource,
   private boolean isEnableMetaDataPreparedStatement =
     Boolean.parseBoolean(
       TimestreamConnectionProperty.ENABLE_METADATA_PREPARED_STATEMENT.getDefaultValue());
+  private TimestreamRetrievalExecutor retrievalExecutor;
+  private volatile int maxPoolSize = DEFAULT_MAX_POOL_SIZE;
+  private volatile int minIdle;
+  private volatile int maxIdle = DEFAULT_MAX_IDLE;
+  private volatile long maxWait = DEFAULT_MAX_WAIT_MILLIS;
+  private volatile long idleTimeout = DEFAULT_IDLE_TIMEOUT_MILLIS;
+  private volatile long maxLifetime = DEFAULT_MAX_LIFETIME_MILLIS;
+  private volatile boolean isTestOnBorrow;
+  private volatile int validationTimeout = DEFAULT_VALIDATION_TIMEOUT_SECONDS;
+  private volatile int warmUpSize;
+  private volatile int warmUpParallelism = DEFAULT_WARM_UP_PARALLELISM;
+  private volatile int maxStatements;
+  private volatile boolean isSingleFlight;
 
   @Override
   public Connection getConnection() throws SQLException {
@@ -67,7 +89,7 @@ public class TimestreamDataSource implements javax.sql.DataSource,
   @Override
   public Connection getConnection(String accessKey, String secretKey) throws SQLException {
     LOGGER.finer("Instantiating a TimestreamConnection from TimestreamDataSource.");
-    return createTimestreamConnection(getProperties(accessKey, secretKey));
+    return openConnection(getProperties(accessKey, secretKey));
   }
 
   @Override
@@ -79,28 +101,39 @@ public class TimestreamDataSource implements javax.sql.DataSource,
   public PooledConnection getPooledConnection(String accessKey, String secretKey)
     throws SQLException {
     final Properties properties = getProperties(accessKey, secretKey);
-    final List<TimestreamConnection> poolForCredentials = availablePools
-      .computeIfAbsent(properties, k -> new LinkedList<>());
-
-    TimestreamPooledConnection timestreamPooledConnection = null;
-    while (!poolForCredentials.isEmpty() && (timestreamPooledConnection == null)) {
-      final TimestreamConnection connection = poolForCredentials.remove(0);
-      if (!connection.isClosed()) {
-        LOGGER.finer("Returning an open connection from the connection pool.");
-        timestreamPooledConnection = createTimestreamPooledConnection(connection);
-      }
-    }
-
-    if (timestreamPooledConnection == null) {
-      LOGGER.finer("Could not find a connection in the pool, creating a connection.");
-      timestreamPooledConnection = createTimestreamPooledConnection(
-        createTimestreamConnection(getProperties(accessKey, secretKey)));
-    }
+    final TimestreamPooledConnection timestreamPooledConnection = availablePools
+      .computeIfAbsent(properties, this::createConnectionPool)
+      .borrow();
 
     timestreamPooledConnection.addConnectionEventListener(this);
     return timestreamPooledConnection;
   }
 
+  /**
+   * Opens {@link #getWarmUpSize()} idle connections in the connection pool of the credentials of this
+   * data source, at most {@link #getWarmUpParallelism()} at a time, so the first requests do not pay
+   * for opening connections. The warm-up is disabled unless the warm-up size is set, and is bounded
+   * by the maximum pool size and the maximum number of idle connections. The progress and the
+   * failures are logged.
+   *
+   * @return the number of connections opened.
+   * @throws SQLException if the connection properties are invalid, if some connections could not be
+   *                      opened, with the failure of each of these connections chained with {@link
+   *                      SQLException#setNextException}, or if the thread was interrupted. The
+   *                      connections opened before the failure stay in the pool.
+   */
+  public int warmUp() throws SQLException {
+    final int size = warmUpSize;
+    if (size == 0) {
+      return 0;
+    }
+
+    LOGGER.info(String.format("Warming up the connection pool with %d connections.", size));
+    return availablePools
+      .computeIfAbsent(getProperties(accessKeyId, secretAccessKey), this::createConnectionPool)
+      .warmUp(size, warmUpParallelism);
+  }
+
   @Override
   public PrintWriter getLogWriter() {
     return null;
@@ -543,6 +576,30 @@ public class TimestreamDataSource implements javax.sql.DataSource,
       aadTenantId);
   }
 
+  /**
+   * Gets the directory in which the credentials obtained through SAML authentication are cached.
+   *
+   * @return the credentials cache directory, empty if the file cache is disabled.
+   */
+  public String getIdpCredentialsCacheDirectory() {
+    return samlAuthenticationProperties
+      .getOrDefault(
+        TimestreamConnectionProperty.IDP_CREDENTIALS_CACHE_DIRECTORY.getConnectionProperty(),
+        TimestreamConnectionProperty.IDP_CREDENTIALS_CACHE_DIRECTORY.getDefaultValue())
+      .toString();
+  }
+
+  /**
+   * Sets the directory in which the credentials obtained through SAML authentication are cached.
+   *
+   * @param idpCredentialsCacheDirectory the credentials cache directory, empty to disable the file cache.
+   */
+  public void setIdpCredentialsCacheDirectory(final String idpCredentialsCacheDirectory) {
+    samlAuthenticationProperties.put(
+      TimestreamConnectionProperty.IDP_CREDENTIALS_CACHE_DIRECTORY.getConnectionProperty(),
+      idpCredentialsCacheDirectory);
+  }
+
   /**
    * Gets the time in milliseconds the client will wait for a query request before timing out.
    *
@@ -666,22 +723,337 @@ public class TimestreamDataSource implements javax.sql.DataSource,
       String.valueOf(maxRetryCountClient));
   }
 
+  /**
+   * Gets the maximum number of threads retrieving result set pages in the background for the
+   * connections created by this data source.
+   *
+   * @return the retrieval thread pool size.
+   */
+  public int getRetrievalThreadPoolSize() {
+    return Integer.parseInt(sdkProperties
+      .getOrDefault(
+        TimestreamConnectionProperty.RETRIEVAL_THREAD_POOL_SIZE.getConnectionProperty(),
+        TimestreamConnectionProperty.RETRIEVAL_THREAD_POOL_SIZE.getDefaultValue())
+      .toString());
+  }
+
+  /**
+   * Sets the maximum number of threads retrieving result set pages in the background for the
+   * connections created by this data source. The threads are shared by these connections only.
+   *
+   * @param retrievalThreadPoolSize The retrieval thread pool size.
+   * @throws SQLException if the value is not positive.
+   */
+  public void setRetrievalThreadPoolSize(int retrievalThreadPoolSize) throws SQLException {
+    if (retrievalThreadPoolSize < 1) {
+      throw Error.createSQLException(
+        LOGGER,
+        Error.INVALID_RETRIEVAL_THREAD_POOL_SIZE,
+        retrievalThreadPoolSize);
+    }
+
+    sdkProperties.setProperty(
+      TimestreamConnectionProperty.RETRIEVAL_THREAD_POOL_SIZE.getConnectionProperty(),
+      String.valueOf(retrievalThreadPoolSize));
+  }
+
+  /**
+   * Gets whether the connections created by this data source retrieve result set pages on virtual
+   * threads.
+   *
+   * @return {@code true} if virtual threads are enabled; {@code false} otherwise.
+   */
+  public boolean isUseVirtualThreads() {
+    return Boolean.parseBoolean(sdkProperties
+      .getOrDefault(
+        TimestreamConnectionProperty.USE_VIRTUAL_THREADS.getConnectionProperty(),
+        TimestreamConnectionProperty.USE_VIRTUAL_THREADS.getDefaultValue())
+      .toString());
+  }
+
+  /**
+   * Sets whether the connections created by this data source retrieve result set pages on virtual
+   * threads instead of the retrieval thread pool. Ignored on Java runtimes older than Java 21.
+   *
+   * @param useVirtualThreads A flag indicating whether to use virtual threads.
+   */
+  public void setUseVirtualThreads(final boolean useVirtualThreads) {
+    sdkProperties.setProperty(
+      TimestreamConnectionProperty.USE_VIRTUAL_THREADS.getConnectionProperty(),
+      String.valueOf(useVirtualThreads));
+  }
+
+  /**
+   * Gets the maximum number of open connections, idle or in use, of each connection pool.
+   *
+   * @return the maximum pool size; 0 if the pool size is not limited.
+   */
+  public int getMaxPoolSize() {
+    return maxPoolSize;
+  }
+
+  /**
+   * Sets the maximum number of open connections, idle or in use, of each connection pool. Once
+   * this number of connections is in use, {@link #getPooledConnection()} waits for a connection to
+   * be returned for at most {@link #getMaxWait()} milliseconds.
+   *
+   * @param maxPoolSize The maximum pool size, 0 to not limit the pool size.
+   * @throws SQLException if the value is negative.
+   */
+  public void setMaxPoolSize(final int maxPoolSize) throws SQLException {
+    this.maxPoolSize = checkPoolSetting("MaxPoolSize", maxPoolSize);
+  }
+
+  /**
+   * Gets the minimum number of idle connections kept open in each connection pool.
+   *
+   * @return the minimum number of idle connections.
+   */
+  public int getMinIdle() {
+    return minIdle;
+  }
+
+  /**
+   * Sets the minimum number of idle connections kept open in each connection pool. Missing idle
+   * connections are opened in the background.
+   *
+   * @param minIdle The minimum number of idle connections.
+   * @throws SQLException if the value is negative.
+   */
+  public void setMinIdle(final int minIdle) throws SQLException {
+    this.minIdle = checkPoolSetting("MinIdle", minIdle);
+  }
+
+  /**
+   * Gets the maximum number of idle connections kept open in each connection pool.
+   *
+   * @return the maximum number of idle connections.
+   */
+  public int getMaxIdle() {
+    return maxIdle;
+  }
+
+  /**
+   * Sets the maximum number of idle connections kept open in each connection pool. Connections
+   * returned to a pool holding this number of idle connections are closed.
+   *
+   * @param maxIdle The maximum number of idle connections.
+   * @throws SQLException if the value is negative.
+   */
+  public void setMaxIdle(final int maxIdle) throws SQLException {
+    this.maxIdle = checkPoolSetting("MaxIdle", maxIdle);
+  }
+
+  /**
+   * Gets the maximum time in milliseconds to wait for a connection when all the connections of a
+   * connection pool are in use.
+   *
+   * @return the maximum wait time in milliseconds.
+   */
+  public long getMaxWait() {
+    return maxWait;
+  }
+
+  /**
+   * Sets the maximum time in milliseconds to wait for a connection when all the connections of a
+   * connection pool are in use.
+   *
+   * @param maxWait The maximum wait time in milliseconds.
+   * @throws SQLException if the value is negative.
+   */
+  public void setMaxWait(final long maxWait) throws SQLException {
+    this.maxWait = checkPoolSetting("MaxWait", maxWait);
+  }
+
+  /**
+   * Gets the time in milliseconds after which an idle connection in excess of the minimum number of
+   * idle connections is closed.
+   *
+   * @return the idle timeout in milliseconds; 0 if idle connections are kept open.
+   */
+  public long getIdleTimeout() {
+    return idleTimeout;
+  }
+
+  /**
+   * Sets the time in milliseconds after which an idle connection in excess of the minimum number of
+   * idle connections is closed.
+   *
+   * @param idleTimeout The idle timeout in milliseconds, 0 to keep idle connections open.
+   * @throws SQLException if the value is negative.
+   */
+  public void setIdleTimeout(final long idleTimeout) throws SQLException {
+    this.idleTimeout = checkPoolSetting("IdleTimeout", idleTimeout);
+  }
+
+  /**
+   * Gets the time in milliseconds after which a pooled connection is closed instead of being reused.
+   *
+   * @return the maximum lifetime in milliseconds; 0 if the lifetime is not limited.
+   */
+  public long getMaxLifetime() {
+    return maxLifetime;
+  }
+
+  /**
+   * Sets the time in milliseconds after which a pooled connection is closed instead of being reused.
+   * Connections in use are closed when they are returned to the pool.
+   *
+   * @param maxLifetime The maximum lifetime in milliseconds, 0 to not limit the lifetime.
+   * @throws SQLException if the value is negative.
+   */
+  public void setMaxLifetime(final long maxLifetime) throws SQLException {
+    this.maxLifetime = checkPoolSetting("MaxLifetime", maxLifetime);
+  }
+
+  /**
+   * Gets whether idle connections are validated with {@link Connection#isValid(int)} before they are
+   * reused.
+   *
+   * @return {@code true} if idle connections are validated; {@code false} otherwise.
+   */
+  public boolean isTestOnBorrow() {
+    return isTestOnBorrow;
+  }
+
+  /**
+   * Sets whether idle connections are validated with {@link Connection#isValid(int)} before they are
+   * reused. Invalid connections are closed and replaced.
+   *
+   * @param testOnBorrow A flag indicating whether to validate idle connections.
+   */
+  public void setTestOnBorrow(final boolean testOnBorrow) {
+    this.isTestOnBorrow = testOnBorrow;
+  }
+
+  /**
+   * Gets the timeout in seconds of the validation of idle connections.
+   *
+   * @return the validation timeout in seconds.
+   */
+  public int getValidationTimeout() {
+    return validationTimeout;
+  }
+
+  /**
+   * Sets the timeout in seconds of the validation of idle connections.
+   *
+   * @param validationTimeout The validation timeout in seconds, 0 for no timeout.
+   * @throws SQLException if the value is negative.
+   */
+  public void setValidationTimeout(final int validationTimeout) throws SQLException {
+    if (validationTimeout < 0) {
+      throw Error.createSQLException(LOGGER, Error.INVALID_TIMEOUT, validationTimeout);
+    }
+
+    this.validationTimeout = validationTimeout;
+  }
+
+  /**
+   * Gets the number of idle connections opened by {@link #warmUp()}.
+   *
+   * @return the warm-up size; 0 if the warm-up is disabled.
+   */
+  public int getWarmUpSize() {
+    return warmUpSize;
+  }
+
+  /**
+   * Sets the number of idle connections opened by {@link #warmUp()}.
+   *
+   * @param warmUpSize The warm-up size, 0 to disable the warm-up.
+   * @throws SQLException if the value is negative.
+   */
+  public void setWarmUpSize(final int warmUpSize) throws SQLException {
+    this.warmUpSize = checkPoolSetting("WarmUpSize", warmUpSize);
+  }
+
+  /**
+   * Gets the maximum number of connections opened concurrently by {@link #warmUp()}.
+   *
+   * @return the warm-up parallelism.
+   */
+  public int getWarmUpParallelism() {
+    return warmUpParallelism;
+  }
+
+  /**
+   * Sets the maximum number of connections opened concurrently by {@link #warmUp()}.
+   *
+   * @param warmUpParallelism The warm-up parallelism.
+   * @throws SQLException if the value is not positive.
+   */
+  public void setWarmUpParallelism(final int warmUpParallelism) throws SQLException {
+    if (warmUpParallelism < 1) {
+      throw Error.createSQLException(LOGGER, Error.INVALID_WARM_UP_PARALLELISM, warmUpParallelism);
+    }
+
+    this.warmUpParallelism = warmUpParallelism;
+  }
+
+  /**
+   * Gets the maximum number of closed prepared statements cached by each pooled connection.
+   *
+   * @return the maximum number of cached statements; 0 if statement caching is disabled.
+   */
+  public int getMaxStatements() {
+    return maxStatements;
+  }
+
+  /**
+   * Sets the maximum number of closed prepared statements cached by each pooled connection. A
+   * poolable prepared statement closed by the application is reused when a statement with the same
+   * SQL text and result set attributes is prepared on the same physical connection, keeping its
+   * result set metadata. The least recently used statements are evicted from a full cache.
+   *
+   * @param maxStatements The maximum number of cached statements, 0 to disable statement caching.
+   * @throws SQLException if the value is negative.
+   */
+  public void setMaxStatements(final int maxStatements) throws SQLException {
+    this.maxStatements = checkPoolSetting("MaxStatements", maxStatements);
+  }
+
+  /**
+   * Checks whether identical queries issued at the same time share a single execution.
+   *
+   * @return {@code true} if single-flight is enabled; {@code false} otherwise.
+   */
+  public boolean isSingleFlight() {
+    return isSingleFlight;
+  }
+
+  /**
+   * Sets whether identical queries issued at the same time by the connections of this data source
+   * share a single execution. A query issued while an identical query is in flight subscribes to
+   * it, and reads the shared pages with its own cursor.
+   *
+   * @param isSingleFlight Whether single-flight is enabled.
+   */
+  public void setSingleFlight(final boolean isSingleFlight) {
+    this.isSingleFlight = isSingleFlight;
+  }
+
   @Override
   public void connectionClosed(ConnectionEvent event) {
     final TimestreamPooledConnection eventSource = (TimestreamPooledConnection) event.getSource();
     eventSource.removeConnectionEventListener(this);
-    final TimestreamConnection connection = (TimestreamConnection) eventSource.getConnection();
-    if (connection.isClosed()) {
-      LOGGER.finer("Connection is closed, not recycling connection back into the connection pool.");
-    } else {
-      LOGGER.finer("Connection is still open, recycling the connection back into the connection pool.");
-      availablePools.get(connection.getConnectionProperties()).add(connection);
+    for (final TimestreamConnectionPool pool : availablePools.values()) {
+      if (pool.giveBack(eventSource)) {
+        return;
+      }
     }
   }
 
   @Override
   public void connectionErrorOccurred(ConnectionEvent event) {
-    // NOOP - If a connection error occurs, do not recycle this connection.
+    // If a connection error occurs, do not recycle this connection.
+    final TimestreamPooledConnection eventSource = (TimestreamPooledConnection) event.getSource();
+    eventSource.removeConnectionEventListener(this);
+    for (final TimestreamConnectionPool pool : availablePools.values()) {
+      if (pool.invalidate(eventSource)) {
+        return;
+      }
+    }
   }
 
   /**
@@ -739,20 +1111,90 @@ public class TimestreamDataSource implements javax.sql.DataSource,
       }
     }
 
+    if (this.isSingleFlight) {
+      properties.put(TimestreamConnectionProperty.SINGLE_FLIGHT.getConnectionProperty(), Boolean.TRUE.toString());
+    }
+
     properties.putAll(sdkProperties);
     return properties;
   }
 
   /**
-   * Creates a TimestreamPooledConnection object.
+   * Creates a connection that retrieves result set pages with the executor of this data source.
+   *
+   * @param info Properties instance containing credential information.
+   * @return TimestreamConnection instance.
+   * @throws SQLException if the connection could not be created.
+   */
+  private TimestreamConnection openConnection(final Properties info) throws SQLException {
+    final TimestreamConnection connection = createTimestreamConnection(info);
+    connection.setRetrievalExecutor(getRetrievalExecutor());
+    return connection;
+  }
+
+  /**
+   * Gets the executor retrieving result set pages for the connections created by this data source,
+   * creating a new one if the pool size has changed. Virtual threads are not pooled, so the
+   * driver-wide virtual thread executor is used when they are enabled and supported.
    *
-   * @param timestreamConnection A TimestreamConnection that's wrapped within a
-   *                             TimestreamPooledConnection.
-   * @return A TimestreamPooledConnection instance.
+   * @return the {@link TimestreamRetrievalExecutor} of this data source.
    */
-  private TimestreamPooledConnection createTimestreamPooledConnection(
-    final TimestreamConnection timestreamConnection) {
-    return new TimestreamPooledConnection(timestreamConnection);
+  @VisibleForTesting
+  synchronized TimestreamRetrievalExecutor getRetrievalExecutor() {
+    final TimestreamRetrievalExecutor virtualThreadExecutor =
+      TimestreamRetrievalExecutor.getVirtualThreadExecutor();
+    if (isUseVirtualThreads() && (virtualThreadExecutor != null)) {
+      return virtualThreadExecutor;
+    }
+
+    final int poolSize = getRetrievalThreadPoolSize();
+    if ((retrievalExecutor == null) || (retrievalExecutor.getPoolSize() != poolSize)) {
+      retrievalExecutor = new TimestreamRetrievalExecutor(poolSize);
+    }
+    return retrievalExecutor;
+  }
+
+  /**
+   * Creates the connection pool for a set of connection properties, with the current pool settings
+   * of this data source.
+   *
+   * @param info Properties instance containing credential information.
+   * @return a new {@link TimestreamConnectionPool}.
+   */
+  private TimestreamConnectionPool createConnectionPool(final Properties info) {
+    LOGGER.finer("Creating a connection pool for a new set of connection properties.");
+    final int statementCacheSize = maxStatements;
+    return new TimestreamConnectionPool(
+      () -> {
+        final TimestreamConnection connection = openConnection((Properties) info.clone());
+        connection.setStatementCacheSize(statementCacheSize);
+        return connection;
+      },
+      new TimestreamConnectionPool.Settings(
+        maxPoolSize,
+        minIdle,
+        maxIdle,
+        maxWait,
+        idleTimeout,
+        maxLifetime,
+        isTestOnBorrow,
+        validationTimeout));
+  }
+
+  /**
+   * Checks that the value of a connection pool setting is not negative.
+   *
+   * @param name  The name of the setting.
+   * @param value The value of the setting.
+   * @param <T>   The type of the value.
+   * @return the value.
+   * @throws SQLException if the value is negative.
+   */
+  private static <T extends Number> T checkPoolSetting(final String name, final T value) throws SQLException {
+    if (value.longValue() < 0) {
+      throw Error.createSQLException(LOGGER, Error.INVALID_POOL_SETTING, name, value.longValue());
+    }
+    return value;
   }
 
   /**
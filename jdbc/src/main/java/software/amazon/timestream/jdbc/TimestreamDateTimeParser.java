@@ -0,0 +1,283 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parser of the date and time values returned by Timestream, and conversions of local date-times
+ * into JDBC values in a given time zone.
+ * <p>
+ * Timestream returns timestamps in the fixed layout {@code yyyy-MM-dd HH:mm:ss.SSSSSSSSS}, dates as
+ * {@code yyyy-MM-dd} and times as {@code HH:mm:ss.SSSSSSSSS}. Values in these layouts are parsed
+ * field by field; any other value is parsed the way the driver always did, so non-canonical input
+ * is accepted or rejected exactly as before. The rules of the time zones are cached by zone ID,
+ * which is all {@link TimeZone#toZoneId()} depends on.
+ */
+final class TimestreamDateTimeParser {
+  private static final Map<String, ZoneRules> ZONE_RULES = new ConcurrentHashMap<>();
+  private static final LocalDate EPOCH_DATE = LocalDate.of(1970, 1, 1);
+  private static final int GREGORIAN_CUTOVER_YEAR = 1582;
+  private static final int MAX_FRACTION_DIGITS = 9;
+  private static final int DATE_LENGTH = 10;
+  private static final int TIME_LENGTH = 8;
+  private static final int DATE_TIME_LENGTH = DATE_LENGTH + 1 + TIME_LENGTH;
+  private static final int[] POWERS_OF_TEN = {
+    1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000, 1000000000};
+
+  private TimestreamDateTimeParser() { }
+
+  /**
+   * Parses a Timestream timestamp.
+   *
+   * @param value the timestamp, usually in the {@code yyyy-MM-dd HH:mm:ss.SSSSSSSSS} layout.
+   * @return the parsed {@link LocalDateTime}.
+   * @throws DateTimeParseException if the value is not a valid timestamp for {@link
+   *                                Constants#DATE_TIME_FORMATTER}.
+   */
+  static LocalDateTime parseDateTime(final String value) {
+    if ((value != null)
+      && (value.length() >= DATE_TIME_LENGTH)
+      && (value.charAt(DATE_LENGTH) == ' ')) {
+      final LocalDate date = parseCanonicalDate(value, 0);
+      final int nano = (date == null) ? -1 : parseTimeOfDay(value, DATE_LENGTH + 1);
+      if (nano >= 0) {
+        return LocalDateTime.of(
+          date,
+          LocalTime.of(
+            parseDigits(value, DATE_LENGTH + 1, 2),
+            parseDigits(value, DATE_LENGTH + 4, 2),
+            parseDigits(value, DATE_LENGTH + 7, 2),
+            nano));
+      }
+    }
+
+    return LocalDateTime.parse(value, Constants.DATE_TIME_FORMATTER);
+  }
+
+  /**
+   * Parses a Timestream date.
+   *
+   * @param value the date, usually in the {@code yyyy-MM-dd} layout.
+   * @return the parsed {@link LocalDate}.
+   * @throws IllegalArgumentException if the value is not a valid date for {@link Date#valueOf}.
+   */
+  static LocalDate parseDate(final String value) {
+    if ((value != null) && (value.length() == DATE_LENGTH)) {
+      final LocalDate date = parseCanonicalDate(value, 0);
+      // Date#valueOf uses the Julian calendar before the Gregorian cutover.
+      if ((date != null) && (date.getYear() > GREGORIAN_CUTOVER_YEAR)) {
+        return date;
+      }
+    }
+
+    return Date.valueOf(value).toLocalDate();
+  }
+
+  /**
+   * Parses a Timestream time.
+   *
+   * @param value the time, usually in the {@code HH:mm:ss.SSSSSSSSS} layout.
+   * @return the parsed {@link LocalTime}.
+   * @throws DateTimeParseException if the value is not a valid ISO local time.
+   */
+  static LocalTime parseTime(final String value) {
+    if (value != null) {
+      final int nano = parseTimeOfDay(value, 0);
+      if (nano >= 0) {
+        return LocalTime.of(
+          parseDigits(value, 0, 2),
+          parseDigits(value, 3, 2),
+          parseDigits(value, 6, 2),
+          nano);
+      }
+    }
+
+    return LocalTime.parse(value);
+  }
+
+  /**
+   * Converts a local date-time in the given time zone into a {@link Timestamp}.
+   *
+   * @param dateTime the local date-time.
+   * @param timeZone the time zone of the date-time.
+   * @return the {@link Timestamp} of the same instant as {@code dateTime.atZone(timeZone.toZoneId())}.
+   */
+  static Timestamp toTimestamp(final LocalDateTime dateTime, final TimeZone timeZone) {
+    final long epochSecond = toEpochSecond(dateTime, getZoneRules(timeZone));
+    final int nano = dateTime.getNano();
+    final Timestamp timestamp = new Timestamp(Math.addExact(
+      Math.multiplyExact(epochSecond, Constants.NUM_MILLISECONDS_IN_SECOND),
+      nano / (Constants.NUM_NANOSECONDS_IN_SECOND / Constants.NUM_MILLISECONDS_IN_SECOND)));
+    timestamp.setNanos(nano);
+    return timestamp;
+  }
+
+  /**
+   * Converts a local time on the epoch day in the given time zone into a {@link Time}.
+   *
+   * @param time     the local time, whose fraction of second is ignored.
+   * @param timeZone the time zone of the time.
+   * @return the {@link Time} of the same instant as {@code time.atDate(1970-01-01).atZone(timeZone.toZoneId())}.
+   */
+  static Time toTime(final LocalTime time, final TimeZone timeZone) {
+    final LocalDateTime dateTime = LocalDateTime.of(EPOCH_DATE, time.withNano(0));
+    return new Time(toEpochSecond(dateTime, getZoneRules(timeZone)) * Constants.NUM_MILLISECONDS_IN_SECOND);
+  }
+
+  /**
+   * Converts the start of a day in the given time zone into a {@link Date}.
+   *
+   * @param date     the local date.
+   * @param timeZone the time zone of the date.
+   * @return the {@link Date} of the same instant as {@code date.atStartOfDay(timeZone.toZoneId())}.
+   */
+  static Date toDate(final LocalDate date, final TimeZone timeZone) {
+    final ZoneRules rules = getZoneRules(timeZone);
+    final LocalDateTime midnight = date.atStartOfDay();
+    final ZoneOffsetTransition transition = rules.getTransition(midnight);
+    final long epochSecond = ((transition != null) && transition.isGap())
+      // The day starts at the end of the gap.
+      ? transition.toEpochSecond()
+      : midnight.toEpochSecond(rules.getOffset(midnight));
+    return new Date(epochSecond * Constants.NUM_MILLISECONDS_IN_SECOND);
+  }
+
+  /**
+   * Gets the rules of a time zone, resolving its zone ID only once.
+   *
+   * @param timeZone the time zone.
+   * @return the {@link ZoneRules} of the time zone.
+   */
+  static ZoneRules getZoneRules(final TimeZone timeZone) {
+    final ZoneRules rules = ZONE_RULES.get(timeZone.getID());
+    if (rules != null) {
+      return rules;
+    }
+
+    return ZONE_RULES.computeIfAbsent(timeZone.getID(), id -> timeZone.toZoneId().getRules());
+  }
+
+  /**
+   * Converts a local date-time into seconds since the epoch. Date-times in a gap are shifted by the
+   * length of the gap and date-times in an overlap use the earlier offset, as {@link
+   * LocalDateTime#atZone} does.
+   *
+   * @param dateTime the local date-time.
+   * @param rules    the rules of the time zone of the date-time.
+   * @return the seconds since the epoch.
+   */
+  private static long toEpochSecond(final LocalDateTime dateTime, final ZoneRules rules) {
+    // Shifting a date-time in a gap by the length of the gap and applying the offset after the gap
+    // is the same instant as applying the offset before the gap, which is the one returned here.
+    return dateTime.toEpochSecond(rules.getOffset(dateTime));
+  }
+
+  /**
+   * Parses a date in the {@code yyyy-MM-dd} layout.
+   *
+   * @param value the string containing the date.
+   * @param start the index of the date in the string.
+   * @return the parsed {@link LocalDate}, or {@code null} if the date is not in the canonical layout
+   * or is not a valid date.
+   */
+  private static LocalDate parseCanonicalDate(final String value, final int start) {
+    if ((value.charAt(start + 4) != '-') || (value.charAt(start + 7) != '-')) {
+      return null;
+    }
+
+    final int year = parseDigits(value, start, 4);
+    final int month = parseDigits(value, start + 5, 2);
+    final int day = parseDigits(value, start + 8, 2);
+    if ((year < 1) || (month < 1) || (month > 12) || (day < 1)
+      || (day > Month.of(month).length(Year.isLeap(year)))) {
+      return null;
+    }
+    return LocalDate.of(year, month, day);
+  }
+
+  /**
+   * Validates a time of day in the {@code HH:mm:ss} layout, optionally followed by a fraction of
+   * second of up to 9 digits, running to the end of the string.
+   *
+   * @param value the string containing the time.
+   * @param start the index of the time in the string.
+   * @return the nanosecond of the second, or -1 if the time is not in the canonical layout or is
+   * not a valid time.
+   */
+  private static int parseTimeOfDay(final String value, final int start) {
+    final int length = value.length() - start;
+    if ((length < TIME_LENGTH)
+      || (value.charAt(start + 2) != ':')
+      || (value.charAt(start + 5) != ':')) {
+      return -1;
+    }
+
+    final int hour = parseDigits(value, start, 2);
+    final int minute = parseDigits(value, start + 3, 2);
+    final int second = parseDigits(value, start + 6, 2);
+    if ((hour < 0) || (hour > 23) || (minute < 0) || (minute > 59) || (second < 0) || (second > 59)) {
+      return -1;
+    }
+
+    if (length == TIME_LENGTH) {
+      return 0;
+    }
+
+    final int fractionDigits = length - TIME_LENGTH - 1;
+    if ((value.charAt(start + TIME_LENGTH) != '.')
+      || (fractionDigits < 1)
+      || (fractionDigits > MAX_FRACTION_DIGITS)) {
+      return -1;
+    }
+
+    final int fraction = parseDigits(value, start + TIME_LENGTH + 1, fractionDigits);
+    return (fraction < 0) ? -1 : fraction * POWERS_OF_TEN[MAX_FRACTION_DIGITS - fractionDigits];
+  }
+
+  /**
+   * Parses a fixed number of ASCII digits.
+   *
+   * @param value  the string containing the digits.
+   * @param start  the index of the first digit.
+   * @param length the number of digits, at most 9.
+   * @return the parsed number, or -1 if one of the characters is not a digit.
+   */
+  private static int parseDigits(final String value, final int start, final int length) {
+    int result = 0;
+    for (int i = start; i < start + length; i++) {
+      final char c = value.charAt(i);
+      if ((c < '0') || (c > '9')) {
+        return -1;
+      }
+      result = (result * 10) + (c - '0');
+    }
+    return result;
+  }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.services.timestreamquery.model.Datum;
+import com.amazonaws.services.timestreamquery.model.QueryResult;
+import com.amazonaws.services.timestreamquery.model.Row;
+import com.amazonaws.services.timestreamquery.model.TimeSeriesDataPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memory budget for the result set pages buffered ahead of the consumer.
+ * <p>
+ * Each connection has its own budget, which is nested in a driver-wide budget shared by all the
+ * connections configured with the same global limit. A retriever only starts retrieving a page
+ * while both budgets have room left, so the budgets may be exceeded by at most one page per
+ * retriever. Retrievers paused on an exhausted budget register a callback that is run once
+ * buffered pages are released.
+ */
+class TimestreamMemoryBudget {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamMemoryBudget.class);
+  private static final Map<Long, TimestreamMemoryBudget> GLOBAL_BUDGETS = new ConcurrentHashMap<>();
+
+  /**
+   * Rough sizes in bytes of the objects making up a page, assuming a 64-bit JVM with compressed
+   * references.
+   */
+  private static final long OBJECT_SIZE = 16;
+  private static final long REFERENCE_SIZE = 4;
+  private static final long LIST_SIZE = 40;
+  private static final long STRING_SIZE = 40;
+
+  private final AtomicLong usedBytes = new AtomicLong();
+  private final Set<Runnable> waiters = ConcurrentHashMap.newKeySet();
+  private final long limit;
+  private final TimestreamMemoryBudget parent;
+
+  /**
+   * Constructor.
+   *
+   * @param limit  the maximum number of bytes that can be reserved, or 0 for no limit.
+   * @param parent the enclosing budget, or {@code null} if there is none.
+   */
+  TimestreamMemoryBudget(final long limit, final TimestreamMemoryBudget parent) {
+    this.limit = limit;
+    this.parent = parent;
+  }
+
+  /**
+   * Gets the driver-wide budget with the given limit, creating it if necessary.
+   *
+   * @param limit the maximum number of bytes buffered by all the connections, or 0 for no limit.
+   * @return the shared {@link TimestreamMemoryBudget}.
+   */
+  static TimestreamMemoryBudget getGlobalBudget(final long limit) {
+    return GLOBAL_BUDGETS.computeIfAbsent(limit, size -> {
+      LOGGER.debug("Creating a global prefetch memory budget of {} bytes.", size);
+      return new TimestreamMemoryBudget(size, null);
+    });
+  }
+
+  /**
+   * Checks whether this budget and its enclosing budgets have room left.
+   *
+   * @return {@code true} if more pages can be retrieved; {@code false} otherwise.
+   */
+  boolean hasCapacity() {
+    return ((limit == 0) || (usedBytes.get() < limit))
+      && ((parent == null) || parent.hasCapacity());
+  }
+
+  /**
+   * Reserves memory for a buffered page in this budget and its enclosing budgets.
+   *
+   * @param bytes the estimated size of the page.
+   */
+  void reserve(final long bytes) {
+    usedBytes.addAndGet(bytes);
+    if (parent != null) {
+      parent.reserve(bytes);
+    }
+  }
+
+  /**
+   * Releases the memory of a consumed or discarded page, and resumes the retrievers waiting on
+   * this budget or its enclosing budgets.
+   *
+   * @param bytes the estimated size of the page.
+   */
+  void release(final long bytes) {
+    if (bytes == 0) {
+      return;
+    }
+
+    usedBytes.addAndGet(-bytes);
+    if (parent != null) {
+      parent.release(bytes);
+    }
+
+    for (final Runnable waiter : waiters) {
+      if (waiters.remove(waiter)) {
+        waiter.run();
+      }
+    }
+  }
+
+  /**
+   * Registers a callback to run the next time memory is released in this budget or its enclosing
+   * budgets. The caller must check {@link #hasCapacity()} again after registering, since memory may
+   * have been released in the meantime.
+   *
+   * @param waiter the callback to run.
+   */
+  void awaitCapacity(final Runnable waiter) {
+    waiters.add(waiter);
+    if (parent != null) {
+      parent.awaitCapacity(waiter);
+    }
+  }
+
+  /**
+   * Unregisters a callback from this budget and its enclosing budgets.
+   *
+   * @param waiter the callback to remove.
+   */
+  void removeWaiter(final Runnable waiter) {
+    waiters.remove(waiter);
+    if (parent != null) {
+      parent.removeWaiter(waiter);
+    }
+  }
+
+  /**
+   * Gets the number of bytes currently reserved in this budget.
+   *
+   * @return the reserved bytes.
+   */
+  long getUsedBytes() {
+    return usedBytes.get();
+  }
+
+  /**
+   * Gets the maximum number of bytes that can be reserved in this budget.
+   *
+   * @return the limit in bytes, or 0 if there is no limit.
+   */
+  long getLimit() {
+    return limit;
+  }
+
+  /**
+   * Estimates the heap size of a page from its contents.
+   *
+   * @param result the page to estimate.
+   * @return the estimated size in bytes.
+   */
+  static long estimateSize(final QueryResult result) {
+    long size = OBJECT_SIZE + (STRING_SIZE * 2);
+    final List<Row> rows = result.getRows();
+    if (rows != null) {
+      size += LIST_SIZE + (REFERENCE_SIZE * rows.size());
+      for (final Row row : rows) {
+        size += estimateSize(row);
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Estimates the heap size of a row.
+   *
+   * @param row the row to estimate.
+   * @return the estimated size in bytes.
+   */
+  private static long estimateSize(final Row row) {
+    if (row == null) {
+      return 0;
+    }
+
+    long size = OBJECT_SIZE;
+    final List<Datum> data = row.getData();
+    if (data != null) {
+      size += LIST_SIZE + (REFERENCE_SIZE * data.size());
+      for (final Datum datum : data) {
+        size += estimateSize(datum);
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Estimates the heap size of a datum, including nested time series, arrays and rows.
+   *
+   * @param datum the datum to estimate.
+   * @return the estimated size in bytes.
+   */
+  private static long estimateSize(final Datum datum) {
+    if (datum == null) {
+      return 0;
+    }
+
+    long size = OBJECT_SIZE + estimateSize(datum.getScalarValue()) + estimateSize(datum.getRowValue());
+    final List<TimeSeriesDataPoint> timeSeries = datum.getTimeSeriesValue();
+    if (timeSeries != null) {
+      size += LIST_SIZE + (REFERENCE_SIZE * timeSeries.size());
+      for (final TimeSeriesDataPoint point : timeSeries) {
+        size += OBJECT_SIZE + estimateSize(point.getTime()) + estimateSize(point.getValue());
+      }
+    }
+
+    final List<Datum> array = datum.getArrayValue();
+    if (array != null) {
+      size += LIST_SIZE + (REFERENCE_SIZE * array.size());
+      for (final Datum element : array) {
+        size += estimateSize(element);
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Estimates the heap size of a string.
+   *
+   * @param value the string to estimate.
+   * @return the estimated size in bytes.
+   */
+  private static long estimateSize(final String value) {
+    return (value == null) ? 0 : STRING_SIZE + (2L * value.length());
+  }
+}
@@ -20,10 +20,15 @@ import org.slf4j.LoggerFactory;
 
 import javax.sql.ConnectionEvent;
 import javax.sql.ConnectionEventListener;
+import javax.sql.StatementEvent;
 import javax.sql.StatementEventListener;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * A class that is a wrapper around a TimestreamConnection instance which helps to
@@ -32,6 +37,7 @@ import java.util.List;
 public class TimestreamPooledConnection implements javax.sql.PooledConnection {
   private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamPooledConnection.class);
   private final List<ConnectionEventListener> connectionEventListeners = new LinkedList<>();
+  private final List<StatementEventListener> statementEventListeners = new CopyOnWriteArrayList<>();
   private final TimestreamConnection timestreamConnection;
 
   /**
@@ -41,6 +47,7 @@ public class TimestreamPooledConnection implements javax.sql.PooledConnection {
    */
   TimestreamPooledConnection(TimestreamConnection connection) {
     this.timestreamConnection = connection;
+    connection.attachPooledConnection(this);
   }
 
   @Override
@@ -51,6 +58,7 @@ public class TimestreamPooledConnection implements javax.sql.PooledConnection {
   @Override
   public void close() {
     LOGGER.debug("Notify all connection listeners this PooledConnection object is closed.");
+    timestreamConnection.detachPooledConnection(this);
     final ConnectionEvent event = new ConnectionEvent(this, null);
     connectionEventListeners.forEach(l -> l.connectionClosed(event));
   }
@@ -69,13 +77,53 @@ public class TimestreamPooledConnection implements javax.sql.PooledConnection {
 
   @Override
   public void addStatementEventListener(StatementEventListener listener) {
-    // Do nothing, statement pooling is not supported.
-    LOGGER.debug("addStatementEventListener is called on the current PooledConnection object.");
+    LOGGER.debug("Add a StatementEventListener to this PooledConnection.");
+    statementEventListeners.add(listener);
   }
 
   @Override
   public void removeStatementEventListener(StatementEventListener listener) {
-    // Do nothing, statement pooling is not supported.
-    LOGGER.debug("removeStatementEventListener is called on the current PooledConnection object.");
+    LOGGER.debug("Remove the StatementEventListener attached to this PooledConnection.");
+    statementEventListeners.remove(listener);
+  }
+
+  /**
+   * Notifies all statement listeners that a prepared statement of the connection is closed.
+   *
+   * @param statement The closed statement.
+   */
+  void fireStatementClosed(final PreparedStatement statement) {
+    final StatementEvent event = new StatementEvent(this, statement);
+    statementEventListeners.forEach(l -> l.statementClosed(event));
+  }
+
+  /**
+   * Notifies all statement listeners that a prepared statement of the connection threw an exception
+   * and can no longer be used.
+   *
+   * @param statement The statement that threw the exception.
+   * @param e         The exception thrown.
+   */
+  void fireStatementErrorOccurred(final PreparedStatement statement, final SQLException e) {
+    final StatementEvent event = new StatementEvent(this, statement, e);
+    statementEventListeners.forEach(l -> l.statementErrorOccurred(event));
+  }
+
+  /**
+   * Notifies all connection listeners that a fatal error occurred on the connection, so it is
+   * closed instead of being returned to the pool. Only errors with a connection exception SQLSTATE
+   * are fatal.
+   *
+   * @param e The exception thrown.
+   */
+  void fireConnectionErrorOccurred(final SQLException e) {
+    final String sqlState = e.getSQLState();
+    if ((sqlState == null) || !sqlState.startsWith(Constants.CONNECTION_EXCEPTION_SQL_STATE_CLASS)) {
+      return;
+    }
+
+    LOGGER.debug("Notify all connection listeners a fatal error occurred on this PooledConnection.");
+    final ConnectionEvent event = new ConnectionEvent(this, e);
+    new ArrayList<>(connectionEventListeners).forEach(l -> l.connectionErrorOccurred(event));
   }
 }
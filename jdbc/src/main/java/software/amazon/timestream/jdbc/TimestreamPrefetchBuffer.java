@@ -0,0 +1,293 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffer of pages shared between the thread retrieving the pages of a result set and the thread
+ * consuming them.
+ * <p>
+ * In {@link PrefetchMode#FIXED} mode the buffer holds at most the configured number of pages. In
+ * {@link PrefetchMode#ADAPTIVE} mode the configured depth is a lower bound, and the capacity is
+ * recomputed after every consumed page from the average time taken to retrieve a page and the
+ * average time the consumer takes to drain one, so slow page retrievals can overlap with
+ * consumption instead of stalling the consumer.
+ *
+ * @param <E> the type of the buffered elements.
+ */
+class TimestreamPrefetchBuffer<E> {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamPrefetchBuffer.class);
+
+  /**
+   * Weight given to the latest sample when updating the moving averages.
+   */
+  private static final double SMOOTHING_FACTOR = 0.3;
+
+  /**
+   * Supported prefetch modes.
+   */
+  enum PrefetchMode {
+    ADAPTIVE,
+    FIXED;
+
+    /**
+     * Parses the prefetch mode, ignoring case.
+     *
+     * @param mode the name of the mode.
+     * @return the matching {@link PrefetchMode}, or {@code null} if the name does not match any
+     * mode.
+     */
+    static PrefetchMode fromString(final String mode) {
+      for (final PrefetchMode value : values()) {
+        if (value.name().equalsIgnoreCase(mode)) {
+          return value;
+        }
+      }
+      return null;
+    }
+  }
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+  private final Deque<E> elements = new ArrayDeque<>();
+  private final PrefetchMode mode;
+  private final int minDepth;
+  private final int maxDepth;
+  private int depth;
+  private double averageRetrievalNanos;
+  private double averageDrainNanos;
+  private long lastTakeNanos;
+
+  /**
+   * Constructor.
+   *
+   * @param mode     the prefetch mode.
+   * @param depth    the fixed depth, or the minimum depth in adaptive mode.
+   * @param maxDepth the maximum depth in adaptive mode.
+   */
+  TimestreamPrefetchBuffer(final PrefetchMode mode, final int depth, final int maxDepth) {
+    this.mode = mode;
+    this.minDepth = depth;
+    this.maxDepth = (mode == PrefetchMode.ADAPTIVE) ? Math.max(depth, maxDepth) : depth;
+    this.depth = depth;
+  }
+
+  /**
+   * Inserts the element at the tail of the buffer, waiting up to the specified time for space to
+   * become available.
+   *
+   * @param element the element to add.
+   * @param timeout how long to wait before giving up.
+   * @param unit    the unit of the timeout.
+   * @return {@code true} if the element was added; {@code false} if the timeout elapsed.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  boolean offer(final E element, final long timeout, final TimeUnit unit)
+    throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (elements.size() >= depth) {
+        if (nanos <= 0) {
+          return false;
+        }
+        nanos = notFull.awaitNanos(nanos);
+      }
+      elements.addLast(element);
+      notEmpty.signal();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Inserts the element at the tail of the buffer if there is space available.
+   *
+   * @param element the element to add.
+   * @return {@code true} if the element was added; {@code false} if the buffer is full.
+   */
+  boolean offer(final E element) {
+    lock.lock();
+    try {
+      if (elements.size() >= depth) {
+        return false;
+      }
+      elements.addLast(element);
+      notEmpty.signal();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Inserts the element at the tail of the buffer regardless of the depth. Used for pages retrieved
+   * after checking {@link #hasCapacity()}, since the depth may have shrunk in the meantime.
+   *
+   * @param element the element to add.
+   */
+  void add(final E element) {
+    lock.lock();
+    try {
+      elements.addLast(element);
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Checks whether the buffer holds fewer elements than its current depth.
+   *
+   * @return {@code true} if there is space available; {@code false} otherwise.
+   */
+  boolean hasCapacity() {
+    lock.lock();
+    try {
+      return elements.size() < depth;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Retrieves and removes the head of the buffer, waiting until an element becomes available.
+   *
+   * @return the head of the buffer.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  E take() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      if (lastTakeNanos != 0) {
+        averageDrainNanos = average(averageDrainNanos, System.nanoTime() - lastTakeNanos);
+      }
+      while (elements.isEmpty()) {
+        notEmpty.await();
+      }
+      final E element = elements.removeFirst();
+      lastTakeNanos = System.nanoTime();
+      adjustDepth();
+      notFull.signalAll();
+      return element;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Records the time taken to retrieve a page, used to compute the depth in adaptive mode.
+   *
+   * @param retrievalNanos the time taken to retrieve a page in nanoseconds.
+   */
+  void recordRetrievalTime(final long retrievalNanos) {
+    lock.lock();
+    try {
+      averageRetrievalNanos = average(averageRetrievalNanos, retrievalNanos);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes all the elements from the buffer.
+   *
+   * @return the removed elements, in order.
+   */
+  List<E> clear() {
+    lock.lock();
+    try {
+      final List<E> removed = new ArrayList<>(elements);
+      elements.clear();
+      notFull.signalAll();
+      return removed;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of elements in the buffer.
+   *
+   * @return the number of buffered elements.
+   */
+  int size() {
+    lock.lock();
+    try {
+      return elements.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the current maximum number of elements the buffer can hold.
+   *
+   * @return the current depth.
+   */
+  int getDepth() {
+    lock.lock();
+    try {
+      return depth;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Recomputes the depth so that the pages retrieved while the consumer drains the buffer cover the
+   * time taken to retrieve a single page. Only applies in adaptive mode, once both the retrieval
+   * and the drain times have been measured.
+   */
+  private void adjustDepth() {
+    if ((mode != PrefetchMode.ADAPTIVE) || (averageRetrievalNanos == 0) || (averageDrainNanos == 0)) {
+      return;
+    }
+
+    final long target = (long) Math.ceil(averageRetrievalNanos / averageDrainNanos) + 1;
+    final int newDepth = (int) Math.max(minDepth, Math.min(maxDepth, target));
+    if (newDepth != depth) {
+      LOGGER.debug("Adjusting the prefetch depth from {} to {}.", depth, newDepth);
+      depth = newDepth;
+    }
+  }
+
+  /**
+   * Updates an exponential moving average with a new sample.
+   *
+   * @param average the current average, 0 if there are no samples yet.
+   * @param sample  the new sample.
+   * @return the updated average.
+   */
+  private static double average(final double average, final long sample) {
+    if (average == 0) {
+      return sample;
+    }
+    return (SMOOTHING_FACTOR * sample) + ((1 - SMOOTHING_FACTOR) * average);
+  }
+}
@@ -41,8 +41,12 @@ import java.util.Calendar;
 
 public class TimestreamPreparedStatement extends TimestreamStatement implements PreparedStatement {
   private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamPreparedStatement.class);
+  private final TimestreamConnection connection;
   private final String sql;
+  private final TimestreamStatementCache.Key cacheKey;
   private ResultSet resultSet;
+  private ResultSetMetaData metaData;
+  private boolean hasErrorOccurred;
 
   /**
    * Constructor for seeding the prepared statement with the parent connection.
@@ -53,8 +57,44 @@ public class TimestreamPreparedStatement extends TimestreamStatement implements
    */
   TimestreamPreparedStatement(final TimestreamConnection connection, String sql)
       throws SQLException {
+    this(connection, sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+  }
+
+  /**
+   * Constructor for seeding the prepared statement with the parent connection and the attributes of
+   * its result sets.
+   *
+   * @param connection           The parent connection.
+   * @param sql                  The sql query.
+   * @param resultSetType        The type of the result sets.
+   * @param resultSetConcurrency The concurrency of the result sets.
+   * @throws SQLException if error occurs when get type map of connection.
+   */
+  TimestreamPreparedStatement(final TimestreamConnection connection, String sql,
+      final int resultSetType, final int resultSetConcurrency) throws SQLException {
     super(connection);
+    this.connection = connection;
     this.sql = sql;
+    this.cacheKey = new TimestreamStatementCache.Key(sql, resultSetType, resultSetConcurrency);
+    setPoolable(true);
+  }
+
+  /**
+   * Constructor for a new statement handed out in place of a closed cached statement. The new
+   * statement reuses the result set metadata described by the closed statement and starts with the
+   * default statement attributes, while the closed statement stays closed so stale references to it
+   * cannot execute queries.
+   *
+   * @param closedStatement The closed statement taken from the statement cache.
+   * @throws SQLException if error occurs when get type map of connection.
+   */
+  TimestreamPreparedStatement(final TimestreamPreparedStatement closedStatement) throws SQLException {
+    super(closedStatement.connection);
+    this.connection = closedStatement.connection;
+    this.sql = closedStatement.sql;
+    this.cacheKey = closedStatement.cacheKey;
+    this.metaData = closedStatement.metaData;
+    setPoolable(true);
   }
 
   @Override
@@ -84,7 +124,21 @@ public class TimestreamPreparedStatement extends TimestreamStatement implements
   @Override
   public ResultSet executeQuery() throws SQLException {
     verifyOpen();
-    return super.executeQuery(sql);
+    final ResultSet result;
+    try {
+      result = super.executeQuery(sql);
+    } catch (final SQLException e) {
+      this.hasErrorOccurred = true;
+      invalidateMetaData();
+      connection.statementErrorOccurred(this, e);
+      throw e;
+    }
+
+    final ResultSetMetaData resultMetaData = result.getMetaData();
+    if (resultMetaData instanceof TimestreamResultSetMetaData) {
+      cacheMetaData((TimestreamResultSetMetaData) resultMetaData);
+    }
+    return result;
   }
 
   @Override
@@ -103,9 +157,25 @@ public class TimestreamPreparedStatement extends TimestreamStatement implements
   public ResultSetMetaData getMetaData() throws SQLException {
     verifyOpen();
     if (resultSet == null) {
+      if (metaData != null) {
+        return metaData;
+      }
+
+      final TimestreamResultMetaDataCache cache = connection.getMetaDataCache();
+      if (cache != null) {
+        metaData = cache.get(connection.getResultCacheScope(), this.sql);
+        if (metaData != null) {
+          return metaData;
+        }
+      }
+
       if (this.getConnection().isMetadataPreparedStatementEnabled()) {
         try (ResultSet result = super.executeQuery("SELECT * FROM (" + this.sql + ") LIMIT 0")) {
-          return result.getMetaData();
+          metaData = result.getMetaData();
+          if (metaData instanceof TimestreamResultSetMetaData) {
+            cacheMetaData((TimestreamResultSetMetaData) metaData);
+          }
+          return metaData;
         } catch (SQLException e) {
           LOGGER.warn(
               "Query failed when retrieving metadata with unsupported Timestream query: {}",
@@ -119,6 +189,32 @@ public class TimestreamPreparedStatement extends TimestreamStatement implements
     return resultSet.getMetaData();
   }
 
+  /**
+   * Keeps the result set metadata of the query for this statement and for the prepared statements
+   * of the connections sharing the metadata cache.
+   *
+   * @param resultMetaData the metadata of a result of the query.
+   */
+  private void cacheMetaData(final TimestreamResultSetMetaData resultMetaData) {
+    this.metaData = resultMetaData;
+    final TimestreamResultMetaDataCache cache = connection.getMetaDataCache();
+    if (cache != null) {
+      cache.put(connection.getResultCacheScope(), this.sql, resultMetaData, connection.getMetaDataCacheTtlNanos());
+    }
+  }
+
+  /**
+   * Discards the result set metadata of the query after a failed execution, since the failure may
+   * be caused by a change of the schema of the queried tables.
+   */
+  private void invalidateMetaData() {
+    this.metaData = null;
+    final TimestreamResultMetaDataCache cache = connection.getMetaDataCache();
+    if (cache != null) {
+      cache.invalidate(connection.getResultCacheScope(), this.sql);
+    }
+  }
+
   @Override
   public ParameterMetaData getParameterMetaData() throws SQLException {
     verifyOpen();
@@ -443,4 +539,24 @@ public class TimestreamPreparedStatement extends TimestreamStatement implements
     verifyOpen();
     throw new SQLFeatureNotSupportedException(Error.lookup(Error.PARAMETERS_NOT_SUPPORTED));
   }
+
+  /**
+   * Gets the SQL text and result set attributes identifying the statements this statement can be
+   * reused for.
+   *
+   * @return the key of this statement in a statement cache.
+   */
+  TimestreamStatementCache.Key getCacheKey() {
+    return cacheKey;
+  }
+
+  /**
+   * Gets whether this statement can be cached once it is closed, which is the case of poolable
+   * statements that have not thrown an exception while executing their query.
+   *
+   * @return {@code true} if the statement can be cached; {@code false} otherwise.
+   */
+  boolean isCacheable() {
+    return canBePooled() && !hasErrorOccurred;
+  }
 }
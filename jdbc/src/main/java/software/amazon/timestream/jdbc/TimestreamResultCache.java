@@ -0,0 +1,406 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.services.timestreamquery.model.QueryResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the pages of query results, so identical queries issued within the time to live of a
+ * result are answered without a request to Timestream.
+ * <p>
+ * Each cache is shared by all the connections configured with the same maximum size, and the
+ * results are only shared between connections using the same query client configuration, which
+ * includes the identity of the credentials. Results are cached once they have been read to the end,
+ * and are evicted in least recently used order once the estimated size of the cached pages exceeds
+ * the maximum size.
+ */
+class TimestreamResultCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamResultCache.class);
+  private static final Map<Long, TimestreamResultCache> CACHES = new ConcurrentHashMap<>();
+
+  private final long maxBytes;
+  private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long usedBytes;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * Constructor.
+   *
+   * @param maxBytes the maximum estimated size in bytes of the cached pages.
+   */
+  TimestreamResultCache(final long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Gets the driver-wide cache with the given maximum size, creating it if necessary.
+   *
+   * @param maxBytes the maximum estimated size in bytes of the cached pages.
+   * @return the shared {@link TimestreamResultCache}.
+   */
+  static TimestreamResultCache getCache(final long maxBytes) {
+    return CACHES.computeIfAbsent(maxBytes, size -> {
+      LOGGER.debug("Creating a query result cache of {} bytes.", size);
+      return new TimestreamResultCache(size);
+    });
+  }
+
+  /**
+   * Gets the pages of the cached result of the given key, removing the result if it has expired.
+   *
+   * @param key the query and the statement settings.
+   * @return the pages of the result, or {@code null} if there is no valid cached result.
+   */
+  synchronized List<QueryResult> get(final Key key) {
+    final Entry entry = entries.get(key);
+    if ((entry != null) && entry.isExpired(System.nanoTime())) {
+      LOGGER.debug("Removing an expired query result from the cache.");
+      remove(key);
+    } else if (entry != null) {
+      hits++;
+      return entry.pages;
+    }
+
+    misses++;
+    return null;
+  }
+
+  /**
+   * Caches the pages of a result read to the end, evicting the expired results and then the least
+   * recently used results until the cache fits in its maximum size.
+   *
+   * @param key      the query and the statement settings.
+   * @param pages    the pages of the result.
+   * @param bytes    the estimated size of the pages.
+   * @param ttlNanos the time to live of the result in nanoseconds.
+   */
+  synchronized void put(final Key key, final List<QueryResult> pages, final long bytes, final long ttlNanos) {
+    if (bytes > maxBytes) {
+      return;
+    }
+
+    final long now = System.nanoTime();
+    remove(key);
+    entries.put(key, new Entry(Collections.unmodifiableList(pages), bytes, now + ttlNanos));
+    usedBytes += bytes;
+
+    final Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Entry entry = iterator.next().getValue();
+      if (entry.isExpired(now)) {
+        iterator.remove();
+        usedBytes -= entry.bytes;
+      }
+    }
+
+    final Iterator<Entry> lruIterator = entries.values().iterator();
+    while ((usedBytes > maxBytes) && lruIterator.hasNext()) {
+      final Entry entry = lruIterator.next();
+      lruIterator.remove();
+      usedBytes -= entry.bytes;
+      evictions++;
+      LOGGER.debug("Evicted the least recently used query result from the cache.");
+    }
+  }
+
+  /**
+   * Removes all the cached results.
+   */
+  synchronized void clear() {
+    entries.clear();
+    usedBytes = 0;
+  }
+
+  /**
+   * Creates a recorder collecting the pages of a result as they are read.
+   *
+   * @param key      the query and the statement settings.
+   * @param ttlNanos the time to live of the result in nanoseconds.
+   * @return a new {@link Recorder}.
+   */
+  Recorder record(final Key key, final long ttlNanos) {
+    return new Recorder(key, ttlNanos);
+  }
+
+  /**
+   * Gets the number of queries answered from the cache.
+   *
+   * @return the number of cache hits.
+   */
+  synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Gets the number of queries without a valid cached result.
+   *
+   * @return the number of cache misses.
+   */
+  synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Gets the number of results evicted to keep the cache within its maximum size.
+   *
+   * @return the number of evictions.
+   */
+  synchronized long getEvictions() {
+    return evictions;
+  }
+
+  /**
+   * Gets the estimated size in bytes of the cached pages.
+   *
+   * @return the used bytes.
+   */
+  synchronized long getUsedBytes() {
+    return usedBytes;
+  }
+
+  /**
+   * Gets the number of cached results.
+   *
+   * @return the number of cached results.
+   */
+  synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Removes the cached result of the given key.
+   *
+   * @param key the query and the statement settings.
+   */
+  private void remove(final Key key) {
+    final Entry entry = entries.remove(key);
+    if (entry != null) {
+      usedBytes -= entry.bytes;
+    }
+  }
+
+  /**
+   * Normalizes the whitespace of a query outside of its quoted literals, identifiers and comments,
+   * so queries only differing by their formatting share a cached result. Comments are kept as they
+   * are, including the line break ending a {@code --} comment, so the text following a comment on
+   * the next line is never merged into the comment.
+   *
+   * @param sql the query to normalize.
+   * @return the normalized query.
+   */
+  static String normalize(final String sql) {
+    final StringBuilder builder = new StringBuilder(sql.length());
+    // The closing character of the quoted literal or identifier being copied.
+    char quote = 0;
+    boolean isLineComment = false;
+    boolean isBlockComment = false;
+    int blockCommentStart = 0;
+    boolean isWhitespace = false;
+    for (int i = 0; i < sql.length(); i++) {
+      final char c = sql.charAt(i);
+      if (quote != 0) {
+        builder.append(c);
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (isLineComment) {
+        builder.append(c);
+        if ((c == '\n') || (c == '\r')) {
+          isLineComment = false;
+        }
+      } else if (isBlockComment) {
+        builder.append(c);
+        if ((c == '/') && (i - 1 > blockCommentStart + 1) && (sql.charAt(i - 1) == '*')) {
+          isBlockComment = false;
+        }
+      } else if (Character.isWhitespace(c)) {
+        isWhitespace = true;
+      } else {
+        if (isWhitespace && (builder.length() > 0) && !endsWithLineBreak(builder)) {
+          builder.append(' ');
+        }
+        isWhitespace = false;
+        if ((c == '\'') || (c == '"')) {
+          quote = c;
+        } else if (sql.startsWith("--", i)) {
+          isLineComment = true;
+        } else if (sql.startsWith("/*", i)) {
+          isBlockComment = true;
+          blockCommentStart = i;
+          builder.append(c).append('*');
+          i++;
+          continue;
+        }
+        builder.append(c);
+      }
+    }
+
+    int length = builder.length();
+    while ((quote == 0) && !isBlockComment && (length > 0) && (builder.charAt(length - 1) == ';')) {
+      length--;
+    }
+    builder.setLength(length);
+    return builder.toString().trim();
+  }
+
+  /**
+   * Checks whether the normalized query ends with the line break of a {@code --} comment.
+   *
+   * @param builder the normalized query.
+   * @return {@code true} if the query ends with a line break; {@code false} otherwise.
+   */
+  private static boolean endsWithLineBreak(final StringBuilder builder) {
+    final char last = builder.charAt(builder.length() - 1);
+    return (last == '\n') || (last == '\r');
+  }
+
+  /**
+   * The query and the statement settings affecting its result, scoped to the query client
+   * configuration of the connection.
+   */
+  static final class Key {
+    private final List<Object> settings;
+
+    /**
+     * Constructor.
+     *
+     * @param scope        an object identifying the query client configuration of the connection.
+     * @param sql          the query.
+     * @param fetchSize    the number of rows per page.
+     * @param queryTimeout the query timeout in milliseconds.
+     * @param largeMaxRows the maximum number of rows of the result set.
+     * @param maxFieldSize the maximum number of bytes of character and binary values.
+     */
+    Key(
+      final Object scope,
+      final String sql,
+      final int fetchSize,
+      final int queryTimeout,
+      final long largeMaxRows,
+      final int maxFieldSize) {
+      this.settings = Arrays.asList(scope, normalize(sql), fetchSize, queryTimeout, largeMaxRows, maxFieldSize);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return (this == o) || ((o instanceof Key) && settings.equals(((Key) o).settings));
+    }
+
+    @Override
+    public int hashCode() {
+      return settings.hashCode();
+    }
+  }
+
+  /**
+   * Collects the pages of a result as they are read, and caches them once the result is read to
+   * the end. The recording is abandoned once the pages exceed the maximum size of the cache.
+   */
+  final class Recorder {
+    private final Key key;
+    private final long ttlNanos;
+    private final List<QueryResult> pages = new ArrayList<>();
+    private long bytes;
+    private boolean isAbandoned;
+
+    /**
+     * Constructor.
+     *
+     * @param key      the query and the statement settings.
+     * @param ttlNanos the time to live of the result in nanoseconds.
+     */
+    private Recorder(final Key key, final long ttlNanos) {
+      this.key = key;
+      this.ttlNanos = ttlNanos;
+    }
+
+    /**
+     * Adds a page of the result.
+     *
+     * @param page the page read.
+     */
+    void add(final QueryResult page) {
+      if (isAbandoned) {
+        return;
+      }
+
+      bytes += TimestreamMemoryBudget.estimateSize(page);
+      if (bytes > maxBytes) {
+        LOGGER.debug("The query result exceeds the maximum size of the cache and will not be cached.");
+        isAbandoned = true;
+        pages.clear();
+        return;
+      }
+      pages.add(page);
+    }
+
+    /**
+     * Caches the pages added once the result is read to the end.
+     */
+    void complete() {
+      if (!isAbandoned && !pages.isEmpty()) {
+        put(key, new ArrayList<>(pages), bytes, ttlNanos);
+      }
+      isAbandoned = true;
+      pages.clear();
+    }
+  }
+
+  /**
+   * A cached result with its estimated size and expiration time.
+   */
+  private static final class Entry {
+    private final List<QueryResult> pages;
+    private final long bytes;
+    private final long expirationNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param pages           the pages of the result.
+     * @param bytes           the estimated size of the pages.
+     * @param expirationNanos the {@link System#nanoTime()} at which the result expires.
+     */
+    private Entry(final List<QueryResult> pages, final long bytes, final long expirationNanos) {
+      this.pages = pages;
+      this.bytes = bytes;
+      this.expirationNanos = expirationNanos;
+    }
+
+    /**
+     * Checks whether the result has expired.
+     *
+     * @param now the current {@link System#nanoTime()}.
+     * @return {@code true} if the result has expired; {@code false} otherwise.
+     */
+    private boolean isExpired(final long now) {
+      return (now - expirationNanos) >= 0;
+    }
+  }
+}
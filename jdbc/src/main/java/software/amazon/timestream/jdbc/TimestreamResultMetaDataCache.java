@@ -0,0 +1,203 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the result set metadata of prepared queries, so {@link TimestreamPreparedStatement#getMetaData()}
+ * does not send a {@code LIMIT 0} query to Timestream for a query whose columns are already known.
+ * <p>
+ * Each cache is shared by all the connections configured with the same maximum size, and the
+ * metadata is only shared between connections using the same query client configuration. The
+ * metadata is learned from the {@code LIMIT 0} queries and from the executions of prepared
+ * statements, is replaced when an execution returns different columns, and is invalidated when an
+ * execution fails, for instance because a column no longer exists. The least recently used metadata
+ * is evicted once the cache is full.
+ */
+class TimestreamResultMetaDataCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamResultMetaDataCache.class);
+  private static final Map<Integer, TimestreamResultMetaDataCache> CACHES = new ConcurrentHashMap<>();
+
+  private final int maxEntries;
+  private final Map<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long hits;
+  private long misses;
+  private long invalidations;
+
+  /**
+   * Constructor.
+   *
+   * @param maxEntries the maximum number of cached queries.
+   */
+  TimestreamResultMetaDataCache(final int maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * Gets the driver-wide cache with the given maximum size, creating it if necessary.
+   *
+   * @param maxEntries the maximum number of cached queries.
+   * @return the shared {@link TimestreamResultMetaDataCache}.
+   */
+  static TimestreamResultMetaDataCache getCache(final int maxEntries) {
+    return CACHES.computeIfAbsent(maxEntries, size -> {
+      LOGGER.debug("Creating a result set metadata cache of {} entries.", size);
+      return new TimestreamResultMetaDataCache(size);
+    });
+  }
+
+  /**
+   * Gets the cached metadata of the given query, removing it if it has expired.
+   *
+   * @param scope an object identifying the query client configuration of the connection.
+   * @param sql   the query.
+   * @return the metadata, or {@code null} if there is no valid cached metadata.
+   */
+  synchronized TimestreamResultSetMetaData get(final Object scope, final String sql) {
+    final List<Object> key = createKey(scope, sql);
+    final Entry entry = entries.get(key);
+    if ((entry != null) && ((System.nanoTime() - entry.expirationNanos) >= 0)) {
+      LOGGER.debug("Removing expired result set metadata from the cache.");
+      entries.remove(key);
+    } else if (entry != null) {
+      hits++;
+      return entry.metaData;
+    }
+
+    misses++;
+    return null;
+  }
+
+  /**
+   * Caches the metadata of the given query, evicting the least recently used metadata if the cache
+   * is full. Replacing metadata with different columns counts as an invalidation.
+   *
+   * @param scope    an object identifying the query client configuration of the connection.
+   * @param sql      the query.
+   * @param metaData the metadata of the query.
+   * @param ttlNanos the time to live of the metadata in nanoseconds.
+   */
+  synchronized void put(
+    final Object scope,
+    final String sql,
+    final TimestreamResultSetMetaData metaData,
+    final long ttlNanos) {
+    final Entry previous = entries.put(createKey(scope, sql), new Entry(metaData, System.nanoTime() + ttlNanos));
+    if ((previous != null) && !previous.metaData.hasSameColumns(metaData)) {
+      LOGGER.debug("The columns of a cached query have changed, replacing its result set metadata.");
+      invalidations++;
+    }
+
+    while (entries.size() > maxEntries) {
+      entries.remove(entries.keySet().iterator().next());
+    }
+  }
+
+  /**
+   * Removes the cached metadata of the given query.
+   *
+   * @param scope an object identifying the query client configuration of the connection.
+   * @param sql   the query.
+   */
+  synchronized void invalidate(final Object scope, final String sql) {
+    if (entries.remove(createKey(scope, sql)) != null) {
+      LOGGER.debug("Invalidated the cached result set metadata of a failed query.");
+      invalidations++;
+    }
+  }
+
+  /**
+   * Removes all the cached metadata.
+   */
+  synchronized void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Gets the number of lookups answered from the cache.
+   *
+   * @return the number of cache hits.
+   */
+  synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Gets the number of lookups without valid cached metadata.
+   *
+   * @return the number of cache misses.
+   */
+  synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Gets the number of cached metadata invalidated by a failed execution or replaced by different
+   * columns.
+   *
+   * @return the number of invalidations.
+   */
+  synchronized long getInvalidations() {
+    return invalidations;
+  }
+
+  /**
+   * Gets the number of cached queries.
+   *
+   * @return the number of cached queries.
+   */
+  synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Creates the key of a query, so queries only differing by their formatting share their metadata.
+   *
+   * @param scope an object identifying the query client configuration of the connection.
+   * @param sql   the query.
+   * @return the key.
+   */
+  private static List<Object> createKey(final Object scope, final String sql) {
+    return Arrays.asList(scope, TimestreamResultCache.normalize(sql));
+  }
+
+  /**
+   * Cached metadata with its expiration time.
+   */
+  private static final class Entry {
+    private final TimestreamResultSetMetaData metaData;
+    private final long expirationNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param metaData        the metadata of the query.
+     * @param expirationNanos the {@link System#nanoTime()} at which the metadata expires.
+     */
+    private Entry(final TimestreamResultSetMetaData metaData, final long expirationNanos) {
+      this.metaData = metaData;
+      this.expirationNanos = expirationNanos;
+    }
+  }
+}
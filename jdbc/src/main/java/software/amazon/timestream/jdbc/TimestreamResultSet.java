@@ -26,12 +26,10 @@ import org.slf4j.LoggerFactory;
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -45,7 +43,7 @@ public class TimestreamResultSet extends TimestreamBaseResultSet {
   private final long largeMaxRows;
   private int totalRows;
   private final TimestreamResultRetriever resultRetriever;
-  private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+  private TimestreamResultCache.Recorder recorder;
   @VisibleForTesting
   static final QueryResult TERMINATION_MARKER = new QueryResult();
 
@@ -113,26 +111,171 @@ public class TimestreamResultSet extends TimestreamBaseResultSet {
     final long executionTimeForFirstResultSet,
     final int numPages)
     throws SQLException {
+    this(statement, query, result, (PageSource) null, map, largeMaxRows, maxFieldSize, executionTimeForFirstResultSet,
+      numPages, null);
+  }
+
+  /**
+   * Constructor recording the pages of the result set in a {@link TimestreamResultCache} as they
+   * are read.
+   *
+   * @param statement                      the parent statement of the result set.
+   * @param query                          the query that produced this result.
+   * @param result                         the first chunk of the result of the issued query.
+   * @param map                            the conversion map specifying the default conversions for
+   *                                       types.
+   * @param largeMaxRows                   the total number of rows that can be retrieved by this
+   *                                       result set.
+   * @param maxFieldSize                   The maximum number of bytes that can be returned for
+   *                                       character and binary column values.
+   * @param executionTimeForFirstResultSet the time taken to retrieve the first batch of result
+   *                                       set.
+   * @param numPages                       the number of calls to retrieve next page of result set.
+   * @param recorder                       the recorder caching the pages once they are all read.
+   * @throws SQLException if a database access error occurs.
+   */
+  TimestreamResultSet(
+    final TimestreamStatement statement,
+    final String query,
+    final QueryResult result,
+    final Map<String, Class<?>> map,
+    final long largeMaxRows,
+    final int maxFieldSize,
+    final long executionTimeForFirstResultSet,
+    final int numPages,
+    final TimestreamResultCache.Recorder recorder)
+    throws SQLException {
+    this(statement, query, result, (PageSource) null, map, largeMaxRows, maxFieldSize, executionTimeForFirstResultSet,
+      numPages, recorder);
+  }
+
+  /**
+   * Constructor replaying the pages of a cached result without any request to Timestream.
+   *
+   * @param statement    the parent statement of the result set.
+   * @param query        the query that produced this result.
+   * @param pages        the cached pages of the result.
+   * @param map          the conversion map specifying the default conversions for types.
+   * @param largeMaxRows the total number of rows that can be retrieved by this result set.
+   * @param maxFieldSize The maximum number of bytes that can be returned for character and binary
+   *                     column values.
+   * @throws SQLException if a database access error occurs.
+   */
+  TimestreamResultSet(
+    final TimestreamStatement statement,
+    final String query,
+    final List<QueryResult> pages,
+    final Map<String, Class<?>> map,
+    final long largeMaxRows,
+    final int maxFieldSize)
+    throws SQLException {
+    this(statement, query, pages.get(0), PageSource.of(pages.subList(1, pages.size())), map, largeMaxRows,
+      maxFieldSize, 0, 0, null);
+  }
+
+  /**
+   * Constructor reading the pages following the first chunk from the given source instead of
+   * retrieving them from Timestream.
+   *
+   * @param statement    the parent statement of the result set.
+   * @param query        the query that produced this result.
+   * @param result       the first chunk of the result of the issued query.
+   * @param pageSource   the source of the following pages, closed with the result set.
+   * @param map          the conversion map specifying the default conversions for types.
+   * @param largeMaxRows the total number of rows that can be retrieved by this result set.
+   * @param maxFieldSize The maximum number of bytes that can be returned for character and binary
+   *                     column values.
+   * @param recorder     the recorder caching the pages once they are all read, or {@code null} if
+   *                     the result is not cached.
+   * @throws SQLException if a database access error occurs.
+   */
+  TimestreamResultSet(
+    final TimestreamStatement statement,
+    final String query,
+    final QueryResult result,
+    final PageSource pageSource,
+    final Map<String, Class<?>> map,
+    final long largeMaxRows,
+    final int maxFieldSize,
+    final TimestreamResultCache.Recorder recorder)
+    throws SQLException {
+    this(statement, query, result, pageSource, map, largeMaxRows, maxFieldSize, 0, 0, recorder);
+  }
+
+  /**
+   * Constructor retrieving the next pages either from the given source, if any, or from Timestream.
+   *
+   * @param statement                      the parent statement of the result set.
+   * @param query                          the query that produced this result.
+   * @param result                         the first chunk of the result of the issued query.
+   * @param pageSource                     the source of the pages following the first chunk, or
+   *                                       {@code null} to retrieve them from Timestream.
+   * @param map                            the conversion map specifying the default conversions for
+   *                                       types.
+   * @param largeMaxRows                   the total number of rows that can be retrieved by this
+   *                                       result set.
+   * @param maxFieldSize                   The maximum number of bytes that can be returned for
+   *                                       character and binary column values.
+   * @param executionTimeForFirstResultSet the time taken to retrieve the first batch of result
+   *                                       set.
+   * @param numPages                       the number of calls to retrieve next page of result set.
+   * @param recorder                       the recorder caching the pages once they are all read,
+   *                                       or {@code null} if the result is not cached.
+   * @throws SQLException if a database access error occurs.
+   */
+  private TimestreamResultSet(
+    final TimestreamStatement statement,
+    final String query,
+    final QueryResult result,
+    final PageSource pageSource,
+    final Map<String, Class<?>> map,
+    final long largeMaxRows,
+    final int maxFieldSize,
+    final long executionTimeForFirstResultSet,
+    final int numPages,
+    final TimestreamResultCache.Recorder recorder)
+    throws SQLException {
     super(statement, statement.getFetchSize(), map, maxFieldSize);
+    this.recorder = recorder;
+    if (recorder != null) {
+      recorder.add(result);
+    }
     this.result = result;
     final List<Row> rows = result.getRows();
     this.rowItr = ((rows == null) ? Collections.emptyIterator() : rows.iterator());
     this.rsMeta = createColumnMetadata(result.getColumnInfo());
     this.largeMaxRows = largeMaxRows;
 
+    final TimestreamConnection connection = statement.getConnection();
+    final boolean isColumnarDecodingEnabled =
+      (connection != null) && connection.isColumnarDecodingEnabled();
+    if (isColumnarDecodingEnabled && (rows != null)) {
+      setColumnarPage(TimestreamColumnarPage.decode(rows, getColumnTypes()));
+    }
+
     final String token = result.getNextToken();
-    if (token == null) {
+    if (pageSource != null) {
+      this.resultRetriever = new TimestreamPageSourceRetriever(
+        pageSource,
+        isColumnarDecodingEnabled ? getColumnTypes() : null);
+    } else if (token == null) {
       this.resultRetriever = new TimestreamNoOpResultRetriever();
     } else {
       this.resultRetriever = new TimestreamResultRetriever(
         this,
         this.getStatement().getClient(),
+        isColumnarDecodingEnabled ? getColumnTypes() : null,
+        createPrefetchBuffer(connection),
+        getPrefetchMemoryBudget(connection),
+        TimestreamRetrievalExecutor.getConnectionExecutor(connection),
         this.getFetchSize(),
+        this.getStatement().getQueryTimeoutMillis(),
+        this.getStatement().getRequestTimeoutMillis(),
         query,
         token,
         executionTimeForFirstResultSet,
         numPages);
-      executorService.execute(this.resultRetriever);
+      this.resultRetriever.schedule();
     }
   }
 
@@ -157,11 +300,9 @@ public class TimestreamResultSet extends TimestreamBaseResultSet {
   protected void doClose() throws SQLException {
     try {
       this.resultRetriever.interrupt();
-      executorService.shutdown();
-      executorService.awaitTermination(10, TimeUnit.SECONDS);
+      this.resultRetriever.awaitTermination(10, TimeUnit.SECONDS);
       this.resultRetriever.addTerminationMarker();
     } catch (InterruptedException e) {
-      executorService.shutdownNow();
       Thread.currentThread().interrupt();
       throw Error.createSQLException(LOGGER, e, Error.FAILED_TO_SHUTDOWN_RETRIEVAL_EXECUTOR_SERVICE);
     } finally {
@@ -182,6 +323,10 @@ public class TimestreamResultSet extends TimestreamBaseResultSet {
       || (result.getNextToken() == null)) {
       result = null;
       LOGGER.debug("Reached max rows limit or no more result sets.");
+      if (recorder != null) {
+        recorder.complete();
+        recorder = null;
+      }
       return false;
     }
 
@@ -191,6 +336,9 @@ public class TimestreamResultSet extends TimestreamBaseResultSet {
       LOGGER.debug("Retrieved a termination marker.");
       return false;
     }
+    if (recorder != null) {
+      recorder.add(result);
+    }
 
     List<Row> rows = result.getRows();
     final int rowSize = rows.size();
@@ -213,9 +361,53 @@ public class TimestreamResultSet extends TimestreamBaseResultSet {
       }
     }
     rowItr = rows.iterator();
+    setColumnarPage(resultHolder.columnarPage);
     return true;
   }
 
+  /**
+   * Creates the buffer for the pages retrieved ahead of the consumer using the prefetch options of
+   * the parent connection, or the default options if the connection is not available.
+   *
+   * @param connection the parent connection of the result set.
+   * @return a new {@link TimestreamPrefetchBuffer}.
+   */
+  private static TimestreamPrefetchBuffer<TimestreamResultHolder> createPrefetchBuffer(
+    final TimestreamConnection connection) {
+    final TimestreamPrefetchBuffer<TimestreamResultHolder> buffer =
+      (connection == null) ? null : connection.createPrefetchBuffer();
+    if (buffer != null) {
+      return buffer;
+    }
+
+    return new TimestreamPrefetchBuffer<>(
+      TimestreamPrefetchBuffer.PrefetchMode.fromString(
+        TimestreamConnectionProperty.PREFETCH_MODE.getDefaultValue()),
+      Integer.parseInt(TimestreamConnectionProperty.PREFETCH_DEPTH.getDefaultValue()),
+      Integer.parseInt(TimestreamConnectionProperty.MAX_PREFETCH_DEPTH.getDefaultValue()));
+  }
+
+  /**
+   * Gets the memory budget of the parent connection, or a new budget with the default limits if the
+   * connection is not available.
+   *
+   * @param connection the parent connection of the result set.
+   * @return the {@link TimestreamMemoryBudget} to use.
+   */
+  private static TimestreamMemoryBudget getPrefetchMemoryBudget(
+    final TimestreamConnection connection) {
+    final TimestreamMemoryBudget budget =
+      (connection == null) ? null : connection.getPrefetchMemoryBudget();
+    if (budget != null) {
+      return budget;
+    }
+
+    return new TimestreamMemoryBudget(
+      Long.parseLong(TimestreamConnectionProperty.MAX_PREFETCH_MEMORY.getDefaultValue()),
+      TimestreamMemoryBudget.getGlobalBudget(
+        Long.parseLong(TimestreamConnectionProperty.MAX_GLOBAL_PREFETCH_MEMORY.getDefaultValue())));
+  }
+
   /**
    * Check the current buffer size. Used in tests.
    *
@@ -226,51 +418,82 @@ public class TimestreamResultSet extends TimestreamBaseResultSet {
   }
 
   /**
-   * Checks whether the executor service has successfully terminated. Used in tests.
-   * @return {@code true} if the executor service has terminated; {@code false} otherwise.
+   * Checks whether the background retrieval has successfully terminated. Used in tests.
+   * @return {@code true} if the retrieval has terminated; {@code false} otherwise.
    */
   boolean isTerminated() {
-    return executorService.isTerminated();
+    return this.resultRetriever.isTerminated();
   }
 
   /**
    * A {@link QueryResult} holder for the producer thread that asynchronously retrieves more pages
    * of result set from Timestream. If the retrieval was successful, the class contains a page of
-   * result set from Timestream, and the time taken to retrieve this result set. If the retrieval
-   * resulted in an exception, this class holds the exception thrown by Timestream.
+   * result set from Timestream, its decoded columns if columnar decoding is enabled, the time taken
+   * to retrieve this result set and its estimated size in memory. If the retrieval resulted in an
+   * exception, this class holds the exception thrown by Timestream.
    */
   private static class TimestreamResultHolder {
     final QueryResult queryResult;
+    final TimestreamColumnarPage columnarPage;
     final long executionTime;
+    final long size;
     final SQLException exception;
 
     TimestreamResultHolder(QueryResult queryResult, long executionTime, SQLException exception) {
+      this(queryResult, null, executionTime, 0, exception);
+    }
+
+    TimestreamResultHolder(
+      QueryResult queryResult,
+      TimestreamColumnarPage columnarPage,
+      long executionTime,
+      long size,
+      SQLException exception) {
       this.queryResult = queryResult;
+      this.columnarPage = columnarPage;
       this.executionTime = executionTime;
+      this.size = size;
       this.exception = exception;
     }
   }
 
   /**
-   * Class retrieving next set of result asynchronously.
+   * Class retrieving next set of result asynchronously. Each run retrieves a single page, and the
+   * retriever is resubmitted to the {@link TimestreamRetrievalExecutor} while there is room in the
+   * buffer, so that the threads of the executor are shared fairly between result sets. The
+   * retrieval is also paused while the {@link TimestreamMemoryBudget} is exhausted, unless the
+   * buffer is empty, and resumes once buffered pages are released. If columnar decoding is enabled,
+   * the pages are decoded on the retrieval thread before being buffered.
    */
   private static class TimestreamResultRetriever implements Runnable {
     private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamResultRetriever.class);
     private final long executionTimeForFirstResultSet;
     private final AtomicInteger numRequests = new AtomicInteger();
     private final AtomicLong totalReadingTimeMilli = new AtomicLong();
-    private final BlockingQueue<TimestreamResultHolder> resultSets = new LinkedBlockingDeque<>(2);
+    private final TimestreamPrefetchBuffer<TimestreamResultHolder> resultSets;
+    private final TimestreamMemoryBudget memoryBudget;
+    private final TimestreamRetrievalExecutor executor;
+    private final Runnable resumeTask = this::schedule;
+    private final Object schedulingLock = new Object();
     private final TimestreamResultSet resultSet;
     private final AmazonTimestreamQuery client;
-    private final int fetchSize;
+    private final List<TimestreamDataType> columnTypes;
+    private final QueryRequest request;
     private final String query;
-    private String nextToken;
+    private volatile String nextToken;
     private volatile boolean isInterrupted;
+    private boolean isScheduled;
 
     TimestreamResultRetriever(
       final TimestreamResultSet resultSet,
       final AmazonTimestreamQuery client,
+      final List<TimestreamDataType> columnTypes,
+      final TimestreamPrefetchBuffer<TimestreamResultHolder> resultSets,
+      final TimestreamMemoryBudget memoryBudget,
+      final TimestreamRetrievalExecutor executor,
       final int fetchSize,
+      final int queryTimeout,
+      final int requestTimeout,
       final String query,
       final String nextToken,
       final long executionTimeForFirstResultSet,
@@ -278,61 +501,169 @@ public class TimestreamResultSet extends TimestreamBaseResultSet {
       this.executionTimeForFirstResultSet = executionTimeForFirstResultSet;
       this.resultSet = resultSet;
       this.client = client;
-      this.fetchSize = fetchSize;
+      this.columnTypes = columnTypes;
+      this.resultSets = resultSets;
+      this.memoryBudget = memoryBudget;
+      this.executor = executor;
       this.query = query;
       this.nextToken = nextToken;
       this.numRequests.addAndGet(numPages);
+      this.request = new QueryRequest()
+        .withQueryString(query)
+        .withSdkClientExecutionTimeout(queryTimeout)
+        .withSdkRequestTimeout(requestTimeout);
+      if (fetchSize != 0) {
+        request.withMaxRows(fetchSize);
+      }
     }
 
     @Override
     public void run() {
-      final QueryRequest request = new QueryRequest().withQueryString(query);
-
-      if (fetchSize != 0) {
-        request.withMaxRows(fetchSize);
+      try {
+        retrieveNextPage();
+      } finally {
+        synchronized (schedulingLock) {
+          isScheduled = false;
+          schedulingLock.notifyAll();
+        }
       }
+      schedule();
+    }
 
-      while (!isInterrupted && nextToken != null) {
-        try {
-          final long startExecutionTime = System.nanoTime();
-          final QueryResult result = client.query(request.withNextToken(nextToken));
-          final long executionTimeMilli = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startExecutionTime);
-          final String queryId = result.getQueryId();
-          numRequests.incrementAndGet();
-          totalReadingTimeMilli.addAndGet(executionTimeMilli);
-          nextToken = result.getNextToken();
-          while (!resultSets.offer(
-            new TimestreamResultHolder(result, executionTimeMilli, null),
-            50,
-            TimeUnit.MILLISECONDS)) {
-            if (resultSet.isClosed()) {
-              // Stop the retrieval process if the result set is closed.
-              LOGGER.info(
-                "Result set is closed while trying to add more result sets to the buffer.\n"
-                  + "Query ID: {}\n"
-                  + "Time to read results: {}ms\n"
-                  + "Total execution time: {}ms\n"
-                  + "Total number of pages: {}",
-                queryId,
-                totalReadingTimeMilli.get(),
-                totalReadingTimeMilli.get() + executionTimeForFirstResultSet,
-                numRequests);
-              return;
-            }
-          }
-        } catch (final Exception e) {
-          resultSets.clear();
-          nextToken = null;
-          if (!resultSets.offer(
-            new TimestreamResultHolder(
-              null,
-              -1,
-              Error.createSQLException(LOGGER, e, Error.ASYNC_RETRIEVAL_ERROR, query)))) {
-            throw new RuntimeException(Error.getErrorMessage(LOGGER, Error.FAILED_TO_PROPAGATE_ERROR));
+    /**
+     * Submits the retriever to the executor if there are more pages to retrieve, there is room in
+     * the buffer and in the memory budget, and the retriever is not already scheduled.
+     */
+    void schedule() {
+      synchronized (schedulingLock) {
+        if (isScheduled || isInterrupted || (nextToken == null) || !resultSets.hasCapacity()) {
+          return;
+        }
+
+        if (!hasMemoryCapacity()) {
+          memoryBudget.awaitCapacity(resumeTask);
+          if (!hasMemoryCapacity()) {
+            LOGGER.debug("Prefetch memory budget exhausted, pausing the retrieval.");
+            return;
           }
         }
+        isScheduled = true;
+      }
+
+      try {
+        executor.execute(this);
+      } catch (final RejectedExecutionException e) {
+        synchronized (schedulingLock) {
+          isScheduled = false;
+          schedulingLock.notifyAll();
+        }
+        propagateError(e);
+      }
+    }
+
+    /**
+     * Checks whether the memory budget allows retrieving another page. A page can always be
+     * retrieved while the buffer is empty, so the consumer never waits on pages buffered by other
+     * result sets.
+     *
+     * @return {@code true} if a page can be retrieved; {@code false} otherwise.
+     */
+    private boolean hasMemoryCapacity() {
+      return (resultSets.size() == 0) || memoryBudget.hasCapacity();
+    }
+
+    /**
+     * Releases the memory reserved for the given pages.
+     *
+     * @param results the pages removed from the buffer.
+     */
+    private void release(final List<TimestreamResultHolder> results) {
+      long size = 0;
+      for (final TimestreamResultHolder result : results) {
+        size += result.size;
+      }
+      memoryBudget.release(size);
+    }
+
+    /**
+     * Retrieves the next page of the result set and adds it to the buffer.
+     */
+    private void retrieveNextPage() {
+      if (isInterrupted || (nextToken == null)) {
+        return;
+      }
+
+      try {
+        final long startExecutionTime = System.nanoTime();
+        final QueryResult result = client.query(request.withNextToken(nextToken));
+        final long executionTimeNano = System.nanoTime() - startExecutionTime;
+        final long executionTimeMilli = TimeUnit.NANOSECONDS.toMillis(executionTimeNano);
+        resultSets.recordRetrievalTime(executionTimeNano);
+        numRequests.incrementAndGet();
+        totalReadingTimeMilli.addAndGet(executionTimeMilli);
+        if (resultSet.isClosed()) {
+          // Stop the retrieval process if the result set is closed.
+          LOGGER.info(
+            "Result set is closed while trying to add more result sets to the buffer.\n"
+              + "Query ID: {}\n"
+              + "Time to read results: {}ms\n"
+              + "Total execution time: {}ms\n"
+              + "Total number of pages: {}",
+            result.getQueryId(),
+            totalReadingTimeMilli.get(),
+            totalReadingTimeMilli.get() + executionTimeForFirstResultSet,
+            numRequests);
+          return;
+        }
+        nextToken = result.getNextToken();
+        final TimestreamColumnarPage columnarPage = decode(result);
+        long size = TimestreamMemoryBudget.estimateSize(result);
+        if (columnarPage != null) {
+          size += columnarPage.estimateSize();
+        }
+        memoryBudget.reserve(size);
+        resultSets.add(
+          new TimestreamResultHolder(result, columnarPage, executionTimeMilli, size, null));
+      } catch (final Exception e) {
+        propagateError(e);
+      }
+
+      if (nextToken == null) {
+        resultSet.getStatement().setResultNoMoreRows();
+      }
+    }
+
+    /**
+     * Decodes the columns of a page if columnar decoding is enabled.
+     *
+     * @param result the page to decode.
+     * @return the {@link TimestreamColumnarPage}, or {@code null} if columnar decoding is disabled.
+     */
+    private TimestreamColumnarPage decode(final QueryResult result) {
+      final List<Row> rows = result.getRows();
+      if ((columnTypes == null) || (rows == null)) {
+        return null;
+      }
+      return TimestreamColumnarPage.decode(rows, columnTypes);
+    }
+
+    /**
+     * Replaces the buffered pages with the given error so it is thrown to the consumer, and stops
+     * the retrieval.
+     *
+     * @param e the error that occurred while retrieving pages.
+     * @throws RuntimeException if failed to add the error to the buffer.
+     */
+    private void propagateError(final Exception e) {
+      release(resultSets.clear());
+      nextToken = null;
+      if (!resultSets.offer(
+        new TimestreamResultHolder(
+          null,
+          -1,
+          Error.createSQLException(LOGGER, e, Error.ASYNC_RETRIEVAL_ERROR, query)))) {
+        throw new RuntimeException(Error.getErrorMessage(LOGGER, Error.FAILED_TO_PROPAGATE_ERROR));
       }
-      resultSet.getStatement().setResultNoMoreRows();
     }
 
     /**
@@ -350,10 +681,10 @@ public class TimestreamResultSet extends TimestreamBaseResultSet {
      *
      * @throws InterruptedException if interrupted while waiting.
      * @throws RuntimeException     if failed to add termination marker to the {@link
-     *                              LinkedBlockingDeque}.
+     *                              TimestreamPrefetchBuffer}.
      */
     synchronized void addTerminationMarker() throws InterruptedException {
-      resultSets.clear();
+      release(resultSets.clear());
       LOGGER.info(
         "Terminating background thread retrieving more result sets. \n"
             + "Time to read results: {}ms\n"
@@ -371,7 +702,8 @@ public class TimestreamResultSet extends TimestreamBaseResultSet {
     }
 
     /**
-     * Get a result set from the buffer.
+     * Get a result set from the buffer, and resume the retrieval if it was paused because the
+     * buffer was full.
      *
      * @return a {@link TimestreamResultHolder}.
      * @throws SQLException if an error occurred while retrieving the result.
@@ -379,9 +711,11 @@ public class TimestreamResultSet extends TimestreamBaseResultSet {
     TimestreamResultHolder getResult() throws SQLException {
       try {
         final TimestreamResultHolder result = resultSets.take();
+        memoryBudget.release(result.size);
         if (result.exception != null) {
           throw result.exception;
         }
+        schedule();
         return result;
       } catch (final InterruptedException e) {
         Thread.currentThread().interrupt();
@@ -390,10 +724,49 @@ public class TimestreamResultSet extends TimestreamBaseResultSet {
     }
 
     /**
-     * Interrupts the result set retrieval thread.
+     * Interrupts the result set retrieval.
      */
     void interrupt() {
       isInterrupted = true;
+      memoryBudget.removeWaiter(resumeTask);
+    }
+
+    /**
+     * Waits for the page being retrieved, if any, to be added to the buffer. A retrieval that is
+     * scheduled but has not started yet is removed from the executor.
+     *
+     * @param timeout the maximum time to wait.
+     * @param unit    the unit of the timeout.
+     * @return {@code true} if the retrieval has stopped; {@code false} if the timeout elapsed.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+      final long deadline = System.nanoTime() + unit.toNanos(timeout);
+      synchronized (schedulingLock) {
+        if (isScheduled && executor.remove(this)) {
+          isScheduled = false;
+        }
+        while (isScheduled) {
+          final long remaining = deadline - System.nanoTime();
+          if (remaining <= 0) {
+            return false;
+          }
+          TimeUnit.NANOSECONDS.timedWait(schedulingLock, remaining);
+        }
+        return true;
+      }
+    }
+
+    /**
+     * Checks whether the retrieval has stopped, used in unit tests.
+     *
+     * @return {@code true} if no page is being retrieved and no more pages will be retrieved;
+     * {@code false} otherwise.
+     */
+    boolean isTerminated() {
+      synchronized (schedulingLock) {
+        return !isScheduled && (isInterrupted || (nextToken == null));
+      }
     }
   }
 
@@ -402,7 +775,7 @@ public class TimestreamResultSet extends TimestreamBaseResultSet {
    */
   private static class TimestreamNoOpResultRetriever extends TimestreamResultRetriever {
     TimestreamNoOpResultRetriever() {
-      super(null, null, 0, null, null, 0, 0);
+      super(null, null, null, null, null, null, 0, 0, 0, null, null, 0, 0);
     }
 
     @Override
@@ -410,6 +783,11 @@ public class TimestreamResultSet extends TimestreamBaseResultSet {
       // Do nothing.
     }
 
+    @Override
+    void schedule() {
+      // Do nothing.
+    }
+
     @Override
     synchronized int getBufferSize() {
       return 0;
@@ -421,7 +799,7 @@ public class TimestreamResultSet extends TimestreamBaseResultSet {
     }
 
     @Override
-    TimestreamResultHolder getResult() {
+    TimestreamResultHolder getResult() throws SQLException {
       return new TimestreamResultHolder(TERMINATION_MARKER, -1, null);
     }
 
@@ -429,5 +807,81 @@ public class TimestreamResultSet extends TimestreamBaseResultSet {
     void interrupt() {
       // Do nothing.
     }
+
+    @Override
+    boolean awaitTermination(final long timeout, final TimeUnit unit) {
+      return true;
+    }
+
+    @Override
+    boolean isTerminated() {
+      return true;
+    }
+  }
+
+  /**
+   * A {@link TimestreamResultRetriever} reading the pages from a {@link PageSource}, decoding their
+   * columns if columnar decoding is enabled. The source is closed when the result set is closed.
+   */
+  private static class TimestreamPageSourceRetriever extends TimestreamNoOpResultRetriever {
+    private final PageSource pageSource;
+    private final List<TimestreamDataType> columnTypes;
+
+    TimestreamPageSourceRetriever(
+      final PageSource pageSource,
+      final List<TimestreamDataType> columnTypes) {
+      this.pageSource = pageSource;
+      this.columnTypes = columnTypes;
+    }
+
+    @Override
+    TimestreamResultHolder getResult() throws SQLException {
+      final QueryResult page = pageSource.nextPage();
+      if (page == null) {
+        return super.getResult();
+      }
+
+      final List<Row> rows = page.getRows();
+      final TimestreamColumnarPage columnarPage = ((columnTypes == null) || (rows == null))
+        ? null
+        : TimestreamColumnarPage.decode(rows, columnTypes);
+      return new TimestreamResultHolder(page, columnarPage, 0, 0, null);
+    }
+
+    @Override
+    void interrupt() {
+      pageSource.close();
+    }
+  }
+
+  /**
+   * A source of result set pages other than Timestream, such as the pages of a cached result.
+   */
+  interface PageSource {
+    /**
+     * Gets the next page.
+     *
+     * @return the next page, or {@code null} if there are no more pages.
+     * @throws SQLException if the page could not be retrieved.
+     */
+    QueryResult nextPage() throws SQLException;
+
+    /**
+     * Releases the source once the result set is closed.
+     */
+    default void close() {
+      // Do nothing.
+    }
+
+    /**
+     * Creates a source returning the given pages.
+     *
+     * @param pages the pages to return.
+     * @return the {@link PageSource}.
+     */
+    static PageSource of(final List<QueryResult> pages) {
+      final Iterator<QueryResult> iterator = pages.iterator();
+      return () -> iterator.hasNext() ? iterator.next() : null;
+    }
   }
 }
@@ -23,6 +23,7 @@ import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Types;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * TimestreamResultSetMetaData class that contains the meta data information of the result set.
@@ -55,6 +56,15 @@ public class TimestreamResultSetMetaData implements java.sql.ResultSetMetaData {
     Type getType() {
       return type;
     }
+
+    /**
+     * Gets the name of the column.
+     *
+     * @return the name of the column.
+     */
+    String getName() {
+      return name;
+    }
   }
 
   private final List<ColInfo> columnInfo;
@@ -278,6 +288,27 @@ public class TimestreamResultSetMetaData implements java.sql.ResultSetMetaData {
     return this.columnInfo.get(column - 1).getType();
   }
 
+  /**
+   * Checks whether the given metadata has the same column names and types as this metadata.
+   *
+   * @param other the metadata to compare with.
+   * @return {@code true} if the columns are the same; {@code false} otherwise.
+   */
+  boolean hasSameColumns(final TimestreamResultSetMetaData other) {
+    if (other.columnInfo.size() != columnInfo.size()) {
+      return false;
+    }
+
+    for (int i = 0; i < columnInfo.size(); i++) {
+      final ColInfo col = columnInfo.get(i);
+      final ColInfo otherCol = other.columnInfo.get(i);
+      if (!Objects.equals(col.name, otherCol.name) || !Objects.equals(col.type, otherCol.type)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Verify if the given column index is valid.
    *
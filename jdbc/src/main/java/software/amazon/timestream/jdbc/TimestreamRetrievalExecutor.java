@@ -0,0 +1,223 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded thread pool retrieving the pages of result sets in the background.
+ * <p>
+ * Result sets do not own a thread. Each task submitted to the pool retrieves a single page and is
+ * resubmitted at the tail of the pool's FIFO queue while its result set has room for more pages,
+ * so the threads are shared in a round-robin fashion between all the result sets using the pool.
+ * Idle threads are released after {@link #KEEP_ALIVE_SECONDS} seconds.
+ * <p>
+ * On Java 21 and later, the executor can instead run every task on a new virtual thread, so the
+ * retrievals blocked on the Timestream service do not hold on to platform threads. The virtual
+ * thread API is looked up reflectively since the driver is compiled for Java 8.
+ * <p>
+ * Asynchronous query executions run on separate pools of query threads, so a query waiting for its
+ * first page never holds the threads the pages of the other result sets are retrieved with.
+ */
+class TimestreamRetrievalExecutor implements Executor {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamRetrievalExecutor.class);
+  private static final Map<Integer, TimestreamRetrievalExecutor> SHARED_EXECUTORS = new ConcurrentHashMap<>();
+  private static final Map<Integer, TimestreamRetrievalExecutor> SHARED_QUERY_EXECUTORS = new ConcurrentHashMap<>();
+  private static final long KEEP_ALIVE_SECONDS = 60;
+  private static final String THREAD_NAME_PREFIX = "timestream-jdbc-retriever-";
+  private static final String QUERY_THREAD_NAME_PREFIX = "timestream-jdbc-query-";
+  private static final ThreadFactory VIRTUAL_THREAD_FACTORY = createVirtualThreadFactory();
+  private static final TimestreamRetrievalExecutor VIRTUAL_THREAD_EXECUTOR =
+    (VIRTUAL_THREAD_FACTORY == null)
+      ? null
+      : new TimestreamRetrievalExecutor(task -> VIRTUAL_THREAD_FACTORY.newThread(task).start());
+
+  private final Executor executor;
+
+  /**
+   * Constructor.
+   *
+   * @param poolSize the maximum number of threads retrieving pages concurrently.
+   */
+  TimestreamRetrievalExecutor(final int poolSize) {
+    this(poolSize, THREAD_NAME_PREFIX);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param poolSize         the maximum number of threads running tasks concurrently.
+   * @param threadNamePrefix the prefix of the names of the threads.
+   */
+  private TimestreamRetrievalExecutor(final int poolSize, final String threadNamePrefix) {
+    final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+      poolSize,
+      poolSize,
+      KEEP_ALIVE_SECONDS,
+      TimeUnit.SECONDS,
+      new LinkedBlockingQueue<>(),
+      new ThreadFactoryBuilder()
+        .setNameFormat(threadNamePrefix + "%d")
+        .setDaemon(true)
+        .build());
+    threadPoolExecutor.allowCoreThreadTimeOut(true);
+    this.executor = threadPoolExecutor;
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param executor the executor running the retrieval tasks.
+   */
+  private TimestreamRetrievalExecutor(final Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Gets the driver-wide executor with the given pool size, creating it if necessary.
+   *
+   * @param poolSize the maximum number of threads retrieving pages concurrently.
+   * @return the shared {@link TimestreamRetrievalExecutor}.
+   */
+  static TimestreamRetrievalExecutor getSharedExecutor(final int poolSize) {
+    return SHARED_EXECUTORS.computeIfAbsent(poolSize, size -> {
+      LOGGER.debug("Creating a shared retrieval executor with {} threads.", size);
+      return new TimestreamRetrievalExecutor(size);
+    });
+  }
+
+  /**
+   * Gets the executor retrieving pages for the given connection, or the driver-wide executor with
+   * the default pool size if the connection is not available.
+   *
+   * @param connection the connection the retrievals are made for.
+   * @return the {@link TimestreamRetrievalExecutor} to use.
+   */
+  static TimestreamRetrievalExecutor getConnectionExecutor(final TimestreamConnection connection) {
+    final TimestreamRetrievalExecutor executor =
+      (connection == null) ? null : connection.getRetrievalExecutor();
+    if (executor != null) {
+      return executor;
+    }
+
+    return getSharedExecutor(
+      Integer.parseInt(TimestreamConnectionProperty.RETRIEVAL_THREAD_POOL_SIZE.getDefaultValue()));
+  }
+
+  /**
+   * Gets the driver-wide executor executing asynchronous queries with the given pool size, creating
+   * it if necessary. The query threads are separate from the threads retrieving pages.
+   *
+   * @param poolSize the maximum number of queries executing concurrently.
+   * @return the shared query {@link TimestreamRetrievalExecutor}.
+   */
+  static TimestreamRetrievalExecutor getSharedQueryExecutor(final int poolSize) {
+    return SHARED_QUERY_EXECUTORS.computeIfAbsent(poolSize, size -> {
+      LOGGER.debug("Creating a shared query executor with {} threads.", size);
+      return new TimestreamRetrievalExecutor(size, QUERY_THREAD_NAME_PREFIX);
+    });
+  }
+
+  /**
+   * Gets the executor executing the asynchronous queries of the given connection, or the
+   * driver-wide query executor with the default pool size if the connection is not available.
+   *
+   * @param connection the connection the queries are executed for.
+   * @return the query {@link TimestreamRetrievalExecutor} to use.
+   */
+  static TimestreamRetrievalExecutor getQueryExecutor(final TimestreamConnection connection) {
+    final TimestreamRetrievalExecutor executor =
+      (connection == null) ? null : connection.getQueryExecutor();
+    if (executor != null) {
+      return executor;
+    }
+
+    return getSharedQueryExecutor(
+      Integer.parseInt(TimestreamConnectionProperty.RETRIEVAL_THREAD_POOL_SIZE.getDefaultValue()));
+  }
+
+  /**
+   * Gets the driver-wide executor running every retrieval task on a new virtual thread.
+   *
+   * @return the virtual thread {@link TimestreamRetrievalExecutor}, or {@code null} if virtual
+   * threads are not supported by the current Java runtime.
+   */
+  static TimestreamRetrievalExecutor getVirtualThreadExecutor() {
+    return VIRTUAL_THREAD_EXECUTOR;
+  }
+
+  /**
+   * Schedules a retrieval task.
+   *
+   * @param task the task to run.
+   */
+  @Override
+  public void execute(final Runnable task) {
+    executor.execute(task);
+  }
+
+  /**
+   * Removes a retrieval task that has not started running yet. Tasks running on virtual threads
+   * start immediately and cannot be removed.
+   *
+   * @param task the task to remove.
+   * @return {@code true} if the task was removed; {@code false} otherwise.
+   */
+  boolean remove(final Runnable task) {
+    return (executor instanceof ThreadPoolExecutor) && ((ThreadPoolExecutor) executor).remove(task);
+  }
+
+  /**
+   * Gets the maximum number of threads retrieving pages concurrently.
+   *
+   * @return the pool size, or 0 if the tasks run on virtual threads.
+   */
+  int getPoolSize() {
+    return (executor instanceof ThreadPoolExecutor)
+      ? ((ThreadPoolExecutor) executor).getMaximumPoolSize()
+      : 0;
+  }
+
+  /**
+   * Creates a factory of named virtual threads through {@code Thread.ofVirtual()}.
+   *
+   * @return the virtual {@link ThreadFactory}, or {@code null} if virtual threads are not
+   * supported by the current Java runtime.
+   */
+  private static ThreadFactory createVirtualThreadFactory() {
+    try {
+      final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builderClass
+        .getMethod("name", String.class, long.class)
+        .invoke(builder, THREAD_NAME_PREFIX + "virtual-", 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (final ReflectiveOperationException | RuntimeException e) {
+      LOGGER.debug("Virtual threads are not supported by the current Java runtime.");
+      return null;
+    }
+  }
+}
@@ -0,0 +1,370 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.http.timers.client.ClientExecutionTimeoutException;
+import com.amazonaws.services.timestreamquery.AmazonTimestreamQuery;
+import com.amazonaws.services.timestreamquery.model.AmazonTimestreamQueryException;
+import com.amazonaws.services.timestreamquery.model.CancelQueryRequest;
+import com.amazonaws.services.timestreamquery.model.QueryRequest;
+import com.amazonaws.services.timestreamquery.model.QueryResult;
+import com.amazonaws.services.timestreamquery.model.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publisher streaming the rows of a query to a single subscriber, following the Reactive Streams
+ * protocol.
+ * <p>
+ * Pages are not prefetched: a page is only requested from Timestream once all the rows of the
+ * previous page have been delivered and the subscriber has requested more rows, so the demand of
+ * the subscriber drives the retrieval end to end. Rows are delivered on the executor retrieving
+ * the pages, one signal at a time. Cancelling the subscription cancels the query.
+ * <p>
+ * The driver targets Java 8, so {@link Subscriber} and {@link Subscription} mirror the methods of
+ * {@code java.util.concurrent.Flow.Subscriber} and {@code java.util.concurrent.Flow.Subscription}
+ * and can be bridged to them with a thin adapter.
+ */
+public class TimestreamRowPublisher {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamRowPublisher.class);
+
+  /**
+   * Receiver of the rows of a {@link TimestreamRowPublisher}.
+   *
+   * @param <T> the type of the received items.
+   */
+  public interface Subscriber<T> {
+    /**
+     * Invoked once before any other method, with the subscription used to request rows.
+     *
+     * @param subscription the subscription.
+     */
+    void onSubscribe(Subscription subscription);
+
+    /**
+     * Invoked with the next row, at most as many times as rows were requested.
+     *
+     * @param item the row.
+     */
+    void onNext(T item);
+
+    /**
+     * Invoked once if the query fails. No other method is invoked afterwards.
+     *
+     * @param throwable the error.
+     */
+    void onError(Throwable throwable);
+
+    /**
+     * Invoked once all the rows have been delivered. No other method is invoked afterwards.
+     */
+    void onComplete();
+  }
+
+  /**
+   * Link between a {@link TimestreamRowPublisher} and its {@link Subscriber}.
+   */
+  public interface Subscription {
+    /**
+     * Requests more rows.
+     *
+     * @param n the number of additional rows to deliver, must be positive.
+     */
+    void request(long n);
+
+    /**
+     * Stops the delivery of rows and cancels the query.
+     */
+    void cancel();
+  }
+
+  private final AtomicBoolean isSubscribed = new AtomicBoolean(false);
+  private final AmazonTimestreamQuery client;
+  private final Executor executor;
+  private final String query;
+  private final int fetchSize;
+  private final long largeMaxRows;
+  private final int queryTimeout;
+  private final int requestTimeout;
+
+  /**
+   * Constructor.
+   *
+   * @param client         the client to retrieve the pages with.
+   * @param executor       the executor retrieving the pages and delivering the rows.
+   * @param query          the query to execute.
+   * @param fetchSize      the maximum number of rows per page, or 0 to let Timestream decide.
+   * @param largeMaxRows   the maximum number of rows to deliver, or 0 for no limit.
+   * @param queryTimeout   the timeout of each page request in milliseconds, or 0 for no timeout.
+   * @param requestTimeout the timeout of each HTTP request in milliseconds, or 0 for no timeout.
+   */
+  TimestreamRowPublisher(
+    final AmazonTimestreamQuery client,
+    final Executor executor,
+    final String query,
+    final int fetchSize,
+    final long largeMaxRows,
+    final int queryTimeout,
+    final int requestTimeout) {
+    this.client = client;
+    this.executor = executor;
+    this.query = query;
+    this.fetchSize = fetchSize;
+    this.largeMaxRows = largeMaxRows;
+    this.queryTimeout = queryTimeout;
+    this.requestTimeout = requestTimeout;
+  }
+
+  /**
+   * Subscribes to the rows of the query. The query is executed once the subscriber requests rows.
+   * A publisher only supports a single subscriber; later subscribers are notified of an {@link
+   * IllegalStateException}.
+   *
+   * @param subscriber the subscriber to deliver the rows to.
+   * @throws NullPointerException if the subscriber is null.
+   */
+  public void subscribe(final Subscriber<? super Row> subscriber) {
+    if (subscriber == null) {
+      throw new NullPointerException(Error.lookup(Error.NULL_SUBSCRIBER));
+    }
+
+    if (isSubscribed.getAndSet(true)) {
+      subscriber.onSubscribe(new Subscription() {
+        @Override
+        public void request(final long n) {
+          // Do nothing.
+        }
+
+        @Override
+        public void cancel() {
+          // Do nothing.
+        }
+      });
+      subscriber.onError(new IllegalStateException(Error.lookup(Error.PUBLISHER_ALREADY_SUBSCRIBED)));
+      return;
+    }
+
+    final RowSubscription subscription = new RowSubscription(subscriber);
+    subscriber.onSubscribe(subscription);
+  }
+
+  /**
+   * Subscription retrieving the pages of the query on demand. All the signals to the subscriber are
+   * emitted from {@link #drain()}, which only runs on one thread at a time.
+   */
+  private class RowSubscription implements Subscription {
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+    private final Subscriber<? super Row> subscriber;
+    private volatile boolean isCanceled;
+    private volatile String queryId;
+    private volatile String nextToken;
+    private volatile boolean isStarted;
+    private volatile Throwable pendingError;
+    private boolean isDone;
+    private Iterator<Row> rows;
+    private long numRows;
+
+    RowSubscription(final Subscriber<? super Row> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(final long n) {
+      if (n <= 0) {
+        pendingError = new IllegalArgumentException(Error.lookup(Error.INVALID_DEMAND, n));
+      } else {
+        demand.getAndUpdate(current -> (Long.MAX_VALUE - current < n) ? Long.MAX_VALUE : current + n);
+      }
+      signal();
+    }
+
+    @Override
+    public void cancel() {
+      if (isCanceled) {
+        return;
+      }
+      isCanceled = true;
+      cancelQuery();
+    }
+
+    /**
+     * Schedules a drain, unless one is already running, in which case the running drain loops once
+     * more.
+     */
+    private void signal() {
+      if (pendingDrains.getAndIncrement() != 0) {
+        return;
+      }
+
+      try {
+        executor.execute(this::drain);
+      } catch (final RejectedExecutionException e) {
+        isCanceled = true;
+        subscriber.onError(e);
+      }
+    }
+
+    /**
+     * Delivers the requested rows until the demand or the rows run out.
+     */
+    private void drain() {
+      int missed = 1;
+      do {
+        deliver();
+        missed = pendingDrains.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    /**
+     * Delivers the rows of the current page while there is demand, retrieving the next page once
+     * the current one is exhausted.
+     */
+    private void deliver() {
+      while (!isCanceled && !isDone) {
+        if (pendingError != null) {
+          fail(pendingError);
+          return;
+        }
+
+        if ((rows != null) && rows.hasNext()) {
+          if (demand.get() == 0) {
+            return;
+          }
+          if (demand.get() != Long.MAX_VALUE) {
+            demand.decrementAndGet();
+          }
+
+          numRows++;
+          try {
+            subscriber.onNext(rows.next());
+          } catch (final RuntimeException e) {
+            LOGGER.warn("Subscriber failed to process a row, canceling the subscription.", e);
+            cancel();
+            return;
+          }
+
+          if ((largeMaxRows != 0) && (numRows >= largeMaxRows)) {
+            LOGGER.debug("Reached max rows limit of {}.", largeMaxRows);
+            cancelQuery();
+            complete();
+            return;
+          }
+          continue;
+        }
+
+        if (isStarted && (nextToken == null)) {
+          complete();
+          return;
+        }
+
+        if (demand.get() == 0) {
+          return;
+        }
+
+        try {
+          retrieveNextPage();
+        } catch (final AmazonTimestreamQueryException e) {
+          if (!isCanceled) {
+            fail(Error.createSQLException(LOGGER, e, Error.INVALID_QUERY, queryId, e.getLocalizedMessage()));
+          }
+          return;
+        } catch (final ClientExecutionTimeoutException e) {
+          fail(new SQLTimeoutException(
+            Error.getErrorMessage(LOGGER, Error.QUERY_TIMED_OUT, queryId),
+            e));
+          return;
+        } catch (final RuntimeException e) {
+          fail(Error.createSQLException(LOGGER, e, Error.ASYNC_RETRIEVAL_ERROR, query));
+          return;
+        }
+      }
+    }
+
+    /**
+     * Retrieves the next page of the query, or the first one if the query has not started yet.
+     */
+    private void retrieveNextPage() {
+      final QueryRequest request = new QueryRequest()
+        .withQueryString(query)
+        .withNextToken(nextToken)
+        .withSdkClientExecutionTimeout(queryTimeout)
+        .withSdkRequestTimeout(requestTimeout);
+      if (fetchSize != 0) {
+        request.withMaxRows(fetchSize);
+      }
+
+      final QueryResult result = client.query(request);
+      isStarted = true;
+      queryId = result.getQueryId();
+      nextToken = result.getNextToken();
+      final List<Row> page = result.getRows();
+      LOGGER.debug("Query ID: {}, retrieved a page of {} rows.", queryId, (page == null) ? 0 : page.size());
+      rows = (page == null) ? null : page.iterator();
+
+      if (isCanceled) {
+        // The subscription was canceled while the first page was being retrieved.
+        cancelQuery();
+      }
+    }
+
+    /**
+     * Cancels the query if it is still running.
+     */
+    private void cancelQuery() {
+      final String id = queryId;
+      if ((id == null) || (isStarted && (nextToken == null))) {
+        return;
+      }
+
+      try {
+        LOGGER.debug("Sending a CancelQueryRequest for query ID: {}", id);
+        client.cancelQuery(new CancelQueryRequest().withQueryId(id));
+      } catch (final AmazonTimestreamQueryException e) {
+        // The query may have finished in the meantime.
+        LOGGER.warn(Warning.lookup(Warning.ERROR_CANCELING_QUERY, id, e.getLocalizedMessage()));
+      }
+    }
+
+    /**
+     * Notifies the subscriber that all the rows have been delivered.
+     */
+    private void complete() {
+      isDone = true;
+      subscriber.onComplete();
+    }
+
+    /**
+     * Notifies the subscriber of an error and cancels the query.
+     *
+     * @param error the error to notify.
+     */
+    private void fail(final Throwable error) {
+      isDone = true;
+      cancelQuery();
+      subscriber.onError(error);
+    }
+  }
+}
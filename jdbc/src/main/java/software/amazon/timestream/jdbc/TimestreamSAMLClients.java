@@ -0,0 +1,187 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.services.securitytoken.AWSSecurityTokenService;
+import com.amazonaws.services.securitytoken.AWSSecurityTokenServiceClientBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Driver-wide HTTP client and STS client used by the SAML-based authentication, shared by the
+ * connections authenticating through an identity provider.
+ * <p>
+ * Both clients own a pool of HTTP connections, so the connections reuse them instead of building
+ * their own for every authentication. The clients are only built when a connection authenticates
+ * through an identity provider, and are reference counted like the query clients of
+ * {@link TimestreamClientRegistry}: a connection acquires a {@link Lease} when it is opened and
+ * releases it when it is closed, and the clients are closed once the last connection using them is
+ * closed.
+ */
+class TimestreamSAMLClients {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamSAMLClients.class);
+  private static final Object LOCK = new Object();
+  private static CloseableHttpClient httpClient;
+  private static AWSSecurityTokenService stsClient;
+  private static int references;
+
+  /**
+   * Acquires a lease on the shared clients.
+   *
+   * @return a {@link Lease} on the shared clients, to release when the connection is closed.
+   */
+  static Lease acquire() {
+    synchronized (LOCK) {
+      references++;
+      return new Lease();
+    }
+  }
+
+  /**
+   * Acquires a lease on the shared clients if the given HTTP client is the shared HTTP client and
+   * is still open, for an authentication made in the background on behalf of the connections.
+   *
+   * @param client the HTTP client used by the authentication.
+   * @return a {@link Lease} on the shared clients, to release once the authentication is done, or
+   * {@code null} if the given client is not the open shared HTTP client.
+   */
+  static Lease acquireIfOpen(final CloseableHttpClient client) {
+    synchronized (LOCK) {
+      if ((httpClient == null) || (httpClient != client)) {
+        return null;
+      }
+      references++;
+      return new Lease();
+    }
+  }
+
+  /**
+   * Gets the shared STS client, building it if necessary.
+   *
+   * @return the {@link AWSSecurityTokenService} client.
+   */
+  static AWSSecurityTokenService getStsClient() {
+    synchronized (LOCK) {
+      if (stsClient == null) {
+        LOGGER.debug("Building the shared STS client.");
+        stsClient = AWSSecurityTokenServiceClientBuilder.defaultClient();
+      }
+      return stsClient;
+    }
+  }
+
+  /**
+   * Gets the number of open leases on the shared clients.
+   *
+   * @return the number of connections using the clients.
+   */
+  static int getReferenceCount() {
+    synchronized (LOCK) {
+      return references;
+    }
+  }
+
+  /**
+   * Checks whether the shared HTTP client is built, used in tests.
+   *
+   * @return {@code true} if the HTTP client is built; {@code false} otherwise.
+   */
+  static boolean isHttpClientBuilt() {
+    synchronized (LOCK) {
+      return httpClient != null;
+    }
+  }
+
+  /**
+   * Gets the shared HTTP client, building it if necessary.
+   *
+   * @return the {@link CloseableHttpClient}.
+   */
+  private static CloseableHttpClient getHttpClient() {
+    synchronized (LOCK) {
+      if (httpClient == null) {
+        LOGGER.debug("Building the shared HTTP client for SAML authentication.");
+        httpClient = HttpClients.createDefault();
+      }
+      return httpClient;
+    }
+  }
+
+  /**
+   * Releases a lease, closing the clients if they are no longer used.
+   */
+  private static void release() {
+    final CloseableHttpClient unusedHttpClient;
+    final AWSSecurityTokenService unusedStsClient;
+    synchronized (LOCK) {
+      if (--references > 0) {
+        return;
+      }
+      unusedHttpClient = httpClient;
+      unusedStsClient = stsClient;
+      httpClient = null;
+      stsClient = null;
+    }
+
+    LOGGER.debug("Closing the SAML authentication clients no longer used by any connection.");
+    if (unusedHttpClient != null) {
+      try {
+        unusedHttpClient.close();
+      } catch (final IOException e) {
+        LOGGER.warn("Failed to close the HTTP client used for SAML authentication: {}", e.getMessage());
+      }
+    }
+    if (unusedStsClient != null) {
+      unusedStsClient.shutdown();
+    }
+  }
+
+  /**
+   * A lease of a connection on the shared clients.
+   */
+  static final class Lease {
+    private final AtomicBoolean isReleased = new AtomicBoolean(false);
+
+    /**
+     * Constructor.
+     */
+    private Lease() {
+    }
+
+    /**
+     * Gets the shared HTTP client, building it if necessary.
+     *
+     * @return the {@link CloseableHttpClient}.
+     */
+    CloseableHttpClient getHttpClient() {
+      return TimestreamSAMLClients.getHttpClient();
+    }
+
+    /**
+     * Releases the lease. Releasing a lease more than once has no effect.
+     */
+    void release() {
+      if (!isReleased.getAndSet(true)) {
+        TimestreamSAMLClients.release();
+      }
+    }
+  }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.SdkClientException;
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.auth.AWSSessionCredentials;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicSessionCredentials;
+import com.amazonaws.services.securitytoken.model.Credentials;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of the temporary credentials obtained through SAML authentication, shared by all the
+ * connections authenticating with the same identity provider, role and user.
+ * <p>
+ * The connections opened for an identity while its credentials are valid reuse them without going
+ * through the identity provider, and the connections opened at the same time for the same identity
+ * wait for a single authentication. The credentials of an identity in use are refreshed in the
+ * background ahead of their expiration, with a random jitter so the identities authenticated at the
+ * same time are not refreshed at the same time. The credentials of an identity that has not been
+ * used since its last refresh or its last failed refresh, or whose authentication clients have been
+ * closed with the last connection using them, are not refreshed in the background anymore, and are
+ * refreshed on the next use once they expire.
+ */
+class TimestreamSAMLCredentialsCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamSAMLCredentialsCache.class);
+  private static final long REFRESH_AHEAD_MILLIS = TimeUnit.MINUTES.toMillis(5);
+  private static final long MAX_JITTER_MILLIS = TimeUnit.MINUTES.toMillis(1);
+  private static final long EXPIRATION_MARGIN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+  private static final long RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+  private static final ScheduledExecutorService REFRESHER = Executors.newSingleThreadScheduledExecutor(
+    new ThreadFactoryBuilder()
+      .setNameFormat("timestream-jdbc-saml-refresher-%d")
+      .setDaemon(true)
+      .build());
+  private static final TimestreamSAMLCredentialsCache SHARED_CACHE =
+    new TimestreamSAMLCredentialsCache(REFRESH_AHEAD_MILLIS, MAX_JITTER_MILLIS, REFRESHER);
+
+  private final Map<Object, CachedCredentialsProvider> providers = new ConcurrentHashMap<>();
+  private final long refreshAheadMillis;
+  private final long maxJitterMillis;
+  private final ScheduledExecutorService refresher;
+
+  /**
+   * Constructor.
+   *
+   * @param refreshAheadMillis the time before the expiration of the credentials at which they are
+   *                           refreshed in the background.
+   * @param maxJitterMillis    the maximum random time added to the refresh ahead time.
+   * @param refresher          the executor running the background refreshes.
+   */
+  TimestreamSAMLCredentialsCache(
+    final long refreshAheadMillis,
+    final long maxJitterMillis,
+    final ScheduledExecutorService refresher) {
+    this.refreshAheadMillis = refreshAheadMillis;
+    this.maxJitterMillis = maxJitterMillis;
+    this.refresher = refresher;
+  }
+
+  /**
+   * Gets the driver-wide cache.
+   *
+   * @return the shared {@link TimestreamSAMLCredentialsCache}.
+   */
+  static TimestreamSAMLCredentialsCache getSharedCache() {
+    return SHARED_CACHE;
+  }
+
+  /**
+   * Gets the credentials provider of the given identity, authenticating if there are no valid
+   * cached credentials. Credentials without an expiration are not cached.
+   *
+   * @param key    an object identifying the identity provider, the role and the user.
+   * @param loader the authentication used to obtain new credentials for the identity.
+   * @return the provider of the credentials of the identity.
+   * @throws SQLException if the authentication failed.
+   */
+  AWSCredentialsProvider getCredentialsProvider(final Object key, final Loader loader) throws SQLException {
+    final CachedCredentialsProvider provider =
+      providers.computeIfAbsent(key, k -> new CachedCredentialsProvider());
+    final AWSSessionCredentials credentials = provider.acquire(loader);
+    if (!provider.isCacheable()) {
+      LOGGER.debug("The SAML credentials do not expire and are not cached.");
+      providers.remove(key, provider);
+      return new AWSStaticCredentialsProvider(credentials);
+    }
+    return provider;
+  }
+
+  /**
+   * Gets the number of cached identities, used in tests.
+   *
+   * @return the number of cached identities.
+   */
+  int size() {
+    return providers.size();
+  }
+
+  /**
+   * The authentication obtaining new credentials for an identity.
+   */
+  interface Loader {
+    /**
+     * Authenticates with the identity provider and fetches the credentials of the role.
+     *
+     * @return the temporary credentials.
+     * @throws SQLException if the authentication failed.
+     */
+    Credentials load() throws SQLException;
+
+    /**
+     * Authenticates in the background, on behalf of the connections of the identity.
+     *
+     * @return the temporary credentials, or {@code null} if the identity cannot be authenticated in
+     * the background anymore.
+     * @throws SQLException if the authentication failed.
+     */
+    default Credentials loadInBackground() throws SQLException {
+      return load();
+    }
+  }
+
+  /**
+   * The provider of the cached credentials of an identity, shared by the connections of the
+   * identity.
+   */
+  final class CachedCredentialsProvider implements AWSCredentialsProvider {
+    private volatile Loader loader;
+    private volatile AWSSessionCredentials credentials;
+    private volatile long expirationMillis;
+    private volatile boolean isUsed;
+    private boolean isCacheable = true;
+    private ScheduledFuture<?> scheduledRefresh;
+
+    /**
+     * Gets valid credentials for a new connection, authenticating with the given loader if the
+     * cached credentials are missing or about to expire. The loader is kept for the following
+     * refreshes.
+     *
+     * @param newLoader the authentication of the new connection.
+     * @return the credentials.
+     * @throws SQLException if the authentication failed.
+     */
+    synchronized AWSSessionCredentials acquire(final Loader newLoader) throws SQLException {
+      this.loader = newLoader;
+      this.isUsed = true;
+      if (isValid()) {
+        LOGGER.debug("Reusing the cached SAML credentials.");
+        return credentials;
+      }
+      update(newLoader.load());
+      return credentials;
+    }
+
+    @Override
+    public AWSSessionCredentials getCredentials() {
+      isUsed = true;
+      if (!isValid()) {
+        synchronized (this) {
+          if (!isValid()) {
+            LOGGER.debug("The cached SAML credentials have expired, refreshing them.");
+            reload();
+          }
+        }
+      }
+      return credentials;
+    }
+
+    @Override
+    public synchronized void refresh() {
+      reload();
+    }
+
+    /**
+     * Checks whether the credentials do not expire, in which case they are not cached.
+     *
+     * @return {@code true} if the credentials can be cached; {@code false} otherwise.
+     */
+    private synchronized boolean isCacheable() {
+      return isCacheable;
+    }
+
+    /**
+     * Checks whether the cached credentials are valid for some more time.
+     *
+     * @return {@code true} if the credentials are valid; {@code false} otherwise.
+     */
+    private boolean isValid() {
+      return (credentials != null) && (System.currentTimeMillis() < expirationMillis - EXPIRATION_MARGIN_MILLIS);
+    }
+
+    /**
+     * Authenticates again with the loader of the last connection.
+     *
+     * @throws SdkClientException if the authentication failed.
+     */
+    private void reload() {
+      try {
+        update(loader.load());
+      } catch (final SQLException e) {
+        throw new SdkClientException(e.getMessage(), e);
+      }
+    }
+
+    /**
+     * Replaces the cached credentials and schedules their background refresh ahead of their
+     * expiration.
+     *
+     * @param newCredentials the new credentials.
+     */
+    private void update(final Credentials newCredentials) {
+      credentials = new BasicSessionCredentials(
+        newCredentials.getAccessKeyId(),
+        newCredentials.getSecretAccessKey(),
+        newCredentials.getSessionToken());
+      if (newCredentials.getExpiration() == null) {
+        isCacheable = false;
+        expirationMillis = 0;
+        return;
+      }
+
+      expirationMillis = newCredentials.getExpiration().getTime();
+      final long lifetimeMillis = expirationMillis - System.currentTimeMillis();
+      final long jitterMillis = (maxJitterMillis > 0) ? ThreadLocalRandom.current().nextLong(maxJitterMillis) : 0;
+      schedule(Math.max(lifetimeMillis / 2, lifetimeMillis - refreshAheadMillis - jitterMillis));
+    }
+
+    /**
+     * Schedules a background refresh, replacing the refresh already scheduled.
+     *
+     * @param delayMillis the delay before the refresh.
+     */
+    private void schedule(final long delayMillis) {
+      if (scheduledRefresh != null) {
+        scheduledRefresh.cancel(false);
+      }
+
+      try {
+        scheduledRefresh = refresher.schedule(
+          this::refreshInBackground,
+          Math.max(0, delayMillis),
+          TimeUnit.MILLISECONDS);
+      } catch (final RejectedExecutionException e) {
+        LOGGER.debug("The SAML credentials refresher is shut down, the credentials will be refreshed on use.");
+      }
+    }
+
+    /**
+     * Refreshes the credentials ahead of their expiration if they have been used since the last
+     * refresh, and retries later if the authentication failed. The retry only refreshes the
+     * credentials if they have been used since the failure.
+     */
+    private synchronized void refreshInBackground() {
+      if (!isUsed) {
+        LOGGER.debug("The SAML credentials are not used anymore, stopping their background refresh.");
+        return;
+      }
+
+      isUsed = false;
+      try {
+        final Credentials newCredentials = loader.loadInBackground();
+        if (newCredentials == null) {
+          LOGGER.debug("The SAML authentication clients are closed, stopping the background refresh.");
+          return;
+        }
+        update(newCredentials);
+        LOGGER.debug("Refreshed the SAML credentials in the background.");
+      } catch (final SQLException | RuntimeException e) {
+        LOGGER.warn("Failed to refresh the SAML credentials in the background: {}", e.getMessage());
+        if (System.currentTimeMillis() + RETRY_DELAY_MILLIS < expirationMillis) {
+          schedule(RETRY_DELAY_MILLIS);
+        }
+      }
+    }
+  }
+}
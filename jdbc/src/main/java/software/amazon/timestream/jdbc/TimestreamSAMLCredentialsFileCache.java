@@ -0,0 +1,302 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.services.securitytoken.model.Credentials;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encrypted file cache of the temporary credentials obtained through SAML authentication, so the
+ * processes started for the same identity within the lifetime of its credentials do not go through
+ * the identity provider again.
+ * <p>
+ * The credentials of an identity are stored in a file named after a hash of the identity provider
+ * settings, the role and the user, and are encrypted with AES-GCM using a key derived from the
+ * secrets of the identity, so they can only be read by a process configured with the same secrets.
+ * The credentials are used until shortly before their expiration. The processes sharing a cache
+ * directory lock a file of the identity while they read the cache and authenticate, so a single
+ * process authenticates when the credentials are missing or about to expire.
+ */
+class TimestreamSAMLCredentialsFileCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamSAMLCredentialsFileCache.class);
+  private static final long EXPIRATION_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(10);
+  private static final int FORMAT_VERSION = 1;
+  private static final int SALT_LENGTH = 16;
+  private static final int IV_LENGTH = 12;
+  private static final int KEY_LENGTH = 256;
+  private static final int KEY_ITERATIONS = 65536;
+  private static final int TAG_LENGTH = 128;
+  private static final SecureRandom RANDOM = new SecureRandom();
+  private static final Map<Path, Object> FILE_LOCKS = new ConcurrentHashMap<>();
+
+  private final Path directory;
+  private final Path file;
+  private final Path lockFile;
+  private final char[] secret;
+
+  /**
+   * Constructor.
+   *
+   * @param directory the directory of the cache files.
+   * @param identity  the identity provider settings, the role and the user identifying the credentials.
+   * @param secret    the secrets of the identity, from which the encryption key is derived.
+   * @throws SQLException if the hash of the identity cannot be computed.
+   */
+  TimestreamSAMLCredentialsFileCache(final Path directory, final String identity, final String secret)
+    throws SQLException {
+    final String name = "timestream-saml-" + hash(directory, identity);
+    this.directory = directory;
+    this.file = directory.resolve(name + ".cache");
+    this.lockFile = directory.resolve(name + ".lock");
+    this.secret = secret.toCharArray();
+  }
+
+  /**
+   * Gets the cached credentials of the identity if they are valid, or authenticates with the given
+   * loader and caches the new credentials. The cache is bypassed if its files cannot be locked.
+   *
+   * @param loader the authentication obtaining new credentials.
+   * @return the credentials.
+   * @throws SQLException if the authentication failed.
+   */
+  Credentials load(final TimestreamSAMLCredentialsCache.Loader loader) throws SQLException {
+    synchronized (FILE_LOCKS.computeIfAbsent(lockFile, k -> new Object())) {
+      final FileChannel channel;
+      final FileLock lock;
+      try {
+        Files.createDirectories(directory);
+        channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      } catch (final IOException | RuntimeException e) {
+        LOGGER.warn("Unable to open the SAML credentials cache, authenticating without it: {}", e.getMessage());
+        return loader.load();
+      }
+
+      try {
+        lock = channel.lock();
+      } catch (final IOException | RuntimeException e) {
+        LOGGER.warn("Unable to lock the SAML credentials cache, authenticating without it: {}", e.getMessage());
+        closeQuietly(channel);
+        return loader.load();
+      }
+
+      try {
+        final Credentials cachedCredentials = read();
+        if (cachedCredentials != null) {
+          LOGGER.debug("Reusing the SAML credentials cached on disk.");
+          return cachedCredentials;
+        }
+
+        final Credentials credentials = loader.load();
+        write(credentials);
+        return credentials;
+      } finally {
+        try {
+          lock.release();
+        } catch (final IOException e) {
+          LOGGER.debug("Failed to unlock the SAML credentials cache: {}", e.getMessage());
+        }
+        closeQuietly(channel);
+      }
+    }
+  }
+
+  /**
+   * Reads the cached credentials.
+   *
+   * @return the cached credentials, or {@code null} if there are no cached credentials, they
+   * cannot be decrypted or they expire soon.
+   */
+  private Credentials read() {
+    if (!Files.exists(file)) {
+      return null;
+    }
+
+    try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+      if (input.readInt() != FORMAT_VERSION) {
+        return null;
+      }
+      final byte[] salt = new byte[SALT_LENGTH];
+      final byte[] iv = new byte[IV_LENGTH];
+      input.readFully(salt);
+      input.readFully(iv);
+      final byte[] encrypted = new byte[input.available()];
+      input.readFully(encrypted);
+
+      final Cipher cipher = createCipher(Cipher.DECRYPT_MODE, salt, iv);
+      try (DataInputStream plain = new DataInputStream(new ByteArrayInputStream(cipher.doFinal(encrypted)))) {
+        final Credentials credentials = new Credentials()
+          .withAccessKeyId(plain.readUTF())
+          .withSecretAccessKey(plain.readUTF())
+          .withSessionToken(plain.readUTF())
+          .withExpiration(new Date(plain.readLong()));
+        if (credentials.getExpiration().getTime() - EXPIRATION_MARGIN_MILLIS <= System.currentTimeMillis()) {
+          LOGGER.debug("The SAML credentials cached on disk expire soon.");
+          return null;
+        }
+        return credentials;
+      }
+    } catch (final IOException | GeneralSecurityException e) {
+      LOGGER.debug("Unable to read the SAML credentials cached on disk: {}", e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Encrypts and writes the credentials, replacing the cached credentials. Credentials without an
+   * expiration are not cached.
+   *
+   * @param credentials the credentials to cache.
+   */
+  private void write(final Credentials credentials) {
+    if (credentials.getExpiration() == null) {
+      return;
+    }
+
+    try {
+      final ByteArrayOutputStream plainBytes = new ByteArrayOutputStream();
+      try (DataOutputStream plain = new DataOutputStream(plainBytes)) {
+        plain.writeUTF(credentials.getAccessKeyId());
+        plain.writeUTF(credentials.getSecretAccessKey());
+        plain.writeUTF(credentials.getSessionToken());
+        plain.writeLong(credentials.getExpiration().getTime());
+      }
+
+      final byte[] salt = new byte[SALT_LENGTH];
+      final byte[] iv = new byte[IV_LENGTH];
+      RANDOM.nextBytes(salt);
+      RANDOM.nextBytes(iv);
+      final byte[] encrypted = createCipher(Cipher.ENCRYPT_MODE, salt, iv).doFinal(plainBytes.toByteArray());
+
+      final ByteArrayOutputStream fileBytes = new ByteArrayOutputStream();
+      try (DataOutputStream output = new DataOutputStream(fileBytes)) {
+        output.writeInt(FORMAT_VERSION);
+        output.write(salt);
+        output.write(iv);
+        output.write(encrypted);
+      }
+
+      final Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      try {
+        restrictToOwner(temporaryFile);
+        Files.write(temporaryFile, fileBytes.toByteArray());
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temporaryFile);
+      }
+      LOGGER.debug("Cached the SAML credentials on disk.");
+    } catch (final IOException | GeneralSecurityException | RuntimeException e) {
+      LOGGER.warn("Unable to cache the SAML credentials on disk: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Creates the AES-GCM cipher with the key derived from the secrets of the identity.
+   *
+   * @param mode the {@link Cipher} mode.
+   * @param salt the salt of the key derivation.
+   * @param iv   the initialization vector.
+   * @return the initialized {@link Cipher}.
+   * @throws GeneralSecurityException if the cipher cannot be created.
+   */
+  private Cipher createCipher(final int mode, final byte[] salt, final byte[] iv) throws GeneralSecurityException {
+    final byte[] key = SecretKeyFactory
+      .getInstance("PBKDF2WithHmacSHA256")
+      .generateSecret(new PBEKeySpec(secret, salt, KEY_ITERATIONS, KEY_LENGTH))
+      .getEncoded();
+    final Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+    cipher.init(mode, new SecretKeySpec(key, "AES"), new GCMParameterSpec(TAG_LENGTH, iv));
+    return cipher;
+  }
+
+  /**
+   * Restricts the permissions of a file to its owner, if the file system supports POSIX permissions.
+   *
+   * @param path the file.
+   * @throws IOException if the permissions cannot be set.
+   */
+  private static void restrictToOwner(final Path path) throws IOException {
+    try {
+      Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+    } catch (final UnsupportedOperationException e) {
+      LOGGER.debug("The file system does not support POSIX permissions.");
+    }
+  }
+
+  /**
+   * Closes a file channel, ignoring the errors.
+   *
+   * @param channel the channel to close.
+   */
+  private static void closeQuietly(final FileChannel channel) {
+    try {
+      channel.close();
+    } catch (final IOException e) {
+      LOGGER.debug("Failed to close the SAML credentials cache lock file: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Computes the hexadecimal SHA-256 hash of the identity, naming its cache files.
+   *
+   * @param directory the directory of the cache files.
+   * @param identity  the identity provider settings, the role and the user.
+   * @return the hash.
+   * @throws SQLException if SHA-256 is not supported.
+   */
+  private static String hash(final Path directory, final String identity) throws SQLException {
+    try {
+      final byte[] digest = MessageDigest
+        .getInstance("SHA-256")
+        .digest(identity.getBytes(StandardCharsets.UTF_8));
+      final StringBuilder builder = new StringBuilder();
+      for (final byte b : digest) {
+        builder.append(String.format("%02x", b));
+      }
+      return builder.toString();
+    } catch (final NoSuchAlgorithmException e) {
+      throw Error.createSQLException(LOGGER, e, Error.INVALID_CREDENTIALS_CACHE_DIRECTORY, directory, e.getMessage());
+    }
+  }
+}
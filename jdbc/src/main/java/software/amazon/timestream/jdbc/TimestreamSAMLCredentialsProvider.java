@@ -16,9 +16,6 @@
 package software.amazon.timestream.jdbc;
 
 import com.amazonaws.auth.AWSCredentialsProvider;
-import com.amazonaws.auth.AWSStaticCredentialsProvider;
-import com.amazonaws.auth.BasicSessionCredentials;
-import com.amazonaws.services.securitytoken.AWSSecurityTokenServiceClientBuilder;
 import com.amazonaws.services.securitytoken.model.AssumeRoleWithSAMLRequest;
 import com.amazonaws.services.securitytoken.model.Credentials;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -26,8 +23,14 @@ import org.apache.http.impl.client.CloseableHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 abstract class TimestreamSAMLCredentialsProvider {
   protected static final Logger LOGGER = LoggerFactory.getLogger(TimestreamSAMLCredentialsProvider.class);
@@ -38,6 +41,8 @@ abstract class TimestreamSAMLCredentialsProvider {
   protected final String roleARN;
   protected final String idpARN;
   protected final CloseableHttpClient httpClient;
+  private final Map<String, String> fieldsMap;
+  private final String credentialsCacheDirectory;
 
   TimestreamSAMLCredentialsProvider(CloseableHttpClient httpClient, final Map<String, String> fieldsMap) {
     this.userName = fieldsMap.get(TimestreamConnectionProperty.IDP_USERNAME.getConnectionProperty());
@@ -45,24 +50,96 @@ abstract class TimestreamSAMLCredentialsProvider {
     this.roleARN = fieldsMap.get(TimestreamConnectionProperty.AWS_ROLE_ARN.getConnectionProperty());
     this.idpARN = fieldsMap.get(TimestreamConnectionProperty.IDP_ARN.getConnectionProperty());
     this.httpClient = httpClient;
+    this.fieldsMap = new HashMap<>(fieldsMap);
+    this.credentialsCacheDirectory = fieldsMap.get(
+      TimestreamConnectionProperty.IDP_CREDENTIALS_CACHE_DIRECTORY.getConnectionProperty());
   }
 
   /**
-   * Creates an {@link AWSStaticCredentialsProvider} instance using the credentials fetched through Okta
-   * SAML authentication.
+   * Gets the provider of the credentials fetched through SAML authentication, shared by the
+   * connections with the same identity provider, role and user. The identity provider is only
+   * contacted if there are no valid cached credentials, and the credentials are refreshed in the
+   * background ahead of their expiration while the HTTP client of this provider is in use.
    *
-   * @return An {@link AWSStaticCredentialsProvider} instance.
+   * @return An {@link AWSCredentialsProvider} instance.
    * @throws SQLException If unable to parse the response body while fetching SAML Assertion.
    */
   AWSCredentialsProvider createCredentialsProvider() throws SQLException {
-    final Credentials credentials = createSAMLRequestAndFetchCredentials();
+    final TimestreamSAMLCredentialsCache.Loader authentication;
+    if (credentialsCacheDirectory == null) {
+      authentication = this::createSAMLRequestAndFetchCredentials;
+    } else {
+      final TimestreamSAMLCredentialsFileCache fileCache = createFileCache();
+      authentication = () -> fileCache.load(this::createSAMLRequestAndFetchCredentials);
+    }
 
-    final String accessKeyID = credentials.getAccessKeyId();
-    final String secretAccessKey = credentials.getSecretAccessKey();
-    final String sessionToken = credentials.getSessionToken();
+    final TimestreamSAMLCredentialsCache.Loader loader = new TimestreamSAMLCredentialsCache.Loader() {
+      @Override
+      public Credentials load() throws SQLException {
+        return authentication.load();
+      }
 
-    return new AWSStaticCredentialsProvider(
-      new BasicSessionCredentials(accessKeyID, secretAccessKey, sessionToken));
+      @Override
+      public Credentials loadInBackground() throws SQLException {
+        return authenticateInBackground(authentication);
+      }
+    };
+    return TimestreamSAMLCredentialsCache
+      .getSharedCache()
+      .getCredentialsProvider(Arrays.asList(getClass(), fieldsMap), loader);
+  }
+
+  /**
+   * Authenticates in the background while holding a lease on the shared SAML clients, so the
+   * clients are not closed during the authentication and are not rebuilt once no connection uses
+   * them anymore.
+   *
+   * @param authentication The authentication obtaining new credentials.
+   * @return the new {@link Credentials}, or {@code null} if the HTTP client of this provider is not
+   * the open shared HTTP client.
+   * @throws SQLException If the authentication failed.
+   */
+  private Credentials authenticateInBackground(final TimestreamSAMLCredentialsCache.Loader authentication)
+    throws SQLException {
+    final TimestreamSAMLClients.Lease lease = TimestreamSAMLClients.acquireIfOpen(this.httpClient);
+    if (lease == null) {
+      return null;
+    }
+
+    try {
+      return authentication.load();
+    } finally {
+      lease.release();
+    }
+  }
+
+  /**
+   * Creates the file cache of the credentials of this identity, identified by the fields of the
+   * identity provider except its secrets, and encrypted with a key derived from the secrets.
+   *
+   * @return the {@link TimestreamSAMLCredentialsFileCache}.
+   * @throws SQLException if the cache directory is invalid.
+   */
+  private TimestreamSAMLCredentialsFileCache createFileCache() throws SQLException {
+    final Path directory;
+    try {
+      directory = Paths.get(credentialsCacheDirectory);
+    } catch (final InvalidPathException e) {
+      throw Error.createSQLException(
+        LOGGER,
+        e,
+        Error.INVALID_CREDENTIALS_CACHE_DIRECTORY,
+        credentialsCacheDirectory,
+        e.getMessage());
+    }
+
+    final Map<String, String> identity = new TreeMap<>(fieldsMap);
+    identity.remove(TimestreamConnectionProperty.IDP_PASSWORD.getConnectionProperty());
+    identity.remove(TimestreamConnectionProperty.AAD_CLIENT_SECRET.getConnectionProperty());
+    identity.remove(TimestreamConnectionProperty.IDP_CREDENTIALS_CACHE_DIRECTORY.getConnectionProperty());
+    final String secret = this.password + "\n"
+      + fieldsMap.getOrDefault(TimestreamConnectionProperty.AAD_CLIENT_SECRET.getConnectionProperty(), "");
+    return new TimestreamSAMLCredentialsFileCache(directory, getClass().getName() + identity, secret);
   }
 
   protected abstract String getSAMLAssertion() throws SQLException;
@@ -77,8 +154,8 @@ abstract class TimestreamSAMLCredentialsProvider {
    */
   protected Credentials fetchCredentialsWithSAMLAssertion(final AssumeRoleWithSAMLRequest samlRequest) {
     LOGGER.debug("Fetching the AWS credentials with the SAML assertion.");
-    return AWSSecurityTokenServiceClientBuilder
-      .defaultClient()
+    return TimestreamSAMLClients
+      .getStsClient()
       .assumeRoleWithSAML(samlRequest)
       .getCredentials();
   }
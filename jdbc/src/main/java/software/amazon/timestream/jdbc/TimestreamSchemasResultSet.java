@@ -27,6 +27,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Matcher;
 
 /**
  * Result set to return schemas in Timestream.
@@ -94,21 +95,67 @@ public class TimestreamSchemasResultSet extends TimestreamBaseResultSet {
    */
   private void populateCurrentRows(TimestreamConnection connection, String schemaPattern) throws SQLException {
     final List<Row> databases = new ArrayList<>();
+    for (final String database : getDatabases(connection, schemaPattern)) {
+      databases.add(new Row().withData(
+              new Datum().withScalarValue(database),
+              NULL_DATUM
+      ));
+    }
+    LOGGER.debug("Retrieved {} databases.", databases.size());
+
+    this.rowItr = databases.iterator();
+  }
+
+  /**
+   * Retrieve the names of the databases matching the schema pattern, from the catalog cache of the
+   * connection if it is enabled.
+   *
+   * @param connection The parent connection to retrieve databases from.
+   * @param schemaPattern The schemaPattern to filter databases
+   * @return the names of the databases.
+   * @throws SQLException if there is an error listing the databases.
+   */
+  private static List<String> getDatabases(TimestreamConnection connection, String schemaPattern)
+    throws SQLException {
+    final TimestreamCatalogCache catalogCache = connection.getCatalogCache();
+    if (catalogCache == null) {
+      return queryDatabases(connection, schemaPattern);
+    }
+
+    final Matcher matcher = TimestreamCatalogCache.toPattern(schemaPattern).matcher("");
+    final List<String> databases = new ArrayList<>();
+    for (final String database : catalogCache.getDatabases(
+      connection.getResultCacheScope(),
+      connection.getCatalogCacheTtlNanos(),
+      () -> queryDatabases(connection, null))) {
+      if (matcher.reset(database).matches()) {
+        databases.add(database);
+      }
+    }
+    return databases;
+  }
+
+  /**
+   * Query the names of the databases matching the schema pattern.
+   *
+   * @param connection The parent connection to retrieve databases from.
+   * @param schemaPattern The schemaPattern to filter databases
+   * @return the names of the databases.
+   * @throws SQLException if there is an error listing the databases.
+   */
+  private static List<String> queryDatabases(TimestreamConnection connection, String schemaPattern)
+    throws SQLException {
+    final List<String> databases = new ArrayList<>();
     try (Statement statement = connection.createStatement()) {
       LOGGER.debug("Retrieving a list of databases." + (Strings.isNullOrEmpty(schemaPattern) ? "" : " Schema pattern is " + schemaPattern + "."));
       final String query = "SHOW DATABASES" +
               (Strings.isNullOrEmpty(schemaPattern) ? "" : " LIKE '" + schemaPattern + "'");
       try (ResultSet rs = statement.executeQuery(query)) {
         while (rs.next()) {
-          databases.add(new Row().withData(
-                  new Datum().withScalarValue(rs.getString(1)),
-                  NULL_DATUM
-          ));
+          databases.add(rs.getString(1));
         }
       }
     }
-    LOGGER.debug("Retrieved {} databases.", databases.size());
-
-    this.rowItr = databases.iterator();
+    return databases;
   }
 }
@@ -0,0 +1,550 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.services.timestreamquery.model.QueryResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * A query executed once on behalf of all the statements issuing the same query at the same time.
+ * <p>
+ * The first statement issuing a query starts a flight, and the statements issuing an identical query
+ * before the first page is available subscribe to it instead of sending another query to Timestream.
+ * The query is executed on the thread of the first subscriber needing the first page, so
+ * subscribers running on a bounded pool cannot wait for an execution queued behind them. The next
+ * pages are retrieved on the retrieval executor into a prefetch buffer, ahead of the fastest
+ * subscriber and within the prefetch memory budget.
+ * <p>
+ * Each subscriber reads the pages with its own cursor, and a page is dropped once every subscriber
+ * has read it. A subscriber cancelling or closing its result set leaves the flight without affecting
+ * the other subscribers, and another subscriber executes the query if the leaving one was executing
+ * it. The query is canceled once the last subscriber leaves before the result is fully retrieved.
+ */
+class TimestreamSingleFlight {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamSingleFlight.class);
+  private static final Map<TimestreamResultCache.Key, TimestreamSingleFlight> FLIGHTS = new ConcurrentHashMap<>();
+
+  private final TimestreamResultCache.Key key;
+  private final Query query;
+  private final TimestreamPrefetchBuffer<QueryResult> prefetchedPages;
+  private final TimestreamRetrievalExecutor executor;
+  private final TimestreamMemoryBudget memoryBudget;
+  private final Runnable resumeTask = this::prefetch;
+  private final List<QueryResult> pages = new ArrayList<>();
+  private final Deque<Long> pageSizes = new ArrayDeque<>();
+  private final List<Subscription> subscriptions = new ArrayList<>();
+  private int firstIndex;
+  private String nextToken;
+  private SQLException failure;
+  private boolean isFetching;
+  private boolean isDone;
+
+  /**
+   * Constructor.
+   *
+   * @param key             the query and the statement settings shared by the subscribers.
+   * @param query           the query executed by the flight.
+   * @param prefetchedPages the buffer of the pages retrieved ahead of the fastest subscriber.
+   * @param executor        the executor retrieving the pages after the first one.
+   * @param memoryBudget    the memory budget of the pages kept by the flight.
+   */
+  private TimestreamSingleFlight(
+    final TimestreamResultCache.Key key,
+    final Query query,
+    final TimestreamPrefetchBuffer<QueryResult> prefetchedPages,
+    final TimestreamRetrievalExecutor executor,
+    final TimestreamMemoryBudget memoryBudget) {
+    this.key = key;
+    this.query = query;
+    this.prefetchedPages = prefetchedPages;
+    this.executor = executor;
+    this.memoryBudget = memoryBudget;
+  }
+
+  /**
+   * Subscribes to the flight of the given query waiting for its first page, or starts a new flight
+   * if there is none. The query, the buffer, the executor and the memory budget are only used if a
+   * new flight is started.
+   *
+   * @param key           the query and the statement settings.
+   * @param queryFactory  the factory creating the query executed by a new flight.
+   * @param bufferFactory the factory creating the prefetch buffer of a new flight.
+   * @param executor      the executor retrieving the pages of a new flight after the first one.
+   * @param memoryBudget  the memory budget of the pages kept by a new flight.
+   * @return the {@link Subscription} to the flight.
+   * @throws SQLException if the query of a new flight could not be created.
+   */
+  static Subscription subscribe(
+    final TimestreamResultCache.Key key,
+    final QueryFactory queryFactory,
+    final Supplier<TimestreamPrefetchBuffer<QueryResult>> bufferFactory,
+    final TimestreamRetrievalExecutor executor,
+    final TimestreamMemoryBudget memoryBudget) throws SQLException {
+    while (true) {
+      final TimestreamSingleFlight flight = FLIGHTS.get(key);
+      if (flight != null) {
+        final Subscription subscription = flight.join();
+        if (subscription != null) {
+          LOGGER.debug("Subscribing to the identical query in flight.");
+          return subscription;
+        }
+        FLIGHTS.remove(key, flight);
+        continue;
+      }
+
+      final TimestreamSingleFlight newFlight = new TimestreamSingleFlight(
+        key,
+        queryFactory.create(),
+        bufferFactory.get(),
+        executor,
+        memoryBudget);
+      final Subscription subscription = newFlight.join();
+      if (FLIGHTS.putIfAbsent(key, newFlight) == null) {
+        return subscription;
+      }
+      newFlight.query.close();
+    }
+  }
+
+  /**
+   * Gets the number of flights accepting subscribers, used in tests.
+   *
+   * @return the number of flights.
+   */
+  static int getFlightCount() {
+    return FLIGHTS.size();
+  }
+
+  /**
+   * Adds a subscriber to this flight, unless it is done or its first page is already available.
+   *
+   * @return the {@link Subscription}, or {@code null} if the flight no longer accepts subscribers.
+   */
+  private synchronized Subscription join() {
+    if (isDone || (getPageCount() > 0)) {
+      return null;
+    }
+
+    final Subscription subscription = new Subscription();
+    subscriptions.add(subscription);
+    return subscription;
+  }
+
+  /**
+   * Gets the number of pages made available to the subscribers so far, including the dropped ones.
+   *
+   * @return the number of pages.
+   */
+  private int getPageCount() {
+    return firstIndex + pages.size();
+  }
+
+  /**
+   * Adds a retrieved page and wakes up the subscribers waiting for it. The flight stops accepting
+   * subscribers once the first page is available, since the pages read by every subscriber are
+   * dropped.
+   *
+   * @param page         the retrieved page.
+   * @param isPrefetched whether the page is added to the prefetch buffer, rather than made available
+   *                     to the subscribers right away.
+   */
+  private void addPage(final QueryResult page, final boolean isPrefetched) {
+    final long size = TimestreamMemoryBudget.estimateSize(page);
+    memoryBudget.reserve(size);
+    final boolean isDiscarded;
+    final boolean isFinished;
+    synchronized (this) {
+      isFetching = false;
+      isDiscarded = isDone;
+      if (isDiscarded) {
+        isFinished = false;
+      } else {
+        pageSizes.add(size);
+        if (isPrefetched) {
+          prefetchedPages.add(page);
+        } else {
+          pages.add(page);
+        }
+        nextToken = page.getNextToken();
+        isFinished = (nextToken == null);
+        isDone = isFinished;
+      }
+      notifyAll();
+    }
+
+    FLIGHTS.remove(key, this);
+    if (isDiscarded) {
+      memoryBudget.release(size);
+    } else if (isFinished) {
+      finish();
+    }
+  }
+
+  /**
+   * Fails the flight and wakes up the subscribers. The subscribers read the pages retrieved before
+   * the failure first.
+   *
+   * @param e the error that occurred while retrieving a page.
+   */
+  private void fail(final SQLException e) {
+    synchronized (this) {
+      isFetching = false;
+      notifyAll();
+      if (isDone) {
+        return;
+      }
+      failure = e;
+      isDone = true;
+    }
+    finish();
+  }
+
+  /**
+   * Releases the resources of the query once the flight is done. Must be called once, without
+   * holding the monitor of the flight.
+   */
+  private void finish() {
+    FLIGHTS.remove(key, this);
+    memoryBudget.removeWaiter(resumeTask);
+    query.close();
+  }
+
+  /**
+   * Retrieves the next page on the executor if there are more pages to retrieve, there is room in
+   * the prefetch buffer and in the memory budget, and no page is being retrieved.
+   */
+  private void prefetch() {
+    final String token;
+    synchronized (this) {
+      if (isFetching || isDone || (nextToken == null) || !prefetchedPages.hasCapacity()) {
+        return;
+      }
+
+      if (!hasMemoryCapacity()) {
+        memoryBudget.awaitCapacity(resumeTask);
+        if (!hasMemoryCapacity()) {
+          LOGGER.debug("Prefetch memory budget exhausted, pausing the retrieval of the query in flight.");
+          return;
+        }
+      }
+      isFetching = true;
+      token = nextToken;
+    }
+
+    try {
+      executor.execute(() -> fetch(token));
+    } catch (final RejectedExecutionException e) {
+      fail(new SQLException(e.getMessage(), e));
+    }
+  }
+
+  /**
+   * Checks whether the memory budget allows retrieving another page. A page can always be retrieved
+   * while the prefetch buffer is empty, so the fastest subscriber never waits on pages kept by other
+   * result sets.
+   *
+   * @return {@code true} if a page can be retrieved; {@code false} otherwise.
+   */
+  private boolean hasMemoryCapacity() {
+    return (prefetchedPages.size() == 0) || memoryBudget.hasCapacity();
+  }
+
+  /**
+   * Retrieves a page into the prefetch buffer, and schedules the retrieval of the next one.
+   *
+   * @param token the token of the page.
+   */
+  private void fetch(final String token) {
+    try {
+      final long startTime = System.nanoTime();
+      final QueryResult page = query.fetch(token);
+      prefetchedPages.recordRetrievalTime(System.nanoTime() - startTime);
+      addPage(page, true);
+    } catch (final SQLException e) {
+      fail(e);
+    } catch (final RuntimeException e) {
+      fail(new SQLException(e.getMessage(), e));
+    }
+    prefetch();
+  }
+
+  /**
+   * Drops the pages read by every subscriber.
+   *
+   * @return the estimated size of the dropped pages, to release from the memory budget.
+   */
+  private long dropReadPages() {
+    int minIndex = getPageCount();
+    for (final Subscription subscription : subscriptions) {
+      minIndex = Math.min(minIndex, subscription.index);
+    }
+
+    long size = 0;
+    final int count = minIndex - firstIndex;
+    for (int i = 0; i < count; i++) {
+      size += pageSizes.remove();
+    }
+    pages.subList(0, count).clear();
+    firstIndex = minIndex;
+    return size;
+  }
+
+  /**
+   * Drops all the pages kept by the flight.
+   *
+   * @return the estimated size of the dropped pages, to release from the memory budget.
+   */
+  private long dropAllPages() {
+    firstIndex = getPageCount();
+    pages.clear();
+    prefetchedPages.clear();
+    long size = 0;
+    for (final long pageSize : pageSizes) {
+      size += pageSize;
+    }
+    pageSizes.clear();
+    return size;
+  }
+
+  /**
+   * Removes a subscriber and drops the pages only it had left to read. Cancels the query if it was
+   * the last subscriber and the result is not fully retrieved.
+   *
+   * @param subscription the leaving subscriber.
+   */
+  private void leave(final Subscription subscription) {
+    final boolean shouldCancel;
+    final long releasedSize;
+    synchronized (this) {
+      subscriptions.remove(subscription);
+      if (subscriptions.isEmpty()) {
+        shouldCancel = !isDone;
+        isDone = true;
+        releasedSize = dropAllPages();
+      } else {
+        shouldCancel = false;
+        releasedSize = dropReadPages();
+      }
+      notifyAll();
+    }
+
+    memoryBudget.release(releasedSize);
+    if (shouldCancel) {
+      LOGGER.debug("The last subscriber left the flight, canceling the query.");
+      query.cancel();
+      finish();
+    }
+  }
+
+  /**
+   * Creates the query executed by a new flight.
+   */
+  @FunctionalInterface
+  interface QueryFactory {
+    /**
+     * Creates the query.
+     *
+     * @return the {@link Query}.
+     * @throws SQLException if the query could not be created.
+     */
+    Query create() throws SQLException;
+  }
+
+  /**
+   * The query executed by a flight.
+   */
+  interface Query {
+    /**
+     * Executes the query.
+     *
+     * @return the first page of the result.
+     * @throws SQLException if the query failed.
+     */
+    QueryResult execute() throws SQLException;
+
+    /**
+     * Retrieves the next page of the result.
+     *
+     * @param nextToken the token of the page.
+     * @return the page.
+     * @throws SQLException if the page could not be retrieved.
+     */
+    QueryResult fetch(String nextToken) throws SQLException;
+
+    /**
+     * Cancels the query if it is running.
+     */
+    void cancel();
+
+    /**
+     * Releases the resources of the query once the flight is done.
+     */
+    void close();
+  }
+
+  /**
+   * The cursor of a subscriber over the pages of a flight.
+   */
+  final class Subscription implements TimestreamResultSet.PageSource {
+    private int index;
+    private boolean isCanceled;
+    private boolean isClosed;
+
+    /**
+     * Waits for the next page of the flight, executing the query on the caller thread if no other
+     * subscriber is executing it.
+     *
+     * @return the next page, or {@code null} if there are no more pages.
+     * @throws SQLException if the retrieval failed or the subscription is canceled.
+     */
+    @Override
+    public QueryResult nextPage() throws SQLException {
+      QueryResult page = null;
+      long releasedSize = 0;
+      synchronized (TimestreamSingleFlight.this) {
+        while (page == null) {
+          if (isCanceled) {
+            throw Error.createSQLException(
+              LOGGER,
+              Constants.OPERATION_CANCELED_SQL_STATE,
+              null,
+              Error.SINGLE_FLIGHT_CANCELED);
+          }
+          if ((index == getPageCount()) && (prefetchedPages.size() > 0)) {
+            pages.add(takePrefetchedPage());
+          }
+          if (index < getPageCount()) {
+            page = pages.get(index - firstIndex);
+            index++;
+            releasedSize = dropReadPages();
+          } else if (failure != null) {
+            throw new SQLException(failure.getMessage(), failure.getSQLState(), failure);
+          } else if (isDone) {
+            return null;
+          } else if ((getPageCount() == 0) && !isFetching) {
+            isFetching = true;
+            break;
+          } else {
+            try {
+              TimestreamSingleFlight.this.wait();
+            } catch (final InterruptedException e) {
+              Thread.currentThread().interrupt();
+              throw Error.createSQLException(LOGGER, e, Error.FAILED_TO_BUFFER_RESULT_SET);
+            }
+          }
+        }
+      }
+
+      if (page == null) {
+        return execute();
+      }
+
+      memoryBudget.release(releasedSize);
+      prefetch();
+      return page;
+    }
+
+    /**
+     * Takes the next page out of the prefetch buffer, which must not be empty.
+     *
+     * @return the page.
+     * @throws SQLException if interrupted.
+     */
+    private QueryResult takePrefetchedPage() throws SQLException {
+      try {
+        return prefetchedPages.take();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw Error.createSQLException(LOGGER, e, Error.FAILED_TO_BUFFER_RESULT_SET);
+      }
+    }
+
+    /**
+     * Executes the query on the caller thread and returns the first page. If the execution fails
+     * because this subscriber was canceled or interrupted, the failure is only thrown to this
+     * subscriber and another subscriber executes the query.
+     *
+     * @return the first page, or {@code null} if there are no more pages.
+     * @throws SQLException if the query failed or the subscription is canceled.
+     */
+    private QueryResult execute() throws SQLException {
+      try {
+        addPage(query.execute(), false);
+      } catch (final SQLException e) {
+        failExecution(e);
+      } catch (final RuntimeException e) {
+        failExecution(new SQLException(e.getMessage(), e));
+      }
+      prefetch();
+      return nextPage();
+    }
+
+    /**
+     * Hands the execution over to another subscriber if this subscriber was canceled or interrupted
+     * while executing the query, otherwise fails the flight.
+     *
+     * @param e the error that occurred while executing the query.
+     * @throws SQLException the error if the execution is handed over.
+     */
+    private void failExecution(final SQLException e) throws SQLException {
+      synchronized (TimestreamSingleFlight.this) {
+        if (isCanceled || Thread.currentThread().isInterrupted()) {
+          LOGGER.debug("The subscriber executing the query left, handing the execution over.");
+          isFetching = false;
+          TimestreamSingleFlight.this.notifyAll();
+          throw e;
+        }
+      }
+      fail(e);
+    }
+
+    /**
+     * Cancels this subscription: the subscriber stops waiting for pages and leaves the flight.
+     */
+    void cancel() {
+      synchronized (TimestreamSingleFlight.this) {
+        isCanceled = true;
+        TimestreamSingleFlight.this.notifyAll();
+      }
+      close();
+    }
+
+    /**
+     * Leaves the flight.
+     */
+    @Override
+    public void close() {
+      synchronized (TimestreamSingleFlight.this) {
+        if (isClosed) {
+          return;
+        }
+        isClosed = true;
+      }
+      leave(this);
+    }
+  }
+}
@@ -15,7 +15,7 @@
 
 package software.amazon.timestream.jdbc;
 
-import com.amazonaws.ClientConfiguration;
+import com.amazonaws.SdkClientException;
 import com.amazonaws.http.timers.client.ClientExecutionTimeoutException;
 import com.amazonaws.services.timestreamquery.AmazonTimestreamQuery;
 import com.amazonaws.services.timestreamquery.model.AmazonTimestreamQueryException;
@@ -36,6 +36,9 @@ import java.sql.SQLWarning;
 import java.sql.Statement;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -51,7 +54,6 @@ public class TimestreamStatement implements java.sql.Statement {
   private final TimestreamConnection connection;
   private final Map<String, Class<?>> typeMap;
   private final AtomicBoolean isClosed = new AtomicBoolean(false);
-  private final ClientConfiguration clientConfiguration;
   private final AtomicLong totalExecutionTime = new AtomicLong();
   private int maxFieldSize = 0;
   private long largeMaxRows = 0;
@@ -62,7 +64,10 @@ public class TimestreamStatement implements java.sql.Statement {
   private SQLWarning warnings;
   private int fetchSize = 0;
   private ResultSet resultSet;
-  private AmazonTimestreamQuery queryClient;
+  private int queryTimeout;
+  private boolean isPoolable;
+  private volatile TimestreamSingleFlight.Subscription flightSubscription;
+  private volatile CompletableFuture<TimestreamResultSet> asyncQuery;
 
   @VisibleForTesting
   final AtomicBoolean canCancel = new AtomicBoolean(false);
@@ -77,11 +82,7 @@ public class TimestreamStatement implements java.sql.Statement {
     this.connection = connection;
     this.warnings = null;
     this.typeMap = connection.getTypeMap();
-    this.clientConfiguration = new ClientConfiguration(
-        connection.getQueryClientBuilder().getClientConfiguration());
-    this.queryClient = connection.getQueryClientBuilder()
-        .withClientConfiguration(this.clientConfiguration)
-        .build();
+    this.queryTimeout = connection.getClientExecutionTimeout();
   }
 
   @Override
@@ -118,6 +119,7 @@ public class TimestreamStatement implements java.sql.Statement {
         LOGGER.debug("Close opened result set.");
         this.resultSet.close();
       }
+      connection.statementClosed(this);
     }
   }
 
@@ -195,20 +197,216 @@ public class TimestreamStatement implements java.sql.Statement {
       this.resultSet.close();
     }
 
-    final QueryRequest request = new QueryRequest().withQueryString(sql);
+    final TimestreamResultCache resultCache = connection.getResultCache();
+    TimestreamResultCache.Recorder recorder = null;
+    if (resultCache != null) {
+      final TimestreamResultCache.Key cacheKey = createResultKey(sql);
+      final List<QueryResult> pages = resultCache.get(cacheKey);
+      if (pages != null) {
+        LOGGER.debug("Replaying the cached result of the query.");
+        this.resultSet = new TimestreamResultSet(
+          this,
+          sql,
+          pages,
+          this.typeMap,
+          this.largeMaxRows,
+          this.maxFieldSize);
+        return resultSet;
+      }
+      recorder = resultCache.record(cacheKey, connection.getResultCacheTtlNanos());
+    }
 
-    final int queryFetchSize = this.getFetchSize();
-    if (queryFetchSize != 0) {
-      request.withMaxRows(queryFetchSize);
+    if (connection.isSingleFlightEnabled()) {
+      return executeSingleFlightQuery(sql, recorder);
     }
 
-    QueryResult result;
+    final QueryResult result = retrieveFirstPage(createQueryRequest(sql));
+    this.resultSet = new TimestreamResultSet(
+      this,
+      sql,
+      result,
+      this.typeMap,
+      this.largeMaxRows,
+      this.maxFieldSize,
+      this.totalExecutionTime.get(),
+      this.numPages.get(),
+      recorder);
+    LOGGER.info(
+      "Query ID: {}\n"
+        + "Time to first result: {}ms\n"
+        + "Total number of pages: {}\n"
+        + "Number of empty pages: {}\n"
+        + "Number of rows: {}",
+      this.queryId,
+      this.totalExecutionTime,
+      this.numPages,
+      this.numEmptyPages,
+      result.getRows().size());
+    return resultSet;
+  }
+
+  /**
+   * Executes the given query as a subscriber of the identical query in flight, starting the flight
+   * if there is none. The query is executed on the caller thread unless another subscriber is
+   * already executing it. Canceling this statement while it waits for the first page only removes
+   * it from the flight.
+   *
+   * @param sql      the query to execute.
+   * @param recorder the recorder caching the pages once they are all read, or {@code null} if the
+   *                 result is not cached.
+   * @return the result set reading the pages of the flight.
+   * @throws SQLException if the query failed or the statement was canceled.
+   */
+  private ResultSet executeSingleFlightQuery(
+    final String sql,
+    final TimestreamResultCache.Recorder recorder) throws SQLException {
+    final TimestreamSingleFlight.Subscription subscription =
+      TimestreamSingleFlight.subscribe(
+        createResultKey(sql),
+        () -> createFlightQuery(sql),
+        connection::createPrefetchBuffer,
+        TimestreamRetrievalExecutor.getConnectionExecutor(connection),
+        connection.getPrefetchMemoryBudget());
+    this.flightSubscription = subscription;
+    final QueryResult result;
     try {
+      if (isAsyncQueryCanceled()) {
+        subscription.cancel();
+      }
+      result = subscription.nextPage();
+    } catch (final SQLException e) {
+      subscription.close();
+      throw e;
+    } finally {
+      this.flightSubscription = null;
+    }
+
+    this.queryId.set(result.getQueryId());
+    this.resultSet = new TimestreamResultSet(
+      this,
+      sql,
+      result,
+      subscription,
+      this.typeMap,
+      this.largeMaxRows,
+      this.maxFieldSize,
+      recorder);
+    return resultSet;
+  }
+
+  /**
+   * Creates the query executed by a new flight. The query is executed by a copy of this statement,
+   * so the flight is not affected by a subscriber canceling or reusing its statement, and the copy
+   * is closed once the flight is done.
+   *
+   * @param sql the query to execute.
+   * @return the {@link TimestreamSingleFlight.Query}.
+   * @throws SQLException if error occurs when get type map of connection.
+   */
+  private TimestreamSingleFlight.Query createFlightQuery(final String sql) throws SQLException {
+    final TimestreamStatement flightStatement = new TimestreamStatement(connection);
+    flightStatement.fetchSize = this.fetchSize;
+    flightStatement.queryTimeout = this.queryTimeout;
+    return new TimestreamSingleFlight.Query() {
+      @Override
+      public QueryResult execute() throws SQLException {
+        try {
+          return flightStatement.retrieveFirstPage(flightStatement.createQueryRequest(sql));
+        } catch (final SdkClientException e) {
+          throw Error.createSQLException(LOGGER, e, Error.ASYNC_RETRIEVAL_ERROR, sql);
+        }
+      }
+
+      @Override
+      public QueryResult fetch(final String nextToken) throws SQLException {
+        try {
+          return flightStatement.retrieveResult(flightStatement.createQueryRequest(sql).withNextToken(nextToken));
+        } catch (final SdkClientException e) {
+          throw Error.createSQLException(LOGGER, e, Error.ASYNC_RETRIEVAL_ERROR, sql);
+        }
+      }
+
+      @Override
+      public void cancel() {
+        flightStatement.doCancel();
+      }
+
+      @Override
+      public void close() {
+        try {
+          flightStatement.close();
+        } catch (final SQLException e) {
+          LOGGER.warn("Failed to close the statement of the query in flight: {}", e.getMessage());
+        }
+      }
+    };
+  }
+
+  /**
+   * Creates the key identifying the results of the given query with the current settings of this
+   * statement, shared by the connections using the same query client configuration.
+   *
+   * @param sql the query.
+   * @return the {@link TimestreamResultCache.Key}.
+   */
+  private TimestreamResultCache.Key createResultKey(final String sql) {
+    return new TimestreamResultCache.Key(
+      connection.getResultCacheScope(),
+      sql,
+      this.fetchSize,
+      this.queryTimeout,
+      this.largeMaxRows,
+      this.maxFieldSize);
+  }
+
+  /**
+   * Creates the request of the given query with the timeouts and the fetch size of this statement.
+   *
+   * @param sql the query.
+   * @return the {@link QueryRequest}.
+   */
+  private QueryRequest createQueryRequest(final String sql) {
+    final QueryRequest request = new QueryRequest()
+      .withQueryString(sql)
+      .withSdkClientExecutionTimeout(this.queryTimeout)
+      .withSdkRequestTimeout(getRequestTimeoutMillis());
+
+    if (this.fetchSize != 0) {
+      request.withMaxRows(this.fetchSize);
+    }
+    return request;
+  }
+
+  /**
+   * Executes a query and retrieves its first page with rows, skipping the leading empty pages.
+   * <p>
+   * The empty pages are skipped on the calling thread. For {@link #executeQueryAsync(String)}, this
+   * is a thread of the query executor of the connection, which is a virtual thread when virtual
+   * threads are enabled. For {@link #executeQuery(String)}, the application thread waits for the
+   * first page in any case, so handing the loop over to another thread would not release it.
+   *
+   * @param request the request of the query.
+   * @return the first page with rows, or the last page if the result is empty.
+   * @throws SQLException if the query failed, timed out or was canceled.
+   */
+  private QueryResult retrieveFirstPage(final QueryRequest request) throws SQLException {
+    try {
+      QueryResult result;
       try {
         result = retrieveResult(request);
         this.queryId.set(result.getQueryId());
         LOGGER.info("Query ID: {}", this.queryId);
         this.canCancel.set(true);
+        if (isAsyncQueryCanceled()) {
+          doCancel();
+          throw Error.createSQLException(
+            LOGGER,
+            Constants.OPERATION_CANCELED_SQL_STATE,
+            null,
+            Error.QUERY_CANCELED,
+            this.queryId.get());
+        }
+
         List<Row> rows = result.getRows();
         String nextToken = result.getNextToken();
         while ((rows.size() == 0) && (nextToken != null)) {
@@ -239,29 +437,9 @@ public class TimestreamStatement implements java.sql.Statement {
       } finally {
         this.canCancel.set(false);
       }
-
-      this.resultSet = new TimestreamResultSet(
-        this,
-        sql,
-        result,
-        this.typeMap,
-        this.largeMaxRows,
-        this.maxFieldSize,
-        this.totalExecutionTime.get(),
-        this.numPages.get());
-      LOGGER.info(
-        "Query ID: {}\n"
-          + "Time to first result: {}ms\n"
-          + "Total number of pages: {}\n"
-          + "Number of empty pages: {}\n"
-          + "Number of rows: {}",
-        this.queryId,
-        this.totalExecutionTime,
-        this.numPages,
-        this.numEmptyPages,
-        result.getRows().size());
-      return resultSet;
+      return result;
     } catch (final AmazonTimestreamQueryException e) {
+      throwIfConnectionFailed();
       throw Error.createSQLException(
         LOGGER,
         e,
@@ -272,7 +450,115 @@ public class TimestreamStatement implements java.sql.Statement {
       throw new SQLTimeoutException(
         Error.getErrorMessage(LOGGER, Error.QUERY_TIMED_OUT, this.queryId.get()),
         e);
+    } catch (final SdkClientException e) {
+      throwIfConnectionFailed();
+      throw e;
+    }
+  }
+
+  /**
+   * Executes the given query without blocking the caller, on a virtual thread if the parent
+   * connection uses virtual threads, or on a thread of the driver-wide pool of query threads
+   * otherwise. The query threads are separate from the threads retrieving the result set pages.
+   *
+   * @param sql the query to execute.
+   * @return a {@link CompletableFuture} completed with the result set of the query, or with the
+   * {@link SQLException} thrown while executing it. Cancelling the future cancels the query, see
+   * {@link #executeQueryAsync(String, Executor)}.
+   * @throws SQLException if the statement is closed.
+   * @see #executeQueryAsync(String, Executor)
+   */
+  public CompletableFuture<TimestreamResultSet> executeQueryAsync(final String sql)
+    throws SQLException {
+    return executeQueryAsync(sql, TimestreamRetrievalExecutor.getQueryExecutor(connection));
+  }
+
+  /**
+   * Executes the given query without blocking the caller. The query is executed as with {@link
+   * #executeQuery(String)}, including skipping the leading empty pages, on a thread of the given
+   * executor. Cancelling the returned future before the query starts prevents its execution, and
+   * cancelling it while the query is running cancels the query. Timestream only accepts the
+   * cancellation of a query once it returned the query ID with the first page, so a cancellation
+   * requested while waiting for the first page is applied as soon as that page arrives.
+   * <p>
+   * Like {@link #executeQuery(String)}, the queries of a statement run one at a time: concurrent
+   * calls on the same statement are serialized, and each query closes the result set of the previous
+   * one. Use a separate statement for each query whose result set must stay open.
+   *
+   * @param sql      the query to execute.
+   * @param executor the executor running the query.
+   * @return a {@link CompletableFuture} completed with the result set of the query, or with the
+   * {@link SQLException} thrown while executing it.
+   * @throws SQLException if the statement is closed.
+   */
+  public CompletableFuture<TimestreamResultSet> executeQueryAsync(
+    final String sql,
+    final Executor executor)
+    throws SQLException {
+    verifyOpen();
+
+    final CompletableFuture<TimestreamResultSet> future = new CompletableFuture<TimestreamResultSet>() {
+      @Override
+      public boolean cancel(final boolean mayInterruptIfRunning) {
+        final boolean isCanceled = super.cancel(mayInterruptIfRunning);
+        if (isCanceled && (asyncQuery == this)) {
+          // Only cancel the running query if it is this one, and not a query of a previous call.
+          doCancel();
+        }
+        return isCanceled;
+      }
+    };
+
+    try {
+      executor.execute(() -> {
+        synchronized (this) {
+          // The query is published before checking the future, so that a concurrent cancel either
+          // prevents the execution or is seen by the execution.
+          this.asyncQuery = future;
+          try {
+            if (future.isDone()) {
+              LOGGER.debug("Asynchronous query was canceled before it started.");
+              return;
+            }
+
+            final TimestreamResultSet result = (TimestreamResultSet) executeQuery(sql);
+            if (!future.complete(result)) {
+              // The future was canceled after the query completed, nobody will consume the result.
+              result.close();
+            }
+          } catch (final SQLException | RuntimeException e) {
+            future.completeExceptionally(e);
+          } finally {
+            this.asyncQuery = null;
+          }
+        }
+      });
+    } catch (final RejectedExecutionException e) {
+      future.completeExceptionally(e);
     }
+    return future;
+  }
+
+  /**
+   * Creates a publisher streaming the rows of the given query. The query is executed once the
+   * subscriber requests rows, and the pages are retrieved on demand on the executor retrieving the
+   * result set pages of the parent connection. The fetch size and the maximum number of rows of
+   * this statement apply.
+   *
+   * @param sql the query to execute.
+   * @return a {@link TimestreamRowPublisher} for the rows of the query.
+   * @throws SQLException if the statement is closed.
+   */
+  public TimestreamRowPublisher publishQuery(final String sql) throws SQLException {
+    verifyOpen();
+    return new TimestreamRowPublisher(
+      connection.getQueryClient(),
+      TimestreamRetrievalExecutor.getConnectionExecutor(connection),
+      sql,
+      this.getFetchSize(),
+      this.largeMaxRows,
+      this.queryTimeout,
+      getRequestTimeoutMillis());
   }
 
   @Override
@@ -374,7 +660,7 @@ public class TimestreamStatement implements java.sql.Statement {
   @Override
   public int getQueryTimeout() throws SQLException {
     verifyOpen();
-    return this.clientConfiguration.getClientExecutionTimeout() / Constants.NUM_MILLISECONDS_IN_SECOND;
+    return this.queryTimeout / Constants.NUM_MILLISECONDS_IN_SECOND;
   }
 
   @Override
@@ -426,8 +712,7 @@ public class TimestreamStatement implements java.sql.Statement {
   @Override
   public boolean isPoolable() throws SQLException {
     verifyOpen();
-    // Statement pooling is not supported.
-    return false;
+    return isPoolable;
   }
 
   @Override
@@ -495,7 +780,7 @@ public class TimestreamStatement implements java.sql.Statement {
   @Override
   public void setPoolable(boolean poolable) throws SQLException {
     verifyOpen();
-    throw new SQLFeatureNotSupportedException(Error.lookup(Error.POOLING_NOT_SUPPORTED));
+    this.isPoolable = poolable;
   }
 
   @Override
@@ -504,10 +789,7 @@ public class TimestreamStatement implements java.sql.Statement {
     if (seconds < 0) {
       throw Error.createSQLException(LOGGER, Error.INVALID_TIMEOUT, seconds);
     }
-    this.clientConfiguration.setClientExecutionTimeout(seconds * Constants.NUM_MILLISECONDS_IN_SECOND);
-    this.queryClient = connection.getQueryClientBuilder()
-        .withClientConfiguration(clientConfiguration)
-        .build();
+    this.queryTimeout = seconds * Constants.NUM_MILLISECONDS_IN_SECOND;
   }
 
   @Override
@@ -531,12 +813,32 @@ public class TimestreamStatement implements java.sql.Statement {
   }
 
   /**
-   * Getter for the Timestream query client.
+   * Getter for the Timestream query client, which is shared by all the statements of the parent
+   * connection.
    *
    * @return The Timestream query client.
    */
   AmazonTimestreamQuery getClient() {
-    return this.queryClient;
+    return connection.getQueryClient();
+  }
+
+  /**
+   * Getter for the query timeout applied to each request sent by this statement.
+   *
+   * @return the query timeout in milliseconds, 0 if there is no timeout.
+   */
+  int getQueryTimeoutMillis() {
+    return this.queryTimeout;
+  }
+
+  /**
+   * Getter for the network timeout of the parent connection, applied to each request sent by this
+   * statement since the query client is shared.
+   *
+   * @return the request timeout in milliseconds, 0 if there is no timeout.
+   */
+  int getRequestTimeoutMillis() {
+    return connection.getRequestTimeout();
   }
 
   /**
@@ -559,11 +861,29 @@ public class TimestreamStatement implements java.sql.Statement {
     }
   }
 
+  /**
+   * Returns whether the running query is an asynchronous query whose future was canceled. The
+   * cancellation is applied once the query can be canceled.
+   *
+   * @return {@code true} if the future of the running asynchronous query was canceled.
+   */
+  private boolean isAsyncQueryCanceled() {
+    final CompletableFuture<TimestreamResultSet> query = this.asyncQuery;
+    return (query != null) && query.isCancelled();
+  }
+
   /**
    * Cancel the current statement, if any.
    */
   private void doCancel() {
-    if ((this.queryId.get() == null) || !this.canCancel.get()) {
+    final TimestreamSingleFlight.Subscription subscription = this.flightSubscription;
+    if (subscription != null) {
+      LOGGER.debug("Leaving the identical query in flight.");
+      subscription.cancel();
+      return;
+    }
+
+    if ((this.queryId.get() == null) || !this.canCancel.getAndSet(false)) {
       LOGGER.debug("Query is not cancelable.");
       return;
     }
@@ -591,6 +911,21 @@ public class TimestreamStatement implements java.sql.Statement {
     }
   }
 
+  /**
+   * Reports a failed query as a connection failure if the parent connection, whose verification
+   * may have been deferred, cannot be established. The failure is reported to the pool of the
+   * connection, if any, so the connection is not reused.
+   *
+   * @throws SQLException if the connection cannot be established.
+   */
+  private void throwIfConnectionFailed() throws SQLException {
+    final SQLException connectionFailure = connection.getConnectionFailure();
+    if (connectionFailure != null) {
+      connection.connectionErrorOccurred(connectionFailure);
+      throw connectionFailure;
+    }
+  }
+
   /**
    * Verify the statement is open.
    *
@@ -602,6 +937,15 @@ public class TimestreamStatement implements java.sql.Statement {
     }
   }
 
+  /**
+   * Gets whether this statement can be reused once it is closed, regardless of whether it is closed.
+   *
+   * @return {@code true} if the statement is poolable; {@code false} otherwise.
+   */
+  boolean canBePooled() {
+    return isPoolable;
+  }
+
   /**
    * Retrieve query result.
    *
@@ -610,7 +954,8 @@ public class TimestreamStatement implements java.sql.Statement {
    */
   private QueryResult retrieveResult(QueryRequest request) {
     final long startRetrievalTime = System.nanoTime();
-    final QueryResult result = connection.getQueryClient().query(request);
+    final QueryResult result = getClient().query(request);
+    connection.recordSuccessfulRequest();
     final long executionTime = TimeUnit.NANOSECONDS
         .toMillis(System.nanoTime() - startRetrievalTime);
     this.totalExecutionTime.addAndGet(executionTime);
@@ -0,0 +1,169 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Least recently used cache of the closed prepared statements of a connection, so statements
+ * prepared again with the same SQL text and result set attributes are reused instead of being
+ * created and described again.
+ */
+class TimestreamStatementCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamStatementCache.class);
+  private final int maxSize;
+  private final Map<Key, TimestreamPreparedStatement> statements;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * Constructor for TimestreamStatementCache.
+   *
+   * @param maxSize The maximum number of cached statements.
+   */
+  TimestreamStatementCache(final int maxSize) {
+    this.maxSize = maxSize;
+    this.statements = new LinkedHashMap<Key, TimestreamPreparedStatement>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Key, TimestreamPreparedStatement> eldest) {
+        if (size() <= TimestreamStatementCache.this.maxSize) {
+          return false;
+        }
+        LOGGER.debug("Evicting the least recently used statement from the statement cache.");
+        evictions++;
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Removes the cached statement of the given key from the cache.
+   *
+   * @param key The SQL text and result set attributes of the statement.
+   * @return the cached statement, or {@code null} if there is none.
+   */
+  synchronized TimestreamPreparedStatement take(final Key key) {
+    final TimestreamPreparedStatement statement = statements.remove(key);
+    if (statement == null) {
+      misses++;
+    } else {
+      hits++;
+    }
+    return statement;
+  }
+
+  /**
+   * Caches a closed statement, evicting the least recently used statement if the cache is full. The
+   * statement is not cached if a statement with the same key is already cached.
+   *
+   * @param statement The closed statement to cache.
+   * @return {@code true} if the statement is cached; {@code false} otherwise.
+   */
+  synchronized boolean offer(final TimestreamPreparedStatement statement) {
+    return statements.putIfAbsent(statement.getCacheKey(), statement) == null;
+  }
+
+  /**
+   * Removes all the cached statements.
+   */
+  synchronized void clear() {
+    statements.clear();
+  }
+
+  /**
+   * Gets the number of cached statements.
+   *
+   * @return the number of cached statements.
+   */
+  synchronized int size() {
+    return statements.size();
+  }
+
+  /**
+   * Gets the number of statements prepared from the cache.
+   *
+   * @return the number of cache hits.
+   */
+  synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Gets the number of statements prepared while no statement with the same key was cached.
+   *
+   * @return the number of cache misses.
+   */
+  synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Gets the number of statements evicted from a full cache.
+   *
+   * @return the number of evictions.
+   */
+  synchronized long getEvictions() {
+    return evictions;
+  }
+
+  /**
+   * The SQL text and the result set attributes identifying the statements that can be reused for
+   * one another.
+   */
+  static final class Key {
+    private final String sql;
+    private final int resultSetType;
+    private final int resultSetConcurrency;
+
+    /**
+     * Constructor for Key.
+     *
+     * @param sql                  The SQL text of the statement.
+     * @param resultSetType        The type of the result sets of the statement.
+     * @param resultSetConcurrency The concurrency of the result sets of the statement.
+     */
+    Key(final String sql, final int resultSetType, final int resultSetConcurrency) {
+      this.sql = sql;
+      this.resultSetType = resultSetType;
+      this.resultSetConcurrency = resultSetConcurrency;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return resultSetType == key.resultSetType
+        && resultSetConcurrency == key.resultSetConcurrency
+        && Objects.equals(sql, key.sql);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sql, resultSetType, resultSetConcurrency);
+    }
+  }
+}
@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.regex.Matcher;
 
 /**
  * ResultSet for returning the list of tables in Timestream.
@@ -52,6 +53,7 @@ public class TimestreamTablesResultSet extends TimestreamBaseResultSet {
   private final TimestreamConnection connection;
   private final String namePattern;
   private final Iterator<String> databaseItr;
+  private Matcher nameMatcher;
   private boolean isAfterLast = false;
 
   /**
@@ -149,29 +151,74 @@ public class TimestreamTablesResultSet extends TimestreamBaseResultSet {
    */
   private void populateCurrentRows() throws SQLException {
     final List<Row> tables = new ArrayList<>();
+    final String database = databaseItr.next();
+    for (final String table : getTables(database)) {
+      tables.add(new Row().withData(
+        NULL_DATUM,
+        new Datum().withScalarValue(database),
+        new Datum().withScalarValue(table),
+        new Datum().withScalarValue(Constants.TABLE_TYPE),
+        NULL_DATUM,
+        NULL_DATUM,
+        NULL_DATUM,
+        NULL_DATUM,
+        NULL_DATUM,
+        NULL_DATUM));
+    }
+
+    this.rowItr = tables.iterator();
+  }
+
+  /**
+   * Retrieve the names of the tables of a database matching the table name pattern, from the
+   * catalog cache of the connection if it is enabled.
+   *
+   * @param database the database to list the tables of.
+   * @return the names of the tables.
+   * @throws SQLException if there is an error retrieving the tables.
+   */
+  private List<String> getTables(String database) throws SQLException {
+    final TimestreamCatalogCache catalogCache = connection.getCatalogCache();
+    if (catalogCache == null) {
+      return queryTables(database, namePattern);
+    }
 
+    if (nameMatcher == null) {
+      nameMatcher = TimestreamCatalogCache.toPattern(namePattern).matcher("");
+    }
+    final List<String> tables = new ArrayList<>();
+    for (final String table : catalogCache.getTables(
+      connection.getResultCacheScope(),
+      database,
+      connection.getCatalogCacheTtlNanos(),
+      () -> queryTables(database, null))) {
+      if (nameMatcher.reset(table).matches()) {
+        tables.add(table);
+      }
+    }
+    return tables;
+  }
+
+  /**
+   * Query the names of the tables of a database matching a table name pattern.
+   *
+   * @param database the database to list the tables of.
+   * @param tableNamePattern the pattern to use to match table names, maybe null.
+   * @return the names of the tables.
+   * @throws SQLException if there is an error retrieving the tables.
+   */
+  private List<String> queryTables(String database, String tableNamePattern) throws SQLException {
+    final List<String> tables = new ArrayList<>();
     try (Statement statement = connection.createStatement()) {
-      final String database = databaseItr.next();
       final String query = "SHOW TABLES FROM \"" + database + "\"" +
-        (Strings.isNullOrEmpty(namePattern) ? "" : " LIKE '" + namePattern + "'");
+        (Strings.isNullOrEmpty(tableNamePattern) ? "" : " LIKE '" + tableNamePattern + "'");
       LOGGER.debug("Retrieving tables using query: \"{}\"", query);
       try (ResultSet rs = statement.executeQuery(query)) {
         while (rs.next()) {
-          tables.add(new Row().withData(
-            NULL_DATUM,
-            new Datum().withScalarValue(database),
-            new Datum().withScalarValue(rs.getString(1)),
-            new Datum().withScalarValue(Constants.TABLE_TYPE),
-            NULL_DATUM,
-            NULL_DATUM,
-            NULL_DATUM,
-            NULL_DATUM,
-            NULL_DATUM,
-            NULL_DATUM));
+          tables.add(rs.getString(1));
         }
       }
     }
-
-    this.rowItr = tables.iterator();
+    return tables;
   }
 }
@@ -26,7 +26,8 @@ public enum Warning {
   NULL_PROPERTY,
   NULL_URL,
   UNSUPPORTED_PROPERTY,
-  UNSUPPORTED_URL_PREFIX;
+  UNSUPPORTED_URL_PREFIX,
+  VIRTUAL_THREADS_NOT_SUPPORTED;
 
   private static final ResourceBundle RESOURCE = ResourceBundle.getBundle("jdbc");
 
@@ -0,0 +1,116 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TimestreamCatalogCacheTest {
+  private static final long TTL = TimeUnit.MINUTES.toNanos(1);
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Test
+  @DisplayName("Test the catalog is shared by the connections of a scope until it expires.")
+  void testGetExpired() throws SQLException {
+    final TimestreamCatalogCache cache = new TimestreamCatalogCache(10);
+
+    Assertions.assertEquals(Arrays.asList("db1", "db2"), cache.getDatabases("scope", TTL, this::load));
+    Assertions.assertEquals(Arrays.asList("db1", "db2"), cache.getDatabases("scope", TTL, this::load));
+    cache.getDatabases("other", TTL, this::load);
+    cache.getTables("scope", "db1", 0, this::load);
+    cache.getTables("scope", "db1", 0, this::load);
+
+    Assertions.assertEquals(4, loads.get());
+    Assertions.assertEquals(1, cache.getHits());
+    Assertions.assertEquals(4, cache.getMisses());
+  }
+
+  @Test
+  @DisplayName("Test the least recently used lists are evicted once the cache is full.")
+  void testEvictLeastRecentlyUsed() throws SQLException {
+    final TimestreamCatalogCache cache = new TimestreamCatalogCache(2);
+
+    cache.getTables("scope", "db1", TTL, this::load);
+    cache.getTables("scope", "db2", TTL, this::load);
+    cache.getTables("scope", "db1", TTL, this::load);
+    cache.getTables("scope", "db3", TTL, this::load);
+    Assertions.assertEquals(1, cache.getEvictions());
+
+    cache.getTables("scope", "db1", TTL, this::load);
+    Assertions.assertEquals(3, loads.get());
+    cache.getTables("scope", "db2", TTL, this::load);
+    Assertions.assertEquals(4, loads.get());
+    Assertions.assertEquals(2, cache.size());
+  }
+
+  @Test
+  @DisplayName("Test invalidating a table or a database removes the lists that include it.")
+  void testInvalidate() throws SQLException {
+    final TimestreamCatalogCache cache = new TimestreamCatalogCache(10);
+    cache.getDatabases("scope", TTL, this::load);
+    cache.getTables("scope", "db1", TTL, this::load);
+    cache.getTables("scope", "db2", TTL, this::load);
+    cache.getColumns("scope", "db1", "table1", TTL, Arrays::asList);
+    cache.getColumns("scope", "db1", "table2", TTL, Arrays::asList);
+    cache.getDatabases("other", TTL, this::load);
+
+    cache.invalidate("scope", "db1", "table1");
+    Assertions.assertEquals(4, cache.size());
+
+    cache.invalidate("scope", "db1", null);
+    Assertions.assertEquals(2, cache.size());
+
+    cache.invalidate("scope", null, null);
+    Assertions.assertEquals(1, cache.size());
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "testTable, testTable, true",
+    "%, testTable, true",
+    "%test%, testTable, true",
+    "_estTabl_, testTable, true",
+    "%Ta_le, testTable, true",
+    "test, testTable, false",
+    "TESTTABLE, testTable, false",
+    "a.b, a.b, true",
+    "a.b, aXb, false"
+  })
+  @DisplayName("Test JDBC name patterns are matched against the cached names.")
+  void testToPattern(final String pattern, final String name, final boolean matches) {
+    Assertions.assertEquals(matches, TimestreamCatalogCache.toPattern(pattern).matcher(name).matches());
+  }
+
+  /**
+   * Loads a list of names, counting the number of queries.
+   *
+   * @return the names.
+   */
+  private List<String> load() {
+    loads.incrementAndGet();
+    return Arrays.asList("db1", "db2");
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.services.timestreamquery.AmazonTimestreamQuery;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class TimestreamClientRegistryTest {
+  @Test
+  @DisplayName("Test connections with the same configuration share a client until the last one is released.")
+  void testAcquireSameConfiguration() {
+    final AmazonTimestreamQuery client = Mockito.mock(AmazonTimestreamQuery.class);
+    final String credentials = UUID.randomUUID().toString();
+    final TimestreamClientRegistry.ClientKey key = createKey(credentials, new ClientConfiguration());
+
+    final TimestreamClientRegistry.Lease first = TimestreamClientRegistry.acquire(key, () -> client);
+    final TimestreamClientRegistry.Lease second = TimestreamClientRegistry.acquire(
+      createKey(credentials, new ClientConfiguration()),
+      () -> Assertions.fail("The registered client should be reused."));
+
+    Assertions.assertSame(client, first.getClient());
+    Assertions.assertSame(client, second.getClient());
+    Assertions.assertEquals(2, TimestreamClientRegistry.getReferenceCount(key));
+
+    first.release();
+    first.release();
+    Assertions.assertEquals(1, TimestreamClientRegistry.getReferenceCount(key));
+    Mockito.verify(client, Mockito.never()).shutdown();
+
+    second.release();
+    Assertions.assertEquals(0, TimestreamClientRegistry.getReferenceCount(key));
+    Mockito.verify(client).shutdown();
+  }
+
+  @Test
+  @DisplayName("Test a new client is built once the previous client of the configuration is shut down.")
+  void testAcquireAfterRelease() {
+    final TimestreamClientRegistry.ClientKey key = createKey(UUID.randomUUID().toString(), new ClientConfiguration());
+    final AmazonTimestreamQuery firstClient = Mockito.mock(AmazonTimestreamQuery.class);
+    final AmazonTimestreamQuery secondClient = Mockito.mock(AmazonTimestreamQuery.class);
+
+    TimestreamClientRegistry.acquire(key, () -> firstClient).release();
+    final TimestreamClientRegistry.Lease lease = TimestreamClientRegistry.acquire(key, () -> secondClient);
+
+    Assertions.assertSame(secondClient, lease.getClient());
+    lease.release();
+  }
+
+  @Test
+  @DisplayName("Test connections with different configurations do not share a client.")
+  void testAcquireDifferentConfigurations() {
+    final String credentials = UUID.randomUUID().toString();
+    final TimestreamClientRegistry.ClientKey key = createKey(credentials, new ClientConfiguration());
+    final TimestreamClientRegistry.ClientKey otherKey = createKey(
+      credentials,
+      new ClientConfiguration().withMaxConnections(ClientConfiguration.DEFAULT_MAX_CONNECTIONS + 1));
+    Assertions.assertNotEquals(key, otherKey);
+    Assertions.assertNotEquals(key, createKey(UUID.randomUUID().toString(), new ClientConfiguration()));
+
+    final TimestreamClientRegistry.Lease lease =
+      TimestreamClientRegistry.acquire(key, () -> Mockito.mock(AmazonTimestreamQuery.class));
+    final TimestreamClientRegistry.Lease otherLease =
+      TimestreamClientRegistry.acquire(otherKey, () -> Mockito.mock(AmazonTimestreamQuery.class));
+
+    Assertions.assertNotSame(lease.getClient(), otherLease.getClient());
+    lease.release();
+    otherLease.release();
+  }
+
+  @Test
+  @DisplayName("Test the key is not affected by changes to the configuration after it is created.")
+  void testKeyCopiesConfiguration() {
+    final String credentials = UUID.randomUUID().toString();
+    final ClientConfiguration configuration = new ClientConfiguration().withRequestTimeout(1000);
+    final TimestreamClientRegistry.ClientKey key = createKey(credentials, configuration);
+
+    configuration.setRequestTimeout(2000);
+
+    Assertions.assertEquals(createKey(credentials, new ClientConfiguration().withRequestTimeout(1000)), key);
+    Assertions.assertNotEquals(createKey(credentials, configuration), key);
+  }
+
+  @Test
+  @DisplayName("Test building a client does not block the connections using other clients.")
+  void testAcquireWhileBuilding() throws Exception {
+    final String credentials = UUID.randomUUID().toString();
+    final TimestreamClientRegistry.ClientKey key = createKey(credentials, new ClientConfiguration());
+    final TimestreamClientRegistry.ClientKey otherKey = createKey(UUID.randomUUID().toString(), new ClientConfiguration());
+    final AmazonTimestreamQuery client = Mockito.mock(AmazonTimestreamQuery.class);
+    final CountDownLatch building = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<TimestreamClientRegistry.Lease> first = executor.submit(() -> TimestreamClientRegistry.acquire(key, () -> {
+        building.countDown();
+        Uninterruptibles.awaitUninterruptibly(release, 10, TimeUnit.SECONDS);
+        return client;
+      }));
+      Assertions.assertTrue(building.await(10, TimeUnit.SECONDS));
+      final Future<TimestreamClientRegistry.Lease> second = executor.submit(() -> TimestreamClientRegistry.acquire(
+        createKey(credentials, new ClientConfiguration()),
+        () -> Assertions.fail("The client being built should be reused.")));
+
+      TimestreamClientRegistry.acquire(otherKey, () -> Mockito.mock(AmazonTimestreamQuery.class)).release();
+      Assertions.assertFalse(second.isDone());
+
+      release.countDown();
+      Assertions.assertSame(client, first.get(10, TimeUnit.SECONDS).getClient());
+      Assertions.assertSame(client, second.get(10, TimeUnit.SECONDS).getClient());
+      Assertions.assertEquals(2, TimestreamClientRegistry.getReferenceCount(key));
+      first.get().release();
+      second.get().release();
+      Mockito.verify(client).shutdown();
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName("Test a client that failed to build is not registered.")
+  void testAcquireBuildFailure() {
+    final TimestreamClientRegistry.ClientKey key = createKey(UUID.randomUUID().toString(), new ClientConfiguration());
+    final IllegalStateException failure = new IllegalStateException("failed");
+
+    Assertions.assertSame(failure, Assertions.assertThrows(
+      IllegalStateException.class,
+      () -> TimestreamClientRegistry.acquire(key, () -> {
+        throw failure;
+      })));
+    Assertions.assertEquals(0, TimestreamClientRegistry.getReferenceCount(key));
+
+    final AmazonTimestreamQuery client = Mockito.mock(AmazonTimestreamQuery.class);
+    final TimestreamClientRegistry.Lease lease = TimestreamClientRegistry.acquire(key, () -> client);
+    Assertions.assertSame(client, lease.getClient());
+    lease.release();
+  }
+
+  /**
+   * Creates a key for a regional client.
+   *
+   * @param credentials         the identity of the credentials.
+   * @param clientConfiguration the SDK options of the client.
+   * @return the {@link TimestreamClientRegistry.ClientKey}.
+   */
+  private static TimestreamClientRegistry.ClientKey createKey(
+    final Object credentials,
+    final ClientConfiguration clientConfiguration) {
+    return new TimestreamClientRegistry.ClientKey(null, "us-east-1", Arrays.asList("key", credentials),
+      clientConfiguration);
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.services.timestreamquery.model.Datum;
+import com.amazonaws.services.timestreamquery.model.Row;
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class TimestreamColumnarPageTest {
+  private static final List<TimestreamDataType> TYPES = ImmutableList.of(
+    TimestreamDataType.BIGINT,
+    TimestreamDataType.DOUBLE,
+    TimestreamDataType.BOOLEAN,
+    TimestreamDataType.VARCHAR,
+    TimestreamDataType.TIMESTAMP,
+    TimestreamDataType.DATE);
+
+  @Test
+  void testDecode() {
+    final TimestreamColumnarPage page = TimestreamColumnarPage.decode(
+      ImmutableList.of(
+        createRow("1", "1.5", "true", "foo", "2020-01-01 00:00:00.000000001", "2020-01-01"),
+        createRow(null, null, null, null, null, null),
+        createRow("-1", "-2.5", "false", "foo", "1969-12-31 23:59:59.5", "2020-01-02")),
+      TYPES);
+
+    Assertions.assertEquals(1L, page.getLong(0, 0));
+    Assertions.assertEquals(-1L, page.getLong(0, 2));
+    Assertions.assertEquals(-2.5, page.getDouble(1, 2));
+    Assertions.assertTrue(page.getBoolean(2, 0));
+    Assertions.assertEquals("foo", page.getString(3, 2));
+    Assertions.assertEquals(LocalDateTime.of(2020, 1, 1, 0, 0, 0, 1), page.getLocalDateTime(4, 0));
+    Assertions.assertEquals(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 500000000), page.getLocalDateTime(4, 2));
+
+    for (int column = 0; column < 5; column++) {
+      Assertions.assertTrue(page.isDecoded(column));
+      Assertions.assertFalse(page.isNull(column, 0));
+      Assertions.assertTrue(page.isNull(column, 1));
+    }
+
+    // Only the supported types are decoded.
+    Assertions.assertFalse(page.isDecoded(5));
+    Assertions.assertFalse(page.isDecoded(6));
+  }
+
+  @Test
+  void testColumnWithInvalidValueIsNotDecoded() {
+    final TimestreamColumnarPage page = TimestreamColumnarPage.decode(
+      ImmutableList.of(
+        createRow("1", "1.5", "true", "foo", "2020-01-01 00:00:00", "2020-01-01"),
+        createRow("foo", "1.5", "true", "foo", "2020-01-01", "2020-01-01")),
+      TYPES);
+
+    Assertions.assertFalse(page.isDecoded(0));
+    Assertions.assertTrue(page.isDecoded(1));
+    Assertions.assertFalse(page.isDecoded(4));
+  }
+
+  /**
+   * Creates a row with a cell for each of the given values, null values being null cells.
+   *
+   * @param values the values of the cells.
+   * @return the {@link Row}.
+   */
+  private static Row createRow(final String... values) {
+    final Datum[] data = new Datum[values.length];
+    for (int i = 0; i < values.length; i++) {
+      data[i] = (values[i] == null)
+        ? new Datum().withNullValue(true)
+        : new Datum().withScalarValue(values[i]);
+    }
+    return new Row().withData(data);
+  }
+}
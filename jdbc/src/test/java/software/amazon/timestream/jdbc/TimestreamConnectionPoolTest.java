@@ -0,0 +1,397 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TimestreamConnectionPoolTest {
+  private final List<TimestreamConnection> openedConnections = new ArrayList<>();
+  private final AtomicInteger closedCount = new AtomicInteger();
+
+  @Test
+  @DisplayName("Test the most recently returned connection is borrowed first.")
+  void testBorrowMostRecentlyReturnedConnection() throws SQLException {
+    final TimestreamConnectionPool pool = createPool(createSettings(0, 0, 8, 0, 0, true));
+
+    final TimestreamPooledConnection first = pool.borrow();
+    final TimestreamPooledConnection second = pool.borrow();
+    Assertions.assertNotSame(first.getConnection(), second.getConnection());
+    Assertions.assertEquals(2, pool.getBorrowedCount());
+
+    Assertions.assertTrue(pool.giveBack(first));
+    Assertions.assertTrue(pool.giveBack(second));
+    Assertions.assertFalse(pool.giveBack(second));
+    Assertions.assertEquals(2, pool.getIdleCount());
+
+    Assertions.assertSame(second.getConnection(), pool.borrow().getConnection());
+    Assertions.assertSame(first.getConnection(), pool.borrow().getConnection());
+    Assertions.assertEquals(2, openedConnections.size());
+  }
+
+  @Test
+  @DisplayName("Test borrowing from a full pool times out after the maximum wait time.")
+  void testBorrowFromFullPoolTimesOut() throws SQLException {
+    final TimestreamConnectionPool pool = createPool(createSettings(1, 0, 8, 0, 0, true));
+    pool.borrow();
+
+    final SQLException exception = Assertions.assertThrows(SQLException.class, pool::borrow);
+    Assertions.assertEquals(Constants.CONNECTION_EXCEPTION_SQL_STATE, exception.getSQLState());
+    Assertions.assertEquals(1, pool.getTotalCount());
+  }
+
+  @Test
+  @DisplayName("Test a thread waiting on a full pool borrows the returned connection.")
+  void testBorrowFromFullPoolWaitsForReturnedConnection() throws Exception {
+    final TimestreamConnectionPool pool = createPool(new TimestreamConnectionPool.Settings(
+      1, 0, 8, TimeUnit.SECONDS.toMillis(10), 0, 0, true, 0));
+    final TimestreamPooledConnection borrowed = pool.borrow();
+
+    final CompletableFuture<TimestreamPooledConnection> waiter = CompletableFuture.supplyAsync(() -> {
+      try {
+        return pool.borrow();
+      } catch (final SQLException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    Thread.sleep(50);
+    Assertions.assertFalse(waiter.isDone());
+
+    pool.giveBack(borrowed);
+    Assertions.assertSame(borrowed.getConnection(), waiter.get(10, TimeUnit.SECONDS).getConnection());
+    Assertions.assertEquals(1, openedConnections.size());
+  }
+
+  @Test
+  @DisplayName("Test connections returned to a pool holding the maximum number of idle connections are closed.")
+  void testGiveBackOverMaxIdle() throws SQLException {
+    final TimestreamConnectionPool pool = createPool(createSettings(0, 0, 1, 0, 0, true));
+    final TimestreamPooledConnection first = pool.borrow();
+    final TimestreamPooledConnection second = pool.borrow();
+
+    pool.giveBack(first);
+    pool.giveBack(second);
+
+    Assertions.assertEquals(1, pool.getIdleCount());
+    Assertions.assertEquals(1, pool.getTotalCount());
+    Mockito.verify(openedConnections.get(0), Mockito.never()).close();
+    Mockito.verify(openedConnections.get(1)).close();
+  }
+
+  @Test
+  @DisplayName("Test invalid and closed idle connections are replaced when borrowed.")
+  void testBorrowValidatesIdleConnections() throws SQLException {
+    final TimestreamConnectionPool pool = createPool(createSettings(0, 0, 8, 0, 0, true));
+    final TimestreamPooledConnection invalid = pool.borrow();
+    final TimestreamPooledConnection closed = pool.borrow();
+    pool.giveBack(invalid);
+    pool.giveBack(closed);
+    Mockito.when(invalid.getConnection().isValid(Mockito.anyInt())).thenReturn(false);
+    Mockito.when(closed.getConnection().isClosed()).thenReturn(true);
+
+    final TimestreamPooledConnection borrowed = pool.borrow();
+
+    Assertions.assertEquals(3, openedConnections.size());
+    Assertions.assertSame(openedConnections.get(2), borrowed.getConnection());
+    Mockito.verify(invalid.getConnection()).close();
+    Assertions.assertEquals(1, pool.getTotalCount());
+  }
+
+  @Test
+  @DisplayName("Test idle connections are not validated when validation on borrow is disabled.")
+  void testBorrowWithoutValidation() throws SQLException {
+    final TimestreamConnectionPool pool = createPool(createSettings(0, 0, 8, 0, 0, false));
+    final TimestreamPooledConnection pooledConnection = pool.borrow();
+    pool.giveBack(pooledConnection);
+
+    Assertions.assertSame(pooledConnection.getConnection(), pool.borrow().getConnection());
+    Mockito.verify(pooledConnection.getConnection(), Mockito.never()).isValid(Mockito.anyInt());
+  }
+
+  @Test
+  @DisplayName("Test eviction closes the idle connections in excess of the minimum number of idle connections.")
+  void testEvictIdleConnections() throws Exception {
+    final TimestreamConnectionPool pool = createPool(createSettings(0, 1, 8, 1, 0, true));
+    final TimestreamPooledConnection first = pool.borrow();
+    final TimestreamPooledConnection second = pool.borrow();
+    pool.giveBack(first);
+    pool.giveBack(second);
+
+    Thread.sleep(10);
+    pool.evict();
+
+    Assertions.assertEquals(1, pool.getIdleCount());
+    Assertions.assertEquals(1, pool.getTotalCount());
+    // The connection idling the longest is evicted first.
+    Mockito.verify(first.getConnection()).close();
+    Mockito.verify(second.getConnection(), Mockito.never()).close();
+  }
+
+  @Test
+  @DisplayName("Test connections exceeding their maximum lifetime are closed.")
+  void testMaxLifetime() throws Exception {
+    final TimestreamConnectionPool pool = createPool(createSettings(0, 0, 8, 0, 1, true));
+    final TimestreamPooledConnection idle = pool.borrow();
+    final TimestreamPooledConnection borrowed = pool.borrow();
+    pool.giveBack(idle);
+
+    Thread.sleep(10);
+    pool.evict();
+    pool.giveBack(borrowed);
+
+    Assertions.assertEquals(0, pool.getIdleCount());
+    Assertions.assertEquals(0, pool.getTotalCount());
+    Mockito.verify(idle.getConnection()).close();
+    Mockito.verify(borrowed.getConnection()).close();
+  }
+
+  @Test
+  @DisplayName("Test eviction opens connections until the pool holds the minimum number of idle connections.")
+  void testEvictFillsMinIdle() throws Exception {
+    final TimestreamConnectionPool pool = createPool(createSettings(3, 5, 8, 0, 0, true));
+    final TimestreamPooledConnection borrowed = pool.borrow();
+
+    pool.evict();
+
+    // The minimum number of idle connections is bounded by the maximum pool size.
+    awaitIdleCount(pool, 2);
+    Assertions.assertEquals(3, pool.getTotalCount());
+    pool.giveBack(borrowed);
+    Assertions.assertEquals(3, pool.getIdleCount());
+  }
+
+  @Test
+  @DisplayName("Test eviction does not wait for the connections opened to refill the pool.")
+  void testEvictDoesNotWaitForRefill() throws Exception {
+    final CountDownLatch opening = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final TimestreamConnectionPool pool = new TimestreamConnectionPool(() -> {
+      opening.countDown();
+      Uninterruptibles.awaitUninterruptibly(release, 10, TimeUnit.SECONDS);
+      return Mockito.mock(TimestreamConnection.class);
+    }, createSettings(1, 1, 8, 0, 0, true));
+
+    pool.evict();
+    Assertions.assertTrue(opening.await(10, TimeUnit.SECONDS));
+    // A second eviction does not schedule another refill while the first one is running.
+    pool.evict();
+
+    // The pool is full while the connection is opened, so a borrower waits at most the maximum wait time.
+    final SQLException exception = Assertions.assertThrows(SQLException.class, pool::borrow);
+    Assertions.assertEquals(Constants.CONNECTION_EXCEPTION_SQL_STATE, exception.getSQLState());
+
+    release.countDown();
+    awaitIdleCount(pool, 1);
+    Assertions.assertEquals(1, pool.getTotalCount());
+    Assertions.assertNotNull(pool.borrow());
+  }
+
+  @Test
+  @DisplayName("Test connections on which an error occurred are closed and free their slot in the pool.")
+  void testInvalidate() throws SQLException {
+    final TimestreamConnectionPool pool = createPool(createSettings(1, 0, 8, 0, 0, true));
+    final TimestreamPooledConnection pooledConnection = pool.borrow();
+
+    Assertions.assertTrue(pool.invalidate(pooledConnection));
+    Assertions.assertFalse(pool.giveBack(pooledConnection));
+    Mockito.verify(pooledConnection.getConnection()).close();
+
+    Assertions.assertNotSame(pooledConnection.getConnection(), pool.borrow().getConnection());
+    Assertions.assertEquals(1, pool.getTotalCount());
+  }
+
+  @Test
+  @DisplayName("Test a failure to open a connection frees its slot in the pool.")
+  void testBorrowWithConnectionFailure() throws SQLException {
+    final AtomicInteger attempts = new AtomicInteger();
+    final TimestreamConnectionPool pool = new TimestreamConnectionPool(() -> {
+      if (attempts.incrementAndGet() == 1) {
+        throw new SQLException("Failed to connect.");
+      }
+      return Mockito.mock(TimestreamConnection.class);
+    }, createSettings(1, 0, 8, 0, 0, true));
+
+    Assertions.assertThrows(SQLException.class, pool::borrow);
+    Assertions.assertEquals(0, pool.getTotalCount());
+    Assertions.assertNotNull(pool.borrow());
+  }
+
+  @Test
+  @DisplayName("Test warm-up opens idle connections in parallel.")
+  void testWarmUp() throws SQLException {
+    final CountDownLatch concurrentOpens = new CountDownLatch(4);
+    final TimestreamConnectionPool pool = new TimestreamConnectionPool(() -> {
+      concurrentOpens.countDown();
+      try {
+        // Only returns once 4 connections are being opened concurrently.
+        Assertions.assertTrue(concurrentOpens.await(10, TimeUnit.SECONDS));
+      } catch (final InterruptedException e) {
+        throw new SQLException(e);
+      }
+      return Mockito.mock(TimestreamConnection.class);
+    }, createSettings(0, 0, 8, 0, 0, true));
+
+    Assertions.assertEquals(4, pool.warmUp(4, 4));
+    Assertions.assertEquals(4, pool.getIdleCount());
+    Assertions.assertEquals(4, pool.getTotalCount());
+  }
+
+  @Test
+  @DisplayName("Test warm-up stops at the maximum number of idle connections.")
+  void testWarmUpBoundedByMaxIdle() throws SQLException {
+    final TimestreamConnectionPool pool = createPool(createSettings(0, 0, 3, 0, 0, true));
+
+    Assertions.assertEquals(3, pool.warmUp(5, 2));
+    Assertions.assertEquals(3, pool.getIdleCount());
+    Assertions.assertEquals(3, openedConnections.size());
+    Assertions.assertEquals(0, pool.warmUp(0, 2));
+  }
+
+  @Test
+  @DisplayName("Test warm-up reports every connection that could not be opened.")
+  void testWarmUpWithFailures() {
+    final AtomicInteger attempts = new AtomicInteger();
+    final TimestreamConnectionPool pool = new TimestreamConnectionPool(() -> {
+      if ((attempts.incrementAndGet() % 2) == 0) {
+        throw new SQLException("Failed to connect.");
+      }
+      return Mockito.mock(TimestreamConnection.class);
+    }, createSettings(0, 0, 8, 0, 0, true));
+
+    final SQLException exception = Assertions.assertThrows(SQLException.class, () -> pool.warmUp(4, 2));
+
+    Assertions.assertEquals(Constants.CONNECTION_EXCEPTION_SQL_STATE, exception.getSQLState());
+    Assertions.assertEquals("Failed to connect.", exception.getCause().getMessage());
+    int failures = 0;
+    for (SQLException next = exception.getNextException(); next != null; next = next.getNextException()) {
+      failures++;
+    }
+    Assertions.assertEquals(2, failures);
+    Assertions.assertEquals(2, pool.getIdleCount());
+    Assertions.assertEquals(2, pool.getTotalCount());
+  }
+
+  @Test
+  @DisplayName("Test concurrent borrowers never exceed the maximum pool size.")
+  void testConcurrentBorrowAndGiveBack() throws Exception {
+    final int threads = 64;
+    final int maxPoolSize = 8;
+    final AtomicInteger inUse = new AtomicInteger();
+    final AtomicInteger maxInUse = new AtomicInteger();
+    final TimestreamConnectionPool pool = createPool(new TimestreamConnectionPool.Settings(
+      maxPoolSize, 0, 4, TimeUnit.SECONDS.toMillis(30), 0, 0, true, 0));
+
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      futures.add(executor.submit(() -> {
+        start.await();
+        for (int j = 0; j < 50; j++) {
+          final TimestreamPooledConnection pooledConnection = pool.borrow();
+          maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+          Thread.yield();
+          inUse.decrementAndGet();
+          pool.giveBack(pooledConnection);
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (final Future<?> future : futures) {
+      future.get(60, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    Assertions.assertTrue(maxInUse.get() <= maxPoolSize);
+    Assertions.assertEquals(0, pool.getBorrowedCount());
+    Assertions.assertTrue(pool.getTotalCount() <= maxPoolSize);
+    Assertions.assertTrue(pool.getIdleCount() <= 4);
+    synchronized (openedConnections) {
+      Assertions.assertEquals(pool.getTotalCount(), openedConnections.size() - closedCount.get());
+    }
+  }
+
+  /**
+   * Waits for the connections opened in the background to refill a pool.
+   *
+   * @param pool      the connection pool.
+   * @param idleCount the expected number of idle connections.
+   * @throws InterruptedException if the thread was interrupted while waiting.
+   */
+  private static void awaitIdleCount(final TimestreamConnectionPool pool, final int idleCount)
+    throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while ((pool.getIdleCount() < idleCount) && ((deadline - System.nanoTime()) > 0)) {
+      Thread.sleep(1);
+    }
+    Assertions.assertEquals(idleCount, pool.getIdleCount());
+  }
+
+  /**
+   * Creates a pool opening mock connections, which are valid until stubbed otherwise.
+   *
+   * @param settings the sizes and timeouts of the pool.
+   * @return the {@link TimestreamConnectionPool}.
+   */
+  private TimestreamConnectionPool createPool(final TimestreamConnectionPool.Settings settings) {
+    return new TimestreamConnectionPool(() -> {
+      final TimestreamConnection connection = Mockito.mock(TimestreamConnection.class);
+      Mockito.when(connection.isValid(Mockito.anyInt())).thenReturn(true);
+      Mockito.doAnswer(invocation -> closedCount.incrementAndGet()).when(connection).close();
+      synchronized (openedConnections) {
+        openedConnections.add(connection);
+      }
+      return connection;
+    }, settings);
+  }
+
+  /**
+   * Creates the settings of a pool with a maximum wait time of 10 milliseconds.
+   *
+   * @param maxPoolSize       the maximum number of open connections, 0 for no maximum.
+   * @param minIdle           the minimum number of idle connections.
+   * @param maxIdle           the maximum number of idle connections.
+   * @param idleTimeoutMillis the idle timeout in milliseconds, 0 to keep idle connections open.
+   * @param maxLifetimeMillis the maximum lifetime in milliseconds, 0 for no maximum.
+   * @param testOnBorrow      whether idle connections are validated before being borrowed.
+   * @return the {@link TimestreamConnectionPool.Settings}.
+   */
+  private static TimestreamConnectionPool.Settings createSettings(
+    final int maxPoolSize,
+    final int minIdle,
+    final int maxIdle,
+    final long idleTimeoutMillis,
+    final long maxLifetimeMillis,
+    final boolean testOnBorrow) {
+    return new TimestreamConnectionPool.Settings(
+      maxPoolSize, minIdle, maxIdle, 10, idleTimeoutMillis, maxLifetimeMillis, testOnBorrow, 0);
+  }
+}
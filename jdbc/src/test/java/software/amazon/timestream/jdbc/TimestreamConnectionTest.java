@@ -15,6 +15,7 @@
 package software.amazon.timestream.jdbc;
 
 import com.amazonaws.ClientConfiguration;
+import com.amazonaws.SdkClientException;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.auth.BasicSessionCredentials;
@@ -24,6 +25,8 @@ import com.amazonaws.auth.PropertiesFileCredentialsProvider;
 import com.amazonaws.services.timestreamquery.AmazonTimestreamQuery;
 import com.amazonaws.services.timestreamquery.AmazonTimestreamQueryClientBuilder;
 import com.amazonaws.services.timestreamquery.model.AmazonTimestreamQueryException;
+import com.amazonaws.services.timestreamquery.model.QueryRequest;
+import com.amazonaws.services.timestreamquery.model.QueryResult;
 import com.google.common.collect.ImmutableMap;
 import org.apache.http.HttpStatus;
 import org.apache.http.StatusLine;
@@ -44,9 +47,12 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import javax.sql.StatementEvent;
+import javax.sql.StatementEventListener;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
@@ -56,6 +62,7 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 class TimestreamConnectionTest {
@@ -185,22 +192,21 @@ class TimestreamConnectionTest {
   @Test
   void testSetNetworkTimeout() throws SQLException {
     final int timeoutValue = 5000000;
-    final ArgumentCaptor<ClientConfiguration> argument = ArgumentCaptor
-        .forClass(ClientConfiguration.class);
+    final ArgumentCaptor<QueryRequest> argument = ArgumentCaptor.forClass(QueryRequest.class);
     Mockito
         .when(mockQueryClientBuilder.getClientConfiguration())
         .thenReturn(new ClientConfiguration());
     Mockito
-        .when(mockQueryClientBuilder.withClientConfiguration(argument.capture()))
-        .thenReturn(mockQueryClientBuilder);
-    Mockito.when(mockQueryClientBuilder.build()).thenReturn(mockQueryClient);
+        .when(mockQueryClient.query(argument.capture()))
+        .thenReturn(Mockito.mock(QueryResult.class));
 
     connection.setNetworkTimeout(null, timeoutValue);
     Assertions.assertEquals(timeoutValue, connection.getNetworkTimeout());
 
     final TimestreamStatement statement = connection.createStatement();
     Assertions.assertEquals(connection, statement.getConnection());
-    Assertions.assertEquals(timeoutValue, argument.getValue().getRequestTimeout());
+    statement.executeQuery("SELECT 1");
+    Assertions.assertEquals(timeoutValue, argument.getValue().getSdkRequestTimeout());
   }
 
   @Test
@@ -322,39 +328,279 @@ class TimestreamConnectionTest {
 
   @Test
   void testIsValid() throws SQLException {
-    final ArgumentCaptor<ClientConfiguration> clientConfig = ArgumentCaptor
-        .forClass(ClientConfiguration.class);
+    final ArgumentCaptor<QueryRequest> request = ArgumentCaptor.forClass(QueryRequest.class);
+    Mockito.when(mockQueryClient.query(request.capture())).thenReturn(null);
 
-    final ClientConfiguration clientConfiguration = new ClientConfiguration();
-    Mockito.when(mockQueryClientBuilder.getClientConfiguration()).thenReturn(clientConfiguration);
+    Assertions.assertTrue(connection.isValid(2));
+    Assertions.assertEquals(2000, request.getValue().getSdkClientExecutionTimeout());
+    Mockito.verify(mockQueryClientBuilder, Mockito.never()).build();
+    Assertions.assertEquals(0, connection.getValidationCacheHits());
+    Assertions.assertEquals(1, connection.getValidationCacheMisses());
+  }
 
-    Mockito.when(mockQueryClient.query(Mockito.any())).thenReturn(null);
-    Mockito
-        .when(mockQueryClientBuilder.withClientConfiguration(clientConfig.capture()))
-        .thenReturn(mockQueryClientBuilder);
-    Mockito.when(mockQueryClientBuilder.build()).thenReturn(mockQueryClient);
+  @Test
+  void testIsValidWithException() throws SQLException {
+    final ArgumentCaptor<QueryRequest> request = ArgumentCaptor.forClass(QueryRequest.class);
+    Mockito.when(mockQueryClient.query(request.capture()))
+        .thenThrow(AmazonTimestreamQueryException.class);
+
+    Assertions.assertFalse(connection.isValid(2));
+    Assertions.assertEquals(2000, request.getValue().getSdkClientExecutionTimeout());
+    Mockito.verify(mockQueryClientBuilder, Mockito.never()).build();
+
+    // A failed validation does not prove the connection is alive.
+    Assertions.assertFalse(connection.isValid(2));
+    Assertions.assertEquals(2, connection.getValidationCacheMisses());
+  }
+
+  @Test
+  @DisplayName("Test isValid does not issue a query within the validation cache TTL of a successful request.")
+  void testIsValidWithRecentSuccessfulRequest() throws SQLException {
+    connection.recordSuccessfulRequest();
 
     Assertions.assertTrue(connection.isValid(2));
-    Assertions.assertEquals(2000, clientConfig.getValue().getConnectionTimeout());
+    Assertions.assertTrue(connection.isValid(0));
+    Mockito.verify(mockQueryClient, Mockito.never()).query(Mockito.any());
+    Assertions.assertEquals(2, connection.getValidationCacheHits());
+    Assertions.assertEquals(0, connection.getValidationCacheMisses());
   }
 
   @Test
-  void testIsValidWithException() throws SQLException {
-    final ArgumentCaptor<ClientConfiguration> clientConfig = ArgumentCaptor
-        .forClass(ClientConfiguration.class);
+  @DisplayName("Test a successful validation query is cached for the validation cache TTL.")
+  void testIsValidCachesSuccessfulValidation() throws SQLException {
+    Assertions.assertTrue(connection.isValid(2));
+    Assertions.assertTrue(connection.isValid(2));
 
-    final ClientConfiguration clientConfiguration = new ClientConfiguration();
-    Mockito.when(mockQueryClientBuilder.getClientConfiguration()).thenReturn(clientConfiguration);
-    Mockito.when(mockQueryClient.query(Mockito.any()))
-        .thenThrow(AmazonTimestreamQueryException.class);
+    Mockito.verify(mockQueryClient, Mockito.times(1)).query(Mockito.any());
+    Assertions.assertEquals(1, connection.getValidationCacheHits());
+    Assertions.assertEquals(1, connection.getValidationCacheMisses());
+  }
 
-    Mockito
-        .when(mockQueryClientBuilder.withClientConfiguration(clientConfig.capture()))
-        .thenReturn(mockQueryClientBuilder);
-    Mockito.when(mockQueryClientBuilder.build()).thenReturn(mockQueryClient);
+  @Test
+  @DisplayName("Test isValid always issues a query when the validation cache is disabled.")
+  void testIsValidWithValidationCacheDisabled() throws SQLException {
+    final Properties properties = new Properties();
+    properties.put(TimestreamConnectionProperty.VALIDATION_CACHE_TTL.getConnectionProperty(), "0");
+    connection = new MockTimestreamConnection(properties, mockQueryClient, mockQueryClientBuilder, mockHttpClient);
+    connection.recordSuccessfulRequest();
+
+    Assertions.assertTrue(connection.isValid(2));
+    Assertions.assertTrue(connection.isValid(2));
+
+    Mockito.verify(mockQueryClient, Mockito.times(2)).query(Mockito.any());
+    Assertions.assertEquals(0, connection.getValidationCacheHits());
+    Assertions.assertEquals(2, connection.getValidationCacheMisses());
+  }
+
+  @Test
+  @DisplayName("Test a closed connection is not valid, even after a recent successful request.")
+  void testIsValidOnClosedConnection() throws SQLException {
+    connection.recordSuccessfulRequest();
+    connection.close();
 
     Assertions.assertFalse(connection.isValid(2));
-    Assertions.assertEquals(2000, clientConfig.getValue().getConnectionTimeout());
+    Assertions.assertEquals(0, connection.getValidationCacheHits());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"-1", "abc"})
+  @DisplayName("Test creating a connection with an invalid validation cache TTL.")
+  void testInvalidValidationCacheTtl(final String ttl) {
+    final Properties properties = new Properties();
+    properties.put(TimestreamConnectionProperty.VALIDATION_CACHE_TTL.getConnectionProperty(), ttl);
+
+    Assertions.assertThrows(SQLException.class, () -> new MockTimestreamConnection(
+        properties, mockQueryClient, mockQueryClientBuilder, mockHttpClient));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"ResultCacheTtl=-1", "ResultCacheTtl=abc", "ResultCacheMaxSize=0"})
+  @DisplayName("Test creating a connection with invalid result cache options.")
+  void testInvalidResultCacheOptions(final String option) {
+    final Properties properties = new Properties();
+    properties.put(option.split("=")[0], option.split("=")[1]);
+
+    Assertions.assertThrows(SQLException.class, () -> new MockTimestreamConnection(
+        properties, mockQueryClient, mockQueryClientBuilder, mockHttpClient));
+  }
+
+  @Test
+  @DisplayName("Test a connection without an identity provider does not build the SAML authentication clients.")
+  void testConnectionWithoutIdpDoesNotUseSAMLClients() throws SQLException {
+    final TimestreamConnection basicConnection = new MockTimestreamConnection(
+        new Properties(), mockQueryClient, mockQueryClientBuilder, null);
+    Assertions.assertEquals(0, TimestreamSAMLClients.getReferenceCount());
+    Assertions.assertFalse(TimestreamSAMLClients.isHttpClientBuilt());
+    basicConnection.close();
+  }
+
+  @Test
+  void testResultCacheDisabledByDefault() {
+    Assertions.assertNull(connection.getResultCache());
+    Assertions.assertEquals(0, connection.getResultCacheHits());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "PreparedStatementMetaDataCacheTtl=-1",
+      "PreparedStatementMetaDataCacheTtl=abc",
+      "PreparedStatementMetaDataCacheMaxSize=0"})
+  @DisplayName("Test creating a connection with invalid prepared statement metadata cache options.")
+  void testInvalidMetaDataCacheOptions(final String option) {
+    final Properties properties = new Properties();
+    properties.put(option.split("=")[0], option.split("=")[1]);
+
+    Assertions.assertThrows(SQLException.class, () -> new MockTimestreamConnection(
+        properties, mockQueryClient, mockQueryClientBuilder, mockHttpClient));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "CatalogCacheTtl=-1",
+      "CatalogCacheTtl=abc",
+      "CatalogCacheMaxSize=0"})
+  @DisplayName("Test creating a connection with invalid catalog cache options.")
+  void testInvalidCatalogCacheOptions(final String option) {
+    final Properties properties = new Properties();
+    properties.put(option.split("=")[0], option.split("=")[1]);
+
+    Assertions.assertThrows(SQLException.class, () -> new MockTimestreamConnection(
+        properties, mockQueryClient, mockQueryClientBuilder, mockHttpClient));
+  }
+
+  @Test
+  void testCatalogCacheDisabledByDefault() {
+    Assertions.assertNull(connection.getCatalogCache());
+    Assertions.assertEquals(0, connection.getCatalogCacheHits());
+    connection.invalidateCatalogCache();
+  }
+
+  @Test
+  void testMetaDataCacheDisabledByDefault() {
+    Assertions.assertNull(connection.getMetaDataCache());
+  }
+
+  @Test
+  void testMetaDataCacheEnabled() throws SQLException {
+    final Properties properties = new Properties();
+    properties.put(TimestreamConnectionProperty.PREPARED_STATEMENT_METADATA_CACHE_TTL.getConnectionProperty(), "600000");
+    connection = new MockTimestreamConnection(properties, mockQueryClient, mockQueryClientBuilder, mockHttpClient);
+
+    Assertions.assertNotNull(connection.getMetaDataCache());
+    Assertions.assertEquals(TimeUnit.MINUTES.toNanos(10), connection.getMetaDataCacheTtlNanos());
+  }
+
+  @Test
+  @DisplayName("Test a closed prepared statement is reused through a new statement with the default attributes.")
+  void testPrepareStatementFromCache() throws SQLException {
+    Mockito.when(mockQueryClientBuilder.getClientConfiguration()).thenReturn(new ClientConfiguration());
+    connection.setStatementCacheSize(2);
+
+    final PreparedStatement statement = connection.prepareStatement("SELECT 1");
+    statement.setFetchSize(5);
+    statement.setMaxRows(3);
+    statement.close();
+
+    final PreparedStatement cachedStatement = connection.prepareStatement(
+        "SELECT 1", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    Assertions.assertNotSame(statement, cachedStatement);
+    Assertions.assertTrue(statement.isClosed());
+    Assertions.assertThrows(SQLException.class, statement::executeQuery);
+    Assertions.assertFalse(cachedStatement.isClosed());
+    Assertions.assertTrue(cachedStatement.isPoolable());
+    Assertions.assertEquals(0, cachedStatement.getFetchSize());
+    Assertions.assertEquals(0, cachedStatement.getMaxRows());
+    connection.prepareStatement("SELECT 1");
+    connection.prepareStatement("SELECT 2");
+
+    // Closing the stale statement again does not cache it a second time.
+    statement.close();
+    cachedStatement.setPoolable(false);
+    cachedStatement.close();
+    Assertions.assertEquals(0, connection.getStatementCache().size());
+
+    final TimestreamStatementCache cache = connection.getStatementCache();
+    Assertions.assertEquals(1, cache.getHits());
+    Assertions.assertEquals(3, cache.getMisses());
+  }
+
+  @Test
+  @DisplayName("Test the least recently used statement is evicted from a full statement cache.")
+  void testPrepareStatementEvictsLeastRecentlyUsed() throws SQLException {
+    Mockito.when(mockQueryClientBuilder.getClientConfiguration()).thenReturn(new ClientConfiguration());
+    connection.setStatementCacheSize(1);
+
+    final PreparedStatement first = connection.prepareStatement("SELECT 1");
+    final PreparedStatement second = connection.prepareStatement("SELECT 2");
+    first.close();
+    second.close();
+
+    connection.prepareStatement("SELECT 1");
+    connection.prepareStatement("SELECT 2");
+    final TimestreamStatementCache cache = connection.getStatementCache();
+    Assertions.assertEquals(1, cache.getEvictions());
+    Assertions.assertEquals(1, cache.getHits());
+    Assertions.assertEquals(3, cache.getMisses());
+  }
+
+  @Test
+  @DisplayName("Test statements are not cached when they are not poolable or statement caching is disabled.")
+  void testPrepareStatementNotCached() throws SQLException {
+    Mockito.when(mockQueryClientBuilder.getClientConfiguration()).thenReturn(new ClientConfiguration());
+
+    final PreparedStatement uncachedStatement = connection.prepareStatement("SELECT 1");
+    uncachedStatement.close();
+    Assertions.assertNotSame(uncachedStatement, connection.prepareStatement("SELECT 1"));
+
+    connection.setStatementCacheSize(2);
+    final PreparedStatement statement = connection.prepareStatement("SELECT 1");
+    statement.setPoolable(false);
+    statement.close();
+    connection.prepareStatement("SELECT 1");
+    Assertions.assertEquals(0, connection.getStatementCache().size());
+    Assertions.assertEquals(0, connection.getStatementCache().getHits());
+  }
+
+  @Test
+  @DisplayName("Test statement listeners are notified of the events of the prepared statements.")
+  void testStatementEventListener() throws SQLException {
+    Mockito.when(mockQueryClientBuilder.getClientConfiguration()).thenReturn(new ClientConfiguration());
+    Mockito.when(mockQueryClient.query(Mockito.any())).thenThrow(AmazonTimestreamQueryException.class);
+    connection.setStatementCacheSize(2);
+    final TimestreamPooledConnection pooledConnection = new TimestreamPooledConnection(connection);
+    final StatementEventListener listener = Mockito.mock(StatementEventListener.class);
+    pooledConnection.addStatementEventListener(listener);
+    final ArgumentCaptor<StatementEvent> event = ArgumentCaptor.forClass(StatementEvent.class);
+
+    final PreparedStatement statement = connection.prepareStatement("SELECT 1");
+    Assertions.assertThrows(SQLException.class, statement::executeQuery);
+    Mockito.verify(listener).statementErrorOccurred(event.capture());
+    Assertions.assertSame(statement, event.getValue().getStatement());
+    Assertions.assertSame(pooledConnection, event.getValue().getSource());
+    Assertions.assertNotNull(event.getValue().getSQLException());
+
+    statement.close();
+    Mockito.verify(listener).statementClosed(event.capture());
+    Assertions.assertSame(statement, event.getValue().getStatement());
+    connection.prepareStatement("SELECT 1");
+    Assertions.assertEquals(0, connection.getStatementCache().getHits());
+
+    connection.createStatement().close();
+    pooledConnection.close();
+    connection.prepareStatement("SELECT 2").close();
+    Mockito.verifyNoMoreInteractions(listener);
+  }
+
+  @Test
+  void testCloseClearsStatementCache() throws SQLException {
+    Mockito.when(mockQueryClientBuilder.getClientConfiguration()).thenReturn(new ClientConfiguration());
+    connection.setStatementCacheSize(2);
+    connection.prepareStatement("SELECT 1").close();
+    Assertions.assertEquals(1, connection.getStatementCache().size());
+
+    connection.close();
+
+    Assertions.assertEquals(0, connection.getStatementCache().size());
   }
 
   @Test
@@ -805,6 +1051,121 @@ class TimestreamConnectionTest {
     Assertions.assertEquals(200, timestreamConnection.clientConfiguration.getMaxConnections());
   }
 
+  @Test
+  void testConnectionWithFixedPrefetchDepth() throws SQLException {
+    final Properties properties = new Properties();
+    properties.put(TimestreamConnectionProperty.PREFETCH_MODE.getConnectionProperty(), "fixed");
+    properties.put(TimestreamConnectionProperty.PREFETCH_DEPTH.getConnectionProperty(), "12");
+
+    final MockTimestreamConnection timestreamConnection = new MockTimestreamConnection(
+      properties,
+      mockQueryClient,
+      mockQueryClientBuilder,
+      mockHttpClient);
+
+    Assertions.assertEquals(12, timestreamConnection.createPrefetchBuffer().getDepth());
+  }
+
+  @Test
+  void testConnectionWithVirtualThreads() throws SQLException {
+    final Properties properties = new Properties();
+    properties.put(TimestreamConnectionProperty.USE_VIRTUAL_THREADS.getConnectionProperty(), "true");
+
+    final MockTimestreamConnection timestreamConnection = new MockTimestreamConnection(
+      properties,
+      mockQueryClient,
+      mockQueryClientBuilder,
+      mockHttpClient);
+
+    final TimestreamRetrievalExecutor virtualThreadExecutor =
+      TimestreamRetrievalExecutor.getVirtualThreadExecutor();
+    if (virtualThreadExecutor != null) {
+      Assertions.assertSame(virtualThreadExecutor, timestreamConnection.getRetrievalExecutor());
+      Assertions.assertSame(virtualThreadExecutor, timestreamConnection.getQueryExecutor());
+      Assertions.assertNull(timestreamConnection.getWarnings());
+    } else {
+      final int poolSize =
+        Integer.parseInt(TimestreamConnectionProperty.RETRIEVAL_THREAD_POOL_SIZE.getDefaultValue());
+      Assertions.assertSame(
+        TimestreamRetrievalExecutor.getSharedExecutor(poolSize),
+        timestreamConnection.getRetrievalExecutor());
+      Assertions.assertSame(
+        TimestreamRetrievalExecutor.getSharedQueryExecutor(poolSize),
+        timestreamConnection.getQueryExecutor());
+      Assertions.assertEquals(
+        Warning.lookup(Warning.VIRTUAL_THREADS_NOT_SUPPORTED),
+        timestreamConnection.getWarnings().getMessage());
+    }
+  }
+
+  @Test
+  void testConnectionWithLazyVerification() throws SQLException {
+    final Properties properties = new Properties();
+    properties.put(TimestreamConnectionProperty.ACCESS_KEY_ID.getConnectionProperty(), "key");
+    properties.put(TimestreamConnectionProperty.SECRET_ACCESS_KEY.getConnectionProperty(), "secret");
+    properties.put(TimestreamConnectionProperty.CONNECTION_VERIFICATION.getConnectionProperty(), "lazy");
+
+    // The connection is returned without reaching the Timestream service.
+    final TimestreamConnection lazyConnection = new TimestreamConnection(
+      properties,
+      new ClientConfiguration(),
+      mockHttpClient);
+    Assertions.assertFalse(lazyConnection.isClosed());
+    lazyConnection.close();
+  }
+
+  @Test
+  void testConnectionWithInvalidVerification() {
+    final Properties properties = new Properties();
+    properties.put(TimestreamConnectionProperty.ACCESS_KEY_ID.getConnectionProperty(), "key");
+    properties.put(TimestreamConnectionProperty.SECRET_ACCESS_KEY.getConnectionProperty(), "secret");
+    properties.put(TimestreamConnectionProperty.CONNECTION_VERIFICATION.getConnectionProperty(), "never");
+
+    final SQLException exception = Assertions.assertThrows(
+      SQLException.class,
+      () -> new TimestreamConnection(properties, new ClientConfiguration(), mockHttpClient));
+    Assertions.assertEquals(
+      Error.lookup(Error.INVALID_CONNECTION_VERIFICATION, "never"),
+      exception.getMessage());
+  }
+
+  @Test
+  void testGetConnectionFailureWithLazyVerification() {
+    connection.startVerification(TimestreamConnection.VerificationMode.LAZY);
+    Mockito
+      .when(mockQueryClient.query(Mockito.any()))
+      .thenThrow(new SdkClientException("Unable to execute HTTP request"))
+      .thenReturn(new QueryResult());
+
+    final SQLException failure = connection.getConnectionFailure();
+    Assertions.assertNotNull(failure);
+    Assertions.assertEquals(Constants.CONNECTION_FAILURE_SQL_STATE, failure.getSQLState());
+
+    // A failed verification is retried, and a successful one is not repeated.
+    Assertions.assertNull(connection.getConnectionFailure());
+    Assertions.assertNull(connection.getConnectionFailure());
+    Mockito.verify(mockQueryClient, Mockito.times(2)).query(Mockito.any());
+  }
+
+  @Test
+  void testGetConnectionFailureWithAsyncVerification() {
+    Mockito
+      .when(mockQueryClient.query(Mockito.any()))
+      .thenThrow(new SdkClientException("Unable to execute HTTP request"));
+    connection.startVerification(TimestreamConnection.VerificationMode.ASYNC);
+
+    final SQLException failure = connection.getConnectionFailure();
+    Assertions.assertNotNull(failure);
+    Assertions.assertEquals(Constants.CONNECTION_FAILURE_SQL_STATE, failure.getSQLState());
+    Assertions.assertTrue(failure.getCause() instanceof SdkClientException);
+  }
+
+  @Test
+  void testGetConnectionFailureWithEagerVerification() {
+    Assertions.assertNull(connection.getConnectionFailure());
+    Mockito.verify(mockQueryClient, Mockito.never()).query(Mockito.any());
+  }
+
   /**
    * Create a {@link Properties} instance using the array that contains ordered Idp property
    * values.
@@ -24,6 +24,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import javax.sql.ConnectionEvent;
 import java.sql.SQLException;
 import java.util.Properties;
 
@@ -317,11 +318,11 @@ class TimestreamDataSourceTest {
 
     // Check if the pool is initialized.
     Assertions.assertEquals(1, mockTimestreamDataSource.availablePools.size());
-    Assertions.assertEquals(0, mockTimestreamDataSource.availablePools.get(credentialSet1).size());
+    Assertions.assertEquals(0, mockTimestreamDataSource.availablePools.get(credentialSet1).getIdleCount());
 
     // Close the connection and check if the connection was recycled.
     timestreamPooledConnection1.close();
-    Assertions.assertEquals(1, mockTimestreamDataSource.availablePools.get(credentialSet1).size());
+    Assertions.assertEquals(1, mockTimestreamDataSource.availablePools.get(credentialSet1).getIdleCount());
 
     // Retrieve a connection with the same credential set and make sure its the same one that we have previously received.
     final TimestreamPooledConnection sameTimestreamPooledConnection = (TimestreamPooledConnection) mockTimestreamDataSource
@@ -352,8 +353,8 @@ class TimestreamDataSourceTest {
     timestreamPooledConnection1.close();
     timestreamPooledConnection2.close();
     Assertions.assertEquals(2, mockTimestreamDataSource.availablePools.size());
-    Assertions.assertEquals(1, mockTimestreamDataSource.availablePools.get(credentialSet1).size());
-    Assertions.assertEquals(1, mockTimestreamDataSource.availablePools.get(credentialSet2).size());
+    Assertions.assertEquals(1, mockTimestreamDataSource.availablePools.get(credentialSet1).getIdleCount());
+    Assertions.assertEquals(1, mockTimestreamDataSource.availablePools.get(credentialSet2).getIdleCount());
   }
 
   @Test
@@ -372,7 +373,7 @@ class TimestreamDataSourceTest {
     timestreamPooledConnection.close();
     timestreamPooledConnection.close();
     Assertions.assertEquals(1, mockTimestreamDataSource.availablePools.size());
-    Assertions.assertEquals(1, mockTimestreamDataSource.availablePools.get(credentialSet1).size());
+    Assertions.assertEquals(1, mockTimestreamDataSource.availablePools.get(credentialSet1).getIdleCount());
   }
 
   @Test
@@ -400,7 +401,7 @@ class TimestreamDataSourceTest {
     Mockito.when(mockTimestreamConnection.isClosed()).thenReturn(true);
     timestreamPooledConnection.close();
     // Make sure that it is not recycled.
-    Assertions.assertEquals(0, mockTimestreamDataSource.availablePools.get(credentialSet1).size());
+    Assertions.assertEquals(0, mockTimestreamDataSource.availablePools.get(credentialSet1).getIdleCount());
   }
 
   @Test
@@ -421,6 +422,103 @@ class TimestreamDataSourceTest {
     Assertions.assertEquals(1, mockTimestreamDataSource.availablePools.size());
   }
 
+  @Test
+  @DisplayName("Test a pooled connection on which an error occurred is closed instead of being recycled.")
+  void testPooledConnectionErrorNotRecycled() throws SQLException {
+    final MockTimestreamDataSource mockTimestreamDataSource = new MockTimestreamDataSource(
+      mockTimestreamConnection);
+    setDataSourceCredentials(mockTimestreamDataSource, credentialSet1);
+    final TimestreamPooledConnection timestreamPooledConnection = (TimestreamPooledConnection) mockTimestreamDataSource
+      .getPooledConnection();
+
+    mockTimestreamDataSource.connectionErrorOccurred(new ConnectionEvent(timestreamPooledConnection));
+    timestreamPooledConnection.close();
+
+    final TimestreamConnectionPool pool = mockTimestreamDataSource.availablePools.get(credentialSet1);
+    Assertions.assertEquals(0, pool.getIdleCount());
+    Assertions.assertEquals(0, pool.getTotalCount());
+    Mockito.verify(mockTimestreamConnection).close();
+  }
+
+  @Test
+  @DisplayName("Test a pooled connection on which a request failed with a connection error is closed instead of being recycled.")
+  void testPooledConnectionFatalErrorNotRecycled() throws SQLException {
+    final MockTimestreamDataSource mockTimestreamDataSource = new MockTimestreamDataSource(
+      mockTimestreamConnection);
+    setDataSourceCredentials(mockTimestreamDataSource, credentialSet1);
+    final TimestreamPooledConnection timestreamPooledConnection = (TimestreamPooledConnection) mockTimestreamDataSource
+      .getPooledConnection();
+    final TimestreamConnectionPool pool = mockTimestreamDataSource.availablePools.get(credentialSet1);
+
+    timestreamPooledConnection.fireConnectionErrorOccurred(new SQLException("Query failed", "42000"));
+    Assertions.assertEquals(1, pool.getTotalCount());
+    timestreamPooledConnection.fireConnectionErrorOccurred(
+      new SQLException("Connection failed", Constants.CONNECTION_FAILURE_SQL_STATE));
+    timestreamPooledConnection.close();
+
+    Assertions.assertEquals(0, pool.getIdleCount());
+    Assertions.assertEquals(0, pool.getTotalCount());
+    Mockito.verify(mockTimestreamConnection).close();
+  }
+
+  @Test
+  @DisplayName("Test the pools are bounded and do not validate idle connections by default.")
+  void testPoolDefaults() {
+    final TimestreamDataSource dataSource = new TimestreamDataSource();
+    Assertions.assertEquals(8, dataSource.getMaxPoolSize());
+    Assertions.assertFalse(dataSource.isTestOnBorrow());
+  }
+
+  @Test
+  @DisplayName("Test getting a pooled connection from a full pool times out.")
+  void testPooledConnectionWithMaxPoolSize() throws SQLException {
+    final MockTimestreamDataSource mockTimestreamDataSource = new MockTimestreamDataSource(
+      mockTimestreamConnection);
+    setDataSourceCredentials(mockTimestreamDataSource, credentialSet1);
+    mockTimestreamDataSource.setMaxPoolSize(1);
+    mockTimestreamDataSource.setMaxWait(10);
+
+    final TimestreamPooledConnection timestreamPooledConnection = (TimestreamPooledConnection) mockTimestreamDataSource
+      .getPooledConnection();
+    Assertions.assertThrows(SQLException.class, mockTimestreamDataSource::getPooledConnection);
+
+    timestreamPooledConnection.close();
+    Mockito.when(mockTimestreamConnection.isValid(Mockito.anyInt())).thenReturn(true);
+    Assertions.assertSame(
+      mockTimestreamConnection,
+      mockTimestreamDataSource.getPooledConnection().getConnection());
+  }
+
+  @Test
+  @DisplayName("Test the warm-up opens idle connections in the pool of the data source credentials.")
+  void testWarmUp() throws SQLException {
+    final MockTimestreamDataSource mockTimestreamDataSource = new MockTimestreamDataSource(
+      mockTimestreamConnection);
+    setDataSourceCredentials(mockTimestreamDataSource, credentialSet1);
+    Assertions.assertEquals(0, mockTimestreamDataSource.warmUp());
+    Assertions.assertTrue(mockTimestreamDataSource.availablePools.isEmpty());
+
+    mockTimestreamDataSource.setWarmUpSize(3);
+    mockTimestreamDataSource.setWarmUpParallelism(2);
+    Assertions.assertEquals(3, mockTimestreamDataSource.warmUp());
+    Assertions.assertEquals(3, mockTimestreamDataSource.availablePools.get(credentialSet1).getIdleCount());
+    Mockito.verify(mockTimestreamConnection, Mockito.times(3)).setClientInfo(credentialSet1);
+  }
+
+  @Test
+  void testSetPoolSettingsWithInvalidValue() {
+    Assertions.assertThrows(SQLException.class, () -> timestreamDataSource.setMaxPoolSize(-1));
+    Assertions.assertThrows(SQLException.class, () -> timestreamDataSource.setMinIdle(-1));
+    Assertions.assertThrows(SQLException.class, () -> timestreamDataSource.setMaxIdle(-1));
+    Assertions.assertThrows(SQLException.class, () -> timestreamDataSource.setMaxWait(-1));
+    Assertions.assertThrows(SQLException.class, () -> timestreamDataSource.setIdleTimeout(-1));
+    Assertions.assertThrows(SQLException.class, () -> timestreamDataSource.setMaxLifetime(-1));
+    Assertions.assertThrows(SQLException.class, () -> timestreamDataSource.setValidationTimeout(-1));
+    Assertions.assertThrows(SQLException.class, () -> timestreamDataSource.setWarmUpSize(-1));
+    Assertions.assertThrows(SQLException.class, () -> timestreamDataSource.setWarmUpParallelism(0));
+    Assertions.assertThrows(SQLException.class, () -> timestreamDataSource.setMaxStatements(-1));
+  }
+
   @Test
   void testSetMaxConnectionsWithInvalidValue() {
     Assertions.assertThrows(SQLException.class, () -> timestreamDataSource.setMaxConnections(-1));
@@ -440,6 +538,26 @@ class TimestreamDataSourceTest {
     Assertions.assertThrows(SQLException.class, () -> timestreamDataSource.setMaxRetryCount(-1));
   }
 
+  @Test
+  void testSetRetrievalThreadPoolSizeWithInvalidValue() {
+    Assertions.assertThrows(SQLException.class, () -> timestreamDataSource.setRetrievalThreadPoolSize(0));
+  }
+
+  @Test
+  void testConnectionsShareDataSourceRetrievalExecutor() throws SQLException {
+    final MockTimestreamDataSource mockTimestreamDataSource = new MockTimestreamDataSource(
+      mockTimestreamConnection);
+    mockTimestreamDataSource.setRetrievalThreadPoolSize(4);
+
+    mockTimestreamDataSource.getConnection();
+    mockTimestreamDataSource.getConnection();
+
+    final TimestreamRetrievalExecutor executor = mockTimestreamDataSource.getRetrievalExecutor();
+    Assertions.assertEquals(4, executor.getPoolSize());
+    Assertions.assertNotSame(TimestreamRetrievalExecutor.getSharedExecutor(4), executor);
+    Mockito.verify(mockTimestreamConnection, Mockito.times(2)).setRetrievalExecutor(executor);
+  }
+
   @Test
   void testSetSocketTimeoutWithInvalidValue() {
     Assertions.assertThrows(SQLException.class, () -> timestreamDataSource.setSocketTimeout(-1));
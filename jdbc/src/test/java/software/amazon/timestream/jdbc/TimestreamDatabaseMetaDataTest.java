@@ -34,6 +34,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Unit tests of TimestreamDatabaseMetaData.
@@ -175,6 +178,107 @@ class TimestreamDatabaseMetaDataTest {
     }
   }
 
+  @Test
+  void testGetColumnsWithCatalogCache() throws SQLException {
+    initializeWithResult();
+    Mockito.when(mockConnection.getCatalogCache()).thenReturn(new TimestreamCatalogCache(100));
+    Mockito.when(mockConnection.getResultCacheScope()).thenReturn("scope");
+    Mockito.when(mockConnection.getCatalogCacheTtlNanos()).thenReturn(TimeUnit.MINUTES.toNanos(1));
+
+    for (final String pattern : new String[] {"%test%", "_estTabl_", "%Ta_le"}) {
+      try (ResultSet resultSet = dbMetaData.getColumns(null, "test%", pattern, null)) {
+        Assertions.assertTrue(resultSet.next());
+        Assertions.assertEquals("testTable", resultSet.getString(3));
+        Assertions.assertEquals("ColName", resultSet.getString(4));
+        Assertions.assertTrue(resultSet.next());
+        Assertions.assertFalse(resultSet.next());
+      }
+    }
+
+    try (ResultSet resultSet = dbMetaData.getSchemas(null, "emptyDB")) {
+      Assertions.assertFalse(resultSet.next());
+    }
+
+    Mockito.verify(mockStatement).executeQuery("SHOW DATABASES");
+    Mockito.verify(mockStatement).executeQuery("SHOW TABLES FROM \"testDB\"");
+    Mockito.verify(mockStatement).executeQuery("DESCRIBE \"testDB\".\"testTable\"");
+    Mockito.verify(mockStatement, Mockito.never()).executeQuery(Mockito.contains("LIKE"));
+  }
+
+  @Test
+  void testGetColumnsDescribesTablesInParallel() throws SQLException {
+    initializeWithResult();
+    final CyclicBarrier barrier = new CyclicBarrier(2);
+    Mockito.when(mockConnection.createStatement()).thenAnswer(invocation -> {
+      // Statements are synchronized, so each table must be described with its own statement.
+      final TimestreamStatement statement = Mockito.mock(TimestreamStatement.class);
+      Mockito.when(statement.executeQuery(Mockito.anyString())).thenAnswer(query -> {
+        final String sql = query.getArgument(0);
+        if (!sql.startsWith("DESCRIBE")) {
+          return mockStatement.executeQuery(sql);
+        }
+
+        // Both tables must be described at the same time to pass the barrier.
+        barrier.await(10, TimeUnit.SECONDS);
+        final String table = sql.substring(sql.lastIndexOf('.') + 2, sql.length() - 1);
+        final ResultSet columnsResultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(columnsResultSet.next()).thenReturn(true).thenReturn(false);
+        Mockito.when(columnsResultSet.getString(Mockito.anyInt())).thenReturn(table + "Col");
+        return columnsResultSet;
+      });
+      return statement;
+    });
+
+    try (ResultSet resultSet = dbMetaData.getColumns(null, null, null, null)) {
+      Assertions.assertTrue(resultSet.next());
+      Assertions.assertEquals("testTable", resultSet.getString(3));
+      Assertions.assertEquals("testTableCol", resultSet.getString(4));
+      Assertions.assertTrue(resultSet.next());
+      Assertions.assertEquals("secondTable", resultSet.getString(3));
+      Assertions.assertEquals("secondTableCol", resultSet.getString(4));
+      Assertions.assertFalse(resultSet.next());
+    }
+  }
+
+  @Test
+  void testCloseGetColumnsCancelsRunningDescribe() throws Exception {
+    initializeWithResult();
+    final CountDownLatch describeStarted = new CountDownLatch(1);
+    final CountDownLatch describeCanceled = new CountDownLatch(1);
+    Mockito.when(mockConnection.createStatement()).thenAnswer(invocation -> {
+      final TimestreamStatement statement = Mockito.mock(TimestreamStatement.class);
+      Mockito.doAnswer(cancel -> {
+        describeCanceled.countDown();
+        return null;
+      }).when(statement).cancel();
+      Mockito.when(statement.executeQuery(Mockito.anyString())).thenAnswer(query -> {
+        final String sql = query.getArgument(0);
+        if (!sql.startsWith("DESCRIBE")) {
+          return mockStatement.executeQuery(sql);
+        }
+
+        if (sql.contains("secondTable")) {
+          // The second table is described until the description is canceled.
+          describeStarted.countDown();
+          describeCanceled.await(10, TimeUnit.SECONDS);
+          throw new SQLException("The query has been canceled.");
+        }
+        final ResultSet columnsResultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(columnsResultSet.next()).thenReturn(true).thenReturn(false);
+        Mockito.when(columnsResultSet.getString(Mockito.anyInt())).thenReturn("testTableCol");
+        return columnsResultSet;
+      });
+      return statement;
+    });
+
+    final ResultSet resultSet = dbMetaData.getColumns(null, null, null, null);
+    Assertions.assertTrue(resultSet.next());
+    Assertions.assertTrue(describeStarted.await(10, TimeUnit.SECONDS));
+
+    resultSet.close();
+    Assertions.assertTrue(describeCanceled.await(10, TimeUnit.SECONDS));
+  }
+
   @Test
   void testGetColumnsResultMetadata() throws SQLException {
     initializeWithResult();
@@ -421,7 +525,7 @@ class TimestreamDatabaseMetaDataTest {
     Mockito.when(mockStatement.executeQuery("DESCRIBE \"testDB\".\"testTable\""))
       .thenReturn(columnsResultSet);
     Mockito.when(mockStatement.executeQuery("DESCRIBE \"testDB\".\"secondTable\""))
-      .thenReturn(columnsResultSet);
+      .thenReturn(emptyResultSet);
   }
 
   /**
@@ -0,0 +1,175 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.TimeZone;
+
+class TimestreamDateTimeParserTest {
+  private static final String[] TIME_ZONES = {
+    "UTC", "Europe/Paris", "America/Sao_Paulo", "America/New_York", "Asia/Kolkata", "GMT+05:30"};
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "2020-01-01 00:00:00", "2020-01-01 00:00:00.000000000", "2021-12-31 23:59:59.999999999",
+    "2020-02-29 12:34:56.1", "2020-06-15 08:09:10.12345", "1969-12-31 23:59:59.5",
+    "0001-01-01 00:00:00", "9999-12-31 23:59:59.123456789", "2020-03-29 02:30:00"})
+  @DisplayName("Test parsing canonical timestamps returns the same values as the formatter.")
+  void testParseCanonicalDateTime(final String value) {
+    Assertions.assertEquals(
+      LocalDateTime.parse(value, Constants.DATE_TIME_FORMATTER),
+      TimestreamDateTimeParser.parseDateTime(value));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "2019-02-29 00:00:00", "2020-04-31 00:00:00", "2020-01-01 24:00:00", "2020-01-01 00:00:00.",
+    "2020-01-01 00:00:00.1234567890", "0000-01-01 00:00:00", "2020-1-01 00:00:00",
+    "2020-01-01T00:00:00", "2020-01-01 00:00:60", "20200-01-01 00:00:00", "2020-01-01 00:00:00 ",
+    "2020-01-01", "", "abcd-ef-gh ij:kl:mn"})
+  @DisplayName("Test parsing non-canonical timestamps falls back to the formatter.")
+  void testParseNonCanonicalDateTime(final String value) {
+    assertSameResult(
+      () -> LocalDateTime.parse(value, Constants.DATE_TIME_FORMATTER),
+      () -> TimestreamDateTimeParser.parseDateTime(value));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "2020-01-01", "2020-02-29", "1582-10-10", "1500-06-01", "0001-01-01", "2019-02-29",
+    "2020-13-01", "2020-1-5", "0000-01-01", "2020/01/01", "20-01-01", ""})
+  @DisplayName("Test parsing dates returns the same values as Date#valueOf.")
+  void testParseDate(final String value) {
+    assertSameResult(
+      () -> Date.valueOf(value).toLocalDate(),
+      () -> TimestreamDateTimeParser.parseDate(value));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "00:00:00", "23:59:59", "12:34:56.789", "12:34:56.123456789", "24:00:00", "12:34",
+    "12:34:56.", "12:34:60", "1:02:03", ""})
+  @DisplayName("Test parsing times returns the same values as LocalTime#parse.")
+  void testParseTime(final String value) {
+    assertSameResult(
+      () -> LocalTime.parse(value),
+      () -> TimestreamDateTimeParser.parseTime(value));
+  }
+
+  @Test
+  @DisplayName("Test parsing a null timestamp throws the same exception as the formatter.")
+  void testParseNullDateTime() {
+    Assertions.assertThrows(NullPointerException.class, () -> TimestreamDateTimeParser.parseDateTime(null));
+    Assertions.assertThrows(DateTimeParseException.class, () -> TimestreamDateTimeParser.parseTime("null"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "2020-01-01 00:00:00.123456789", "2020-03-29 02:30:00", "2020-10-25 02:30:00.5",
+    "2018-11-04 00:00:00", "2020-03-08 02:15:00", "2020-11-01 01:30:00", "1900-01-01 00:00:00",
+    "1969-12-31 23:59:59.999999999"})
+  @DisplayName("Test converting date-times matches the conversion through ZonedDateTime.")
+  void testToTimestamp(final String value) {
+    final LocalDateTime dateTime = LocalDateTime.parse(value, Constants.DATE_TIME_FORMATTER);
+    for (final String id : TIME_ZONES) {
+      final TimeZone timeZone = TimeZone.getTimeZone(id);
+      final Instant instant = dateTime.atZone(timeZone.toZoneId()).toInstant();
+      final Timestamp expected = new Timestamp(instant.toEpochMilli());
+      expected.setNanos(instant.getNano());
+
+      Assertions.assertEquals(expected, TimestreamDateTimeParser.toTimestamp(dateTime, timeZone), id);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"2020-01-01", "2018-11-04", "2020-03-29", "1582-10-15", "1900-01-01"})
+  @DisplayName("Test converting dates matches the conversion through ZonedDateTime.")
+  void testToDate(final String value) {
+    final LocalDate date = LocalDate.parse(value);
+    for (final String id : TIME_ZONES) {
+      final TimeZone timeZone = TimeZone.getTimeZone(id);
+      final Date expected = new Date(date.atStartOfDay(timeZone.toZoneId()).toInstant().toEpochMilli());
+
+      Assertions.assertEquals(expected, TimestreamDateTimeParser.toDate(date, timeZone), id);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"00:00:00", "12:34:56.789", "23:59:59.999999999"})
+  @DisplayName("Test converting times matches the conversion through ZonedDateTime.")
+  void testToTime(final String value) {
+    final LocalTime time = Time.valueOf(LocalTime.parse(value)).toLocalTime();
+    for (final String id : TIME_ZONES) {
+      final TimeZone timeZone = TimeZone.getTimeZone(id);
+      final Time expected = new Time(time
+        .atDate(LocalDate.of(1970, 1, 1))
+        .atZone(timeZone.toZoneId())
+        .toInstant()
+        .toEpochMilli());
+
+      Assertions.assertEquals(expected, TimestreamDateTimeParser.toTime(LocalTime.parse(value), timeZone), id);
+    }
+  }
+
+  @Test
+  @DisplayName("Test the zone rules are resolved once per time zone ID.")
+  void testZoneRulesCache() {
+    final TimeZone timeZone = TimeZone.getTimeZone("Europe/Paris");
+    Assertions.assertSame(
+      TimestreamDateTimeParser.getZoneRules(timeZone),
+      TimestreamDateTimeParser.getZoneRules((TimeZone) timeZone.clone()));
+    Assertions.assertEquals(timeZone.toZoneId().getRules(), TimestreamDateTimeParser.getZoneRules(timeZone));
+  }
+
+  /**
+   * Asserts that the parser returns the same value, or throws the same type of exception, as the
+   * reference parser.
+   *
+   * @param reference the reference parser.
+   * @param parser    the parser under test.
+   */
+  private static void assertSameResult(final Parser reference, final Parser parser) {
+    final Object expected;
+    try {
+      expected = reference.parse();
+    } catch (final RuntimeException e) {
+      Assertions.assertThrows(e.getClass(), parser::parse);
+      return;
+    }
+    Assertions.assertEquals(expected, parser.parse());
+  }
+
+  /**
+   * A parsing function.
+   */
+  @FunctionalInterface
+  private interface Parser {
+    Object parse();
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.services.timestreamquery.model.Datum;
+import com.amazonaws.services.timestreamquery.model.QueryResult;
+import com.amazonaws.services.timestreamquery.model.Row;
+import com.amazonaws.services.timestreamquery.model.TimeSeriesDataPoint;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TimestreamMemoryBudgetTest {
+  @Test
+  void testNestedBudgets() {
+    final TimestreamMemoryBudget global = new TimestreamMemoryBudget(100, null);
+    final TimestreamMemoryBudget first = new TimestreamMemoryBudget(60, global);
+    final TimestreamMemoryBudget second = new TimestreamMemoryBudget(60, global);
+
+    first.reserve(50);
+    Assertions.assertTrue(first.hasCapacity());
+    second.reserve(50);
+
+    // The global budget is exhausted even though each connection is below its own limit.
+    Assertions.assertEquals(100, global.getUsedBytes());
+    Assertions.assertFalse(first.hasCapacity());
+    Assertions.assertFalse(second.hasCapacity());
+
+    second.release(50);
+    Assertions.assertTrue(first.hasCapacity());
+    Assertions.assertEquals(50, global.getUsedBytes());
+  }
+
+  @Test
+  void testUnlimitedBudget() {
+    final TimestreamMemoryBudget budget = new TimestreamMemoryBudget(0, null);
+    budget.reserve(Long.MAX_VALUE / 2);
+    Assertions.assertTrue(budget.hasCapacity());
+  }
+
+  @Test
+  void testWaitersResumeOnRelease() {
+    final TimestreamMemoryBudget global = new TimestreamMemoryBudget(10, null);
+    final TimestreamMemoryBudget first = new TimestreamMemoryBudget(0, global);
+    final TimestreamMemoryBudget second = new TimestreamMemoryBudget(0, global);
+    final AtomicInteger resumed = new AtomicInteger();
+    final Runnable waiter = resumed::incrementAndGet;
+
+    second.reserve(10);
+    first.awaitCapacity(waiter);
+
+    // Memory released by another connection resumes the waiter exactly once.
+    second.release(10);
+    second.release(0);
+    Assertions.assertEquals(1, resumed.get());
+
+    first.awaitCapacity(waiter);
+    first.removeWaiter(waiter);
+    second.reserve(10);
+    second.release(10);
+    Assertions.assertEquals(1, resumed.get());
+  }
+
+  @Test
+  void testGlobalBudgetIsSharedForSameLimit() {
+    Assertions.assertSame(
+      TimestreamMemoryBudget.getGlobalBudget(1024),
+      TimestreamMemoryBudget.getGlobalBudget(1024));
+    Assertions.assertNotSame(
+      TimestreamMemoryBudget.getGlobalBudget(1024),
+      TimestreamMemoryBudget.getGlobalBudget(2048));
+  }
+
+  @Test
+  void testEstimateSizeGrowsWithContents() {
+    final QueryResult narrow = new QueryResult()
+      .withRows(new Row().withData(new Datum().withScalarValue("1")));
+
+    final Datum[] points = new Datum[100];
+    for (int i = 0; i < points.length; i++) {
+      points[i] = new Datum().withScalarValue(String.valueOf(i));
+    }
+    final QueryResult wide = new QueryResult()
+      .withRows(new Row().withData(
+        new Datum().withArrayValue(points),
+        new Datum().withTimeSeriesValue(new TimeSeriesDataPoint()
+          .withTime("2020-01-01 00:00:00.000000000")
+          .withValue(new Datum().withRowValue(new Row().withData(points))))));
+
+    final long emptySize = TimestreamMemoryBudget.estimateSize(new QueryResult());
+    final long narrowSize = TimestreamMemoryBudget.estimateSize(narrow);
+    final long wideSize = TimestreamMemoryBudget.estimateSize(wide);
+    Assertions.assertTrue(emptySize < narrowSize);
+    Assertions.assertTrue(narrowSize * 50 < wideSize);
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+class TimestreamPrefetchBufferTest {
+  @Test
+  void testFixedDepth() throws InterruptedException {
+    final TimestreamPrefetchBuffer<Integer> buffer = new TimestreamPrefetchBuffer<>(
+      TimestreamPrefetchBuffer.PrefetchMode.FIXED, 2, 8);
+
+    Assertions.assertTrue(buffer.offer(1));
+    Assertions.assertTrue(buffer.offer(2, 10, TimeUnit.MILLISECONDS));
+    Assertions.assertFalse(buffer.offer(3, 10, TimeUnit.MILLISECONDS));
+    Assertions.assertFalse(buffer.offer(3));
+
+    // Slow retrievals must not change the depth in fixed mode.
+    buffer.recordRetrievalTime(TimeUnit.SECONDS.toNanos(10));
+    Assertions.assertEquals(1, buffer.take().intValue());
+    Assertions.assertTrue(buffer.offer(3));
+    Assertions.assertEquals(2, buffer.take().intValue());
+    Assertions.assertEquals(2, buffer.getDepth());
+  }
+
+  @Test
+  void testAdaptiveDepthGrowsWithSlowRetrieval() throws InterruptedException {
+    final TimestreamPrefetchBuffer<Integer> buffer = new TimestreamPrefetchBuffer<>(
+      TimestreamPrefetchBuffer.PrefetchMode.ADAPTIVE, 2, 8);
+
+    buffer.recordRetrievalTime(TimeUnit.SECONDS.toNanos(10));
+    for (int i = 0; i < 3; i++) {
+      Assertions.assertTrue(buffer.offer(i));
+      buffer.take();
+    }
+
+    // Pages take far longer to retrieve than to drain, so the depth reaches the maximum.
+    Assertions.assertEquals(8, buffer.getDepth());
+    for (int i = 0; i < 8; i++) {
+      Assertions.assertTrue(buffer.offer(i));
+    }
+    Assertions.assertFalse(buffer.offer(8));
+  }
+
+  @Test
+  void testAdaptiveDepthDoesNotShrinkBelowMinimum() throws InterruptedException {
+    final TimestreamPrefetchBuffer<Integer> buffer = new TimestreamPrefetchBuffer<>(
+      TimestreamPrefetchBuffer.PrefetchMode.ADAPTIVE, 3, 8);
+
+    buffer.recordRetrievalTime(1);
+    for (int i = 0; i < 3; i++) {
+      Assertions.assertTrue(buffer.offer(i));
+      Thread.sleep(10);
+      buffer.take();
+    }
+
+    Assertions.assertEquals(3, buffer.getDepth());
+  }
+
+  @Test
+  void testClear() throws InterruptedException {
+    final TimestreamPrefetchBuffer<Integer> buffer = new TimestreamPrefetchBuffer<>(
+      TimestreamPrefetchBuffer.PrefetchMode.FIXED, 1, 1);
+
+    Assertions.assertTrue(buffer.offer(1));
+    buffer.clear();
+    Assertions.assertEquals(0, buffer.size());
+    Assertions.assertTrue(buffer.offer(2, 10, TimeUnit.MILLISECONDS));
+    Assertions.assertEquals(2, buffer.take().intValue());
+  }
+}
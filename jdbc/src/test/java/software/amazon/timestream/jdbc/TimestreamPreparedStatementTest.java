@@ -15,9 +15,7 @@
 
 package software.amazon.timestream.jdbc;
 
-import com.amazonaws.ClientConfiguration;
 import com.amazonaws.services.timestreamquery.AmazonTimestreamQuery;
-import com.amazonaws.services.timestreamquery.AmazonTimestreamQueryClientBuilder;
 import com.amazonaws.services.timestreamquery.model.AmazonTimestreamQueryException;
 import com.amazonaws.services.timestreamquery.model.ColumnInfo;
 import com.amazonaws.services.timestreamquery.model.QueryResult;
@@ -25,6 +23,7 @@ import com.amazonaws.services.timestreamquery.model.Type;
 import com.google.common.collect.ImmutableList;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -33,6 +32,7 @@ import org.mockito.MockitoAnnotations;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
 
 class TimestreamPreparedStatementTest {
   private static final String INVALID_QUERY = "SELECT FROM sampleDB.IoT";
@@ -44,19 +44,12 @@ class TimestreamPreparedStatementTest {
   @Mock
   private AmazonTimestreamQuery mockQueryClient;
   @Mock
-  private AmazonTimestreamQueryClientBuilder mockClientBuilder;
-  @Mock
   private QueryResult mockResult;
 
   @BeforeEach
   void init() throws SQLException {
     MockitoAnnotations.initMocks(this);
-    Mockito.when(mockConnection.getQueryClientBuilder()).thenReturn(mockClientBuilder);
-    Mockito.when(mockClientBuilder.getClientConfiguration()).thenReturn(new ClientConfiguration());
-    Mockito.when(mockClientBuilder.withClientConfiguration(Mockito.any()))
-        .thenReturn(mockClientBuilder);
-    Mockito.when(mockClientBuilder.withClientConfiguration(Mockito.any()).build())
-        .thenReturn(mockQueryClient);
+    Mockito.when(mockConnection.getQueryClient()).thenReturn(mockQueryClient);
     statement = new TimestreamPreparedStatement(mockConnection, VALID_QUERY);
   }
 
@@ -128,6 +121,57 @@ class TimestreamPreparedStatementTest {
     Assertions.assertEquals("Double", rsMetaData.getColumnLabel(1));
   }
 
+  @Test
+  @DisplayName("Test the metadata of the statement is retained when the statement is reused.")
+  void testGetMetaDataRetainedAcrossReuses() throws SQLException {
+    final ImmutableList<ColumnInfo> columnInfos = ImmutableList
+        .of(new ColumnInfo().withName("Double").withType(new Type().withScalarType("Double")));
+    Mockito.when(mockConnection.isMetadataPreparedStatementEnabled()).thenReturn(true);
+    Mockito.when(mockQueryClient.query(Mockito.any())).thenReturn(mockResult);
+    Mockito.when(mockResult.getColumnInfo()).thenReturn(columnInfos);
+
+    final ResultSetMetaData rsMetaData = statement.getMetaData();
+    statement.close();
+    final TimestreamPreparedStatement reusedStatement = new TimestreamPreparedStatement(statement);
+
+    Assertions.assertSame(rsMetaData, reusedStatement.getMetaData());
+    Assertions.assertTrue(statement.isClosed());
+    Mockito.verify(mockQueryClient, Mockito.times(1)).query(Mockito.any());
+  }
+
+  @Test
+  @DisplayName("Test the metadata learned by a prepared statement is shared with the other statements of the query.")
+  void testGetMetaDataFromCache() throws SQLException {
+    final TimestreamResultMetaDataCache cache = new TimestreamResultMetaDataCache(10);
+    Mockito.when(mockConnection.getMetaDataCache()).thenReturn(cache);
+    Mockito.when(mockConnection.getMetaDataCacheTtlNanos()).thenReturn(TimeUnit.MINUTES.toNanos(1));
+    Mockito.when(mockConnection.isMetadataPreparedStatementEnabled()).thenReturn(true);
+    Mockito.when(mockQueryClient.query(Mockito.any())).thenReturn(mockResult);
+    Mockito.when(mockResult.getColumnInfo()).thenReturn(ImmutableList
+        .of(new ColumnInfo().withName("Double").withType(new Type().withScalarType("DOUBLE"))));
+
+    // The metadata of an execution is reused without a LIMIT 0 query.
+    statement.executeQuery().close();
+    final ResultSetMetaData rsMetaData = new TimestreamPreparedStatement(mockConnection, VALID_QUERY).getMetaData();
+    Assertions.assertEquals("Double", rsMetaData.getColumnName(1));
+    Mockito.verify(mockQueryClient, Mockito.times(1)).query(Mockito.any());
+    Assertions.assertEquals(1, cache.getHits());
+
+    // A failed execution invalidates the metadata, so it is retrieved again with a LIMIT 0 query.
+    Mockito.when(mockQueryClient.query(Mockito.any())).thenThrow(AmazonTimestreamQueryException.class);
+    Assertions.assertThrows(SQLException.class, () -> statement.executeQuery());
+    Assertions.assertEquals(0, cache.size());
+    Assertions.assertEquals(1, cache.getInvalidations());
+
+    Mockito.doReturn(mockResult).when(mockQueryClient).query(Mockito.any());
+    Mockito.when(mockResult.getColumnInfo()).thenReturn(ImmutableList
+        .of(new ColumnInfo().withName("Varchar").withType(new Type().withScalarType("VARCHAR"))));
+    Assertions.assertEquals(
+        "Varchar",
+        new TimestreamPreparedStatement(mockConnection, VALID_QUERY).getMetaData().getColumnName(1));
+    Assertions.assertEquals(1, cache.size());
+  }
+
   @Test
   void testGetMetaDataWithValidQueryNotEnabledPreparedStatement() throws SQLException {
     Mockito.when(mockConnection.getQueryClient()).thenReturn(mockQueryClient);
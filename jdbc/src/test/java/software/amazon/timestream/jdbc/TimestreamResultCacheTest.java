@@ -0,0 +1,158 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.services.timestreamquery.model.Datum;
+import com.amazonaws.services.timestreamquery.model.QueryResult;
+import com.amazonaws.services.timestreamquery.model.Row;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+class TimestreamResultCacheTest {
+  private static final long TTL = TimeUnit.MINUTES.toNanos(1);
+
+  @Test
+  @DisplayName("Test queries only differing by whitespace outside of quotes and trailing semicolons are identical.")
+  void testNormalize() {
+    Assertions.assertEquals(
+      "SELECT * FROM \"db\".\"my  table\" WHERE a = 'x  y'",
+      TimestreamResultCache.normalize("  SELECT *\n\tFROM \"db\".\"my  table\"  WHERE a = 'x  y' ;; "));
+    Assertions.assertEquals(createKey("SELECT 1", 0), createKey("SELECT  1;", 0));
+    Assertions.assertNotEquals(createKey("SELECT 1", 0), createKey("SELECT 1", 10));
+    Assertions.assertNotEquals(createKey("SELECT 'a  b'", 0), createKey("SELECT 'a b'", 0));
+    Assertions.assertNotEquals(
+      createKey("SELECT 1", 0),
+      new TimestreamResultCache.Key("other", "SELECT 1", 0, 0, 0, 0));
+    Assertions.assertNotEquals(
+      createKey("SELECT 1", 0),
+      new TimestreamResultCache.Key("scope", "SELECT 1", 0, 1000, 0, 0));
+  }
+
+  @Test
+  @DisplayName("Test the text following a line comment on the next line is not merged into the comment.")
+  void testNormalizeLineComment() {
+    Assertions.assertEquals(
+      "SELECT * FROM t -- note\nWHERE x = 1",
+      TimestreamResultCache.normalize("SELECT *  FROM t -- note\n   WHERE x = 1;"));
+    Assertions.assertNotEquals(
+      createKey("SELECT * FROM t -- note\nWHERE x = 1", 0),
+      createKey("SELECT * FROM t -- note WHERE x = 1", 0));
+    Assertions.assertEquals(
+      createKey("SELECT * FROM t -- note\nWHERE x = 1", 0),
+      createKey("SELECT * FROM t -- note\n  WHERE  x = 1", 0));
+  }
+
+  @Test
+  @DisplayName("Test block comments are kept as they are.")
+  void testNormalizeBlockComment() {
+    Assertions.assertEquals(
+      "SELECT /* a  b;\n c */ 1 FROM t",
+      TimestreamResultCache.normalize("SELECT  /* a  b;\n c */\n1 FROM t"));
+    Assertions.assertNotEquals(
+      createKey("SELECT 1 /* -- */ FROM t", 0),
+      createKey("SELECT 1 /*  -- */ FROM t", 0));
+    Assertions.assertEquals("SELECT 1 /*/ x;", TimestreamResultCache.normalize("SELECT 1 /*/ x;"));
+  }
+
+  @Test
+  @DisplayName("Test a result is replayed until it expires.")
+  void testGetExpired() {
+    final TimestreamResultCache cache = new TimestreamResultCache(1024 * 1024);
+    final List<QueryResult> pages = Collections.singletonList(createPage(1));
+
+    cache.put(createKey("SELECT 1", 0), pages, 100, TTL);
+    cache.put(createKey("SELECT 2", 0), pages, 100, 0);
+
+    Assertions.assertEquals(pages, cache.get(createKey("SELECT 1", 0)));
+    Assertions.assertNull(cache.get(createKey("SELECT 2", 0)));
+    Assertions.assertEquals(1, cache.getHits());
+    Assertions.assertEquals(1, cache.getMisses());
+    Assertions.assertEquals(1, cache.size());
+    Assertions.assertEquals(100, cache.getUsedBytes());
+  }
+
+  @Test
+  @DisplayName("Test the least recently used results are evicted once the cache exceeds its maximum size.")
+  void testPutEvictsLeastRecentlyUsed() {
+    final TimestreamResultCache cache = new TimestreamResultCache(250);
+    final List<QueryResult> pages = Collections.singletonList(createPage(1));
+
+    cache.put(createKey("SELECT 1", 0), pages, 100, TTL);
+    cache.put(createKey("SELECT 2", 0), pages, 100, TTL);
+    Assertions.assertNotNull(cache.get(createKey("SELECT 1", 0)));
+    cache.put(createKey("SELECT 3", 0), pages, 100, TTL);
+
+    Assertions.assertNull(cache.get(createKey("SELECT 2", 0)));
+    Assertions.assertNotNull(cache.get(createKey("SELECT 1", 0)));
+    Assertions.assertNotNull(cache.get(createKey("SELECT 3", 0)));
+    Assertions.assertEquals(1, cache.getEvictions());
+    Assertions.assertEquals(200, cache.getUsedBytes());
+
+    cache.put(createKey("SELECT 4", 0), pages, 300, TTL);
+    Assertions.assertNull(cache.get(createKey("SELECT 4", 0)));
+    Assertions.assertEquals(2, cache.size());
+  }
+
+  @Test
+  @DisplayName("Test a recorder caches the pages once complete, unless they exceed the maximum size.")
+  void testRecorder() {
+    final QueryResult page = createPage(1);
+    final long pageSize = TimestreamMemoryBudget.estimateSize(page);
+    final TimestreamResultCache cache = new TimestreamResultCache(pageSize * 2);
+
+    final TimestreamResultCache.Recorder recorder = cache.record(createKey("SELECT 1", 0), TTL);
+    recorder.add(page);
+    recorder.add(page);
+    Assertions.assertEquals(0, cache.size());
+    recorder.complete();
+    Assertions.assertEquals(2, cache.get(createKey("SELECT 1", 0)).size());
+    Assertions.assertEquals(pageSize * 2, cache.getUsedBytes());
+
+    final TimestreamResultCache.Recorder largeRecorder = cache.record(createKey("SELECT 2", 0), TTL);
+    largeRecorder.add(page);
+    largeRecorder.add(page);
+    largeRecorder.add(page);
+    largeRecorder.complete();
+    Assertions.assertNull(cache.get(createKey("SELECT 2", 0)));
+    Assertions.assertEquals(1, cache.size());
+  }
+
+  /**
+   * Creates a key for a query of the same connection.
+   *
+   * @param sql       the query.
+   * @param fetchSize the number of rows per page.
+   * @return the {@link TimestreamResultCache.Key}.
+   */
+  private static TimestreamResultCache.Key createKey(final String sql, final int fetchSize) {
+    return new TimestreamResultCache.Key("scope", sql, fetchSize, 0, 0, 0);
+  }
+
+  /**
+   * Creates a page with a single row.
+   *
+   * @param value the value of the row.
+   * @return the {@link QueryResult}.
+   */
+  private static QueryResult createPage(final int value) {
+    return new QueryResult().withRows(new Row().withData(new Datum().withScalarValue(String.valueOf(value))));
+  }
+}
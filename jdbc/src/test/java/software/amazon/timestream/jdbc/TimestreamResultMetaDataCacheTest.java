@@ -0,0 +1,102 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.services.timestreamquery.model.Type;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+class TimestreamResultMetaDataCacheTest {
+  private static final long TTL = TimeUnit.MINUTES.toNanos(1);
+
+  @Test
+  @DisplayName("Test metadata is shared by queries only differing by their formatting until it expires.")
+  void testGetExpired() {
+    final TimestreamResultMetaDataCache cache = new TimestreamResultMetaDataCache(10);
+    final TimestreamResultSetMetaData metaData = createMetaData("INTEGER");
+
+    cache.put("scope", "SELECT 1", metaData, TTL);
+    cache.put("scope", "SELECT 2", metaData, 0);
+
+    Assertions.assertSame(metaData, cache.get("scope", "  SELECT 1;"));
+    Assertions.assertNull(cache.get("other", "SELECT 1"));
+    Assertions.assertNull(cache.get("scope", "SELECT 2"));
+    Assertions.assertEquals(1, cache.getHits());
+    Assertions.assertEquals(2, cache.getMisses());
+    Assertions.assertEquals(1, cache.size());
+  }
+
+  @Test
+  @DisplayName("Test a query whose line comment ends before a clause does not share the metadata of the commented clause.")
+  void testGetWithLineComment() {
+    final TimestreamResultMetaDataCache cache = new TimestreamResultMetaDataCache(10);
+    final TimestreamResultSetMetaData metaData = createMetaData("INTEGER");
+
+    cache.put("scope", "SELECT * FROM t -- note WHERE x = 1", metaData, TTL);
+
+    Assertions.assertNull(cache.get("scope", "SELECT * FROM t -- note\nWHERE x = 1"));
+    Assertions.assertSame(metaData, cache.get("scope", "SELECT *  FROM t -- note WHERE x = 1"));
+  }
+
+  @Test
+  @DisplayName("Test the least recently used metadata is evicted once the cache is full.")
+  void testPutEvictsLeastRecentlyUsed() {
+    final TimestreamResultMetaDataCache cache = new TimestreamResultMetaDataCache(2);
+    final TimestreamResultSetMetaData metaData = createMetaData("INTEGER");
+
+    cache.put("scope", "SELECT 1", metaData, TTL);
+    cache.put("scope", "SELECT 2", metaData, TTL);
+    Assertions.assertNotNull(cache.get("scope", "SELECT 1"));
+    cache.put("scope", "SELECT 3", metaData, TTL);
+
+    Assertions.assertNull(cache.get("scope", "SELECT 2"));
+    Assertions.assertNotNull(cache.get("scope", "SELECT 1"));
+    Assertions.assertNotNull(cache.get("scope", "SELECT 3"));
+  }
+
+  @Test
+  @DisplayName("Test metadata replaced by different columns or invalidated is counted as an invalidation.")
+  void testInvalidations() {
+    final TimestreamResultMetaDataCache cache = new TimestreamResultMetaDataCache(10);
+
+    cache.put("scope", "SELECT 1", createMetaData("INTEGER"), TTL);
+    cache.put("scope", "SELECT 1", createMetaData("INTEGER"), TTL);
+    Assertions.assertEquals(0, cache.getInvalidations());
+
+    cache.put("scope", "SELECT 1", createMetaData("BIGINT"), TTL);
+    Assertions.assertEquals(1, cache.getInvalidations());
+
+    cache.invalidate("scope", "SELECT 1");
+    cache.invalidate("scope", "SELECT 1");
+    Assertions.assertEquals(2, cache.getInvalidations());
+    Assertions.assertEquals(0, cache.size());
+  }
+
+  /**
+   * Creates the metadata of a result with a single column.
+   *
+   * @param scalarType the Timestream type of the column.
+   * @return the {@link TimestreamResultSetMetaData}.
+   */
+  private static TimestreamResultSetMetaData createMetaData(final String scalarType) {
+    return new TimestreamResultSetMetaData(Collections.singletonList(
+      new TimestreamResultSetMetaData.ColInfo(new Type().withScalarType(scalarType), "value")));
+  }
+}
@@ -34,6 +34,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.function.ThrowingSupplier;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -85,6 +86,9 @@ class TimestreamResultSetTest {
   @Mock
   private TimestreamStatement mockStatement;
 
+  @Mock
+  private TimestreamConnection mockConnection;
+
   @Mock
   private AmazonTimestreamQuery mockQueryClient;
 
@@ -283,6 +287,170 @@ class TimestreamResultSetTest {
     Mockito.verify(mockQueryClient, Mockito.atLeast(2)).query(Mockito.any());
   }
 
+  @Test
+  @DisplayName("Test the producer fills up a buffer with a fixed depth configured on the connection.")
+  void testFixedPrefetchDepth() throws SQLException, InterruptedException {
+    Mockito.when(mockStatement.getConnection()).thenReturn(mockConnection);
+    Mockito.when(mockConnection.createPrefetchBuffer()).thenReturn(
+      new TimestreamPrefetchBuffer<>(TimestreamPrefetchBuffer.PrefetchMode.FIXED, 4, 4));
+    Mockito.when(mockResult.getNextToken()).thenReturn("More result");
+
+    Mockito
+      .when(mockQueryClient.query(Mockito.any(QueryRequest.class)))
+      .thenReturn(new QueryResult()
+        .withNextToken("More result")
+        .withRows(ImmutableList.of(new Row())));
+    initializeResult(TimestreamDataType.VARCHAR);
+
+    // Busy wait so producer has time to fill up the buffer.
+    while (resultSet.getBufferSize() < 4) {
+      Thread.sleep(50);
+    }
+    Thread.sleep(100);
+    Assertions.assertEquals(4, resultSet.getBufferSize());
+
+    resultSet.close();
+    Assertions.assertEquals(1, resultSet.getBufferSize());
+    Assertions.assertTrue(resultSet.isTerminated());
+  }
+
+  @Test
+  @DisplayName("Test the producer pauses when the memory budget is exhausted and resumes once pages are consumed.")
+  void testPrefetchMemoryBudget() throws SQLException, InterruptedException {
+    final TimestreamMemoryBudget budget = new TimestreamMemoryBudget(1, null);
+    Mockito.when(mockStatement.getConnection()).thenReturn(mockConnection);
+    Mockito.when(mockConnection.createPrefetchBuffer()).thenReturn(
+      new TimestreamPrefetchBuffer<>(TimestreamPrefetchBuffer.PrefetchMode.FIXED, 4, 4));
+    Mockito.when(mockConnection.getPrefetchMemoryBudget()).thenReturn(budget);
+    Mockito.when(mockResult.getNextToken()).thenReturn("More result");
+
+    Mockito
+      .when(mockQueryClient.query(Mockito.any(QueryRequest.class)))
+      .thenReturn(new QueryResult()
+        .withNextToken("More result")
+        .withRows(ImmutableList.of(new Row().withData(new Datum().withScalarValue("foo")))));
+    initializeResult(TimestreamDataType.VARCHAR);
+
+    // Busy wait so producer has time to retrieve the first page.
+    while (resultSet.getBufferSize() < 1) {
+      Thread.sleep(50);
+    }
+    Thread.sleep(100);
+
+    // A single page exhausts the budget, so the producer stops despite the remaining depth.
+    Assertions.assertEquals(1, resultSet.getBufferSize());
+    Assertions.assertTrue(budget.getUsedBytes() > 0);
+
+    Assertions.assertTrue(resultSet.next());
+    Assertions.assertTrue(resultSet.next());
+    while (resultSet.getBufferSize() < 1) {
+      Thread.sleep(50);
+    }
+    Thread.sleep(100);
+    Assertions.assertEquals(1, resultSet.getBufferSize());
+
+    resultSet.close();
+    Assertions.assertEquals(0, budget.getUsedBytes());
+    Assertions.assertTrue(resultSet.isTerminated());
+  }
+
+  @Test
+  @DisplayName("Test the getters return the same values with columnar decoding enabled.")
+  void testColumnarDecoding() throws SQLException {
+    final List<ColumnInfo> columns = ImmutableList.of(
+      new ColumnInfo().withName("bigint").withType(TimestreamTestUtils.createScalarType(TimestreamDataType.BIGINT)),
+      new ColumnInfo().withName("int").withType(TimestreamTestUtils.createScalarType(TimestreamDataType.INTEGER)),
+      new ColumnInfo().withName("double").withType(TimestreamTestUtils.createScalarType(TimestreamDataType.DOUBLE)),
+      new ColumnInfo().withName("boolean").withType(TimestreamTestUtils.createScalarType(TimestreamDataType.BOOLEAN)),
+      new ColumnInfo().withName("varchar").withType(TimestreamTestUtils.createScalarType(TimestreamDataType.VARCHAR)),
+      new ColumnInfo().withName("timestamp").withType(TimestreamTestUtils.createScalarType(TimestreamDataType.TIMESTAMP)));
+    final Datum nullDatum = new Datum().withNullValue(true);
+    final Row firstRow = new Row().withData(
+      new Datum().withScalarValue("9223372036854775807"),
+      new Datum().withScalarValue("-5"),
+      new Datum().withScalarValue("1.5"),
+      new Datum().withScalarValue("true"),
+      new Datum().withScalarValue("foo"),
+      new Datum().withScalarValue("2021-03-28 01:30:00.123456789"));
+    final Row secondRow = new Row().withData(nullDatum, nullDatum, nullDatum, nullDatum, nullDatum, nullDatum);
+    final Row thirdRow = new Row().withData(
+      new Datum().withScalarValue("1"),
+      new Datum().withScalarValue("2"),
+      new Datum().withScalarValue("NaN"),
+      new Datum().withScalarValue("false"),
+      new Datum().withScalarValue("foo"),
+      new Datum().withScalarValue("1969-12-31 23:59:59"));
+
+    Mockito.when(mockStatement.getConnection()).thenReturn(mockConnection);
+    Mockito
+      .when(mockQueryClient.query(Mockito.any(QueryRequest.class)))
+      .thenAnswer(invocation -> new QueryResult().withColumnInfo(columns).withRows(thirdRow));
+    final QueryResult firstPage = new QueryResult()
+      .withColumnInfo(columns)
+      .withRows(firstRow, secondRow)
+      .withNextToken("More result");
+
+    final TimestreamResultSet rowResultSet = new TimestreamResultSet(mockStatement, "", firstPage);
+    Mockito.when(mockConnection.isColumnarDecodingEnabled()).thenReturn(true);
+    final TimestreamResultSet columnarResultSet = new TimestreamResultSet(mockStatement, "", firstPage);
+    final Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("America/Los_Angeles"));
+
+    for (int row = 0; row < 3; row++) {
+      Assertions.assertTrue(rowResultSet.next());
+      Assertions.assertTrue(columnarResultSet.next());
+      Assertions.assertEquals(rowResultSet.getLong(1), columnarResultSet.getLong(1));
+      Assertions.assertEquals(rowResultSet.wasNull(), columnarResultSet.wasNull());
+      Assertions.assertEquals(rowResultSet.getInt(2), columnarResultSet.getInt(2));
+      Assertions.assertEquals(rowResultSet.getDouble(3), columnarResultSet.getDouble(3));
+      Assertions.assertEquals(rowResultSet.getBoolean(4), columnarResultSet.getBoolean(4));
+      Assertions.assertEquals(rowResultSet.getString(5), columnarResultSet.getString(5));
+      Assertions.assertEquals(rowResultSet.wasNull(), columnarResultSet.wasNull());
+      Assertions.assertEquals(rowResultSet.getTimestamp(6), columnarResultSet.getTimestamp(6));
+      Assertions.assertEquals(rowResultSet.getTimestamp(6, calendar), columnarResultSet.getTimestamp(6, calendar));
+      Assertions.assertEquals(rowResultSet.wasNull(), columnarResultSet.wasNull());
+
+      // Conversions to other types still read the Datum.
+      Assertions.assertEquals(rowResultSet.getString(1), columnarResultSet.getString(1));
+      Assertions.assertEquals(rowResultSet.getLong(2), columnarResultSet.getLong(2));
+    }
+
+    rowResultSet.close();
+    columnarResultSet.close();
+  }
+
+  @Test
+  @DisplayName("Test result sets sharing a single retrieval thread all fill up their buffers.")
+  void testResultSetsShareRetrievalExecutor() throws SQLException, InterruptedException {
+    Mockito.when(mockStatement.getConnection()).thenReturn(mockConnection);
+    Mockito.when(mockConnection.getRetrievalExecutor()).thenReturn(new TimestreamRetrievalExecutor(1));
+    Mockito.when(mockResult.getNextToken()).thenReturn("More result");
+
+    Mockito
+      .when(mockQueryClient.query(Mockito.any(QueryRequest.class)))
+      .thenReturn(new QueryResult()
+        .withNextToken("More result")
+        .withRows(ImmutableList.of(new Row())));
+    initializeResult(TimestreamDataType.VARCHAR);
+    final TimestreamResultSet otherResultSet = new TimestreamResultSet(mockStatement, "", mockResult);
+
+    // Busy wait so the shared thread has time to fill up both buffers.
+    while ((resultSet.getBufferSize() < 2) || (otherResultSet.getBufferSize() < 2)) {
+      Thread.sleep(50);
+    }
+
+    Assertions.assertTrue(resultSet.next());
+    Assertions.assertTrue(resultSet.next());
+    while (resultSet.getBufferSize() < 2) {
+      Thread.sleep(50);
+    }
+
+    resultSet.close();
+    otherResultSet.close();
+    Assertions.assertTrue(resultSet.isTerminated());
+    Assertions.assertTrue(otherResultSet.isTerminated());
+    Assertions.assertEquals(1, otherResultSet.getBufferSize());
+  }
+
   @Test
   void testNextOnClosedResult() throws SQLException {
     initializeResult(TimestreamDataType.VARCHAR);
@@ -313,8 +481,8 @@ class TimestreamResultSetTest {
     rows.add(new Row());
     rows.add(new Row());
 
-    this.resultSet = new TimestreamResultSet(mockStatement, "", firstPage, new HashMap<>(), 1, 0);
     Mockito.when(mockQueryClient.query(Mockito.any())).thenReturn(new QueryResult().withRows(rows).withNextToken("foo"));
+    this.resultSet = new TimestreamResultSet(mockStatement, "", firstPage, new HashMap<>(), 1, 0);
     Assertions.assertTrue(this.resultSet.next());
     Assertions.assertFalse(this.resultSet.next());
   }
@@ -331,8 +499,8 @@ class TimestreamResultSetTest {
     rows.add(new Row());
     rows.add(new Row());
 
-    this.resultSet = new TimestreamResultSet(mockStatement, "", firstPage, new HashMap<>(), 0, 0);
     Mockito.when(mockQueryClient.query(Mockito.any())).thenReturn(new QueryResult().withRows(rows));
+    this.resultSet = new TimestreamResultSet(mockStatement, "", firstPage, new HashMap<>(), 0, 0);
     Assertions.assertTrue(this.resultSet.next());
     Assertions.assertTrue(this.resultSet.next());
     Mockito.verify(mockQueryClient).query(Mockito.any());
@@ -1209,6 +1377,36 @@ class TimestreamResultSetTest {
         JdbcType.BIGINT));
   }
 
+  @ParameterizedTest
+  @ValueSource(strings = {"2147483647.5", "-2147483648.9", "2147483648.0", "-2147483649.0",
+    "2147483647.99999999999999999", "9223372036854775807.5", "-9223372036854775808.0",
+    "9.223372036854775E18", "1.5e3", "-0.0", ".5", "1e400", "NaN", "Infinity", "0x1p3", "1.5d"})
+  @DisplayName("Test the numeric getters on a DOUBLE column match the generic conversions.")
+  void testGetNumericFromDoubleMatchesConversions(final String input) throws SQLException {
+    initializeResult(TimestreamDataType.DOUBLE, input);
+    final Datum datum = new Datum().withScalarValue(input);
+
+    assertSameConversion(() -> resultSet.getInt(1),
+      () -> Conversions.convert(TimestreamDataType.DOUBLE, JdbcType.INTEGER, datum, warning -> {}));
+    assertSameConversion(() -> resultSet.getLong(1),
+      () -> Conversions.convert(TimestreamDataType.DOUBLE, JdbcType.BIGINT, datum, warning -> {}));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"42", "-7", "2147483648", "9223372036854775808", "1.5", "abc", "true"})
+  @DisplayName("Test the numeric getters on a VARCHAR column match the generic conversions.")
+  void testGetNumericFromVarcharMatchesConversions(final String input) throws SQLException {
+    initializeResult(TimestreamDataType.VARCHAR, input);
+    final Datum datum = new Datum().withScalarValue(input);
+
+    assertSameConversion(() -> resultSet.getInt(1),
+      () -> Conversions.convert(TimestreamDataType.VARCHAR, JdbcType.INTEGER, datum, warning -> {}));
+    assertSameConversion(() -> resultSet.getLong(1),
+      () -> Conversions.convert(TimestreamDataType.VARCHAR, JdbcType.BIGINT, datum, warning -> {}));
+    assertSameConversion(() -> resultSet.getDouble(1),
+      () -> Conversions.convert(TimestreamDataType.VARCHAR, JdbcType.DOUBLE, datum, warning -> {}));
+  }
+
   @Test
   void testGetLongFromInt() throws SQLException {
     initializeResult(TimestreamDataType.INTEGER, "1");
@@ -1539,6 +1737,21 @@ class TimestreamResultSetTest {
         JdbcType.ARRAY));
   }
 
+  @Test
+  @DisplayName("Test the conversion tables bound to the columns match the conversion map.")
+  void testConversionTablesMatchConversionMap() {
+    for (final TimestreamDataType sourceType : TimestreamDataType.values()) {
+      final TimestreamConvertFunction<?>[] table = Conversions.retrieveConversionTable(sourceType);
+      final Map<JdbcType, TimestreamConvertFunction<?>> conversions = Conversions.CONVERSIONS.get(sourceType);
+      for (final JdbcType targetType : JdbcType.values()) {
+        Assertions.assertSame(
+          (conversions == null) ? null : conversions.get(targetType),
+          table[targetType.ordinal()],
+          sourceType + " to " + targetType);
+      }
+    }
+  }
+
   @Test
   void testGetMethodsWithMultipleWarnings() throws SQLException {
     initializeResult(TimestreamDataType.DOUBLE, "3.14");
@@ -1598,6 +1811,27 @@ class TimestreamResultSetTest {
    * @param sourceType  The expected {@link TimestreamDataType} of the data.
    * @throws SQLException If an error occurs while retrieving the value.
    */
+  /**
+   * Asserts that a getter returns the same value, or throws an exception with the same message, as
+   * the generic conversion.
+   *
+   * @param getter     the getter of the result set.
+   * @param conversion the generic conversion of the same cell.
+   */
+  private void assertSameConversion(
+    final ThrowingSupplier<Object> getter,
+    final ThrowingSupplier<Object> conversion) {
+    final Object expected;
+    try {
+      expected = conversion.get();
+    } catch (final Throwable e) {
+      final SQLException exception = Assertions.assertThrows(SQLException.class, getter::get);
+      Assertions.assertEquals(e.getMessage(), exception.getMessage());
+      return;
+    }
+    Assertions.assertEquals(expected, Assertions.assertDoesNotThrow(getter::get));
+  }
+
   private void testGetWithInvalidArgument(
     final Executable getter,
     final String invalidData,
@@ -0,0 +1,79 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+class TimestreamRetrievalExecutorTest {
+  @Test
+  void testSharedExecutorIsReusedForSamePoolSize() {
+    final TimestreamRetrievalExecutor executor = TimestreamRetrievalExecutor.getSharedExecutor(3);
+
+    Assertions.assertSame(executor, TimestreamRetrievalExecutor.getSharedExecutor(3));
+    Assertions.assertNotSame(executor, TimestreamRetrievalExecutor.getSharedExecutor(4));
+    Assertions.assertEquals(3, executor.getPoolSize());
+  }
+
+  @Test
+  void testPooledExecutorRunsTasksOnDaemonThreads()
+    throws InterruptedException, ExecutionException, TimeoutException {
+    final CompletableFuture<Thread> thread = new CompletableFuture<>();
+    new TimestreamRetrievalExecutor(1).execute(() -> thread.complete(Thread.currentThread()));
+
+    final Thread retriever = thread.get(10, TimeUnit.SECONDS);
+    Assertions.assertTrue(retriever.isDaemon());
+    Assertions.assertTrue(retriever.getName().startsWith("timestream-jdbc-retriever-"));
+  }
+
+  @Test
+  void testSharedQueryExecutor()
+    throws InterruptedException, ExecutionException, TimeoutException {
+    final TimestreamRetrievalExecutor executor = TimestreamRetrievalExecutor.getSharedQueryExecutor(3);
+    Assertions.assertSame(executor, TimestreamRetrievalExecutor.getSharedQueryExecutor(3));
+    Assertions.assertNotSame(executor, TimestreamRetrievalExecutor.getSharedExecutor(3));
+    Assertions.assertEquals(3, executor.getPoolSize());
+
+    final CompletableFuture<Thread> thread = new CompletableFuture<>();
+    executor.execute(() -> thread.complete(Thread.currentThread()));
+    final Thread queryThread = thread.get(10, TimeUnit.SECONDS);
+    Assertions.assertTrue(queryThread.isDaemon());
+    Assertions.assertTrue(queryThread.getName().startsWith("timestream-jdbc-query-"));
+  }
+
+  @Test
+  void testVirtualThreadExecutor()
+    throws InterruptedException, ExecutionException, TimeoutException {
+    final TimestreamRetrievalExecutor executor = TimestreamRetrievalExecutor.getVirtualThreadExecutor();
+    Assumptions.assumeTrue(executor != null, "Virtual threads require Java 21 or later.");
+
+    final CompletableFuture<Thread> thread = new CompletableFuture<>();
+    final Runnable task = () -> thread.complete(Thread.currentThread());
+    executor.execute(task);
+
+    final Thread retriever = thread.get(10, TimeUnit.SECONDS);
+    Assertions.assertTrue(retriever.getName().startsWith("timestream-jdbc-retriever-virtual-"));
+    Assertions.assertNotSame(executor, TimestreamRetrievalExecutor.getSharedExecutor(1));
+    Assertions.assertEquals(0, executor.getPoolSize());
+    Assertions.assertFalse(executor.remove(task));
+  }
+}
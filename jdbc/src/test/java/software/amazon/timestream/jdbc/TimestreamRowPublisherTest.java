@@ -0,0 +1,232 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.services.timestreamquery.AmazonTimestreamQuery;
+import com.amazonaws.services.timestreamquery.model.AmazonTimestreamQueryException;
+import com.amazonaws.services.timestreamquery.model.CancelQueryRequest;
+import com.amazonaws.services.timestreamquery.model.Datum;
+import com.amazonaws.services.timestreamquery.model.QueryRequest;
+import com.amazonaws.services.timestreamquery.model.QueryResult;
+import com.amazonaws.services.timestreamquery.model.Row;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+class TimestreamRowPublisherTest {
+  private static final String QUERY = "SELECT * FROM db.table";
+  private static final String QUERY_ID = "queryID";
+
+  @Mock
+  private AmazonTimestreamQuery mockQueryClient;
+
+  private RecordingSubscriber subscriber;
+
+  @BeforeEach
+  void init() {
+    MockitoAnnotations.initMocks(this);
+    subscriber = new RecordingSubscriber();
+
+    // Two pages of two rows, separated by an empty page.
+    Mockito
+      .when(mockQueryClient.query(Mockito.any(QueryRequest.class)))
+      .thenReturn(createPage("1", "2").withNextToken("token1"))
+      .thenReturn(createPage().withNextToken("token2"))
+      .thenReturn(createPage("3", "4"));
+  }
+
+  @Test
+  void testDemandDrivesPageRetrieval() {
+    createPublisher(0).subscribe(subscriber);
+    Mockito.verify(mockQueryClient, Mockito.never()).query(Mockito.any());
+
+    subscriber.subscription.request(1);
+    Assertions.assertEquals(1, subscriber.rows.size());
+    Mockito.verify(mockQueryClient, Mockito.times(1)).query(Mockito.any());
+
+    // The second row is already buffered, so no page is retrieved.
+    subscriber.subscription.request(1);
+    Assertions.assertEquals(2, subscriber.rows.size());
+    Mockito.verify(mockQueryClient, Mockito.times(1)).query(Mockito.any());
+
+    // The empty page is skipped to deliver the third row.
+    subscriber.subscription.request(1);
+    Assertions.assertEquals("3", subscriber.rows.get(2).getData().get(0).getScalarValue());
+    Mockito.verify(mockQueryClient, Mockito.times(3)).query(Mockito.any());
+    Assertions.assertFalse(subscriber.isComplete);
+
+    subscriber.subscription.request(Long.MAX_VALUE);
+    Assertions.assertEquals(4, subscriber.rows.size());
+    Assertions.assertTrue(subscriber.isComplete);
+    Assertions.assertNull(subscriber.error);
+  }
+
+  @Test
+  void testNextTokenAndFetchSize() {
+    final ArgumentCaptor<QueryRequest> requestCaptor = ArgumentCaptor.forClass(QueryRequest.class);
+    createPublisher(0, 10).subscribe(subscriber);
+    subscriber.subscription.request(Long.MAX_VALUE);
+
+    Mockito.verify(mockQueryClient, Mockito.times(3)).query(requestCaptor.capture());
+    final List<QueryRequest> requests = requestCaptor.getAllValues();
+    Assertions.assertNull(requests.get(0).getNextToken());
+    Assertions.assertEquals("token1", requests.get(1).getNextToken());
+    Assertions.assertEquals("token2", requests.get(2).getNextToken());
+    Assertions.assertEquals(10, requests.get(2).getMaxRows().intValue());
+  }
+
+  @Test
+  void testCancelCancelsQuery() {
+    createPublisher(0).subscribe(subscriber);
+    subscriber.subscription.request(1);
+    subscriber.subscription.cancel();
+    subscriber.subscription.request(10);
+
+    Assertions.assertEquals(1, subscriber.rows.size());
+    Assertions.assertFalse(subscriber.isComplete);
+    final ArgumentCaptor<CancelQueryRequest> cancelCaptor = ArgumentCaptor.forClass(CancelQueryRequest.class);
+    Mockito.verify(mockQueryClient).cancelQuery(cancelCaptor.capture());
+    Assertions.assertEquals(QUERY_ID, cancelCaptor.getValue().getQueryId());
+  }
+
+  @Test
+  void testCancelBeforeQueryStarts() {
+    createPublisher(0).subscribe(subscriber);
+    subscriber.subscription.cancel();
+    subscriber.subscription.request(1);
+
+    Mockito.verify(mockQueryClient, Mockito.never()).query(Mockito.any());
+    Mockito.verify(mockQueryClient, Mockito.never()).cancelQuery(Mockito.any());
+  }
+
+  @Test
+  void testMaxRows() {
+    createPublisher(1).subscribe(subscriber);
+    subscriber.subscription.request(Long.MAX_VALUE);
+
+    // The query still has pages left when the limit is reached, so it is canceled.
+    Assertions.assertEquals(1, subscriber.rows.size());
+    Assertions.assertTrue(subscriber.isComplete);
+    Mockito.verify(mockQueryClient).cancelQuery(Mockito.any());
+  }
+
+  @Test
+  void testQueryError() {
+    Mockito.reset(mockQueryClient);
+    Mockito
+      .when(mockQueryClient.query(Mockito.any(QueryRequest.class)))
+      .thenThrow(new AmazonTimestreamQueryException("error"));
+    createPublisher(0).subscribe(subscriber);
+    subscriber.subscription.request(1);
+
+    Assertions.assertTrue(subscriber.error instanceof SQLException);
+    Assertions.assertFalse(subscriber.isComplete);
+  }
+
+  @Test
+  void testInvalidDemand() {
+    createPublisher(0).subscribe(subscriber);
+    subscriber.subscription.request(0);
+
+    Assertions.assertTrue(subscriber.error instanceof IllegalArgumentException);
+    Mockito.verify(mockQueryClient, Mockito.never()).query(Mockito.any());
+  }
+
+  @Test
+  void testSingleSubscriber() {
+    final TimestreamRowPublisher publisher = createPublisher(0);
+    publisher.subscribe(subscriber);
+
+    final RecordingSubscriber otherSubscriber = new RecordingSubscriber();
+    publisher.subscribe(otherSubscriber);
+    Assertions.assertNotNull(otherSubscriber.subscription);
+    Assertions.assertTrue(otherSubscriber.error instanceof IllegalStateException);
+    Assertions.assertThrows(NullPointerException.class, () -> publisher.subscribe(null));
+  }
+
+  /**
+   * Creates a publisher delivering the rows on the calling thread.
+   *
+   * @param maxRows the maximum number of rows to deliver.
+   * @return a {@link TimestreamRowPublisher}.
+   */
+  private TimestreamRowPublisher createPublisher(final long maxRows) {
+    return createPublisher(maxRows, 0);
+  }
+
+  /**
+   * Creates a publisher delivering the rows on the calling thread.
+   *
+   * @param maxRows   the maximum number of rows to deliver.
+   * @param fetchSize the maximum number of rows per page.
+   * @return a {@link TimestreamRowPublisher}.
+   */
+  private TimestreamRowPublisher createPublisher(final long maxRows, final int fetchSize) {
+    return new TimestreamRowPublisher(mockQueryClient, Runnable::run, QUERY, fetchSize, maxRows, 0, 0);
+  }
+
+  /**
+   * Creates a page containing a single-column row for each of the given values.
+   *
+   * @param values the values of the rows.
+   * @return a {@link QueryResult}.
+   */
+  private static QueryResult createPage(final String... values) {
+    final List<Row> rows = new ArrayList<>();
+    for (final String value : values) {
+      rows.add(new Row().withData(new Datum().withScalarValue(value)));
+    }
+    return new QueryResult().withQueryId(QUERY_ID).withRows(rows);
+  }
+
+  /**
+   * Subscriber recording the signals it receives.
+   */
+  private static class RecordingSubscriber implements TimestreamRowPublisher.Subscriber<Row> {
+    private final List<Row> rows = new ArrayList<>();
+    private TimestreamRowPublisher.Subscription subscription;
+    private Throwable error;
+    private boolean isComplete;
+
+    @Override
+    public void onSubscribe(final TimestreamRowPublisher.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(final Row item) {
+      rows.add(item);
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+      this.error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      this.isComplete = true;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TimestreamSAMLClientsTest {
+  @Test
+  @DisplayName("Test the HTTP client is built on first use, shared by the leases and closed with the last lease.")
+  void testLeases() {
+    final TimestreamSAMLClients.Lease lease = TimestreamSAMLClients.acquire();
+    final TimestreamSAMLClients.Lease otherLease = TimestreamSAMLClients.acquire();
+    Assertions.assertEquals(2, TimestreamSAMLClients.getReferenceCount());
+    Assertions.assertFalse(TimestreamSAMLClients.isHttpClientBuilt());
+
+    final CloseableHttpClient httpClient = lease.getHttpClient();
+    Assertions.assertSame(httpClient, otherLease.getHttpClient());
+
+    lease.release();
+    lease.release();
+    Assertions.assertEquals(1, TimestreamSAMLClients.getReferenceCount());
+    Assertions.assertTrue(TimestreamSAMLClients.isHttpClientBuilt());
+
+    otherLease.release();
+    Assertions.assertEquals(0, TimestreamSAMLClients.getReferenceCount());
+    Assertions.assertFalse(TimestreamSAMLClients.isHttpClientBuilt());
+
+    final TimestreamSAMLClients.Lease newLease = TimestreamSAMLClients.acquire();
+    Assertions.assertNotSame(httpClient, newLease.getHttpClient());
+    newLease.release();
+  }
+
+  @Test
+  @DisplayName("Test a background lease is only acquired while the given HTTP client is the open shared client.")
+  void testAcquireIfOpen() {
+    final TimestreamSAMLClients.Lease lease = TimestreamSAMLClients.acquire();
+    final CloseableHttpClient httpClient = lease.getHttpClient();
+
+    final TimestreamSAMLClients.Lease backgroundLease = TimestreamSAMLClients.acquireIfOpen(httpClient);
+    Assertions.assertNotNull(backgroundLease);
+    Assertions.assertEquals(2, TimestreamSAMLClients.getReferenceCount());
+    lease.release();
+    Assertions.assertTrue(TimestreamSAMLClients.isHttpClientBuilt());
+    backgroundLease.release();
+    Assertions.assertFalse(TimestreamSAMLClients.isHttpClientBuilt());
+
+    Assertions.assertNull(TimestreamSAMLClients.acquireIfOpen(httpClient));
+    final TimestreamSAMLClients.Lease newLease = TimestreamSAMLClients.acquire();
+    newLease.getHttpClient();
+    Assertions.assertNull(TimestreamSAMLClients.acquireIfOpen(httpClient));
+    Assertions.assertEquals(1, TimestreamSAMLClients.getReferenceCount());
+    newLease.release();
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.services.securitytoken.model.Credentials;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TimestreamSAMLCredentialsCacheTest {
+  private static final long LIFETIME_MILLIS = TimeUnit.HOURS.toMillis(1);
+  private static final long REFRESH_AHEAD_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+  private final AtomicInteger loads = new AtomicInteger();
+  private TimestreamSAMLCredentialsCache cache;
+  private ExecutorService executor;
+
+  @Mock
+  private ScheduledExecutorService mockRefresher;
+
+  @BeforeEach
+  void init() {
+    MockitoAnnotations.initMocks(this);
+    cache = new TimestreamSAMLCredentialsCache(REFRESH_AHEAD_MILLIS, 0, mockRefresher);
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Test the connections of an identity reuse its credentials without authenticating again.")
+  void testReuseCredentials() throws SQLException {
+    final AWSCredentialsProvider provider = cache.getCredentialsProvider("identity", this::load);
+    Assertions.assertSame(provider, cache.getCredentialsProvider("identity", this::load));
+    Assertions.assertEquals("key1", provider.getCredentials().getAWSAccessKeyId());
+    Assertions.assertEquals(1, loads.get());
+
+    Assertions.assertNotSame(provider, cache.getCredentialsProvider("other", this::load));
+    Assertions.assertEquals(2, loads.get());
+    Assertions.assertEquals(2, cache.size());
+  }
+
+  @Test
+  @DisplayName("Test concurrent connections of an identity wait for a single authentication.")
+  void testConcurrentConnectionsCoalesced() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final TimestreamSAMLCredentialsCache.Loader blockingLoader = () -> {
+      try {
+        Assertions.assertTrue(release.await(10, TimeUnit.SECONDS));
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return load();
+    };
+
+    final List<Future<AWSCredentialsProvider>> providers = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      providers.add(executor.submit(() -> cache.getCredentialsProvider("identity", blockingLoader)));
+    }
+    release.countDown();
+
+    final AWSCredentialsProvider provider = providers.get(0).get(10, TimeUnit.SECONDS);
+    for (final Future<AWSCredentialsProvider> future : providers) {
+      Assertions.assertSame(provider, future.get(10, TimeUnit.SECONDS));
+    }
+    Assertions.assertEquals(1, loads.get());
+  }
+
+  @Test
+  @DisplayName("Test the credentials in use are refreshed in the background ahead of their expiration.")
+  void testBackgroundRefresh() throws SQLException {
+    final AWSCredentialsProvider provider = cache.getCredentialsProvider("identity", this::load);
+    final ArgumentCaptor<Long> delay = ArgumentCaptor.forClass(Long.class);
+    final Runnable refresh = captureRefresh(1, delay);
+    Assertions.assertTrue(delay.getValue() <= LIFETIME_MILLIS - REFRESH_AHEAD_MILLIS);
+    Assertions.assertTrue(delay.getValue() > LIFETIME_MILLIS - REFRESH_AHEAD_MILLIS - TimeUnit.MINUTES.toMillis(1));
+
+    refresh.run();
+    Assertions.assertEquals(2, loads.get());
+    Assertions.assertEquals("key2", provider.getCredentials().getAWSAccessKeyId());
+
+    // The credentials are used after the first refresh, so they are refreshed again.
+    captureRefresh(2, delay).run();
+    Assertions.assertEquals(3, loads.get());
+
+    // The credentials are not used anymore, so the background refresh stops.
+    captureRefresh(3, delay).run();
+    Assertions.assertEquals(3, loads.get());
+    Mockito.verify(mockRefresher, Mockito.times(3))
+      .schedule(Mockito.any(Runnable.class), Mockito.anyLong(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("Test a failed background refresh is retried while the credentials are valid and used.")
+  void testBackgroundRefreshRetried() throws SQLException {
+    final AWSCredentialsProvider provider = cache.getCredentialsProvider("identity", () -> {
+      if (loads.get() == 1) {
+        loads.incrementAndGet();
+        throw new SQLException("The identity provider is unavailable.");
+      }
+      return load();
+    });
+    final ArgumentCaptor<Long> delay = ArgumentCaptor.forClass(Long.class);
+
+    captureRefresh(1, delay).run();
+    final Runnable retry = captureRefresh(2, delay);
+    Assertions.assertEquals(TimeUnit.SECONDS.toMillis(30), delay.getValue());
+    Assertions.assertEquals("key1", provider.getCredentials().getAWSAccessKeyId());
+    retry.run();
+    Assertions.assertEquals("key3", provider.getCredentials().getAWSAccessKeyId());
+  }
+
+  @Test
+  @DisplayName("Test a failed background refresh is not retried once the credentials are not used anymore.")
+  void testBackgroundRefreshNotRetriedWhenUnused() throws SQLException {
+    cache.getCredentialsProvider("identity", () -> {
+      if (loads.get() == 1) {
+        loads.incrementAndGet();
+        throw new SQLException("The identity provider is unavailable.");
+      }
+      return load();
+    });
+    final ArgumentCaptor<Long> delay = ArgumentCaptor.forClass(Long.class);
+
+    captureRefresh(1, delay).run();
+    captureRefresh(2, delay).run();
+    Assertions.assertEquals(2, loads.get());
+    Mockito.verify(mockRefresher, Mockito.times(2))
+      .schedule(Mockito.any(Runnable.class), Mockito.anyLong(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("Test the background refresh stops once the identity cannot be authenticated in the background.")
+  void testBackgroundRefreshStopsWithoutClients() throws SQLException {
+    final AWSCredentialsProvider provider = cache.getCredentialsProvider(
+      "identity",
+      new TimestreamSAMLCredentialsCache.Loader() {
+        @Override
+        public Credentials load() {
+          return TimestreamSAMLCredentialsCacheTest.this.load();
+        }
+
+        @Override
+        public Credentials loadInBackground() {
+          return null;
+        }
+      });
+    final ArgumentCaptor<Long> delay = ArgumentCaptor.forClass(Long.class);
+
+    captureRefresh(1, delay).run();
+    Assertions.assertEquals(1, loads.get());
+    Assertions.assertEquals("key1", provider.getCredentials().getAWSAccessKeyId());
+    Mockito.verify(mockRefresher, Mockito.times(1))
+      .schedule(Mockito.any(Runnable.class), Mockito.anyLong(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("Test credentials without an expiration are not cached.")
+  void testCredentialsWithoutExpiration() throws SQLException {
+    final TimestreamSAMLCredentialsCache.Loader loader = () -> {
+      loads.incrementAndGet();
+      return new Credentials().withAccessKeyId("key").withSecretAccessKey("secret").withSessionToken("token");
+    };
+
+    Assertions.assertTrue(cache.getCredentialsProvider("identity", loader) instanceof AWSStaticCredentialsProvider);
+    cache.getCredentialsProvider("identity", loader);
+    Assertions.assertEquals(2, loads.get());
+    Assertions.assertEquals(0, cache.size());
+  }
+
+  /**
+   * Gets the background refresh scheduled last.
+   *
+   * @param times The number of refreshes scheduled so far.
+   * @param delay The captor of the delays of the refreshes.
+   * @return the refresh task.
+   */
+  private Runnable captureRefresh(final int times, final ArgumentCaptor<Long> delay) {
+    final ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+    Mockito.verify(mockRefresher, Mockito.times(times))
+      .schedule(task.capture(), delay.capture(), Mockito.eq(TimeUnit.MILLISECONDS));
+    return task.getValue();
+  }
+
+  /**
+   * Creates new credentials valid for an hour, numbered by the number of authentications.
+   *
+   * @return the {@link Credentials}.
+   */
+  private Credentials load() {
+    final int load = loads.incrementAndGet();
+    return new Credentials()
+      .withAccessKeyId("key" + load)
+      .withSecretAccessKey("secret" + load)
+      .withSessionToken("token" + load)
+      .withExpiration(new Date(System.currentTimeMillis() + LIFETIME_MILLIS));
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.services.securitytoken.model.Credentials;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+class TimestreamSAMLCredentialsFileCacheTest {
+  private static final String IDENTITY = "Okta{IdpUserName=user, RoleARN=role}";
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @TempDir
+  Path directory;
+
+  @Test
+  @DisplayName("Test a new process of an identity reuses its credentials cached on disk.")
+  void testReuseCredentials() throws Exception {
+    final Credentials credentials = createCache("password").load(() -> load(TimeUnit.HOURS.toMillis(1)));
+    final Credentials cachedCredentials = createCache("password").load(() -> load(TimeUnit.HOURS.toMillis(1)));
+
+    Assertions.assertEquals(1, loads.get());
+    Assertions.assertEquals(credentials, cachedCredentials);
+    final byte[] content = Files.readAllBytes(getCacheFile());
+    Assertions.assertFalse(new String(content, StandardCharsets.ISO_8859_1).contains("secret1"));
+  }
+
+  @Test
+  @DisplayName("Test the cached credentials cannot be read with other secrets.")
+  void testOtherSecret() throws SQLException {
+    createCache("password").load(() -> load(TimeUnit.HOURS.toMillis(1)));
+    final Credentials credentials = createCache("other").load(() -> load(TimeUnit.HOURS.toMillis(1)));
+
+    Assertions.assertEquals(2, loads.get());
+    Assertions.assertEquals("key2", credentials.getAccessKeyId());
+  }
+
+  @Test
+  @DisplayName("Test the cached credentials are not reused shortly before their expiration.")
+  void testCredentialsExpiringSoon() throws SQLException {
+    createCache("password").load(() -> load(TimeUnit.MINUTES.toMillis(5)));
+    final Credentials credentials = createCache("password").load(() -> load(TimeUnit.HOURS.toMillis(1)));
+
+    Assertions.assertEquals(2, loads.get());
+    Assertions.assertEquals("key2", credentials.getAccessKeyId());
+  }
+
+  @Test
+  @DisplayName("Test credentials without an expiration are not cached on disk.")
+  void testCredentialsWithoutExpiration() throws Exception {
+    final TimestreamSAMLCredentialsCache.Loader loader = () -> {
+      loads.incrementAndGet();
+      return new Credentials().withAccessKeyId("key").withSecretAccessKey("secret").withSessionToken("token");
+    };
+    createCache("password").load(loader);
+    createCache("password").load(loader);
+
+    Assertions.assertEquals(2, loads.get());
+    try (Stream<Path> files = Files.list(directory)) {
+      Assertions.assertTrue(files.noneMatch(file -> file.toString().endsWith(".cache")));
+    }
+  }
+
+  @Test
+  @DisplayName("Test a corrupted cache file is replaced by new credentials.")
+  void testCorruptedCacheFile() throws Exception {
+    createCache("password").load(() -> load(TimeUnit.HOURS.toMillis(1)));
+    Files.write(getCacheFile(), new byte[] {0, 0, 0, 1, 2, 3});
+
+    final TimestreamSAMLCredentialsFileCache cache = createCache("password");
+    Assertions.assertEquals("key2", cache.load(() -> load(TimeUnit.HOURS.toMillis(1))).getAccessKeyId());
+    Assertions.assertEquals("key2", cache.load(() -> load(TimeUnit.HOURS.toMillis(1))).getAccessKeyId());
+  }
+
+  /**
+   * Creates a file cache of the test identity in the temporary directory.
+   *
+   * @param secret The secrets of the identity.
+   * @return the {@link TimestreamSAMLCredentialsFileCache}.
+   * @throws SQLException if the cache cannot be created.
+   */
+  private TimestreamSAMLCredentialsFileCache createCache(final String secret) throws SQLException {
+    return new TimestreamSAMLCredentialsFileCache(directory, IDENTITY, secret);
+  }
+
+  /**
+   * Gets the cache file written in the temporary directory.
+   *
+   * @return the path of the cache file.
+   * @throws IOException if the directory cannot be listed.
+   */
+  private Path getCacheFile() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+        .filter(file -> file.toString().endsWith(".cache"))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("The credentials are not cached."));
+    }
+  }
+
+  /**
+   * Creates new credentials, numbered by the number of authentications.
+   *
+   * @param lifetimeMillis The lifetime of the credentials.
+   * @return the {@link Credentials}.
+   */
+  private Credentials load(final long lifetimeMillis) {
+    final int load = loads.incrementAndGet();
+    return new Credentials()
+      .withAccessKeyId("key" + load)
+      .withSecretAccessKey("secret" + load)
+      .withSessionToken("token" + load)
+      .withExpiration(new Date(System.currentTimeMillis() + lifetimeMillis));
+  }
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.jdbc;
+
+import com.amazonaws.services.timestreamquery.model.Datum;
+import com.amazonaws.services.timestreamquery.model.QueryResult;
+import com.amazonaws.services.timestreamquery.model.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+class TimestreamSingleFlightTest {
+  private static final int SUBSCRIBERS = 8;
+  private static final TimestreamResultCache.Key KEY =
+    new TimestreamResultCache.Key("scope", "SELECT 1", 0, 0, 0, 0);
+
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final AtomicInteger executions = new AtomicInteger();
+  private final AtomicInteger fetches = new AtomicInteger();
+  private final AtomicBoolean isCanceled = new AtomicBoolean();
+  private final AtomicInteger closes = new AtomicInteger();
+  private final List<String> fetchThreads = new CopyOnWriteArrayList<>();
+  private final TimestreamRetrievalExecutor retrievalExecutor = new TimestreamRetrievalExecutor(2);
+  private final TimestreamMemoryBudget memoryBudget = new TimestreamMemoryBudget(0, null);
+  private ExecutorService executor;
+
+  @BeforeEach
+  void init() {
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Test concurrent identical queries share one execution and read the pages with independent cursors.")
+  void testConcurrentSubscribers() throws Exception {
+    final CountDownLatch subscribed = new CountDownLatch(SUBSCRIBERS);
+    final TimestreamSingleFlight.Query query = new TestQuery();
+    final List<Future<List<String>>> results = new ArrayList<>();
+    for (int i = 0; i < SUBSCRIBERS; i++) {
+      results.add(executor.submit(() -> {
+        final TimestreamSingleFlight.Subscription subscription =
+          subscribe(query);
+        subscribed.countDown();
+        return readAll(subscription);
+      }));
+    }
+
+    Assertions.assertTrue(subscribed.await(10, TimeUnit.SECONDS));
+    release.countDown();
+    for (final Future<List<String>> result : results) {
+      Assertions.assertEquals(Arrays.asList("1", "2", "3"), result.get(10, TimeUnit.SECONDS));
+    }
+    Assertions.assertEquals(1, executions.get());
+    Assertions.assertEquals(2, fetches.get());
+    Assertions.assertFalse(isCanceled.get());
+    Assertions.assertEquals(0, TimestreamSingleFlight.getFlightCount());
+  }
+
+  @Test
+  @DisplayName("Test a subscriber canceling leaves the flight without affecting the other subscribers.")
+  void testCancelOneSubscriber() throws Exception {
+    final TimestreamSingleFlight.Query query = new TestQuery();
+    final TimestreamSingleFlight.Subscription canceled = subscribe(query);
+    final TimestreamSingleFlight.Subscription remaining = subscribe(query);
+    final Future<List<String>> executing = executor.submit(() -> readAll(remaining));
+    awaitExecution();
+    final Future<QueryResult> waiting = executor.submit(canceled::nextPage);
+
+    canceled.cancel();
+    final ExecutionException exception = Assertions.assertThrows(
+      ExecutionException.class,
+      () -> waiting.get(10, TimeUnit.SECONDS));
+    Assertions.assertEquals(
+      Constants.OPERATION_CANCELED_SQL_STATE,
+      ((SQLException) exception.getCause()).getSQLState());
+    Assertions.assertFalse(isCanceled.get());
+
+    release.countDown();
+    Assertions.assertEquals(Arrays.asList("1", "2", "3"), executing.get(10, TimeUnit.SECONDS));
+    Assertions.assertEquals(1, executions.get());
+    Assertions.assertFalse(isCanceled.get());
+    Assertions.assertEquals(0, TimestreamSingleFlight.getFlightCount());
+  }
+
+  @Test
+  @DisplayName("Test the query is canceled once the last subscriber leaves before the result is fully retrieved.")
+  void testLastSubscriberLeaving() throws Exception {
+    final TimestreamSingleFlight.Query query = new TestQuery();
+    final TimestreamSingleFlight.Subscription first = subscribe(query);
+    final TimestreamSingleFlight.Subscription second = subscribe(query);
+
+    first.close();
+    Assertions.assertFalse(isCanceled.get());
+    second.cancel();
+    Assertions.assertTrue(isCanceled.get());
+    Assertions.assertEquals(0, TimestreamSingleFlight.getFlightCount());
+
+    // The abandoned flight was never executed, and an identical query issued afterwards starts a
+    // new flight.
+    release.countDown();
+    Assertions.assertEquals(
+      Arrays.asList("1", "2", "3"),
+      readAll(subscribe(query)));
+    Assertions.assertEquals(1, executions.get());
+  }
+
+  @Test
+  @DisplayName("Test subscribers running on a single thread pool do not wait for a retrieval queued behind them.")
+  void testSubscribersOnSingleThreadPool() throws Exception {
+    final ExecutorService singleThreadPool = Executors.newFixedThreadPool(1);
+    try {
+      final TimestreamSingleFlight.Query query = new TestQuery();
+      final Future<List<String>> first = singleThreadPool.submit(
+        () -> readAll(subscribe(query)));
+      final Future<List<String>> second = singleThreadPool.submit(
+        () -> readAll(subscribe(query)));
+
+      release.countDown();
+      Assertions.assertEquals(Arrays.asList("1", "2", "3"), first.get(10, TimeUnit.SECONDS));
+      Assertions.assertEquals(Arrays.asList("1", "2", "3"), second.get(10, TimeUnit.SECONDS));
+    } finally {
+      singleThreadPool.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName("Test the pages are retrieved ahead of the fastest subscriber on the retrieval executor.")
+  void testPrefetch() throws Exception {
+    release.countDown();
+    final TimestreamSingleFlight.Subscription subscription = subscribe(new TestQuery());
+    Assertions.assertEquals("1", subscription.nextPage().getRows().get(0).getData().get(0).getScalarValue());
+
+    // Only one page is retrieved ahead with a prefetch depth of one page.
+    await(() -> fetches.get() == 1);
+    Thread.sleep(100);
+    Assertions.assertEquals(1, fetches.get());
+
+    Assertions.assertEquals(Arrays.asList("2", "3"), readAll(subscription));
+    Assertions.assertEquals(2, fetches.get());
+    for (final String thread : fetchThreads) {
+      Assertions.assertTrue(thread.startsWith("timestream-jdbc-retriever-"), thread);
+    }
+    await(() -> closes.get() == 1);
+  }
+
+  @Test
+  @DisplayName("Test the pages are dropped once every subscriber has read them, and late subscribers start a new flight.")
+  void testPagesDroppedOnceRead() throws Exception {
+    final TimestreamSingleFlight.Query query = new TestQuery();
+    final TimestreamSingleFlight.Subscription fast = subscribe(query);
+    final TimestreamSingleFlight.Subscription slow = subscribe(query);
+    release.countDown();
+
+    Assertions.assertEquals(Arrays.asList("1", "2", "3"), readAll(fast));
+    final long unreadBytes = memoryBudget.getUsedBytes();
+    Assertions.assertTrue(unreadBytes > 0);
+
+    final QueryResult firstPage = slow.nextPage();
+    Assertions.assertEquals(
+      unreadBytes - TimestreamMemoryBudget.estimateSize(firstPage),
+      memoryBudget.getUsedBytes());
+    Assertions.assertEquals(Arrays.asList("2", "3"), readAll(slow));
+    Assertions.assertEquals(0, memoryBudget.getUsedBytes());
+    Assertions.assertEquals(1, executions.get());
+    await(() -> closes.get() == 1);
+  }
+
+  @Test
+  @DisplayName("Test the flight stops accepting subscribers once the first page is available.")
+  void testSubscribeAfterFirstPage() throws Exception {
+    release.countDown();
+    final TimestreamSingleFlight.Query query = new TestQuery();
+    final TimestreamSingleFlight.Subscription first = subscribe(query);
+    Assertions.assertNotNull(first.nextPage());
+    Assertions.assertEquals(0, TimestreamSingleFlight.getFlightCount());
+
+    Assertions.assertEquals(Arrays.asList("1", "2", "3"), readAll(subscribe(query)));
+    Assertions.assertEquals(Arrays.asList("2", "3"), readAll(first));
+    Assertions.assertEquals(2, executions.get());
+    Assertions.assertFalse(isCanceled.get());
+  }
+
+  @Test
+  @DisplayName("Test another subscriber executes the query when the executing subscriber is interrupted.")
+  void testExecutingSubscriberInterrupted() throws Exception {
+    final TimestreamSingleFlight.Query query = new TestQuery();
+    final TimestreamSingleFlight.Subscription interrupted = subscribe(query);
+    final TimestreamSingleFlight.Subscription remaining = subscribe(query);
+    final Future<List<String>> executing = executor.submit(() -> readAll(interrupted));
+    awaitExecution();
+    final Future<List<String>> waiting = executor.submit(() -> readAll(remaining));
+
+    executing.cancel(true);
+    await(() -> executions.get() == 2);
+    release.countDown();
+    Assertions.assertEquals(Arrays.asList("1", "2", "3"), waiting.get(10, TimeUnit.SECONDS));
+    Assertions.assertFalse(isCanceled.get());
+    Assertions.assertEquals(0, TimestreamSingleFlight.getFlightCount());
+  }
+
+  @Test
+  @DisplayName("Test every subscriber receives the error of a failed flight.")
+  void testFailure() throws Exception {
+    final SQLException failure = new SQLException("failed", "42000");
+    final TimestreamSingleFlight.Query query = new TestQuery() {
+      @Override
+      public QueryResult execute() throws SQLException {
+        awaitRelease();
+        throw failure;
+      }
+    };
+    final TimestreamSingleFlight.Subscription first = subscribe(query);
+    final TimestreamSingleFlight.Subscription second = subscribe(query);
+
+    release.countDown();
+    for (final TimestreamSingleFlight.Subscription subscription : Arrays.asList(first, second)) {
+      final SQLException exception = Assertions.assertThrows(SQLException.class, subscription::nextPage);
+      Assertions.assertEquals("42000", exception.getSQLState());
+      Assertions.assertSame(failure, exception.getCause());
+      subscription.close();
+    }
+    Assertions.assertFalse(isCanceled.get());
+    Assertions.assertEquals(0, TimestreamSingleFlight.getFlightCount());
+  }
+
+  /**
+   * Subscribes to the flight of the test query with a prefetch depth of one page.
+   *
+   * @param query The query executed if a new flight is started.
+   * @return the {@link TimestreamSingleFlight.Subscription}.
+   * @throws SQLException if the query could not be created.
+   */
+  private TimestreamSingleFlight.Subscription subscribe(final TimestreamSingleFlight.Query query) throws SQLException {
+    return TimestreamSingleFlight.subscribe(
+      KEY,
+      () -> query,
+      () -> new TimestreamPrefetchBuffer<>(TimestreamPrefetchBuffer.PrefetchMode.FIXED, 1, 1),
+      retrievalExecutor,
+      memoryBudget);
+  }
+
+  /**
+   * Waits until the given condition is met.
+   *
+   * @param condition The condition to wait for.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  private static void await(final BooleanSupplier condition) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!condition.getAsBoolean() && (System.nanoTime() < deadline)) {
+      Thread.sleep(10);
+    }
+    Assertions.assertTrue(condition.getAsBoolean());
+  }
+
+  /**
+   * Waits until a subscriber has started executing the query.
+   *
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  private void awaitExecution() throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while ((executions.get() == 0) && (System.nanoTime() < deadline)) {
+      Thread.sleep(10);
+    }
+    Assertions.assertEquals(1, executions.get());
+  }
+
+  /**
+   * Reads all the pages of a subscription and closes it.
+   *
+   * @param subscription The subscription to read.
+   * @return the values of the rows of the pages.
+   * @throws SQLException if the flight failed or the subscription was canceled.
+   */
+  private static List<String> readAll(final TimestreamSingleFlight.Subscription subscription) throws SQLException {
+    final List<String> values = new ArrayList<>();
+    try {
+      QueryResult page;
+      while ((page = subscription.nextPage()) != null) {
+        values.add(page.getRows().get(0).getData().get(0).getScalarValue());
+      }
+    } finally {
+      subscription.close();
+    }
+    return values;
+  }
+
+  /**
+   * Creates a page with a single row.
+   *
+   * @param value     The value of the row.
+   * @param nextToken The token of the next page, {@code null} if this is the last page.
+   * @return the {@link QueryResult}.
+   */
+  private static QueryResult createPage(final String value, final String nextToken) {
+    return new QueryResult()
+      .withRows(new Row().withData(new Datum().withScalarValue(value)))
+      .withNextToken(nextToken);
+  }
+
+  /**
+   * A query of three pages, whose execution blocks until the test releases it.
+   */
+  private class TestQuery implements TimestreamSingleFlight.Query {
+    @Override
+    public QueryResult execute() throws SQLException {
+      executions.incrementAndGet();
+      awaitRelease();
+      return createPage("1", "2");
+    }
+
+    @Override
+    public QueryResult fetch(final String nextToken) {
+      fetchThreads.add(Thread.currentThread().getName());
+      fetches.incrementAndGet();
+      return "2".equals(nextToken) ? createPage("2", "3") : createPage("3", null);
+    }
+
+    @Override
+    public void cancel() {
+      isCanceled.set(true);
+    }
+
+    @Override
+    public void close() {
+      closes.incrementAndGet();
+    }
+
+    /**
+     * Waits until the test releases the query.
+     *
+     * @throws SQLException if the wait is interrupted.
+     */
+    void awaitRelease() throws SQLException {
+      try {
+        if (!release.await(10, TimeUnit.SECONDS)) {
+          throw new SQLException("The query was not released.");
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new SQLException(e);
+      }
+    }
+  }
+}
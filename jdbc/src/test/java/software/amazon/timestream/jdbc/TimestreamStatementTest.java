@@ -15,15 +15,16 @@
 
 package software.amazon.timestream.jdbc;
 
-import com.amazonaws.ClientConfiguration;
+import com.amazonaws.SdkClientException;
 import com.amazonaws.http.timers.client.ClientExecutionTimeoutException;
 import com.amazonaws.services.timestreamquery.AmazonTimestreamQuery;
-import com.amazonaws.services.timestreamquery.AmazonTimestreamQueryClientBuilder;
 import com.amazonaws.services.timestreamquery.model.AmazonTimestreamQueryException;
 import com.amazonaws.services.timestreamquery.model.ColumnInfo;
 import com.amazonaws.services.timestreamquery.model.ConflictException;
+import com.amazonaws.services.timestreamquery.model.Datum;
 import com.amazonaws.services.timestreamquery.model.QueryRequest;
 import com.amazonaws.services.timestreamquery.model.QueryResult;
+import com.amazonaws.services.timestreamquery.model.Row;
 import com.amazonaws.services.timestreamquery.model.Type;
 import com.google.common.collect.ImmutableList;
 import org.junit.jupiter.api.Assertions;
@@ -44,8 +45,16 @@ import java.sql.SQLException;
 import java.sql.SQLTimeoutException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 class TimestreamStatementTest {
 
@@ -60,19 +69,12 @@ class TimestreamStatementTest {
   @Mock
   private AmazonTimestreamQuery mockQueryClient;
   @Mock
-  private AmazonTimestreamQueryClientBuilder mockClientBuilder;
-  @Mock
   private QueryResult mockResult;
 
   @BeforeEach
   void init() throws SQLException {
     MockitoAnnotations.initMocks(this);
-    Mockito.when(mockConnection.getQueryClientBuilder()).thenReturn(mockClientBuilder);
-    Mockito.when(mockClientBuilder.getClientConfiguration()).thenReturn(new ClientConfiguration());
-    Mockito.when(mockClientBuilder.withClientConfiguration(Mockito.any()))
-      .thenReturn(mockClientBuilder);
-    Mockito.when(mockClientBuilder.withClientConfiguration(Mockito.any()).build())
-      .thenReturn(mockQueryClient);
+    Mockito.when(mockConnection.getQueryClient()).thenReturn(mockQueryClient);
     statement = new TimestreamStatement(mockConnection);
   }
 
@@ -123,19 +125,61 @@ class TimestreamStatementTest {
 
   @Test
   void testSetQueryTimeout() throws SQLException {
-    final ArgumentCaptor<ClientConfiguration> captor = ArgumentCaptor.forClass(ClientConfiguration.class);
+    final ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+    Mockito.when(mockQueryClient.query(Mockito.any())).thenReturn(mockResult);
     statement.setQueryTimeout(900);
-
-    Mockito
-      .verify(mockClientBuilder, Mockito.atLeastOnce())
-      .withClientConfiguration(captor.capture());
+    statement.executeQuery(VALID_QUERY);
 
     Assertions.assertEquals(900, statement.getQueryTimeout());
-    Assertions.assertEquals(900000, captor.getValue().getClientExecutionTimeout());
+    Mockito.verify(mockQueryClient).query(captor.capture());
+    Assertions.assertEquals(900000, captor.getValue().getSdkClientExecutionTimeout());
 
     statement.setQueryTimeout(0);
+    statement.executeQuery(VALID_QUERY);
+
     Assertions.assertEquals(0, statement.getQueryTimeout());
-    Assertions.assertEquals(0, captor.getValue().getClientExecutionTimeout());
+    Mockito.verify(mockQueryClient, Mockito.times(2)).query(captor.capture());
+    Assertions.assertEquals(0, captor.getValue().getSdkClientExecutionTimeout());
+  }
+
+  @Test
+  @DisplayName("Test the network timeout of the connection is applied to each request.")
+  void testRequestTimeout() throws SQLException {
+    final ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+    Mockito.when(mockQueryClient.query(Mockito.any())).thenReturn(mockResult);
+    Mockito.when(mockConnection.getRequestTimeout()).thenReturn(5000);
+    statement.executeQuery(VALID_QUERY);
+
+    Mockito.verify(mockQueryClient).query(captor.capture());
+    Assertions.assertEquals(5000, captor.getValue().getSdkRequestTimeout());
+  }
+
+  @Test
+  @DisplayName("Test a failed query is reported as a connection failure if the connection cannot be established.")
+  void testExecuteQueryWithConnectionFailure() {
+    final SQLException connectionFailure =
+      new SQLException("Connection failed", Constants.CONNECTION_FAILURE_SQL_STATE);
+    Mockito.when(mockConnection.getConnectionFailure()).thenReturn(connectionFailure);
+    Mockito.when(mockQueryClient.query(Mockito.any())).thenThrow(AmazonTimestreamQueryException.class);
+    Assertions.assertSame(connectionFailure, Assertions.assertThrows(
+      SQLException.class, () -> statement.executeQuery(VALID_QUERY)));
+
+    Mockito.reset(mockQueryClient);
+    Mockito.when(mockQueryClient.query(Mockito.any())).thenThrow(SdkClientException.class);
+    Assertions.assertSame(connectionFailure, Assertions.assertThrows(
+      SQLException.class, () -> statement.executeQuery(VALID_QUERY)));
+    Mockito.verify(mockConnection, Mockito.times(2)).connectionErrorOccurred(connectionFailure);
+  }
+
+  @Test
+  @DisplayName("Test statements share the query client of the connection.")
+  void testStatementsShareConnectionClient() throws SQLException {
+    final TimestreamStatement otherStatement = new TimestreamStatement(mockConnection);
+    otherStatement.setQueryTimeout(30);
+
+    Assertions.assertSame(mockQueryClient, statement.getClient());
+    Assertions.assertSame(mockQueryClient, otherStatement.getClient());
+    Mockito.verify(mockConnection, Mockito.never()).getQueryClientBuilder();
   }
 
   @Test
@@ -458,6 +502,138 @@ class TimestreamStatementTest {
     Assertions.assertThrows(SQLTimeoutException.class, () -> statement.executeQuery(INVALID_QUERY));
   }
 
+  @Test
+  void testExecuteQueryAsync()
+    throws SQLException, ExecutionException, InterruptedException, TimeoutException {
+    Mockito.when(mockConnection.getQueryClient()).thenReturn(mockQueryClient);
+    Mockito.when(mockQueryClient.query(Mockito.any())).thenReturn(mockResult);
+
+    final TimestreamResultSet resultSet = statement
+      .unwrap(TimestreamStatement.class)
+      .executeQueryAsync(VALID_QUERY)
+      .get(10, TimeUnit.SECONDS);
+    Assertions.assertFalse(resultSet.isClosed());
+    Assertions.assertSame(resultSet, statement.getResultSet());
+  }
+
+  @Test
+  @DisplayName("Test asynchronous queries do not run on the threads retrieving the result set pages.")
+  void testExecuteQueryAsyncOnQueryThread()
+    throws SQLException, ExecutionException, InterruptedException, TimeoutException {
+    final CompletableFuture<Thread> queryThread = new CompletableFuture<>();
+    Mockito.when(mockConnection.getQueryClient()).thenReturn(mockQueryClient);
+    Mockito.when(mockQueryClient.query(Mockito.any())).thenAnswer(invocation -> {
+      queryThread.complete(Thread.currentThread());
+      return mockResult;
+    });
+
+    statement.executeQueryAsync(VALID_QUERY).get(10, TimeUnit.SECONDS);
+    Assertions.assertTrue(queryThread.get().getName().startsWith("timestream-jdbc-query-"));
+  }
+
+  @Test
+  void testExecuteQueryAsyncWithInvalidQuery() throws SQLException {
+    Mockito.when(mockConnection.getQueryClient()).thenReturn(mockQueryClient);
+    Mockito.when(mockQueryClient.query(Mockito.any()))
+      .thenThrow(AmazonTimestreamQueryException.class);
+
+    final CompletableFuture<TimestreamResultSet> future =
+      statement.executeQueryAsync(INVALID_QUERY, Runnable::run);
+    final ExecutionException exception = Assertions.assertThrows(ExecutionException.class, future::get);
+    Assertions.assertTrue(exception.getCause() instanceof SQLException);
+  }
+
+  @Test
+  void testExecuteQueryAsyncCanceledBeforeStart() throws SQLException {
+    final List<Runnable> tasks = new ArrayList<>();
+    final CompletableFuture<TimestreamResultSet> future = statement.executeQueryAsync(VALID_QUERY, tasks::add);
+
+    Assertions.assertTrue(future.cancel(true));
+    tasks.forEach(Runnable::run);
+    Mockito.verify(mockConnection, Mockito.never()).getQueryClient();
+  }
+
+  @Test
+  void testExecuteQueryAsyncOnClosedStatement() throws SQLException {
+    testMethodOnClosedStatement(() -> statement.executeQueryAsync(VALID_QUERY));
+  }
+
+  @RepeatedTest(20)
+  @DisplayName("Test cancelling the future of an executing asynchronous query cancels the query.")
+  void testCancelExecuteQueryAsync()
+    throws SQLException, InterruptedException, TimeoutException {
+    prepareResultSetForQuery();
+    Mockito.when(mockQueryClient.cancelQuery(Mockito.any())).thenReturn(null);
+    Mockito.when(mockResult.getNextToken()).thenReturn("next");
+
+    final CompletableFuture<TimestreamResultSet> future = statement.executeQueryAsync(VALID_QUERY);
+    while (!statement.canCancel.get()) {
+      // Busy wait until the query has started skipping empty pages.
+      Thread.sleep(1);
+    }
+    Assertions.assertTrue(future.cancel(true));
+    // The canceled query fails on the next page, which ends the execution.
+    Mockito.when(mockQueryClient.query(Mockito.any())).thenThrow(ConflictException.class);
+
+    Assertions.assertThrows(CancellationException.class, () -> future.get(10, TimeUnit.SECONDS));
+    Mockito
+      .verify(mockQueryClient, Mockito.atLeastOnce())
+      .cancelQuery(Mockito.any());
+  }
+
+  @Test
+  @DisplayName("Test cancelling an asynchronous query waiting for its first page cancels it once the page arrives.")
+  void testCancelExecuteQueryAsyncBeforeFirstPage()
+    throws SQLException, InterruptedException {
+    prepareResultSetForQuery();
+    final CountDownLatch isQueryStarted = new CountDownLatch(1);
+    final CountDownLatch isFirstPageReady = new CountDownLatch(1);
+    Mockito.when(mockQueryClient.query(Mockito.any())).thenAnswer(invocation -> {
+      isQueryStarted.countDown();
+      isFirstPageReady.await();
+      return mockResult;
+    });
+
+    final CompletableFuture<TimestreamResultSet> future = statement.executeQueryAsync(VALID_QUERY);
+    Assertions.assertTrue(isQueryStarted.await(10, TimeUnit.SECONDS));
+    Assertions.assertTrue(future.cancel(true));
+    Mockito.verify(mockQueryClient, Mockito.never()).cancelQuery(Mockito.any());
+
+    isFirstPageReady.countDown();
+    Mockito
+      .verify(mockQueryClient, Mockito.timeout(10_000))
+      .cancelQuery(Mockito.any());
+    Assertions.assertThrows(CancellationException.class, future::join);
+  }
+
+  @Test
+  @DisplayName("Test cancelling a queued asynchronous query does not cancel the running query of the statement.")
+  void testCancelQueuedExecuteQueryAsync()
+    throws SQLException, InterruptedException, ExecutionException, TimeoutException {
+    prepareResultSetForQuery();
+    final CountDownLatch isQueryStarted = new CountDownLatch(1);
+    final CountDownLatch isFirstPageReady = new CountDownLatch(1);
+    Mockito.when(mockQueryClient.query(Mockito.any())).thenAnswer(invocation -> {
+      isQueryStarted.countDown();
+      isFirstPageReady.await();
+      return mockResult;
+    });
+
+    final CompletableFuture<TimestreamResultSet> future = statement.executeQueryAsync(VALID_QUERY);
+    Assertions.assertTrue(isQueryStarted.await(10, TimeUnit.SECONDS));
+    final CompletableFuture<TimestreamResultSet> queuedFuture = statement.executeQueryAsync(VALID_QUERY);
+    Assertions.assertTrue(queuedFuture.cancel(true));
+
+    isFirstPageReady.countDown();
+    Assertions.assertFalse(future.get(10, TimeUnit.SECONDS).isClosed());
+    Mockito.verify(mockQueryClient, Mockito.never()).cancelQuery(Mockito.any());
+  }
+
+  @Test
+  void testPublishQueryOnClosedStatement() throws SQLException {
+    testMethodOnClosedStatement(() -> statement.publishQuery(VALID_QUERY));
+  }
+
   @Test
   void setQueryTimeoutWithNegativeSecond() {
     final int invalidSec = -1;
@@ -470,6 +646,150 @@ class TimestreamStatementTest {
     statement.setQueryTimeout(validSec);
   }
 
+  @Test
+  @DisplayName("Test identical queries are answered from the result cache once the result is read to the end.")
+  void testExecuteQueryWithResultCache() throws SQLException {
+    final TimestreamResultCache cache = new TimestreamResultCache(1024 * 1024);
+    Mockito.when(mockConnection.getResultCache()).thenReturn(cache);
+    Mockito.when(mockConnection.getResultCacheScope()).thenReturn(QUERY_ID);
+    Mockito.when(mockConnection.getResultCacheTtlNanos()).thenReturn(TimeUnit.MINUTES.toNanos(1));
+    Mockito.when(mockQueryClient.query(Mockito.any()))
+      .thenReturn(createPage("1", "next"), createPage("2", null), createPage("3", null));
+
+    Assertions.assertEquals(Arrays.asList(1, 2), readIntegers(statement.executeQuery(VALID_QUERY)));
+    Assertions.assertEquals(Arrays.asList(1, 2), readIntegers(statement.executeQuery(" " + VALID_QUERY + "\n;")));
+    Mockito.verify(mockQueryClient, Mockito.times(2)).query(Mockito.any());
+    Assertions.assertEquals(1, cache.getHits());
+    Assertions.assertEquals(1, cache.getMisses());
+
+    statement.setFetchSize(1);
+    Assertions.assertEquals(Collections.singletonList(3), readIntegers(statement.executeQuery(VALID_QUERY)));
+    Mockito.verify(mockQueryClient, Mockito.times(3)).query(Mockito.any());
+    Assertions.assertEquals(2, cache.size());
+
+    // A result that is not read to the end is not cached.
+    statement.setFetchSize(2);
+    try (ResultSet resultSet = statement.executeQuery(VALID_QUERY)) {
+      Assertions.assertTrue(resultSet.next());
+    }
+    statement.executeQuery(VALID_QUERY).close();
+    Mockito.verify(mockQueryClient, Mockito.times(5)).query(Mockito.any());
+    Assertions.assertEquals(2, cache.size());
+  }
+
+  @Test
+  @DisplayName("Test a result set truncated by the maximum number of rows is replayed from the result cache.")
+  void testExecuteQueryWithResultCacheAndMaxRows() throws SQLException {
+    final TimestreamResultCache cache = new TimestreamResultCache(1024 * 1024);
+    Mockito.when(mockConnection.getResultCache()).thenReturn(cache);
+    Mockito.when(mockConnection.getResultCacheTtlNanos()).thenReturn(TimeUnit.MINUTES.toNanos(1));
+    Mockito.when(mockQueryClient.query(Mockito.any()))
+      .thenReturn(createPage("1", "next"), createPage("2", "next"), createPage("3", null));
+    statement.setMaxRows(1);
+
+    Assertions.assertEquals(Arrays.asList(1, 2), readIntegers(statement.executeQuery(VALID_QUERY)));
+    Assertions.assertEquals(Arrays.asList(1, 2), readIntegers(statement.executeQuery(VALID_QUERY)));
+    Assertions.assertEquals(1, cache.getHits());
+  }
+
+  @Test
+  @DisplayName("Test an identical query issued while a query is in flight subscribes to it instead of querying again.")
+  void testExecuteQueryWithSingleFlight() throws Exception {
+    enableSingleFlight();
+    final CountDownLatch release = new CountDownLatch(1);
+    Mockito.when(mockQueryClient.query(Mockito.any())).thenAnswer(invocation -> {
+      if (invocation.<QueryRequest>getArgument(0).getNextToken() != null) {
+        return createPage("2", null);
+      }
+      Assertions.assertTrue(release.await(10, TimeUnit.SECONDS));
+      return createPage("1", "next");
+    });
+    final TimestreamStatement otherStatement = new TimestreamStatement(mockConnection);
+
+    final FutureTask<ResultSet> resultSet = new FutureTask<>(() -> statement.executeQuery(VALID_QUERY));
+    new Thread(resultSet).start();
+    Mockito.verify(mockQueryClient, Mockito.timeout(10000)).query(Mockito.any());
+    final FutureTask<ResultSet> otherResultSet =
+      new FutureTask<>(() -> otherStatement.executeQuery(VALID_QUERY + ";"));
+    final Thread otherThread = new Thread(otherResultSet);
+    otherThread.start();
+    while (otherThread.getState() != Thread.State.WAITING) {
+      Thread.sleep(10);
+    }
+
+    release.countDown();
+    Assertions.assertEquals(Arrays.asList(1, 2), readIntegers(resultSet.get(10, TimeUnit.SECONDS)));
+    Assertions.assertEquals(Arrays.asList(1, 2), readIntegers(otherResultSet.get(10, TimeUnit.SECONDS)));
+    Mockito.verify(mockQueryClient, Mockito.times(2)).query(Mockito.any());
+
+    // The flight no longer accepts subscribers once its first page is available, so the next query
+    // is sent to Timestream.
+    Assertions.assertEquals(Arrays.asList(1, 2), readIntegers(statement.executeQuery(VALID_QUERY)));
+    Mockito.verify(mockQueryClient, Mockito.times(4)).query(Mockito.any());
+    Assertions.assertEquals(0, TimestreamSingleFlight.getFlightCount());
+  }
+
+  @Test
+  @DisplayName("Test asynchronous single-flight queries on a retrieval pool of one thread do not deadlock.")
+  void testExecuteQueryAsyncWithSingleFlightOnSingleThreadPool() throws Exception {
+    final TimestreamRetrievalExecutor executor = new TimestreamRetrievalExecutor(1);
+    Mockito.when(mockConnection.getRetrievalExecutor()).thenReturn(executor);
+    enableSingleFlight();
+    Mockito.when(mockQueryClient.query(Mockito.any())).thenAnswer(invocation ->
+      (invocation.<QueryRequest>getArgument(0).getNextToken() == null)
+        ? createPage("1", "next")
+        : createPage("2", null));
+    final TimestreamStatement otherStatement = new TimestreamStatement(mockConnection);
+
+    final CompletableFuture<TimestreamResultSet> future = statement.executeQueryAsync(VALID_QUERY, executor);
+    final CompletableFuture<TimestreamResultSet> otherFuture = otherStatement.executeQueryAsync(VALID_QUERY, executor);
+    Assertions.assertEquals(Arrays.asList(1, 2), readIntegers(future.get(10, TimeUnit.SECONDS)));
+    Assertions.assertEquals(Arrays.asList(1, 2), readIntegers(otherFuture.get(10, TimeUnit.SECONDS)));
+    Assertions.assertEquals(0, TimestreamSingleFlight.getFlightCount());
+  }
+
+  /**
+   * Enables single-flight queries on the mock connection.
+   */
+  private void enableSingleFlight() {
+    Mockito.when(mockConnection.isSingleFlightEnabled()).thenReturn(true);
+    Mockito.when(mockConnection.getResultCacheScope()).thenReturn(QUERY_ID);
+    Mockito.when(mockConnection.getPrefetchMemoryBudget()).thenReturn(new TimestreamMemoryBudget(0, null));
+    Mockito.when(mockConnection.createPrefetchBuffer()).thenAnswer(invocation ->
+      new TimestreamPrefetchBuffer<>(TimestreamPrefetchBuffer.PrefetchMode.FIXED, 1, 1));
+  }
+
+  /**
+   * Creates a page of a result with a single INTEGER column.
+   *
+   * @param value     The value of the single row of the page.
+   * @param nextToken The token of the next page, {@code null} if this is the last page.
+   * @return the {@link QueryResult}.
+   */
+  private static QueryResult createPage(final String value, final String nextToken) {
+    return new QueryResult()
+      .withColumnInfo(new ColumnInfo().withName("value").withType(new Type().withScalarType("INTEGER")))
+      .withRows(new Row().withData(new Datum().withScalarValue(value)))
+      .withNextToken(nextToken);
+  }
+
+  /**
+   * Reads all the rows of a result set with a single INTEGER column and closes it.
+   *
+   * @param resultSet The result set to read.
+   * @return the values of the rows.
+   * @throws SQLException If an error occurs while reading the result set.
+   */
+  private static List<Integer> readIntegers(final ResultSet resultSet) throws SQLException {
+    final List<Integer> values = new ArrayList<>();
+    try (ResultSet rs = resultSet) {
+      while (rs.next()) {
+        values.add(rs.getInt(1));
+      }
+    }
+    return values;
+  }
+
   /**
    * Test calling a method on a closed {@link TimestreamStatement}.
    *
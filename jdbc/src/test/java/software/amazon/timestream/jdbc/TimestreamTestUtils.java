@@ -794,10 +794,49 @@ public class TimestreamTestUtils {
       TimestreamConnectionProperty.MAX_RETRY_COUNT.getConnectionProperty(),
       "-1");
 
+    final Properties invalidPrefetchMode = new Properties();
+    invalidPrefetchMode.put(
+      TimestreamConnectionProperty.PREFETCH_MODE.getConnectionProperty(),
+      "foo");
+
+    final Properties invalidPrefetchDepth = new Properties();
+    invalidPrefetchDepth.put(
+      TimestreamConnectionProperty.PREFETCH_DEPTH.getConnectionProperty(),
+      "0");
+
+    final Properties prefetchDepthAboveMaximum = new Properties();
+    prefetchDepthAboveMaximum.put(
+      TimestreamConnectionProperty.PREFETCH_DEPTH.getConnectionProperty(),
+      "4");
+    prefetchDepthAboveMaximum.put(
+      TimestreamConnectionProperty.MAX_PREFETCH_DEPTH.getConnectionProperty(),
+      "3");
+
+    final Properties invalidRetrievalThreadPoolSize = new Properties();
+    invalidRetrievalThreadPoolSize.put(
+      TimestreamConnectionProperty.RETRIEVAL_THREAD_POOL_SIZE.getConnectionProperty(),
+      "0");
+
+    final Properties invalidMaxPrefetchMemory = new Properties();
+    invalidMaxPrefetchMemory.put(
+      TimestreamConnectionProperty.MAX_PREFETCH_MEMORY.getConnectionProperty(),
+      "-1");
+
+    final Properties invalidMaxGlobalPrefetchMemory = new Properties();
+    invalidMaxGlobalPrefetchMemory.put(
+      TimestreamConnectionProperty.MAX_GLOBAL_PREFETCH_MEMORY.getConnectionProperty(),
+      "-1");
+
     return Stream.of(
       invalidSocketTimeout,
       invalidMaxConnections,
-      invalidMaxRetryCount);
+      invalidMaxRetryCount,
+      invalidPrefetchMode,
+      invalidPrefetchDepth,
+      prefetchDepthAboveMaximum,
+      invalidRetrievalThreadPoolSize,
+      invalidMaxPrefetchMemory,
+      invalidMaxGlobalPrefetchMemory);
   }
 
   /**
@@ -829,11 +868,35 @@ public class TimestreamTestUtils {
       TimestreamConnectionProperty.MAX_RETRY_COUNT.getConnectionProperty(),
       "foo");
 
+    final Properties invalidPrefetchDepth = new Properties();
+    invalidPrefetchDepth.put(
+      TimestreamConnectionProperty.PREFETCH_DEPTH.getConnectionProperty(),
+      "foo");
+
+    final Properties invalidMaxPrefetchDepth = new Properties();
+    invalidMaxPrefetchDepth.put(
+      TimestreamConnectionProperty.MAX_PREFETCH_DEPTH.getConnectionProperty(),
+      "foo");
+
+    final Properties invalidRetrievalThreadPoolSize = new Properties();
+    invalidRetrievalThreadPoolSize.put(
+      TimestreamConnectionProperty.RETRIEVAL_THREAD_POOL_SIZE.getConnectionProperty(),
+      "foo");
+
+    final Properties invalidMaxPrefetchMemory = new Properties();
+    invalidMaxPrefetchMemory.put(
+      TimestreamConnectionProperty.MAX_PREFETCH_MEMORY.getConnectionProperty(),
+      "foo");
+
     return Stream.of(
       invalidSocketTimeout,
       invalidMaxConnections,
       invalidMaxRetryCount,
-      invalidRequestTimeout);
+      invalidRequestTimeout,
+      invalidPrefetchDepth,
+      invalidMaxPrefetchDepth,
+      invalidRetrievalThreadPoolSize,
+      invalidMaxPrefetchMemory);
   }
 
   /**
@@ -0,0 +1,124 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.performancetest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import software.amazon.timestream.jdbc.TimestreamDataSource;
+
+import javax.sql.PooledConnection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Benchmark the latency of the first burst of requests on a new {@link TimestreamDataSource}, for
+ * applications serving requests right after a deployment.
+ * <p>
+ * The retrieval metric reports the latency of each request of the burst, from getting a pooled
+ * connection to reading the result of a query, whose P99 is reported. The execution metric reports
+ * the time spent warming up the connection pool before the burst.
+ */
+public class TimestreamDataSourcePerformanceTest {
+  private static final String QUERY = "SELECT 1";
+  private static final int CONCURRENT_REQUESTS = 32;
+  private static final int RUNS = 5;
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  @DisplayName("Test the cold-start latency of pooled connections with and without warm-up.")
+  void testColdStart(final boolean warmUp) throws Exception {
+    final Metric requestMetric = new Metric();
+    final Metric warmUpMetric = new Metric();
+
+    for (int i = 0; i < RUNS; i++) {
+      final TimestreamDataSource dataSource = new TimestreamDataSource();
+      dataSource.setMaxPoolSize(CONCURRENT_REQUESTS);
+      dataSource.setMaxIdle(CONCURRENT_REQUESTS);
+
+      final long startWarmUpTime = System.nanoTime();
+      if (warmUp) {
+        dataSource.setWarmUpSize(CONCURRENT_REQUESTS);
+        dataSource.warmUp();
+      }
+      warmUpMetric.trackExecutionTime(System.nanoTime() - startWarmUpTime);
+
+      runBurst(dataSource, requestMetric);
+    }
+
+    requestMetric.setNumberOfRows(1);
+    TimestreamPerformanceTest.handleMetrics(
+      "testColdStart" + (warmUp ? "WithWarmUp" : "WithoutWarmUp"),
+      new AbstractMap.SimpleEntry<>(requestMetric, warmUpMetric));
+  }
+
+  /**
+   * Sends a burst of concurrent requests, each getting a pooled connection and executing a query.
+   *
+   * @param dataSource    The data source of the pooled connections.
+   * @param requestMetric The metric tracking the latency of each request.
+   * @throws Exception If a request failed.
+   */
+  private static void runBurst(final TimestreamDataSource dataSource, final Metric requestMetric)
+    throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<Long>> latencies = new ArrayList<>();
+    try {
+      for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+        latencies.add(executor.submit(() -> {
+          start.await();
+          return executeRequest(dataSource);
+        }));
+      }
+      start.countDown();
+
+      for (final Future<Long> latency : latencies) {
+        requestMetric.trackExecutionTime(latency.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Gets a pooled connection, executes a query on it and returns the connection to the pool.
+   *
+   * @param dataSource The data source of the pooled connection.
+   * @return the latency of the request in nanoseconds.
+   * @throws SQLException If an error occurred while executing the query.
+   */
+  private static long executeRequest(final TimestreamDataSource dataSource) throws SQLException {
+    final long startTime = System.nanoTime();
+    final PooledConnection pooledConnection = dataSource.getPooledConnection();
+    try (Statement statement = pooledConnection.getConnection().createStatement();
+      ResultSet rs = statement.executeQuery(QUERY)) {
+      while (rs.next()) {
+        rs.getObject(1);
+      }
+      return System.nanoTime() - startTime;
+    } finally {
+      pooledConnection.close();
+    }
+  }
+}
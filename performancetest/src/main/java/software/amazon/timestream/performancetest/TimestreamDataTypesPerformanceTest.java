@@ -190,6 +190,17 @@ public class TimestreamDataTypesPerformanceTest {
     TimestreamPerformanceTest.runSDK(testName + "AgainstSDK", String.format(sql, PERFORMANCE_TEST_TABLE), RUNS);
   }
 
+  @ParameterizedTest
+  @MethodSource("software.amazon.timestream.performancetest.TimestreamPerformanceTestUtils#conversionArguments")
+  @DisplayName("Test retrieving scalar data converted to another type from Timestream.")
+  void testScalarConversion(
+    final String testName,
+    final String sql,
+    final TimestreamRetrievalMethod retrievalMethod) throws SQLException {
+    TimestreamPerformanceTest
+      .runTest(testName, String.format(sql, PERFORMANCE_TEST_TABLE), retrievalMethod, RUNS);
+  }
+
   @ParameterizedTest
   @MethodSource("software.amazon.timestream.performancetest.TimestreamPerformanceTestUtils#dateTimeArguments")
   @DisplayName("Test retrieving DateTime data from Timestream.")
@@ -0,0 +1,186 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.performancetest;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.AbstractMap;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark the heap allocations and the retrieval time of the numeric getters for every supported
+ * source type.
+ * <p>
+ * The bytes allocated by the getters are measured on the current thread, excluding the allocations
+ * made by {@link ResultSet#next()} to retrieve and iterate the pages, and reported per getter call.
+ */
+public class TimestreamNumericGetterPerformanceTest {
+  private static final String PERFORMANCE_TEST_TABLE = "devops.host_metrics";
+  private static final int RUNS = 12;
+  private static final int CALIBRATION_ITERATIONS = 10000;
+  private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = getThreadMXBean();
+
+  /**
+   * Queries and getters for each supported source and target type pair.
+   *
+   * @return a stream of arguments.
+   */
+  static Stream<Arguments> numericGetterArguments() {
+    return Stream.of(
+      Arguments.of("testGetIntFromInteger", "SELECT CAST(measure_value::double AS INTEGER) FROM %s",
+        (TimestreamRetrievalMethod) ResultSet::getInt),
+      Arguments.of("testGetIntFromBigInt", "SELECT CAST(YEAR(time) AS BIGINT) FROM %s",
+        (TimestreamRetrievalMethod) ResultSet::getInt),
+      Arguments.of("testGetIntFromDouble", "SELECT measure_value::double FROM %s",
+        (TimestreamRetrievalMethod) ResultSet::getInt),
+      Arguments.of("testGetIntFromBoolean", "SELECT measure_value::double > 50 FROM %s",
+        (TimestreamRetrievalMethod) ResultSet::getInt),
+      Arguments.of("testGetIntFromVarchar", "SELECT CAST(YEAR(time) AS VARCHAR) FROM %s",
+        (TimestreamRetrievalMethod) ResultSet::getInt),
+      Arguments.of("testGetLongFromBigInt", "SELECT CAST(YEAR(time) AS BIGINT) FROM %s",
+        (TimestreamRetrievalMethod) ResultSet::getLong),
+      Arguments.of("testGetLongFromInteger", "SELECT CAST(measure_value::double AS INTEGER) FROM %s",
+        (TimestreamRetrievalMethod) ResultSet::getLong),
+      Arguments.of("testGetLongFromDouble", "SELECT measure_value::double FROM %s",
+        (TimestreamRetrievalMethod) ResultSet::getLong),
+      Arguments.of("testGetDoubleFromDouble", "SELECT measure_value::double FROM %s",
+        (TimestreamRetrievalMethod) ResultSet::getDouble),
+      Arguments.of("testGetDoubleFromBigInt", "SELECT CAST(YEAR(time) AS BIGINT) FROM %s",
+        (TimestreamRetrievalMethod) ResultSet::getDouble),
+      Arguments.of("testGetDoubleFromVarchar", "SELECT CAST(measure_value::double AS VARCHAR) FROM %s",
+        (TimestreamRetrievalMethod) ResultSet::getDouble)
+    );
+  }
+
+  @ParameterizedTest
+  @MethodSource("numericGetterArguments")
+  @DisplayName("Test the allocations of the numeric getters.")
+  void testNumericGetterAllocations(
+    final String testName,
+    final String sql,
+    final TimestreamRetrievalMethod retrievalMethod) throws SQLException {
+    Assumptions.assumeTrue(THREAD_MX_BEAN != null, "Thread allocation measurement is not supported.");
+    runAllocationTest(testName, String.format(sql, PERFORMANCE_TEST_TABLE), retrievalMethod, RUNS);
+  }
+
+  /**
+   * Execute a query, call the given getter on every cell and report the average number of bytes
+   * allocated per call.
+   *
+   * @param testName        Name of the performance test.
+   * @param query           The SQL query to execute.
+   * @param retrievalMethod The lambda specifying which method to call on the {@link ResultSet} to
+   *                        get the data.
+   * @param runs            The number of iterations to run.
+   * @throws SQLException If an error occurred while executing queries.
+   */
+  private static void runAllocationTest(
+    final String testName,
+    final String query,
+    final TimestreamRetrievalMethod retrievalMethod,
+    final int runs) throws SQLException {
+    final long threadId = Thread.currentThread().getId();
+    final long measurementOverhead = calibrate(threadId);
+
+    try (Connection connection = DriverManager.getConnection(Constants.URL_PREFIX, new Properties());
+      Statement statement = connection.createStatement()) {
+      final Metric retrievalMetric = new Metric();
+      final Metric executionMetric = new Metric();
+      long allocatedBytes = 0;
+      long calls = 0;
+
+      for (int i = 0; i < runs; i++) {
+        final long startExecuteTime = System.nanoTime();
+        try (ResultSet rs = statement.executeQuery(query)) {
+          executionMetric.trackExecutionTime(System.nanoTime() - startExecuteTime);
+          final int columns = rs.getMetaData().getColumnCount();
+          final long startRetrievalTime = System.nanoTime();
+          while (rs.next()) {
+            final long before = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+            for (int j = 1; j <= columns; j++) {
+              retrievalMethod.get(rs, j);
+            }
+            final long after = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+
+            // The first run warms up the getters and is not measured.
+            if (i != 0) {
+              allocatedBytes += Math.max(0, after - before - measurementOverhead);
+              calls += columns;
+            }
+          }
+          retrievalMetric.trackExecutionTime(System.nanoTime() - startRetrievalTime);
+          if (i == 0) {
+            retrievalMetric.setNumberOfRows(rs.getRow());
+          }
+        }
+      }
+
+      System.out.printf("%s: %.2f bytes allocated per call over %d calls.%n",
+        testName,
+        (calls == 0) ? 0.0 : ((double) allocatedBytes / calls),
+        calls);
+      TimestreamPerformanceTest
+        .handleMetrics(testName, new AbstractMap.SimpleEntry<>(retrievalMetric, executionMetric));
+    }
+  }
+
+  /**
+   * Measures the bytes allocated by a pair of allocation measurements, so it can be subtracted
+   * from the measured getter allocations.
+   *
+   * @param threadId The ID of the current thread.
+   * @return the minimum number of bytes allocated by a measurement.
+   */
+  private static long calibrate(final long threadId) {
+    long overhead = Long.MAX_VALUE;
+    for (int i = 0; i < CALIBRATION_ITERATIONS; i++) {
+      final long before = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+      final long after = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+      overhead = Math.min(overhead, after - before);
+    }
+    return overhead;
+  }
+
+  /**
+   * Gets the thread MXBean measuring the bytes allocated by a thread.
+   *
+   * @return the {@link com.sun.management.ThreadMXBean}, or {@code null} if the JVM does not
+   * support measuring thread allocations.
+   */
+  private static com.sun.management.ThreadMXBean getThreadMXBean() {
+    final java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+      return null;
+    }
+
+    final com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+    if (!allocationMXBean.isThreadAllocatedMemorySupported()) {
+      return null;
+    }
+    allocationMXBean.setThreadAllocatedMemoryEnabled(true);
+    return allocationMXBean;
+  }
+}
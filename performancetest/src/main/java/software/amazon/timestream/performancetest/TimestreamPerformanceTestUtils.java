@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -63,6 +64,29 @@ class TimestreamPerformanceTestUtils {
     );
   }
 
+  /**
+   * Queries and getters converting data through the generic conversions for {@link
+   * TimestreamDataTypesPerformanceTest#testScalarConversion(String, String, TimestreamRetrievalMethod)}
+   *
+   * @return a stream of arguments.
+   */
+  static Stream<Arguments> conversionArguments() {
+    return Stream.of(
+      Arguments.of("testGetFloatFromDouble", "SELECT measure_value::double FROM %s",
+        (TimestreamRetrievalMethod) ResultSet::getFloat),
+      Arguments.of("testGetShortFromInteger", "SELECT CAST(measure_value::double AS INTEGER) FROM %s",
+        (TimestreamRetrievalMethod) ResultSet::getShort),
+      Arguments.of("testGetBigDecimalFromDouble", "SELECT measure_value::double FROM %s",
+        (TimestreamRetrievalMethod) ResultSet::getBigDecimal),
+      Arguments.of("testGetStringFromBigInt", "SELECT YEAR(time) FROM %s",
+        (TimestreamRetrievalMethod) ResultSet::getString),
+      Arguments.of("testGetBooleanFromVarchar", "SELECT CAST(measure_value::double > 50 AS VARCHAR) FROM %s",
+        (TimestreamRetrievalMethod) ResultSet::getBoolean),
+      Arguments.of("testGetObjectAsLongFromInteger", "SELECT CAST(measure_value::double AS INTEGER) FROM %s",
+        (TimestreamRetrievalMethod) (resultSet, index) -> resultSet.getObject(index, Long.class))
+    );
+  }
+
   /**
    * Write the performance test metrics to a CSV file.
    *
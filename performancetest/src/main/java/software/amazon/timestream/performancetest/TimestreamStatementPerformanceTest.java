@@ -0,0 +1,85 @@
+/*
+ * Copyright <2020> Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package software.amazon.timestream.performancetest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.AbstractMap;
+import java.util.Properties;
+
+/**
+ * Benchmark the cost of creating a statement and the latency of its first query, for applications
+ * creating a statement per query on a long-lived connection.
+ * <p>
+ * The retrieval metric reports the time to create the statement and set its query timeout, and the
+ * execution metric reports that time plus the time to execute the first query.
+ */
+public class TimestreamStatementPerformanceTest {
+  private static final String QUERY = "SELECT 1";
+  private static final int RUNS = 102;
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 30})
+  @DisplayName("Test the statement creation and first query latency.")
+  void testStatementCreationAndFirstQuery(final int queryTimeout) throws SQLException {
+    runStatementTest("testStatementCreationAndFirstQueryWithTimeout" + queryTimeout, queryTimeout, RUNS);
+  }
+
+  /**
+   * Create a new statement for each run on a single connection and execute a query on it.
+   *
+   * @param testName     Name of the performance test.
+   * @param queryTimeout The query timeout in seconds to set on each statement.
+   * @param runs         The number of iterations to run.
+   * @throws SQLException If an error occurred while executing queries.
+   */
+  private static void runStatementTest(
+    final String testName,
+    final int queryTimeout,
+    final int runs) throws SQLException {
+    try (Connection connection = DriverManager.getConnection(Constants.URL_PREFIX, new Properties())) {
+      final Metric creationMetric = new Metric();
+      final Metric firstQueryMetric = new Metric();
+
+      for (int i = 0; i < runs; i++) {
+        final long startCreationTime = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+          statement.setQueryTimeout(queryTimeout);
+          final long creationTime = System.nanoTime() - startCreationTime;
+          try (ResultSet rs = statement.executeQuery(QUERY)) {
+            firstQueryMetric.trackExecutionTime(System.nanoTime() - startCreationTime);
+            creationMetric.trackExecutionTime(creationTime);
+            while (rs.next()) {
+              rs.getObject(1);
+            }
+            if (i == 0) {
+              creationMetric.setNumberOfRows(rs.getRow());
+            }
+          }
+        }
+      }
+
+      TimestreamPerformanceTest
+        .handleMetrics(testName, new AbstractMap.SimpleEntry<>(creationMetric, firstQueryMetric));
+    }
+  }
+}